@@ -5,18 +5,39 @@ import dorkbox.systemTray.Separator;
 import dorkbox.systemTray.SystemTray;
 import javafx.application.Application;
 import javafx.application.Platform;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import pl.magzik.dotoi.manager.ApplicationLauncher;
+import pl.magzik.dotoi.manager.ApplicationMetadataCache;
+import pl.magzik.dotoi.manager.ExecutorManager;
 import pl.magzik.dotoi.manager.TranslationManager;
+import pl.magzik.dotoi.base.PathResolver;
 import pl.magzik.dotoi.manager.WindowManager;
-import pl.magzik.dotoi.repository.TaskRepository;
+import pl.magzik.dotoi.io.TaskFormat;
+import pl.magzik.dotoi.manager.data.DataEvent;
+import pl.magzik.dotoi.manager.data.DataManager;
+import pl.magzik.dotoi.manager.data.Subscription;
+import pl.magzik.dotoi.repository.ContentStore;
+import pl.magzik.dotoi.repository.FileTaskRepository;
+import pl.magzik.dotoi.repository.ITaskRepository;
+import pl.magzik.dotoi.repository.SqlTaskRepository;
+import pl.magzik.dotoi.repository.WriteBehindTaskRepository;
 import pl.magzik.dotoi.service.TaskSchedulerService;
 import pl.magzik.dotoi.service.TaskService;
+import pl.magzik.dotoi.service.TaskTransferService;
+import pl.magzik.dotoi.service.CalendarExportService;
 import pl.magzik.dotoi.view.TaskListWindow;
 import pl.magzik.dotoi.view.TaskWindow;
 
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
 import java.net.URL;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Locale;
 
 /**
@@ -35,8 +56,21 @@ public class DotoiApplication extends Application {
 
     private static final Logger log = LoggerFactory.getLogger(DotoiApplication.class);
 
+    private static final String CONTENT_FILE = "content.dat",
+                                DATABASE_FILE = "tasks";
+
+    private static final String REPOSITORY_PROPERTY = "dotoi.repository"; ///< Set to "sql" to use the embedded database.
+    private static final String CALENDAR_FILE = "dotoi.ics";
+
+    private final ContentStore contentStore;
+    private final ITaskRepository repository;
+
     private final TaskService taskService;
     private final TaskSchedulerService taskSchedulerService;
+    private final TaskTransferService taskTransferService;
+    private final CalendarExportService calendarExportService;
+
+    private final List<Subscription> subscriptions; ///< Services are subscribed once all of them are created.
 
     public static void main(String[] args) {
         log.info("Initializing the application...");
@@ -46,7 +80,22 @@ public class DotoiApplication extends Application {
 
     public DotoiApplication() {
         log.info("Creating the task model...");
-        this.taskService = new TaskService(new TaskRepository());
+        Path dataDirectory = PathResolver.getInstance().getDataDirectory();
+        this.contentStore = new ContentStore(dataDirectory.resolve(CONTENT_FILE));
+        this.repository = "sql".equalsIgnoreCase(System.getProperty(REPOSITORY_PROPERTY))
+            ? new SqlTaskRepository(dataDirectory.resolve(DATABASE_FILE), contentStore)
+            : new FileTaskRepository(dataDirectory, contentStore);
+        ITaskRepository writeBehind = new WriteBehindTaskRepository(repository);
+        this.taskService = new TaskService(writeBehind);
+        this.taskTransferService = new TaskTransferService(writeBehind);
+        this.calendarExportService = new CalendarExportService(
+            writeBehind, dataDirectory.resolve(CALENDAR_FILE), Integer.getInteger(CalendarExportService.PORT_PROPERTY, 0)
+        );
+        this.subscriptions = List.of(
+            DataManager.getInstance().subscribe(taskService),
+            DataManager.getInstance().subscribe(taskTransferService),
+            DataManager.getInstance().subscribe(calendarExportService)
+        );
         this.taskSchedulerService = new TaskSchedulerService();
     }
 
@@ -63,7 +112,7 @@ public class DotoiApplication extends Application {
         * Main reason of separated thread usage is: macOS
         * TODO: Maybe moved to separated class.
         * */
-        new Thread(() -> {
+        ExecutorManager.getInstance().runAsync(() -> {
             SystemTray tray = SystemTray.get();
             URL iconUrl = getClass().getResource("/images/dotoi-icon.png");
             if (iconUrl != null) tray.setImage(iconUrl);
@@ -73,11 +122,27 @@ public class DotoiApplication extends Application {
                 TranslationManager.getInstance().translate("tray.task-list"),
                 evt -> WindowManager.getInstance().openWindow("general.title", new TaskListWindow())
             ));
+            tray.getMenu().add(new MenuItem(
+                TranslationManager.getInstance().translate("tray.import"),
+                evt -> Platform.runLater(() -> chooseTaskFile(false))
+            ));
+            tray.getMenu().add(new MenuItem(
+                TranslationManager.getInstance().translate("tray.export"),
+                evt -> Platform.runLater(() -> chooseTaskFile(true))
+            ));
             tray.getMenu().add(new MenuItem(
                 TranslationManager.getInstance().translate("tray.exit"),
                 evt -> {
                     WindowManager.getInstance().closeAllWindows();
                     taskSchedulerService.shutdown();
+                    DataManager.getInstance().shutdown(); ///< Dispatches queued mutations before they are flushed.
+                    ExecutorManager.getInstance().shutdown(); ///< Lets running imports commit their batches.
+                    subscriptions.forEach(Subscription::close);
+                    taskService.flush();
+                    closeStorage(); ///< After the last flush, nothing writes to the files anymore.
+                    closeCalendarExport();
+                    ApplicationLauncher.getInstance().shutdown();
+                    ApplicationMetadataCache.getInstance().save();
                     tray.shutdown();
                     System.exit(0);
                 }
@@ -95,6 +160,51 @@ public class DotoiApplication extends Application {
                     evt -> WindowManager.getInstance().openWindow("tray.task", new TaskWindow())
             ));
             log.debug("System tray has been successfully initialized.");
-        }).start();
+        });
+    }
+
+    /**
+     * Lets the user choose a file to import tasks from or export them to, and requests the transfer.
+     * Must be called on the JavaFX thread.
+     *
+     * @param export Whether tasks should be exported, otherwise they are imported.
+     */
+    private void chooseTaskFile(boolean export) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle(TranslationManager.getInstance().translate("tray.transfer.chooser.title"));
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter(
+            TranslationManager.getInstance().translate("tray.transfer.chooser.filter"),
+            Arrays.stream(TaskFormat.values()).map(f -> "*" + f.getExtension()).toList()
+        ));
+
+        File file = export ? chooser.showSaveDialog(null) : chooser.showOpenDialog(null);
+        if (file == null) return;
+        DataManager.getInstance().notifySubscribersAsync(export
+            ? new DataEvent.RequestExport(file.toPath())
+            : new DataEvent.RequestImport(file.toPath()));
+    }
+
+    /**
+     * Closes the task repository, then the content store its records reference.
+     */
+    private void closeStorage() {
+        try {
+            if (repository instanceof Closeable closeable) closeable.close();
+        } catch (IOException | RuntimeException e) {
+            log.error("Couldn't close the task repository: {}", e.getMessage(), e);
+        }
+        try {
+            contentStore.close();
+        } catch (IOException e) {
+            log.error("Couldn't close the content store: {}", e.getMessage(), e);
+        }
+    }
+
+    private void closeCalendarExport() {
+        try {
+            calendarExportService.close();
+        } catch (IOException e) {
+            log.error("Couldn't close the calendar feed: {}", e.getMessage(), e);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,45 @@
+package pl.magzik.dotoi.base;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Operating systems supported by the application.
+ * <p>
+ * The current operating system is detected once, from the {@code os.name} system property,
+ * and is available as {@link #CURRENT}.
+ *
+ * @since 0.1
+ * @author Maksymilian Strzelczak
+ * @version 1.0
+ */
+public enum OperatingSystem {
+    WINDOWS(List.of("*.exe", "*.bat")),
+    MAC(List.of("*.app")),
+    LINUX(List.of("*")),
+    OTHER(List.of("*"));
+
+    public static final OperatingSystem CURRENT = detect(System.getProperty("os.name", ""));
+
+    private final List<String> executablePatterns;
+
+    OperatingSystem(@NotNull List<String> executablePatterns) {
+        this.executablePatterns = executablePatterns;
+    }
+
+    /**
+     * @return the file name patterns of executable files, e.g. for a file chooser filter.
+     */
+    public @NotNull List<String> getExecutablePatterns() {
+        return executablePatterns;
+    }
+
+    private static @NotNull OperatingSystem detect(@NotNull String name) {
+        String os = name.toLowerCase();
+        if (os.contains("win")) return WINDOWS;
+        if (os.contains("mac")) return MAC;
+        if (os.contains("nix") || os.contains("nux")) return LINUX;
+        return OTHER;
+    }
+}
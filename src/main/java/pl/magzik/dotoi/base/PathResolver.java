@@ -3,6 +3,7 @@ package pl.magzik.dotoi.base;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
+import java.io.Serial;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -41,11 +42,13 @@ public class PathResolver {
     private static final String APPLICATION_NAME = "Dotoi";
 
     private static final String LOG_DIRECTORY = "log";
+    private static final String DATA_DIRECTORY = "data";
     private static final String WIN_PATH = "AppData/Roaming/" + APPLICATION_NAME,
                                 MAC_PATH = "Library/Application Support/" + APPLICATION_NAME,
                                 LINUX_PATH = ".config/" + APPLICATION_NAME;
 
     private final Path logDirectory;
+    private final Path dataDirectory;
 
     /**
      * Private constructor that initializes the application directories.
@@ -61,6 +64,7 @@ public class PathResolver {
         Path applicationPath = getApplicationPath(userHome, operatingSystem);
 
         this.logDirectory = createDirectories(applicationPath, LOG_DIRECTORY);
+        this.dataDirectory = createDirectories(applicationPath, DATA_DIRECTORY);
     }
 
     /**
@@ -72,6 +76,15 @@ public class PathResolver {
         return logDirectory;
     }
 
+    /**
+     * Returns the path to the data directory.
+     *
+     * @return the path to the data directory
+     */
+    public Path getDataDirectory() {
+        return dataDirectory;
+    }
+
     /**
      * Determines the application path based on the user's home directory and operating system.
      *
@@ -109,6 +122,9 @@ public class PathResolver {
      * @see Files#createDirectories(Path, FileAttribute[])
      */
     public static class DirectoryCreationException extends RuntimeException {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
         public DirectoryCreationException(String message, Throwable cause) {
             super(message, cause);
         }
@@ -1,5 +1,6 @@
 package pl.magzik.dotoi.controller;
 
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
@@ -8,8 +9,10 @@ import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import pl.magzik.dotoi.controller.base.Controller;
+import pl.magzik.dotoi.manager.ApplicationLauncher;
 import pl.magzik.dotoi.manager.TranslationManager;
 import pl.magzik.dotoi.manager.data.DataEvent;
+import pl.magzik.dotoi.manager.data.DataManager;
 import pl.magzik.dotoi.model.Task;
 import pl.magzik.dotoi.util.ApplicationUtils;
 import pl.magzik.dotoi.util.MarkdownUtils;
@@ -17,8 +20,10 @@ import pl.magzik.dotoi.view.list.ApplicationListCell;
 import pl.magzik.dotoi.viewmodel.TaskViewModel;
 
 import java.io.File;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
 
 public class TaskController extends Controller {
 
@@ -26,6 +31,8 @@ public class TaskController extends Controller {
 
     private TaskViewModel task;
 
+    private UUID requestedTaskId;
+
     public TaskController() {
         this.task = new TaskViewModel(new Task.Builder(
                 TranslationManager.getInstance().translate("task-editor.new-task.placeholder"),
@@ -36,9 +43,24 @@ public class TaskController extends Controller {
         ).build());
     }
 
+    /**
+     * Requests the full task with the given id, which is attached to this instance once it has been fetched.
+     *
+     * @param id The id of the task to edit.
+     */
+    public void loadTask(@NotNull UUID id) {
+        log.debug("Loading task {}.", id);
+        this.requestedTaskId = id;
+        DataManager.getInstance().notifySubscribersAsync(new DataEvent.RequestTask(id));
+    }
+
     public void setTask(Task task) {
-        log.debug("Task {} has been attached to this instance.", task);
-        this.task = new TaskViewModel(task);
+        setViewModel(new TaskViewModel(task));
+    }
+
+    private void setViewModel(@NotNull TaskViewModel task) {
+        log.debug("Task {} has been attached to this instance.", task.getId());
+        this.task = task;
         initializeControls();
     }
 
@@ -160,8 +182,23 @@ public class TaskController extends Controller {
         * */
     }
 
+    /**
+     * Launches all linked applications in parallel.
+     */
+    @FXML
+    public void handleLaunchApplications() {
+        List<Path> applications = applicationsListView.getItems().stream().map(File::toPath).toList();
+        ApplicationLauncher.getInstance()
+                           .launchAll(applications)
+                           .thenAccept(count -> log.debug("Launched {} of {} applications.", count, applications.size()));
+    }
+
     @Override
     public void onDataUpdate(@NotNull DataEvent event) {
-
+        if (event instanceof DataEvent.TaskFetched(Task fetched) && fetched.getId().equals(requestedTaskId)) {
+            requestedTaskId = null;
+            TaskViewModel viewModel = new TaskViewModel(fetched); ///< Loads the content off the JavaFX thread.
+            Platform.runLater(() -> setViewModel(viewModel));
+        }
     }
 }
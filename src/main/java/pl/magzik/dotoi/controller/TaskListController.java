@@ -4,63 +4,273 @@ import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
+import javafx.scene.control.skin.VirtualFlow;
+import javafx.scene.input.KeyCode;
+import javafx.util.StringConverter;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import pl.magzik.dotoi.controller.base.Controller;
+import pl.magzik.dotoi.manager.ExecutorManager;
+import pl.magzik.dotoi.manager.TranslationManager;
 import pl.magzik.dotoi.manager.WindowManager;
 import pl.magzik.dotoi.manager.data.DataEvent;
 import pl.magzik.dotoi.manager.data.DataManager;
 import pl.magzik.dotoi.manager.data.IDataSubscriber;
 import pl.magzik.dotoi.model.Task;
+import pl.magzik.dotoi.model.TaskSummary;
+import pl.magzik.dotoi.repository.TaskCursor;
 import pl.magzik.dotoi.view.TaskWindow;
 import pl.magzik.dotoi.view.table.ButtonTableCell;
 import pl.magzik.dotoi.view.table.CheckBoxTableCell;
+import pl.magzik.dotoi.view.table.SummaryTableCell;
+import pl.magzik.dotoi.view.table.TaskListView;
+import pl.magzik.dotoi.view.table.TaskSort;
 import pl.magzik.dotoi.view.table.TaskTableCell;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 public class TaskListController extends Controller {
 
     private static final Logger log = LoggerFactory.getLogger(TaskListController.class);
 
+    private static final int VISIBLE_ROWS = 10; ///< Rows fitting in the (non-resizable) task list window.
+    private static final int PREFETCH_MARGIN = 20;
+    private static final int PAGE_SIZE = 1024; ///< Page size used when all tasks have to be loaded for sorting or filtering.
+    private static final String SAMPLE_TASK_PROPERTY = "dotoi.dev.sampleTask"; ///< Set to "true" to add a test task on open.
+
+    @FXML
+    private TableView<TaskSummary> taskTable;
+
     @FXML
-    private TableView<Task> taskTable;
+    private TableColumn<TaskSummary, TaskSummary> completeColumn;
 
     @FXML
-    private TableColumn<Task, Boolean> completeColumn;
+    private TableColumn<TaskSummary, TaskSummary> taskColumn;
 
     @FXML
-    private TableColumn<Task, String> taskColumn;
+    private TableColumn<TaskSummary, TaskSummary> editButtonColumn;
 
     @FXML
-    private TableColumn<Task, String> editButtonColumn;
+    private TableColumn<TaskSummary, TaskSummary> deleteButtonColumn;
 
     @FXML
-    private TableColumn<Task, String> deleteButtonColumn;
+    private ComboBox<TaskSort> sortBox;
+
+    @FXML
+    private TextField filterField;
+
+    private final List<TaskSummary> loaded = new ArrayList<>(); ///< Loaded summaries, in their natural order.
+    private final TaskListView view = new TaskListView();
+
+    private TaskSort sort = TaskSort.CREATED;
+    private String filter = "";
+    private long generation; ///< Incremented by every recomputation, so only the latest one is displayed.
+    private boolean refreshing; ///< Whether a recomputation is in progress, working on a copy of loaded summaries.
+
+    private TaskCursor nextCursor;
+
+    private boolean loading;
 
     public TaskListController() {
         /// TODO: TEMPORARY FOR DEVELOPMENT PURPOSES
+        if (!Boolean.getBoolean(SAMPLE_TASK_PROPERTY)) return; ///< Tasks are durable now, so it must not end up in user data.
         DataManager.getInstance().notifySubscribers(new DataEvent.TaskAdded(new Task.Builder("Test", "This is test taskThis is test taskThis is test taskThis is test taskThis is test task", "This is content of test task", List.of(), LocalDateTime.now()).build()));
     }
 
     @FXML
     private void initialize() {
-        DataManager.getInstance().subscribe(this);
-        DataManager.getInstance().notifySubscribers(new DataEvent.RequestTasks());
+        taskTable.setItems(view);
+        taskTable.skinProperty().addListener((obs, oldSkin, newSkin) -> attachPrefetchListener());
+        requestPage(null, VISIBLE_ROWS + PREFETCH_MARGIN);
 
+        taskTable.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+        taskTable.setOnKeyPressed(e -> {
+            if (e.getCode() == KeyCode.DELETE) deleteSelected();
+        });
+
+        for (TableColumn<TaskSummary, TaskSummary> column : List.of(completeColumn, taskColumn, editButtonColumn, deleteButtonColumn)) {
+            column.setCellValueFactory(SummaryTableCell.VALUE_FACTORY);
+        }
         completeColumn.setCellFactory(param -> new CheckBoxTableCell());
         taskColumn.setCellFactory(param -> new TaskTableCell());
         editButtonColumn.setCellFactory(param -> new ButtonTableCell("fas-edit", (e, t) -> {
             log.debug("Open a new window with this task {}.", t);
-            WindowManager.getInstance().openWindow("general.title", new TaskWindow(t));
+            WindowManager.getInstance().openWindow("general.title", new TaskWindow(t.getId()));
         }));
         deleteButtonColumn.setCellFactory(param -> new ButtonTableCell("fas-minus", (e, t) -> {
             ///< TODO: Show confirmation alert.
             log.debug("Received delete command on task {}. Emitting delete signal.", t);
-            DataManager.getInstance().notifySubscribers(new DataEvent.TaskDeleted(t));
+            DataManager.getInstance().notifySubscribersAsync(new DataEvent.TaskDeleted(t.getId()));
         }));
+
+        sortBox.getItems().setAll(TaskSort.values());
+        sortBox.setConverter(new StringConverter<>() {
+            @Override
+            public String toString(TaskSort sort) {
+                return sort == null ? "" : TranslationManager.getInstance().translate(sort.getTranslationKey());
+            }
+
+            @Override
+            public TaskSort fromString(String string) {
+                return null;
+            }
+        });
+        sortBox.setValue(sort);
+        sortBox.valueProperty().addListener((obs, oldSort, newSort) -> {
+            if (newSort == null) return;
+            sort = newSort;
+            reorder();
+        });
+        filterField.textProperty().addListener((obs, oldText, newText) -> {
+            filter = newText.strip().toLowerCase();
+            reorder();
+        });
+    }
+
+    /**
+     * @return true if tasks are displayed in the order they are paged in, so they can be loaded lazily.
+     */
+    private boolean isNaturalOrder() {
+        return sort == TaskSort.CREATED && filter.isEmpty();
+    }
+
+    /**
+     * Applies the changed order or filter. Any other order requires all tasks, so the remaining pages are requested.
+     */
+    private void reorder() {
+        if (!isNaturalOrder() && nextCursor != null) requestPage(nextCursor, PAGE_SIZE);
+        refresh();
+    }
+
+    /**
+     * Recomputes the displayed permutation of loaded summaries in the background.
+     * Only the result of the latest recomputation is handed to the table.
+     */
+    private void refresh() {
+        TaskSummary[] items = loaded.toArray(TaskSummary[]::new);
+        TaskSort sort = this.sort;
+        String filter = this.filter;
+        long generation = ++this.generation;
+        refreshing = true;
+        ExecutorManager.getInstance()
+                       .supplyAsync(() -> sort.order(items, filter))
+                       .thenAccept(order -> Platform.runLater(() -> {
+                           if (generation != this.generation) return;
+                           refreshing = false;
+                           view.setAll(items, order);
+                       }))
+                       .exceptionally(e -> {
+                           log.error("Couldn't order the task list: {}", e.getMessage(), e);
+                           return null;
+                       });
+    }
+
+    /**
+     * Attaches a listener to the table's {@link VirtualFlow}, which fetches the next page
+     * whenever the last visible row gets closer than {@link #PREFETCH_MARGIN} rows to the end of loaded tasks.
+     */
+    private void attachPrefetchListener() {
+        if (taskTable.lookup(".virtual-flow") instanceof VirtualFlow<?> flow) {
+            flow.positionProperty().addListener((obs, oldPosition, newPosition) -> {
+                IndexedCell<?> last = flow.getLastVisibleCell();
+                if (nextCursor != null && last != null && isNaturalOrder() && last.getIndex() + PREFETCH_MARGIN >= loaded.size()) {
+                    requestPage(nextCursor, PREFETCH_MARGIN);
+                }
+            });
+        } else {
+            log.warn("Couldn't find the virtual flow of the task table. Only the first page will be loaded.");
+        }
+    }
+
+    /**
+     * Requests a page of tasks, unless a page is already being loaded.
+     * A {@code null} cursor reloads the list from the beginning.
+     *
+     * @param after The {@link TaskCursor} of the last loaded task, or {@code null}.
+     * @param limit The maximum number of tasks to load.
+     */
+    private void requestPage(TaskCursor after, int limit) {
+        if (loading) return;
+        loading = true;
+        DataManager.getInstance().notifySubscribersAsync(new DataEvent.RequestTaskPage(after, limit));
+    }
+
+    /**
+     * Reloads already loaded tasks, so that the list reflects the current state of the repository.
+     */
+    private void reload() {
+        loading = false;
+        requestPage(null, Math.max(loaded.size(), VISIBLE_ROWS + PREFETCH_MARGIN));
+    }
+
+    /**
+     * Deletes all selected tasks with a single {@link DataEvent.TasksDeleted} event.
+     */
+    private void deleteSelected() {
+        Set<UUID> ids = taskTable.getSelectionModel()
+                                 .getSelectedItems()
+                                 .stream()
+                                 .map(TaskSummary::getId)
+                                 .collect(Collectors.toUnmodifiableSet());
+        if (ids.isEmpty()) return;
+        log.debug("Received delete command on {} tasks. Emitting delete signal.", ids.size());
+        DataManager.getInstance().notifySubscribersAsync(new DataEvent.TasksDeleted(ids));
+    }
+
+    /**
+     * Replaces loaded summaries of the given tasks with a single recomputation of the table items.
+     * Tasks which are not loaded are ignored, since their position is determined by paging.
+     *
+     * @param tasks The changed tasks.
+     */
+    private void applyUpdates(@NotNull List<Task> tasks) {
+        Map<UUID, TaskSummary> changed = new HashMap<>(tasks.size() * 2);
+        for (Task task : tasks) changed.put(task.getId(), TaskSummary.of(task));
+
+        Platform.runLater(() -> {
+            boolean any = false;
+            for (int i = 0; i < loaded.size(); i++) {
+                TaskSummary summary = changed.get(loaded.get(i).getId());
+                if (summary != null) {
+                    loaded.set(i, summary);
+                    any = true;
+                }
+            }
+            if (any) refresh();
+        });
+    }
+
+    /**
+     * Replaces the loaded summary of a task whose completion state changed.
+     * The row is patched in place, unless its position may change or a pending recomputation still holds the old summary.
+     *
+     * @param task The changed task.
+     */
+    private void applyCompletion(@NotNull Task task) {
+        TaskSummary summary = TaskSummary.of(task);
+        Platform.runLater(() -> {
+            for (int i = 0; i < loaded.size(); i++) {
+                if (!loaded.get(i).getId().equals(task.getId())) continue;
+
+                loaded.set(i, summary);
+                if (refreshing || sort == TaskSort.COMPLETED) refresh();
+                else view.replace(summary);
+                return;
+            }
+        });
+    }
+
+    private void removeLoaded(@NotNull Predicate<TaskSummary> predicate) {
+        if (loaded.removeIf(predicate)) refresh();
     }
 
     @FXML
@@ -71,17 +281,31 @@ public class TaskListController extends Controller {
     @Override
     public void onDataUpdate(@NotNull DataEvent event) { // TODO: Could be changed...
         switch (event) {
-            case DataEvent.TasksFetched(List<Task> tasks) -> {
-                log.debug("Fetched {} tasks: \n{}", tasks.size(), tasks);
+            case DataEvent.TaskPageFetched(TaskCursor after, List<TaskSummary> tasks, TaskCursor next) -> {
+                log.debug("Fetched page of {} tasks.", tasks.size());
                 Platform.runLater(() -> {
-                    taskTable.getItems().setAll(tasks);
+                    if (after == null) loaded.clear();
+                    loaded.addAll(tasks);
+                    nextCursor = next;
+                    loading = false;
+                    refresh();
+                    if (!isNaturalOrder() && next != null) requestPage(next, PAGE_SIZE);
                 });
             }
-            case DataEvent.TaskCompleted ignored -> DataManager.getInstance().notifySubscribers(new DataEvent.RequestTasks());
-            case DataEvent.TaskUncompleted ignored -> DataManager.getInstance().notifySubscribers(new DataEvent.RequestTasks());
-            case DataEvent.TaskDeleted(Task task) -> {
-                log.debug("Deleting {} task.", task);
-                Platform.runLater(() -> taskTable.getItems().remove(task));
+            case DataEvent.TaskCompleted(Task task) -> applyCompletion(task);
+            case DataEvent.TaskUncompleted(Task task) -> applyCompletion(task);
+            case DataEvent.TasksImported ignored -> Platform.runLater(this::reload);
+            case DataEvent.TasksAdded ignored -> Platform.runLater(this::reload);
+            case DataEvent.TasksUpdated(List<Task> tasks) -> applyUpdates(tasks);
+            case DataEvent.TasksCompleted(List<Task> tasks) -> applyUpdates(tasks);
+            case DataEvent.TasksUncompleted(List<Task> tasks) -> applyUpdates(tasks);
+            case DataEvent.TasksDeleted(Set<UUID> ids) -> {
+                log.debug("Deleting {} tasks.", ids.size());
+                Platform.runLater(() -> removeLoaded(t -> ids.contains(t.getId())));
+            }
+            case DataEvent.TaskDeleted(UUID id) -> {
+                log.debug("Deleting {} task.", id);
+                Platform.runLater(() -> removeLoaded(t -> t.getId().equals(id)));
             }
             default -> {}
         }
@@ -0,0 +1,179 @@
+package pl.magzik.dotoi.io;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import pl.magzik.dotoi.model.Task;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static pl.magzik.dotoi.io.TaskFields.*;
+
+/**
+ * Reads tasks from RFC 4180 comma-separated values.
+ * <p>
+ * The first record must be a header naming the columns (see {@link CsvTaskWriter#COLUMNS}),
+ * so the columns may appear in any order, and unknown columns are ignored. Only the title column is required.
+ * Fields are read into a reused list of values, which is then mapped directly onto {@link TaskFields}.
+ * </p>
+ *
+ * @see CsvTaskWriter
+ *
+ * @since 0.1
+ * @author Maksymilian Strzelczak
+ * @version 1.0
+ */
+final class CsvTaskReader implements TaskReader {
+
+    private static final int EOF = -1;
+
+    private final Reader in;
+    private final char[] buffer;
+    private int position, limit;
+    private long line;
+
+    private final List<String> record;
+    private final StringBuilder text;
+    private final TaskFields fields;
+
+    private int[] columns; ///< Maps column indexes of the input onto indexes of {@link CsvTaskWriter#COLUMNS}.
+
+    CsvTaskReader(@NotNull Reader in) {
+        this.in = in;
+        this.buffer = new char[1 << 16];
+        this.line = 1;
+        this.record = new ArrayList<>(CsvTaskWriter.COLUMNS.size());
+        this.text = new StringBuilder();
+        this.fields = new TaskFields();
+    }
+
+    @Override
+    public @Nullable Task read() throws IOException {
+        if (columns == null) {
+            if (!readRecord()) return null;
+            boolean hasTitle = false;
+            columns = new int[record.size()];
+            for (int i = 0; i < columns.length; i++) {
+                String column = record.get(i).trim();
+                columns[i] = CsvTaskWriter.COLUMNS.indexOf(column);
+                hasTitle |= column.equals(TITLE);
+            }
+            if (!hasTitle) throw new MalformedTaskException(line, "Missing the '" + TITLE + "' column in the header.");
+        }
+
+        long start;
+        do {
+            start = line;
+            if (!readRecord()) return null;
+        } while (record.size() == 1 && record.getFirst().isEmpty()); ///< Blank lines.
+
+        fields.reset();
+        for (int i = 0; i < record.size() && i < columns.length; i++) {
+            if (columns[i] >= 0) set(CsvTaskWriter.COLUMNS.get(columns[i]), record.get(i), start);
+        }
+        return fields.toTask(start);
+    }
+
+    private void set(@NotNull String column, @NotNull String value, long start) {
+        switch (column) {
+            case ID -> fields.id = value;
+            case TITLE -> fields.title = value;
+            case DESCRIPTION -> fields.description = value;
+            case CONTENT -> fields.content = value;
+            case HYPERLINKS -> {
+                if (value.isEmpty()) return;
+                for (String hyperlink : value.split(CsvTaskWriter.HYPERLINK_SEPARATOR)) {
+                    if (!hyperlink.isBlank()) fields.hyperlinks.add(hyperlink.strip());
+                }
+            }
+            case CREATED_AT -> fields.createdAt = value;
+            case DEADLINE -> fields.deadline = value;
+            case COMPLETED -> fields.completed = parseBoolean(value, start);
+            case RECURRENCE -> fields.recurrence = value;
+            case INTERVAL -> fields.interval = parseInt(value, start);
+            case DAY_OF_WEEK -> fields.dayOfWeek = value;
+            case DAY_OF_MONTH -> fields.dayOfMonth = parseInt(value, start);
+            case END_DATE -> fields.endDate = value;
+            default -> {}
+        }
+    }
+
+    private static boolean parseBoolean(@NotNull String value, long line) {
+        String trimmed = value.trim();
+        if (trimmed.isEmpty() || trimmed.equalsIgnoreCase("false")) return false;
+        if (trimmed.equalsIgnoreCase("true")) return true;
+        throw new MalformedTaskException(line, "Invalid boolean: " + value);
+    }
+
+    private static int parseInt(@NotNull String value, long line) {
+        if (value.isBlank()) return 0;
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new MalformedTaskException(line, "Invalid number: " + value, e);
+        }
+    }
+
+    /**
+     * Reads the next record into {@link #record}.
+     *
+     * @return false if the end of the input was reached before the record.
+     */
+    private boolean readRecord() throws IOException {
+        record.clear();
+        if (peek() == EOF) return false;
+
+        while (true) {
+            text.setLength(0);
+            int c = peek();
+            if (c == '"') {
+                position++;
+                while (true) {
+                    c = next();
+                    if (c == EOF) throw new MalformedTaskException(line, "Unterminated quoted field.");
+                    if (c == '"') {
+                        if (peek() != '"') break;
+                        position++;
+                    }
+                    if (c == '\n') line++;
+                    text.append((char) c);
+                }
+                c = next();
+            } else {
+                while ((c = next()) != ',' && c != '\n' && c != '\r' && c != EOF) text.append((char) c);
+            }
+            record.add(text.toString());
+
+            if (c == ',') continue;
+            if (c == '\r' && peek() == '\n') position++;
+            if (c == '\r' || c == '\n') line++;
+            if (c == '\r' || c == '\n' || c == EOF) return true;
+            throw new MalformedTaskException(line, "Unexpected character after a quoted field.");
+        }
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) return EOF;
+        return buffer[position];
+    }
+
+    private int next() throws IOException {
+        if (position == limit && !fill()) return EOF;
+        return buffer[position++];
+    }
+
+    private boolean fill() throws IOException {
+        int read = in.read(buffer);
+        if (read <= 0) return false;
+        position = 0;
+        limit = read;
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,104 @@
+package pl.magzik.dotoi.io;
+
+import org.jetbrains.annotations.NotNull;
+import pl.magzik.dotoi.model.RecurrenceRule;
+import pl.magzik.dotoi.model.Task;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+import static pl.magzik.dotoi.io.TaskFields.*;
+
+/**
+ * Writes tasks as RFC 4180 comma-separated values, preceded by a header row.
+ * <p>
+ * Every task occupies a single record, in which hyperlinks are joined with line breaks,
+ * and the recurrence rule is flattened into its own columns. Absent values are written as empty fields.
+ * </p>
+ *
+ * @see CsvTaskReader
+ *
+ * @since 0.1
+ * @author Maksymilian Strzelczak
+ * @version 1.0
+ */
+final class CsvTaskWriter implements TaskWriter {
+
+    static final List<String> COLUMNS = List.of(
+        ID, TITLE, DESCRIPTION, CONTENT, HYPERLINKS, CREATED_AT, DEADLINE, COMPLETED,
+        RECURRENCE, INTERVAL, DAY_OF_WEEK, DAY_OF_MONTH, END_DATE
+    );
+
+    static final String HYPERLINK_SEPARATOR = "\n";
+
+    private final Writer out;
+    private final StringBuilder record;
+    private boolean headerWritten;
+
+    CsvTaskWriter(@NotNull Writer out) {
+        this.out = out instanceof BufferedWriter ? out : new BufferedWriter(out);
+        this.record = new StringBuilder(256);
+    }
+
+    @Override
+    public void write(@NotNull Task task) throws IOException {
+        if (!headerWritten) {
+            out.append(String.join(",", COLUMNS)).append("\r\n");
+            headerWritten = true;
+        }
+
+        RecurrenceRule rule = task.getRecurrenceRule().orElse(null);
+        record.setLength(0);
+        field(task.getId().toString()).append(',');
+        field(task.getTitle()).append(',');
+        field(task.getDescription()).append(',');
+        field(task.getContent()).append(',');
+        field(String.join(HYPERLINK_SEPARATOR, task.getHyperlinks())).append(',');
+        field(task.getCreatedAt().toString()).append(',');
+        field(task.getDeadline().map(Object::toString).orElse("")).append(',');
+        record.append(task.isCompleted()).append(',');
+        if (rule != null) {
+            record.append(rule.getRecurrenceType().name()).append(',')
+                  .append(rule.getInterval()).append(',')
+                  .append(rule.getDayOfWeek() == null ? "" : rule.getDayOfWeek().name()).append(',')
+                  .append(rule.getDayOfMonth()).append(',');
+            field(rule.hasEndDate() ? rule.getEndDate().toString() : "");
+        } else {
+            record.append(",,,,");
+        }
+        record.append("\r\n");
+        out.append(record);
+    }
+
+    /**
+     * Appends the value, quoting it if it contains a separator, a quote or a line break.
+     */
+    private @NotNull StringBuilder field(@NotNull String value) {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) return record.append(value);
+
+        record.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') record.append('"');
+            record.append(c);
+        }
+        return record.append('"');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
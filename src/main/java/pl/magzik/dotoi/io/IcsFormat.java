@@ -0,0 +1,126 @@
+package pl.magzik.dotoi.io;
+
+import org.jetbrains.annotations.NotNull;
+import pl.magzik.dotoi.model.RecurrenceRule;
+import pl.magzik.dotoi.model.Task;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Utility class rendering tasks as iCalendar (RFC 5545) components.
+ * <p>
+ * Every task with a deadline or a recurrence rule is rendered as a {@code VTODO} component:
+ * <ul>
+ *     <li>the deadline is mapped onto {@code DUE} (and {@code DTSTART}, which recurring components require),</li>
+ *     <li>the {@link RecurrenceRule} is mapped onto {@code RRULE},</li>
+ *     <li>the completion state is mapped onto {@code STATUS}.</li>
+ * </ul>
+ * Task timestamps are local date-times, so they are written as floating times (without a time zone).
+ * Lines longer than 75 octets are folded, as required by the specification.
+ * </p>
+ *
+ * @since 0.1
+ * @author Maksymilian Strzelczak
+ * @version 1.0
+ */
+public final class IcsFormat {
+
+    static final String CRLF = "\r\n";
+
+    static final String HEADER = "BEGIN:VCALENDAR" + CRLF
+                               + "VERSION:2.0" + CRLF
+                               + "PRODID:-//magzik//Dotoi//EN" + CRLF
+                               + "CALSCALE:GREGORIAN" + CRLF,
+                        TRAILER = "END:VCALENDAR" + CRLF;
+
+    private static final int MAX_LINE_OCTETS = 75;
+
+    private static final DateTimeFormatter LOCAL_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss"),
+                                           UTC_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+
+    private IcsFormat() {}
+
+    /**
+     * @param task The {@link Task} to check.
+     * @return true if the task should appear in the calendar, i.e. it has a deadline or a recurrence rule.
+     */
+    public static boolean isExported(@NotNull Task task) {
+        return task.hasDeadline() || task.hasRecurrenceRule();
+    }
+
+    /**
+     * Renders the task as a {@code VTODO} component, without its closing line.
+     *
+     * @param task The {@link Task} to render.
+     * @param stamp The time of rendering, written as {@code DTSTAMP}.
+     * @return the rendered lines, each terminated with CRLF.
+     */
+    static @NotNull String component(@NotNull Task task, @NotNull Instant stamp) {
+        StringBuilder out = new StringBuilder(256);
+        out.append("BEGIN:VTODO").append(CRLF);
+        property(out, "UID", task.getId() + "@dotoi");
+        property(out, "DTSTAMP", UTC_TIME.format(stamp));
+        property(out, "CREATED", LOCAL_TIME.format(task.getCreatedAt()));
+        property(out, "SUMMARY", escape(task.getTitle()));
+        if (!task.getDescription().isEmpty()) property(out, "DESCRIPTION", escape(task.getDescription()));
+
+        LocalDateTime start = task.getDeadline().orElse(task.getCreatedAt());
+        property(out, "DTSTART", LOCAL_TIME.format(start));
+        task.getDeadline().ifPresent(d -> property(out, "DUE", LOCAL_TIME.format(d)));
+        task.getRecurrenceRule().ifPresent(rule -> property(out, "RRULE", rrule(rule)));
+        property(out, "STATUS", task.isCompleted() ? "COMPLETED" : "NEEDS-ACTION");
+        return out.toString();
+    }
+
+    static @NotNull String rrule(@NotNull RecurrenceRule rule) {
+        StringBuilder out = new StringBuilder("FREQ=").append(rule.getRecurrenceType().name());
+        if (rule.getInterval() > 1) out.append(";INTERVAL=").append(rule.getInterval());
+        switch (rule.getRecurrenceType()) {
+            case WEEKLY -> {
+                if (rule.getDayOfWeek() != null) out.append(";BYDAY=").append(rule.getDayOfWeek().name(), 0, 2);
+            }
+            case MONTHLY -> {
+                if (rule.getDayOfMonth() > 0) out.append(";BYMONTHDAY=").append(rule.getDayOfMonth());
+            }
+            default -> {}
+        }
+        if (rule.hasEndDate()) out.append(";UNTIL=").append(LOCAL_TIME.format(rule.getEndDate()));
+        return out.toString();
+    }
+
+    static @NotNull String escape(@NotNull String text) {
+        StringBuilder out = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\\', ';', ',' -> out.append('\\').append(c);
+                case '\n' -> out.append("\\n");
+                case '\r' -> {}
+                default -> out.append(c);
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Appends a content line, folding it every 75 octets without splitting multibyte characters.
+     */
+    static void property(@NotNull StringBuilder out, @NotNull String name, @NotNull String value) {
+        String line = name + ":" + value;
+        int octets = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            int size = c < 0x80 ? 1 : c < 0x800 ? 2 : Character.isHighSurrogate(c) ? 4 : Character.isLowSurrogate(c) ? 0 : 3;
+            if (octets + size > MAX_LINE_OCTETS) {
+                out.append(CRLF).append(' ');
+                octets = 1;
+            }
+            out.append(c);
+            octets += size;
+        }
+        out.append(CRLF);
+    }
+}
@@ -0,0 +1,348 @@
+package pl.magzik.dotoi.io;
+
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pl.magzik.dotoi.model.Task;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Serial;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * An iCalendar file updated in place, one task component at a time.
+ * <p>
+ * Every exported task occupies a fixed-size slot of the file, whose capacity is a power of two.
+ * A component is padded to the capacity of its slot with {@code X-DOTOI-PAD} properties, which calendar clients ignore.
+ * Thanks to this, a changed task is rewritten in place, as long as its component still fits in the slot.
+ * Otherwise, the task is moved to another slot: either a free slot of the required capacity, or a new one
+ * appended before the closing {@code END:VCALENDAR} line.
+ * </p>
+ *
+ * <p>
+ * Freed slots are overwritten with an empty {@code X-DOTOI-FREE} component, so the file always remains a valid calendar.
+ * When free slots take more than half of the file, it is compacted: live slots are copied to a temporary file,
+ * which atomically replaces the previous one. A rebuild replaces the file the same way, so it is never truncated in place.
+ * </p>
+ *
+ * <p>
+ * Slot positions are kept only in memory, so the file is rebuilt with {@link #rebuild(Collection)} on start.
+ * All methods are synchronized, so {@link #read()} never observes a partially written slot.
+ * </p>
+ *
+ * @see IcsFormat
+ *
+ * @since 0.1
+ * @author Maksymilian Strzelczak
+ * @version 1.0
+ */
+public class IcsSlotFile implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(IcsSlotFile.class);
+
+    private static final int MIN_SLOT_CAPACITY = 256;
+
+    private static final String PAD = "X-DOTOI-PAD:",
+                                FREE_BEGIN = "BEGIN:X-DOTOI-FREE" + IcsFormat.CRLF,
+                                FREE_END = "END:X-DOTOI-FREE" + IcsFormat.CRLF,
+                                TODO_END = "END:VTODO" + IcsFormat.CRLF;
+
+    private static final int MIN_PAD_LINE = PAD.length() + IcsFormat.CRLF.length(),
+                             MAX_PAD_LINE = 75 + IcsFormat.CRLF.length();
+
+    private static final byte[] HEADER = IcsFormat.HEADER.getBytes(StandardCharsets.UTF_8),
+                                TRAILER = IcsFormat.TRAILER.getBytes(StandardCharsets.UTF_8);
+
+    private record Slot(long offset, int capacity) {}
+
+    private final Path file;
+    private FileChannel channel;
+
+    private final Map<UUID, Slot> slots;
+    private final Map<Integer, Deque<Long>> free; ///< Offsets of free slots by their capacity.
+
+    private long end; ///< Offset of the trailer.
+    private long freeBytes;
+
+    /**
+     * Opens the calendar file. Its content is replaced by the first call of {@link #rebuild(Collection)}.
+     *
+     * @param file The {@link Path} of the calendar file.
+     * @throws CalendarFileException if the file couldn't be opened.
+     */
+    public IcsSlotFile(@NotNull Path file) {
+        this.file = file;
+        this.slots = new HashMap<>();
+        this.free = new HashMap<>();
+        try {
+            this.channel = open(file);
+        } catch (IOException e) {
+            throw new CalendarFileException("Couldn't open the calendar file: " + file, e);
+        }
+    }
+
+    private static @NotNull FileChannel open(@NotNull Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Rewrites the whole file with the given tasks. Tasks that shouldn't be exported are skipped.
+     * <p>
+     * Like compaction, the content is written to a temporary file which atomically replaces the previous one,
+     * so readers of the file never see it truncated or half-written, and a failed rebuild leaves it intact.
+     * </p>
+     *
+     * @param tasks All tasks.
+     */
+    public synchronized void rebuild(@NotNull Collection<Task> tasks) {
+        Map<UUID, Slot> built = new HashMap<>();
+        Instant now = Instant.now();
+        Path temp = temporaryFile();
+        long position = HEADER.length;
+        try {
+            try (FileChannel target = createTemporary(temp)) {
+                write(target, ByteBuffer.wrap(HEADER), 0);
+                for (Task task : tasks) {
+                    if (!IcsFormat.isExported(task)) continue;
+                    String component = IcsFormat.component(task, now);
+                    Slot slot = new Slot(position, capacityFor(length(component)));
+                    write(target, ByteBuffer.wrap(padded(slot, component, TODO_END)), position);
+                    built.put(task.getId(), slot);
+                    position += slot.capacity();
+                }
+                write(target, ByteBuffer.wrap(TRAILER), position);
+            }
+            replaceWith(temp);
+        } catch (IOException e) {
+            throw new CalendarFileException("Couldn't rebuild the calendar file.", e);
+        }
+        slots.clear();
+        slots.putAll(built);
+        free.clear();
+        freeBytes = 0;
+        end = position;
+        log.info("Calendar file rebuilt with {} tasks.", slots.size());
+    }
+
+    /**
+     * Writes the current state of the task, or removes it if it shouldn't be exported anymore.
+     *
+     * @param task The changed {@link Task}.
+     */
+    public synchronized void put(@NotNull Task task) {
+        if (!IcsFormat.isExported(task)) {
+            remove(task.getId());
+            return;
+        }
+
+        String component = IcsFormat.component(task, Instant.now());
+        int length = length(component);
+        try {
+            Slot slot = slots.get(task.getId());
+            if (slot == null || !fits(length, slot.capacity())) {
+                if (slot != null) release(slot);
+                slot = allocate(capacityFor(length));
+                slots.put(task.getId(), slot);
+            }
+            writeSlot(slot, component, TODO_END);
+        } catch (IOException e) {
+            throw new CalendarFileException("Couldn't write the task " + task.getId(), e);
+        }
+        compactIfSparse();
+    }
+
+    /**
+     * Removes the task from the file, if it was exported.
+     *
+     * @param id The {@link UUID} of the task.
+     */
+    public synchronized void remove(@NotNull UUID id) {
+        Slot slot = slots.remove(id);
+        if (slot == null) return;
+        try {
+            release(slot);
+        } catch (IOException e) {
+            throw new CalendarFileException("Couldn't remove the task " + id, e);
+        }
+        compactIfSparse();
+    }
+
+    /**
+     * @return the current content of the file.
+     */
+    public synchronized byte @NotNull [] read() {
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(end + TRAILER.length));
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, buffer.position()) < 0) break;
+            }
+            return buffer.array();
+        } catch (IOException e) {
+            throw new CalendarFileException("Couldn't read the calendar file.", e);
+        }
+    }
+
+    private @NotNull Slot allocate(int capacity) throws IOException {
+        Deque<Long> offsets = free.get(capacity);
+        if (offsets != null && !offsets.isEmpty()) {
+            freeBytes -= capacity;
+            return new Slot(offsets.pop(), capacity);
+        }
+        Slot slot = append(capacity);
+        write(TRAILER, end);
+        return slot;
+    }
+
+    private @NotNull Slot append(int capacity) {
+        Slot slot = new Slot(end, capacity);
+        end += capacity;
+        return slot;
+    }
+
+    private void release(@NotNull Slot slot) throws IOException {
+        writeSlot(slot, FREE_BEGIN, FREE_END);
+        free.computeIfAbsent(slot.capacity(), k -> new ArrayDeque<>()).push(slot.offset());
+        freeBytes += slot.capacity();
+    }
+
+    /**
+     * Compacts the file if free slots take more than half of it.
+     */
+    private void compactIfSparse() {
+        if (freeBytes * 2 <= end - HEADER.length) return;
+        try {
+            compact();
+        } catch (IOException e) {
+            throw new CalendarFileException("Couldn't compact the calendar file.", e);
+        }
+    }
+
+    private void compact() throws IOException {
+        Path temp = temporaryFile();
+        List<Map.Entry<UUID, Slot>> live = slots.entrySet()
+                                                .stream()
+                                                .sorted(Comparator.comparingLong(e -> e.getValue().offset()))
+                                                .toList();
+        long position = HEADER.length;
+        try (FileChannel target = createTemporary(temp)) {
+            write(target, ByteBuffer.wrap(HEADER), 0);
+            for (Map.Entry<UUID, Slot> entry : live) {
+                Slot slot = entry.getValue();
+                ByteBuffer content = ByteBuffer.allocate(slot.capacity());
+                while (content.hasRemaining()) {
+                    if (channel.read(content, slot.offset() + content.position()) < 0) throw new IOException("Unexpected end of the calendar file.");
+                }
+                write(target, content.flip(), position);
+                entry.setValue(new Slot(position, slot.capacity()));
+                position += slot.capacity();
+            }
+            write(target, ByteBuffer.wrap(TRAILER), position);
+        }
+
+        replaceWith(temp);
+
+        log.debug("Calendar file compacted from {} to {} bytes.", end + TRAILER.length, position + TRAILER.length);
+        end = position;
+        free.clear();
+        freeBytes = 0;
+    }
+
+    private @NotNull Path temporaryFile() {
+        return file.resolveSibling(file.getFileName() + ".tmp");
+    }
+
+    private static @NotNull FileChannel createTemporary(@NotNull Path temp) throws IOException {
+        return FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Atomically replaces the file with the written temporary file. The file is reopened even if the move fails.
+     */
+    private void replaceWith(@NotNull Path temp) throws IOException {
+        channel.close();
+        try {
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            channel = open(file);
+        }
+    }
+
+    private void writeSlot(@NotNull Slot slot, @NotNull String body, @NotNull String closing) throws IOException {
+        write(padded(slot, body, closing), slot.offset());
+    }
+
+    /**
+     * @return the lines of a component, padded with {@code X-DOTOI-PAD} properties to the capacity of the slot.
+     */
+    private static byte @NotNull [] padded(@NotNull Slot slot, @NotNull String body, @NotNull String closing) {
+        int gap = slot.capacity() - length(body) - length(closing);
+        StringBuilder out = new StringBuilder(slot.capacity()).append(body);
+        while (gap > 0) {
+            int line = gap <= MAX_PAD_LINE ? gap : gap - MAX_PAD_LINE < MIN_PAD_LINE ? gap - MIN_PAD_LINE : MAX_PAD_LINE;
+            out.append(PAD).append(" ".repeat(line - MIN_PAD_LINE)).append(IcsFormat.CRLF);
+            gap -= line;
+        }
+        out.append(closing);
+        return out.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return true if a component of the given length can be padded to the given capacity.
+     */
+    private static boolean fits(int length, int capacity) {
+        int withClosing = length + TODO_END.length();
+        return withClosing == capacity || withClosing + MIN_PAD_LINE <= capacity;
+    }
+
+    private static int capacityFor(int length) {
+        int needed = length + TODO_END.length() + MIN_PAD_LINE;
+        return Math.max(MIN_SLOT_CAPACITY, Integer.highestOneBit(needed - 1) << 1);
+    }
+
+    private static int length(@NotNull String text) {
+        return text.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private void write(byte @NotNull [] bytes, long position) throws IOException {
+        write(channel, ByteBuffer.wrap(bytes), position);
+    }
+
+    private static void write(@NotNull FileChannel channel, @NotNull ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Exception thrown when the calendar file couldn't be accessed.
+     */
+    public static class CalendarFileException extends RuntimeException {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        public CalendarFileException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package pl.magzik.dotoi.io;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import pl.magzik.dotoi.model.Task;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import static pl.magzik.dotoi.io.TaskFields.*;
+
+/**
+ * Reads tasks from JSON Lines, i.e. one JSON object per line.
+ * <p>
+ * This is a hand-written pull parser, which reads values directly into {@link TaskFields}
+ * without building any intermediate tree. Unknown keys are skipped, so files written by newer versions
+ * (or by other tools) can still be read. The recognized keys are those written by {@link JsonLinesTaskWriter}.
+ * </p>
+ *
+ * <p>
+ * Please note: Objects are not required to be separated by line breaks, any whitespace is accepted.
+ * </p>
+ *
+ * @see JsonLinesTaskWriter
+ *
+ * @since 0.1
+ * @author Maksymilian Strzelczak
+ * @version 1.0
+ */
+final class JsonLinesTaskReader implements TaskReader {
+
+    private static final int EOF = -1;
+
+    private final Reader in;
+    private final char[] buffer;
+    private int position, limit;
+    private long line;
+
+    private final TaskFields fields;
+    private final StringBuilder text;
+
+    JsonLinesTaskReader(@NotNull Reader in) {
+        this.in = in;
+        this.buffer = new char[1 << 16];
+        this.line = 1;
+        this.fields = new TaskFields();
+        this.text = new StringBuilder();
+    }
+
+    @Override
+    public @Nullable Task read() throws IOException {
+        if (skipWhitespace() == EOF) return null;
+        long start = line;
+
+        fields.reset();
+        expect('{');
+        if (skipWhitespace() == '}') position++;
+        else do {
+            String key = readString();
+            skipWhitespace();
+            expect(':');
+            switch (key) {
+                case ID -> fields.id = readNullableString();
+                case TITLE -> fields.title = readNullableString();
+                case DESCRIPTION -> fields.description = readNullableString();
+                case CONTENT -> fields.content = readNullableString();
+                case HYPERLINKS -> readHyperlinks();
+                case CREATED_AT -> fields.createdAt = readNullableString();
+                case DEADLINE -> fields.deadline = readNullableString();
+                case COMPLETED -> fields.completed = readBoolean(key);
+                case RECURRENCE -> readRecurrence();
+                default -> skipValue();
+            }
+        } while (nextMember('}'));
+
+        return fields.toTask(start);
+    }
+
+    private void readHyperlinks() throws IOException {
+        skipWhitespace();
+        if (readNull()) return;
+        expect('[');
+        if (skipWhitespace() == ']') {
+            position++;
+            return;
+        }
+        do {
+            skipWhitespace();
+            fields.hyperlinks.add(readString());
+        } while (nextMember(']'));
+    }
+
+    private void readRecurrence() throws IOException {
+        skipWhitespace();
+        if (readNull()) return;
+        expect('{');
+        if (skipWhitespace() == '}') {
+            position++;
+            return;
+        }
+        do {
+            String key = readString();
+            skipWhitespace();
+            expect(':');
+            switch (key) {
+                case RECURRENCE -> fields.recurrence = readNullableString();
+                case INTERVAL -> fields.interval = readInt(key);
+                case DAY_OF_WEEK -> fields.dayOfWeek = readNullableString();
+                case DAY_OF_MONTH -> fields.dayOfMonth = readInt(key);
+                case END_DATE -> fields.endDate = readNullableString();
+                default -> skipValue();
+            }
+        } while (nextMember('}'));
+    }
+
+    /**
+     * Consumes the separator after a member of an object or an array.
+     *
+     * @return true if another member follows, false if the closing character was consumed.
+     */
+    private boolean nextMember(char close) throws IOException {
+        int c = skipWhitespace();
+        position++;
+        if (c == ',') {
+            skipWhitespace();
+            return true;
+        }
+        if (c == close) return false;
+        throw malformed("Expected ',' or '" + close + "'");
+    }
+
+    private @Nullable String readNullableString() throws IOException {
+        skipWhitespace();
+        return readNull() ? null : readString();
+    }
+
+    private @NotNull String readString() throws IOException {
+        expect('"');
+        text.setLength(0);
+        while (true) {
+            int c = next();
+            switch (c) {
+                case EOF -> throw malformed("Unterminated string");
+                case '"' -> {
+                    return text.toString();
+                }
+                case '\\' -> text.append(readEscape());
+                case '\n' -> throw malformed("Unescaped line break in a string");
+                default -> text.append((char) c);
+            }
+        }
+    }
+
+    private char readEscape() throws IOException {
+        int c = next();
+        return switch (c) {
+            case '"', '\\', '/' -> (char) c;
+            case 'b' -> '\b';
+            case 'f' -> '\f';
+            case 'n' -> '\n';
+            case 'r' -> '\r';
+            case 't' -> '\t';
+            case 'u' -> {
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(next(), 16);
+                    if (digit < 0) throw malformed("Invalid unicode escape");
+                    value = value << 4 | digit;
+                }
+                yield (char) value;
+            }
+            default -> throw malformed("Invalid escape");
+        };
+    }
+
+    private boolean readBoolean(@NotNull String key) throws IOException {
+        int c = skipWhitespace();
+        if (c == 't') return readLiteral("true");
+        if (c == 'f') return !readLiteral("false");
+        throw malformed("Expected a boolean as '" + key + "', found " + describe(c));
+    }
+
+    /**
+     * Reads an integer, accumulating it as a negative number, so {@link Integer#MIN_VALUE} is accepted.
+     */
+    private int readInt(@NotNull String key) throws IOException {
+        int c = skipWhitespace();
+        if (readNull()) return 0;
+        boolean negative = c == '-';
+        if (negative) position++;
+        int limit = negative ? Integer.MIN_VALUE : -Integer.MAX_VALUE;
+        int value = 0, digits = 0;
+        while (peek() >= '0' && peek() <= '9') {
+            int digit = next() - '0';
+            if (value < limit / 10 || value * 10 < limit + digit) throw malformed("Number out of range as '" + key + "'");
+            value = value * 10 - digit;
+            digits++;
+        }
+        if (digits == 0) throw malformed("Expected a number as '" + key + "', found " + describe(peek()));
+        return negative ? value : -value;
+    }
+
+    /**
+     * Describes the type of the value starting with the given character, for error messages.
+     */
+    private static @NotNull String describe(int c) {
+        return switch (c) {
+            case EOF -> "the end of input";
+            case 'n' -> "null";
+            case 't', 'f' -> "a boolean";
+            case '"' -> "a string";
+            case '{' -> "an object";
+            case '[' -> "an array";
+            default -> c == '-' || (c >= '0' && c <= '9') ? "a number" : "'" + (char) c + "'";
+        };
+    }
+
+    private boolean readNull() throws IOException {
+        return peek() == 'n' && readLiteral("null");
+    }
+
+    private boolean readLiteral(@NotNull String literal) throws IOException {
+        for (int i = 0; i < literal.length(); i++) {
+            if (next() != literal.charAt(i)) throw malformed("Expected '" + literal + "'");
+        }
+        return true;
+    }
+
+    /**
+     * Skips a value of any type, including nested objects and arrays.
+     */
+    private void skipValue() throws IOException {
+        int c = skipWhitespace();
+        switch (c) {
+            case '"' -> readString();
+            case '{', '[' -> {
+                char close = c == '{' ? '}' : ']';
+                position++;
+                if (skipWhitespace() == close) {
+                    position++;
+                    return;
+                }
+                do {
+                    if (close == '}') {
+                        readString();
+                        skipWhitespace();
+                        expect(':');
+                    }
+                    skipValue();
+                } while (nextMember(close));
+            }
+            case EOF -> throw malformed("Unexpected end of input");
+            default -> {
+                while (true) { ///< Numbers and literals.
+                    int p = peek();
+                    if (p == EOF || p == ',' || p == '}' || p == ']' || Character.isWhitespace(p)) break;
+                    position++;
+                }
+            }
+        }
+    }
+
+    private void expect(char expected) throws IOException {
+        if (next() != expected) throw malformed("Expected '" + expected + "'");
+    }
+
+    private int skipWhitespace() throws IOException {
+        while (true) {
+            int c = peek();
+            if (c == '\n') line++;
+            else if (c != ' ' && c != '\t' && c != '\r') return c;
+            position++;
+        }
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) return EOF;
+        return buffer[position];
+    }
+
+    private int next() throws IOException {
+        if (position == limit && !fill()) return EOF;
+        return buffer[position++];
+    }
+
+    private boolean fill() throws IOException {
+        int read = in.read(buffer);
+        if (read <= 0) return false;
+        position = 0;
+        limit = read;
+        return true;
+    }
+
+    private @NotNull MalformedTaskException malformed(@NotNull String message) {
+        return new MalformedTaskException(line, message);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,116 @@
+package pl.magzik.dotoi.io;
+
+import org.jetbrains.annotations.NotNull;
+import pl.magzik.dotoi.model.RecurrenceRule;
+import pl.magzik.dotoi.model.Task;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+import static pl.magzik.dotoi.io.TaskFields.*;
+
+/**
+ * Writes tasks as JSON Lines, i.e. one JSON object per line.
+ * <p>
+ * Absent optional values (deadline, recurrence rule and its day of week and end date) are omitted.
+ * Timestamps are written in the ISO-8601 local date-time format.
+ * </p>
+ *
+ * @see JsonLinesTaskReader
+ *
+ * @since 0.1
+ * @author Maksymilian Strzelczak
+ * @version 1.0
+ */
+final class JsonLinesTaskWriter implements TaskWriter {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Writer out;
+    private final StringBuilder line;
+
+    JsonLinesTaskWriter(@NotNull Writer out) {
+        this.out = out instanceof BufferedWriter ? out : new BufferedWriter(out);
+        this.line = new StringBuilder(256);
+    }
+
+    @Override
+    public void write(@NotNull Task task) throws IOException {
+        line.setLength(0);
+        line.append('{');
+        field(ID, task.getId().toString());
+        line.append(',');
+        field(TITLE, task.getTitle());
+        line.append(',');
+        field(DESCRIPTION, task.getDescription());
+        line.append(',');
+        field(CONTENT, task.getContent());
+        line.append(",\"").append(HYPERLINKS).append("\":[");
+        boolean first = true;
+        for (String hyperlink : task.getHyperlinks()) {
+            if (!first) line.append(',');
+            string(hyperlink);
+            first = false;
+        }
+        line.append("],");
+        field(CREATED_AT, task.getCreatedAt().toString());
+        if (task.getDeadline().isPresent()) {
+            line.append(',');
+            field(DEADLINE, task.getDeadline().get().toString());
+        }
+        line.append(",\"").append(COMPLETED).append("\":").append(task.isCompleted());
+        if (task.getRecurrenceRule().isPresent()) {
+            RecurrenceRule rule = task.getRecurrenceRule().get();
+            line.append(",\"").append(RECURRENCE).append("\":{");
+            field(RECURRENCE, rule.getRecurrenceType().name());
+            line.append(",\"").append(INTERVAL).append("\":").append(rule.getInterval());
+            line.append(",\"").append(DAY_OF_MONTH).append("\":").append(rule.getDayOfMonth());
+            if (rule.getDayOfWeek() != null) {
+                line.append(',');
+                field(DAY_OF_WEEK, rule.getDayOfWeek().name());
+            }
+            if (rule.hasEndDate()) {
+                line.append(',');
+                field(END_DATE, rule.getEndDate().toString());
+            }
+            line.append('}');
+        }
+        line.append("}\n");
+        out.append(line);
+    }
+
+    private void field(@NotNull String name, @NotNull String value) {
+        line.append('"').append(name).append("\":");
+        string(value);
+    }
+
+    private void string(@NotNull String value) {
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> line.append("\\\"");
+                case '\\' -> line.append("\\\\");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                case '\t' -> line.append("\\t");
+                default -> {
+                    if (c < 0x20) line.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+                    else line.append(c);
+                }
+            }
+        }
+        line.append('"');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,92 @@
+package pl.magzik.dotoi.io;
+
+import org.jetbrains.annotations.NotNull;
+import pl.magzik.dotoi.model.RecurrenceRule;
+import pl.magzik.dotoi.model.Task;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A flat, reusable holder of the field values of a single task, filled by readers while parsing.
+ * <p>
+ * Values are kept as they were read, and converted only once the whole record is read,
+ * which avoids building any intermediate tree of the record.
+ * </p>
+ *
+ * @since 0.1
+ * @author Maksymilian Strzelczak
+ * @version 1.0
+ */
+final class TaskFields {
+
+    static final String ID = "id",
+                        TITLE = "title",
+                        DESCRIPTION = "description",
+                        CONTENT = "content",
+                        HYPERLINKS = "hyperlinks",
+                        CREATED_AT = "createdAt",
+                        DEADLINE = "deadline",
+                        COMPLETED = "completed",
+                        RECURRENCE = "recurrence",
+                        INTERVAL = "interval",
+                        DAY_OF_WEEK = "dayOfWeek",
+                        DAY_OF_MONTH = "dayOfMonth",
+                        END_DATE = "endDate";
+
+    String id, title, description, content, createdAt, deadline;
+    final List<String> hyperlinks = new ArrayList<>();
+    boolean completed;
+    String recurrence, dayOfWeek, endDate;
+    int interval, dayOfMonth;
+
+    void reset() {
+        id = title = description = content = createdAt = deadline = null;
+        hyperlinks.clear();
+        completed = false;
+        recurrence = dayOfWeek = endDate = null;
+        interval = dayOfMonth = 0;
+    }
+
+    /**
+     * Builds the task from the held values.
+     *
+     * @param line The line of the record, used in error messages.
+     * @return a new {@link Task}.
+     * @throws TaskReader.MalformedTaskException if the values don't describe a valid task.
+     */
+    @NotNull Task toTask(long line) {
+        if (isBlank(title)) throw new TaskReader.MalformedTaskException(line, "Missing title.");
+        try {
+            Task.Builder builder = new Task.Builder(
+                title,
+                description == null ? "" : description,
+                content == null ? "" : content,
+                List.copyOf(hyperlinks),
+                isBlank(createdAt) ? LocalDateTime.now() : LocalDateTime.parse(createdAt)
+            ).completed(completed);
+
+            if (!isBlank(id)) builder.id(UUID.fromString(id));
+            if (!isBlank(deadline)) builder.deadline(LocalDateTime.parse(deadline));
+            if (!isBlank(recurrence)) {
+                RecurrenceRule.Builder rule = new RecurrenceRule.Builder(RecurrenceRule.RecurrenceType.valueOf(recurrence))
+                        .interval(interval)
+                        .dayOfMonth(dayOfMonth);
+                if (!isBlank(dayOfWeek)) rule.dayOfWeek(DayOfWeek.valueOf(dayOfWeek));
+                if (!isBlank(endDate)) rule.endDate(LocalDateTime.parse(endDate));
+                builder.recurrenceRule(rule.build());
+            }
+            return builder.build();
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new TaskReader.MalformedTaskException(line, e.getMessage(), e);
+        }
+    }
+
+    static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
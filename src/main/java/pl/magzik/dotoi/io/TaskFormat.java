@@ -0,0 +1,70 @@
+package pl.magzik.dotoi.io;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Represents the supported formats of task import and export.
+ * <ul>
+ *     <li>{@link #JSON_LINES}: One JSON object per line, see {@link JsonLinesTaskReader}.</li>
+ *     <li>{@link #CSV}: RFC 4180 comma-separated values with a header row, see {@link CsvTaskReader}.</li>
+ * </ul>
+ *
+ * @since 0.1
+ * @author Maksymilian Strzelczak
+ * @version 1.0
+ */
+public enum TaskFormat {
+    JSON_LINES(".jsonl"), CSV(".csv");
+
+    private final String extension;
+
+    TaskFormat(@NotNull String extension) {
+        this.extension = extension;
+    }
+
+    public @NotNull String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Determines the format of the given file by its extension.
+     *
+     * @param file The {@link Path} of the file.
+     * @return the {@link TaskFormat} of the file.
+     * @throws IllegalArgumentException if the extension is not supported.
+     */
+    public static @NotNull TaskFormat of(@NotNull Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        for (TaskFormat format : values()) {
+            if (name.endsWith(format.extension)) return format;
+        }
+        throw new IllegalArgumentException("Unsupported task file: " + file);
+    }
+
+    /**
+     * @param in The source {@link Reader}.
+     * @return a new {@link TaskReader} of this format.
+     */
+    public @NotNull TaskReader reader(@NotNull Reader in) {
+        return switch (this) {
+            case JSON_LINES -> new JsonLinesTaskReader(in);
+            case CSV -> new CsvTaskReader(in);
+        };
+    }
+
+    /**
+     * @param out The target {@link Writer}.
+     * @return a new {@link TaskWriter} of this format.
+     */
+    public @NotNull TaskWriter writer(@NotNull Writer out) {
+        return switch (this) {
+            case JSON_LINES -> new JsonLinesTaskWriter(out);
+            case CSV -> new CsvTaskWriter(out);
+        };
+    }
+}
@@ -0,0 +1,47 @@
+package pl.magzik.dotoi.io;
+
+import org.jetbrains.annotations.Nullable;
+import pl.magzik.dotoi.model.Task;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Serial;
+
+/**
+ * Interface of streaming task readers.
+ * <p>
+ * Tasks are read one at a time, so the memory used by a reader does not depend on the size of the input.
+ * </p>
+ *
+ * @see TaskFormat#reader(java.io.Reader)
+ *
+ * @since 0.1
+ * @author Maksymilian Strzelczak
+ * @version 1.0
+ */
+public interface TaskReader extends Closeable {
+    /**
+     * Reads the next task.
+     *
+     * @return the next {@link Task}, or {@code null} if the end of the input was reached.
+     * @throws IOException if the input couldn't be read.
+     * @throws MalformedTaskException if the input is malformed.
+     */
+    @Nullable Task read() throws IOException;
+
+    /**
+     * Exception thrown when the input doesn't describe a valid task.
+     */
+    class MalformedTaskException extends RuntimeException {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        public MalformedTaskException(long line, String message) {
+            super("Line " + line + ": " + message);
+        }
+
+        public MalformedTaskException(long line, String message, Throwable cause) {
+            super("Line " + line + ": " + message, cause);
+        }
+    }
+}
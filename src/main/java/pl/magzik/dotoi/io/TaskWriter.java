@@ -0,0 +1,27 @@
+package pl.magzik.dotoi.io;
+
+import org.jetbrains.annotations.NotNull;
+import pl.magzik.dotoi.model.Task;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+
+/**
+ * Interface of streaming task writers.
+ *
+ * @see TaskFormat#writer(java.io.Writer)
+ *
+ * @since 0.1
+ * @author Maksymilian Strzelczak
+ * @version 1.0
+ */
+public interface TaskWriter extends Closeable, Flushable {
+    /**
+     * Writes the given task.
+     *
+     * @param task The {@link Task} to write.
+     * @throws IOException if the output couldn't be written.
+     */
+    void write(@NotNull Task task) throws IOException;
+}
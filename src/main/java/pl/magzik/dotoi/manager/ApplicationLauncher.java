@@ -0,0 +1,221 @@
+package pl.magzik.dotoi.manager;
+
+import dorkbox.desktop.Desktop;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pl.magzik.dotoi.base.OperatingSystem;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Manager responsible for launching applications linked to tasks.
+ * <p>
+ * Whether an application can be launched (i.e. it exists and is executable) is probed once and cached.
+ * The parent directory of every probed application is watched with a {@link WatchService},
+ * and cached entries are invalidated whenever a file in such a directory is created, deleted or modified.
+ * </p>
+ *
+ * <p>
+ * Applications are always launched in the background by {@link ExecutorManager}, so the JavaFX thread never blocks.
+ * Several applications are launched in parallel with {@link #launchAll(Collection)}.
+ * The latency of every launch, measured from the request, is logged.
+ * </p>
+ *
+ * An instance of this class is stored as a Singleton using the InstanceHolder pattern.
+ * To obtain the instance, use the {@link ApplicationLauncher#getInstance()} method.
+ *
+ * @see OperatingSystem
+ *
+ * @since 0.1
+ * @author Maksymilian Strzelczak
+ * @version 1.0
+ */
+public class ApplicationLauncher {
+
+    private static final Logger log = LoggerFactory.getLogger(ApplicationLauncher.class);
+
+    private static final class InstanceHolder {
+        private final static ApplicationLauncher instance = new ApplicationLauncher(
+            path -> Files.exists(path) && Files.isExecutable(path),
+            path -> Desktop.open(path.toFile())
+        );
+    }
+
+    public static ApplicationLauncher getInstance() {
+        return InstanceHolder.instance;
+    }
+
+    /**
+     * Opens an application with the means of the operating system.
+     */
+    @FunctionalInterface
+    interface Opener {
+        void open(@NotNull Path application) throws IOException;
+    }
+
+    private final Predicate<Path> prober;
+
+    private final Opener opener;
+
+    private final Map<Path, Boolean> launchable;
+
+    private final Map<Path, WatchKey> watchedDirectories;
+
+    private final WatchService watchService;
+
+    /**
+     * Outside tests, use {@link #getInstance()}, which probes and opens the actual files.
+     *
+     * @param prober Tells whether the application at the given absolute, normalized {@link Path} can be launched.
+     * @param opener Opens the application.
+     */
+    ApplicationLauncher(@NotNull Predicate<Path> prober, @NotNull Opener opener) {
+        this.prober = prober;
+        this.opener = opener;
+        this.launchable = new ConcurrentHashMap<>();
+        this.watchedDirectories = new ConcurrentHashMap<>();
+        this.watchService = createWatchService();
+        if (watchService != null) {
+            Thread.ofPlatform().daemon().name("dotoi-launcher-watcher").start(this::watch);
+        }
+        log.info("Application launcher initialized.");
+    }
+
+    private static WatchService createWatchService() {
+        try {
+            return FileSystems.getDefault().newWatchService();
+        } catch (IOException | UnsupportedOperationException e) {
+            log.warn("Couldn't create a watch service, launchable applications won't be cached: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @param application The {@link Path} of the application.
+     * @return true if the application exists and is executable.
+     */
+    public boolean isLaunchable(@NotNull Path application) {
+        Path path = application.toAbsolutePath().normalize();
+        if (watchService == null) return probe(path);
+        return launchable.computeIfAbsent(path, this::probe);
+    }
+
+    private boolean probe(@NotNull Path path) {
+        Path directory = path.getParent();
+        if (watchService != null && directory != null) {
+            watchedDirectories.computeIfAbsent(directory, this::register);
+        }
+        return prober.test(path);
+    }
+
+    private WatchKey register(@NotNull Path directory) {
+        try {
+            return directory.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            log.debug("Couldn't watch the directory {}: {}", directory, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Invalidates cached entries of changed files until the watch service is closed.
+     */
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                Path directory = (Path) key.watchable();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        launchable.keySet().removeIf(path -> directory.equals(path.getParent()));
+                    } else if (event.context() instanceof Path name) {
+                        if (launchable.remove(directory.resolve(name)) != null) {
+                            log.debug("Application {} has changed.", directory.resolve(name));
+                        }
+                    }
+                }
+                if (!key.reset()) {
+                    watchedDirectories.remove(directory);
+                    launchable.keySet().removeIf(path -> directory.equals(path.getParent()));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); ///< Fix interrupt flag.
+        } catch (ClosedWatchServiceException ignored) {}
+    }
+
+    /**
+     * Launches the application in the background.
+     *
+     * @param application The {@link Path} of the application.
+     * @return A {@link CompletableFuture} completed with true if the application was launched.
+     */
+    public @NotNull CompletableFuture<Boolean> launch(@NotNull Path application) {
+        long requested = System.nanoTime();
+        return ExecutorManager.getInstance().supplyAsync(() -> open(application, requested));
+    }
+
+    /**
+     * Launches all applications in parallel.
+     *
+     * @param applications The {@link Path}s of the applications.
+     * @return A {@link CompletableFuture} completed with the number of launched applications, once all launches finish.
+     */
+    public @NotNull CompletableFuture<Integer> launchAll(@NotNull Collection<Path> applications) {
+        List<CompletableFuture<Boolean>> launches = applications.stream().map(this::launch).toList();
+        return CompletableFuture.allOf(launches.toArray(CompletableFuture[]::new))
+                                .thenApply(ignored -> (int) launches.stream().filter(CompletableFuture::join).count());
+    }
+
+    private boolean open(@NotNull Path application, long requested) {
+        if (!isLaunchable(application)) {
+            log.warn("Cannot open the app: {}. File doesn't exist or additional permissions required.", application);
+            return false;
+        }
+
+        try {
+            switch (OperatingSystem.CURRENT) {
+                case WINDOWS, LINUX, MAC -> opener.open(application);
+                default -> {
+                    log.warn("Unsupported operating system");
+                    return false;
+                }
+            }
+        } catch (IOException e) {
+            launchable.remove(application.toAbsolutePath().normalize());
+            log.error("Couldn't open application {}, because of {}", application, e.getMessage(), e);
+            return false;
+        }
+
+        log.info("Application {} launched in {} ms.", application, (System.nanoTime() - requested) / 1_000_000);
+        return true;
+    }
+
+    /**
+     * Stops watching application directories.
+     */
+    public void shutdown() {
+        if (watchService == null) return;
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            log.warn("Couldn't close the watch service: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package pl.magzik.dotoi.manager;
+
+import javafx.scene.image.Image;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pl.magzik.dotoi.base.PathResolver;
+import pl.magzik.dotoi.model.ApplicationMetadata;
+
+import javax.imageio.ImageIO;
+import javax.swing.Icon;
+import javax.swing.filechooser.FileSystemView;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Manager caching the metadata of applications linked to tasks (see {@link ApplicationMetadata}).
+ * <p>
+ * Metadata is extracted in the background by {@link ExecutorManager}, and kept in memory and on disk,
+ * in the {@value #CACHE_FILE} file of the data directory (see {@link PathResolver}).
+ * A cached entry is validated against the modification time of the application at most once per session,
+ * so reopening a task editor with many linked applications doesn't probe the filesystem again.
+ * Only changed applications have their size computed and their icon extracted again.
+ * </p>
+ *
+ * <p>
+ * The cache file is written by {@link #save()}, only if any entry has changed.
+ * Decoded icons are additionally kept as JavaFX {@link Image}s, so they are decoded only once.
+ * </p>
+ *
+ * An instance of this class is stored as a Singleton using the InstanceHolder pattern.
+ * To obtain the instance, use the {@link ApplicationMetadataCache#getInstance()} method.
+ *
+ * @since 0.1
+ * @author Maksymilian Strzelczak
+ * @version 1.0
+ */
+public class ApplicationMetadataCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ApplicationMetadataCache.class);
+
+    private static final class InstanceHolder {
+        private final static ApplicationMetadataCache instance = new ApplicationMetadataCache(
+            PathResolver.getInstance().getDataDirectory().resolve(CACHE_FILE)
+        );
+    }
+
+    public static ApplicationMetadataCache getInstance() {
+        return InstanceHolder.instance;
+    }
+
+    public static final String CACHE_FILE = "applications.cache";
+
+    private static final int MAGIC = 0x444F4143; ///< "DOAC"
+    private static final int VERSION = 1;
+    private static final int ICON_SIZE = 32;
+
+    private final Path file;
+
+    private final Map<Path, ApplicationMetadata> entries;
+
+    private final Map<Path, Image> images;
+
+    private final Set<Path> validated; ///< Entries validated in this session.
+
+    private volatile boolean dirty;
+
+    /**
+     * Loads the cache from the given file. Outside tests, use {@link #getInstance()}, which reads the data directory.
+     *
+     * @param file The {@link Path} of the cache file, which may not exist yet.
+     */
+    ApplicationMetadataCache(@NotNull Path file) {
+        this.file = file;
+        this.entries = new ConcurrentHashMap<>();
+        this.images = new ConcurrentHashMap<>();
+        this.validated = ConcurrentHashMap.newKeySet();
+        load();
+        log.info("Application metadata cache initialized with {} entries.", entries.size());
+    }
+
+    /**
+     * Returns the cached metadata without accessing the filesystem. The metadata may be outdated.
+     *
+     * @param application The {@link Path} of the application.
+     * @return the cached {@link ApplicationMetadata}, or {@code null} if the application has never been probed.
+     */
+    public @Nullable ApplicationMetadata peek(@NotNull Path application) {
+        return entries.get(key(application));
+    }
+
+    /**
+     * @param application The {@link Path} of the application.
+     * @return the decoded icon of the application, or {@code null} if it is not available (yet).
+     */
+    public @Nullable Image getIcon(@NotNull Path application) {
+        Path key = key(application);
+        Image image = images.get(key);
+        if (image != null) return image;
+        ApplicationMetadata metadata = entries.get(key);
+        if (metadata == null || !metadata.hasIcon()) return null;
+        return images.computeIfAbsent(key, k -> new Image(new ByteArrayInputStream(metadata.icon())));
+    }
+
+    /**
+     * Returns the up-to-date metadata of the application.
+     * The returned future is already completed if the entry has been validated in this session.
+     *
+     * @param application The {@link Path} of the application.
+     * @return A {@link CompletableFuture} completed with the {@link ApplicationMetadata}.
+     */
+    public @NotNull CompletableFuture<ApplicationMetadata> get(@NotNull Path application) {
+        Path key = key(application);
+        ApplicationMetadata cached = entries.get(key);
+        if (cached != null && validated.contains(key)) return CompletableFuture.completedFuture(cached);
+        return ExecutorManager.getInstance().supplyAsync(() -> refresh(key));
+    }
+
+    private @NotNull ApplicationMetadata refresh(@NotNull Path key) {
+        long lastModified;
+        try {
+            lastModified = Files.getLastModifiedTime(key).toMillis();
+        } catch (IOException e) {
+            lastModified = -1L; ///< Missing applications are cached too, until they appear.
+        }
+
+        ApplicationMetadata cached = entries.get(key);
+        if (cached != null && cached.lastModified() == lastModified) {
+            validated.add(key);
+            getIcon(key);
+            return cached;
+        }
+
+        long start = System.nanoTime();
+        ApplicationMetadata metadata = new ApplicationMetadata(
+            ApplicationMetadata.displayNameOf(key),
+            lastModified < 0 ? 0L : sizeOf(key),
+            lastModified,
+            lastModified < 0 ? new byte[0] : extractIcon(key)
+        );
+        entries.put(key, metadata);
+        images.remove(key);
+        validated.add(key);
+        dirty = true;
+        getIcon(key);
+        log.debug("Metadata of {} extracted in {} ms.", key, (System.nanoTime() - start) / 1_000_000);
+        return metadata;
+    }
+
+    private static long sizeOf(@NotNull Path application) {
+        if (!Files.isDirectory(application)) {
+            try {
+                return Files.size(application);
+            } catch (IOException e) {
+                return 0L;
+            }
+        }
+        try (Stream<Path> files = Files.walk(application)) {
+            return files.mapToLong(p -> {
+                try {
+                    BasicFileAttributes attributes = Files.readAttributes(p, BasicFileAttributes.class);
+                    return attributes.isRegularFile() ? attributes.size() : 0L;
+                } catch (IOException e) {
+                    return 0L;
+                }
+            }).sum();
+        } catch (IOException | RuntimeException e) {
+            log.debug("Couldn't compute the size of {}: {}", application, e.getMessage());
+            return 0L;
+        }
+    }
+
+    /**
+     * Extracts the system icon of the application and encodes it as PNG.
+     *
+     * @return the encoded icon, or an empty array if the platform doesn't provide one.
+     */
+    private static byte @NotNull [] extractIcon(@NotNull Path application) {
+        try {
+            Icon icon = FileSystemView.getFileSystemView().getSystemIcon(application.toFile(), ICON_SIZE, ICON_SIZE);
+            if (icon == null || icon.getIconWidth() <= 0 || icon.getIconHeight() <= 0) return new byte[0];
+
+            BufferedImage image = new BufferedImage(icon.getIconWidth(), icon.getIconHeight(), BufferedImage.TYPE_INT_ARGB);
+            Graphics2D graphics = image.createGraphics();
+            try {
+                icon.paintIcon(null, graphics, 0, 0);
+            } finally {
+                graphics.dispose();
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        } catch (IOException | RuntimeException e) {
+            log.debug("Couldn't extract the icon of {}: {}", application, e.getMessage());
+            return new byte[0];
+        }
+    }
+
+    private static @NotNull Path key(@NotNull Path application) {
+        return application.toAbsolutePath().normalize();
+    }
+
+    private void load() {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                log.warn("Unsupported application metadata cache: {}. It will be rebuilt.", file);
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                Path path = Path.of(in.readUTF());
+                String displayName = in.readUTF();
+                long size = in.readLong();
+                long lastModified = in.readLong();
+                byte[] icon = new byte[in.readInt()];
+                in.readFully(icon);
+                entries.put(path, new ApplicationMetadata(displayName, size, lastModified, icon));
+            }
+        } catch (NoSuchFileException ignored) {
+        } catch (IOException | RuntimeException e) {
+            entries.clear();
+            log.warn("Couldn't read the application metadata cache: {}. It will be rebuilt.", e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the cache to disk, if any entry has changed since it was loaded or last saved.
+     */
+    public synchronized void save() {
+        if (!dirty) return;
+        dirty = false;
+        Map<Path, ApplicationMetadata> snapshot = Map.copyOf(entries);
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(snapshot.size());
+                for (Map.Entry<Path, ApplicationMetadata> entry : snapshot.entrySet()) {
+                    ApplicationMetadata metadata = entry.getValue();
+                    out.writeUTF(entry.getKey().toString());
+                    out.writeUTF(metadata.displayName());
+                    out.writeLong(metadata.size());
+                    out.writeLong(metadata.lastModified());
+                    out.writeInt(metadata.icon().length);
+                    out.write(metadata.icon());
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            log.debug("Application metadata cache saved with {} entries.", snapshot.size());
+        } catch (IOException e) {
+            dirty = true;
+            log.error("Couldn't save the application metadata cache: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package pl.magzik.dotoi.manager;
+
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Manager class responsible for running blocking work in the background.
+ * This class provides the following features:
+ * <ul>
+ *     <li>An easy way to offload blocking work (I/O, application launches, event dispatching) from the JavaFX thread.</li>
+ *     <li>A controlled shutdown, which cancels all running work.</li>
+ * </ul>
+ * All work is executed on Java 21 virtual threads, one per submitted task,
+ * so blocking calls are cheap and never starve other tasks.
+ * <p>
+ * An instance of this class is stored as a Singleton using the InstanceHolder pattern.
+ * To obtain the instance, use the {@link ExecutorManager#getInstance()} method.
+ *
+ * @since 0.1
+ * @author Maksymilian Strzelczak
+ * @version 1.0
+ */
+public class ExecutorManager {
+
+    private static final Logger log = LoggerFactory.getLogger(ExecutorManager.class);
+
+    private static final class InstanceHolder {
+        private final static ExecutorManager instance = new ExecutorManager();
+    }
+
+    public static ExecutorManager getInstance() {
+        return InstanceHolder.instance;
+    }
+
+    private final ExecutorService executor;
+
+    private ExecutorManager() {
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("dotoi-worker-", 0).factory());
+        log.info("Executor manager initialized.");
+    }
+
+    /**
+     * @return the {@link Executor} running tasks on virtual threads, e.g. for use with {@link CompletableFuture}.
+     */
+    public @NotNull Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Runs the given task on a virtual thread.
+     * Any exception thrown by the task is logged.
+     *
+     * @param task The task to run.
+     * @return A {@link CompletableFuture} completed when the task finishes.
+     */
+    public @NotNull CompletableFuture<Void> runAsync(@NotNull Runnable task) {
+        return CompletableFuture.runAsync(task, executor)
+                                .whenComplete((ignored, ex) -> {
+                                    if (ex != null) log.error("Background task has failed: {}", ex.getMessage(), ex);
+                                });
+    }
+
+    /**
+     * Computes a value on a virtual thread.
+     *
+     * @param supplier The supplier of the value.
+     * @return A {@link CompletableFuture} completed with the computed value.
+     * @param <T> The type of the value.
+     */
+    public <T> @NotNull CompletableFuture<T> supplyAsync(@NotNull Supplier<T> supplier) {
+        return CompletableFuture.supplyAsync(supplier, executor);
+    }
+
+    /**
+     * Shuts down the executor in a controlled manner.
+     * <p>
+     * The shutdown process follows these steps:
+     * <ol>
+     *     <li>Stops accepting new tasks.</li>
+     *     <li>Waits up to 5 seconds for running tasks to complete.</li>
+     *     <li>If tasks do not complete within the timeout, cancels them by interrupting their threads.</li>
+     * </ol>
+     * </p>
+     *
+     * <p><b>Note:</b> This method ensures that the thread's interrupt status is properly maintained if an {@link InterruptedException} occurs.</p>
+     */
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                var pendingTasks = executor.shutdownNow();
+                log.warn("{} was forced to shut down. {} tasks were cancelled.", getClass().getSimpleName(), pendingTasks.size());
+            } else {
+                log.info("{} shut down gracefully.", getClass().getSimpleName());
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt(); ///< Fix interrupt flag.
+            log.error("{} has been interrupted during shutting down.", getClass().getSimpleName());
+        }
+    }
+}
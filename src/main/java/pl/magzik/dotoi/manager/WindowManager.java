@@ -8,6 +8,7 @@ import org.slf4j.LoggerFactory;
 import pl.magzik.dotoi.view.Window;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -17,6 +18,8 @@ import java.util.Set;
  *     <li>An easy way to open new JavaFX windows.</li>
  *     <li>An easy way to close all windows.</li>
  * </ul>
+ * Every opened window is stopped (see {@link Window#stop()}) once its stage is hidden,
+ * whether it was closed by the user or by {@link WindowManager#closeAllWindows()}.
  * An instance of this class is stored as a Singleton using the InstanceHolder pattern.
  * To obtain the instance, use the {@link WindowManager#getInstance()} method.
  *
@@ -49,7 +52,7 @@ public class WindowManager {
                 Stage stage = new Stage();
                 stage.setTitle(TranslationManager.getInstance().translate(title));
                 window.start(stage);
-                stage.setOnCloseRequest(e -> {
+                stage.setOnHidden(e -> {
                     windows.remove(stage);
                     try {
                         window.stop();
@@ -69,9 +72,9 @@ public class WindowManager {
     public void closeAllWindows() {
         log.info("Closing the app...");
         Platform.runLater(() -> {
-            windows.forEach(Stage::close);
+            List.copyOf(windows).forEach(Stage::close); ///< Hidden stages remove themselves.
             windows.clear();
+            Platform.exit(); ///< TODO: Determine whether this should be executed here.
         });
-        Platform.exit(); ///< TODO: Determine whether this should be executed here.
     }
 }
@@ -1,8 +1,13 @@
 package pl.magzik.dotoi.manager.data;
 
 import pl.magzik.dotoi.model.Task;
+import pl.magzik.dotoi.model.TaskSummary;
+import pl.magzik.dotoi.repository.TaskCursor;
 
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 
 /**
  * A sealed interface representing different types of events that can occur.
@@ -22,19 +27,55 @@ import java.util.List;
  * @version 1.0
  */
 public sealed interface DataEvent permits DataEvent.TaskAdded, DataEvent.TaskDeleted, DataEvent.TaskUpdate,
-        DataEvent.TaskOverdue, DataEvent.TaskCompleted, DataEvent.TaskUncompleted, DataEvent.RequestTasks,
-        DataEvent.TasksFetched, DataEvent.CheckRecurrence, DataEvent.CheckDeadlines {
+        DataEvent.TaskOverdue, DataEvent.TaskCompleted, DataEvent.TaskUncompleted, DataEvent.RequestCompletion,
+        DataEvent.TasksAdded, DataEvent.TasksDeleted, DataEvent.TasksUpdated, DataEvent.TasksCompleted,
+        DataEvent.TasksUncompleted, DataEvent.RequestCompletions, DataEvent.RequestRepoint,
+        DataEvent.RequestTasks, DataEvent.RequestTask, DataEvent.TaskFetched,
+        DataEvent.TasksFetched, DataEvent.RequestTaskPage, DataEvent.TaskPageFetched, DataEvent.RequestTaskStream,
+        DataEvent.TaskChunkFetched, DataEvent.RequestImport, DataEvent.TasksImported, DataEvent.RequestExport,
+        DataEvent.TasksExported, DataEvent.CheckRecurrence, DataEvent.CheckDeadlines {
     // Basic tasks: (TODO: Could be changed)
     // Addition, Deletion, Update, Deadline, Completion
 
     record TaskAdded(Task task) implements DataEvent {}
-    record TaskDeleted(Task task) implements DataEvent {}
+    record TaskDeleted(UUID id) implements DataEvent {}
     record TaskUpdate(Task task) implements DataEvent {}
     record TaskOverdue(Task task) implements DataEvent {}
     record TaskCompleted(Task task) implements DataEvent {}
     record TaskUncompleted(Task task) implements DataEvent {}
+    /// Requests a change of the completion state of the task with the given id.
+    record RequestCompletion(UUID id, boolean completed) implements DataEvent {}
+    // Bulk variants, each applied by the repository as a single atomic operation:
+    record TasksAdded(List<Task> tasks) implements DataEvent {}
+    record TasksDeleted(Set<UUID> ids) implements DataEvent {}
+    record TasksUpdated(List<Task> tasks) implements DataEvent {}
+    record TasksCompleted(List<Task> tasks) implements DataEvent {}
+    record TasksUncompleted(List<Task> tasks) implements DataEvent {}
+    /// Requests a change of the completion state of all tasks with the given ids.
+    record RequestCompletions(Set<UUID> ids, boolean completed) implements DataEvent {}
+    /// Requests replacing the hyperlink target {@code from} with {@code to} (e.g., a moved application) in all tasks.
+    /// Targets are compared after normalization. Answered with {@link TasksUpdated} containing only the affected tasks,
+    /// which also applies the change to the repository.
+    record RequestRepoint(String from, String to) implements DataEvent {}
     record RequestTasks() implements DataEvent {}
+    /// Requests the full task with the given id, answered with {@link TaskFetched}.
+    record RequestTask(UUID id) implements DataEvent {}
+    record TaskFetched(Task task) implements DataEvent {}
     record TasksFetched(List<Task> tasks) implements DataEvent {}
+    /// Requests at most {@code limit} task summaries positioned after the cursor ({@code null} means the first page).
+    record RequestTaskPage(TaskCursor after, int limit) implements DataEvent {}
+    /// Answers {@link RequestTaskPage}, {@code next} is {@code null} if there are no more tasks.
+    record TaskPageFetched(TaskCursor after, List<TaskSummary> tasks, TaskCursor next) implements DataEvent {}
+    /// Requests all tasks, delivered as a sequence of {@link TaskChunkFetched} events.
+    record RequestTaskStream(int chunkSize) implements DataEvent {}
+    record TaskChunkFetched(List<Task> tasks, boolean last) implements DataEvent {}
+    /// Requests an import of all tasks from the file, the format is determined by its extension.
+    record RequestImport(Path file) implements DataEvent {}
+    /// Published once after an import, instead of a {@link TaskAdded} per task.
+    record TasksImported(int count) implements DataEvent {}
+    /// Requests an export of all tasks to the file, the format is determined by its extension.
+    record RequestExport(Path file) implements DataEvent {}
+    record TasksExported(Path file, int count) implements DataEvent {}
     record CheckRecurrence() implements DataEvent {}
     record CheckDeadlines() implements DataEvent {}
 
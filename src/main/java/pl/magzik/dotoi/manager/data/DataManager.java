@@ -3,11 +3,16 @@
 */
 package pl.magzik.dotoi.manager.data;
 
+import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Manager responsible for handling all data changes (or at least it should).
@@ -18,10 +23,26 @@ import java.util.concurrent.CopyOnWriteArrayList;
  * This manager extensively uses the Observer pattern.
  * <ul>
  *     <li>To listen for events, use the {@link DataManager#subscribe(IDataSubscriber)} method.</li>
- *     <li>To stop listening, call the {@link DataManager#unsubscribe(IDataSubscriber)} method.</li>
+ *     <li>To stop listening, close the returned {@link Subscription},
+ *         or call the {@link DataManager#unsubscribe(IDataSubscriber)} method.</li>
  *     <li>To trigger an event, use the {@link DataManager#notifySubscribers(DataEvent)} method with the specified event.</li>
+ *     <li>To trigger an event without blocking the caller (e.g., from the JavaFX thread),
+ *         use the {@link DataManager#notifySubscribersAsync(DataEvent)} method.</li>
  * </ul>
  * <p>
+ * Asynchronous events are dispatched in the order of publishing by a single dispatcher running on a virtual thread,
+ * so subscribers never observe them reordered. The dispatcher is started lazily and stopped by {@link DataManager#shutdown()},
+ * which stops accepting asynchronous events and lets the dispatcher drain the pending ones first.
+ * <p>
+ * Pending asynchronous events are held in a bounded ring buffer of {@link DataManager#QUEUE_CAPACITY} slots,
+ * so bursts of events (e.g., from recurrence sweeps) cannot grow memory without bound.
+ * When the buffer is full, the {@link OverflowPolicy} of the event type decides whether the publisher waits,
+ * the oldest event is dropped, or a pending event of the same task is replaced.
+ * By default, completion and update notifications are coalesced, the periodic checks and overdue notifications
+ * (which are emitted again by the next check) are dropped, and all other events block.
+ * Use {@link DataManager#getQueueStats()} to monitor the buffer, and {@link DataManager#getSubscriberCount()}
+ * to detect subscribers which are never unsubscribed.
+ * <p>
  * This class is implemented as a Singleton using the InstanceHolder pattern,
  * which ensures proper synchronization.
  * Additionally, all subscribers are stored in a thread-safe {@link CopyOnWriteArrayList}.
@@ -47,16 +68,47 @@ public class DataManager {
         return InstanceHolder.instance;
     }
 
+    public static final int QUEUE_CAPACITY = 4096;
+
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(10); ///< How long the shutdown waits for pending events.
+
     private final List<IDataSubscriber> subscribers;
 
-    private DataManager() {
+    private final EventRingBuffer queue;
+
+    private final Map<Class<? extends DataEvent>, OverflowPolicy> policies;
+
+    private Thread dispatcher;
+    private boolean shutdown;
+
+    DataManager() { ///< Package-private, so tests can use a fresh instance.
         subscribers = new CopyOnWriteArrayList<>();
+        queue = new EventRingBuffer(QUEUE_CAPACITY);
+        policies = new ConcurrentHashMap<>(Map.of(
+            DataEvent.TaskUpdate.class, OverflowPolicy.COALESCE,
+            DataEvent.TaskCompleted.class, OverflowPolicy.COALESCE,
+            DataEvent.TaskUncompleted.class, OverflowPolicy.COALESCE,
+            DataEvent.RequestCompletion.class, OverflowPolicy.COALESCE,
+            DataEvent.TaskOverdue.class, OverflowPolicy.DROP_OLDEST,
+            DataEvent.CheckDeadlines.class, OverflowPolicy.DROP_OLDEST,
+            DataEvent.CheckRecurrence.class, OverflowPolicy.DROP_OLDEST
+        ));
         log.info("Data manager initialized.");
     }
 
-    public void subscribe(IDataSubscriber subscriber) {
+    /**
+     * Registers the subscriber.
+     *
+     * @param subscriber The {@link IDataSubscriber} to notify about events.
+     * @return the {@link Subscription} unsubscribing the subscriber when closed.
+     */
+    public @NotNull Subscription subscribe(IDataSubscriber subscriber) {
         subscribers.add(subscriber);
         log.debug("New subscriber added.");
+        AtomicBoolean closed = new AtomicBoolean();
+        return () -> {
+            if (closed.compareAndSet(false, true)) unsubscribe(subscriber);
+        };
     }
 
     public void unsubscribe(IDataSubscriber subscriber) {
@@ -64,10 +116,131 @@ public class DataManager {
         log.debug("Removed subscriber");
     }
 
+    /**
+     * @return the number of currently registered subscribers.
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
     public void notifySubscribers(DataEvent event) {
         log.debug("Event: {} has occurred.", event);
         for (IDataSubscriber subscriber : subscribers) {
             subscriber.onDataUpdate(event);
         }
     }
+
+    /**
+     * Enqueues the event for dispatching on the background dispatcher and returns immediately.
+     * <p>
+     * If the queue is full, the {@link OverflowPolicy} of the event type is applied, so this method may block
+     * for {@link OverflowPolicy#BLOCK} events. Events published from the dispatcher itself (i.e. by a subscriber)
+     * are never blocked, since that would deadlock the dispatcher; they are dispatched synchronously instead.
+     * The same applies to events published by subscribers while the queue is drained by {@link #shutdown()}.
+     * </p>
+     *
+     * @param event The {@link DataEvent} to dispatch.
+     * @throws IllegalStateException if the manager has been shut down, so the event would never be dispatched.
+     */
+    public void notifySubscribersAsync(DataEvent event) {
+        boolean fromDispatcher = ensureDispatcher() == Thread.currentThread();
+        if (fromDispatcher && queue.isClosed()) {
+            notifySubscribers(event);
+            return;
+        }
+        try {
+            if (!queue.put(event, getOverflowPolicy(event.getClass()), !fromDispatcher)) {
+                notifySubscribers(event);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); ///< Fix interrupt flag.
+            log.warn("Interrupted while publishing event {}. The event was discarded.", event);
+        }
+    }
+
+    /**
+     * Sets the policy applied to events of the given type when the asynchronous queue is full.
+     *
+     * @param type The type of the {@link DataEvent}.
+     * @param policy The {@link OverflowPolicy} to apply.
+     */
+    public void setOverflowPolicy(@NotNull Class<? extends DataEvent> type, @NotNull OverflowPolicy policy) {
+        policies.put(type, policy);
+    }
+
+    /**
+     * @param type The type of the {@link DataEvent}.
+     * @return the {@link OverflowPolicy} applied to events of the given type, {@link OverflowPolicy#BLOCK} by default.
+     */
+    public @NotNull OverflowPolicy getOverflowPolicy(@NotNull Class<? extends DataEvent> type) {
+        return policies.getOrDefault(type, OverflowPolicy.BLOCK);
+    }
+
+    /**
+     * @return a snapshot of the asynchronous queue statistics.
+     */
+    public @NotNull EventQueueStats getQueueStats() {
+        return queue.stats();
+    }
+
+    /**
+     * Stops accepting asynchronous events and waits until the dispatcher has dispatched all pending ones.
+     * <p>
+     * The dispatcher is never interrupted, since it may be in the middle of a write (e.g., a repository flush).
+     * If it doesn't finish within {@link #DRAIN_TIMEOUT}, a warning is logged and it is left to finish in the background.
+     * Synchronous events are still dispatched after the shutdown, while asynchronous ones are rejected.
+     * </p>
+     */
+    public void shutdown() {
+        Thread dispatcher;
+        synchronized (this) {
+            if (shutdown) return;
+            shutdown = true;
+            dispatcher = this.dispatcher;
+        }
+        queue.close();
+        if (dispatcher == null || dispatcher == Thread.currentThread()) {
+            log.info("Event queue closed. {}", queue.stats());
+            return;
+        }
+
+        try {
+            if (dispatcher.join(DRAIN_TIMEOUT)) {
+                log.info("Event dispatcher stopped after draining the queue. {}", queue.stats());
+            } else {
+                log.warn("Event dispatcher is still busy after {} s, {} events are pending.", DRAIN_TIMEOUT.toSeconds(), queue.stats().depth());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); ///< Fix interrupt flag.
+            log.error("Interrupted while draining the event queue. {} events are pending.", queue.stats().depth());
+        }
+    }
+
+    private synchronized @NotNull Thread ensureDispatcher() {
+        if (dispatcher == null) {
+            if (shutdown) throw new IllegalStateException("Data manager has been shut down, asynchronous events are rejected.");
+            dispatcher = Thread.ofVirtual().name("dotoi-dispatcher").start(this::dispatch);
+            log.debug("Event dispatcher started.");
+        }
+        return dispatcher;
+    }
+
+    /**
+     * Dispatches events until the queue is closed and drained.
+     */
+    private void dispatch() {
+        try {
+            DataEvent event;
+            while ((event = queue.take()) != null) {
+                try {
+                    notifySubscribers(event);
+                } catch (RuntimeException e) {
+                    log.error("Subscriber has failed to handle event {}: {}", event, e.getMessage(), e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); ///< Fix interrupt flag.
+            log.error("Event dispatcher was interrupted. {} events are pending.", queue.stats().depth());
+        }
+    }
 }
@@ -0,0 +1,18 @@
+package pl.magzik.dotoi.manager.data;
+
+/**
+ * A snapshot of the statistics of the asynchronous event queue of {@link DataManager}.
+ *
+ * @param depth The number of pending events.
+ * @param capacity The maximum number of pending events.
+ * @param published The total number of events published asynchronously.
+ * @param dropped The total number of events discarded because of an overflow.
+ * @param coalesced The total number of events that replaced a pending event concerning the same task.
+ *
+ * @see DataManager#getQueueStats()
+ *
+ * @since 0.1
+ * @author Maksymilian Strzelczak
+ * @version 1.0
+ */
+public record EventQueueStats(int depth, int capacity, long published, long dropped, long coalesced) {}
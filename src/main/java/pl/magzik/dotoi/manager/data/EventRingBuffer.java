@@ -0,0 +1,282 @@
+package pl.magzik.dotoi.manager.data;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import pl.magzik.dotoi.model.Task;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded ring buffer of pending events, used by {@link DataManager} for asynchronous dispatching.
+ * <p>
+ * Slots are preallocated and addressed by two monotonically increasing sequences (write and read), so the buffer
+ * never allocates while publishing and its memory footprint is fixed by its capacity.
+ * Events are published from several threads (JavaFX, scheduler, services), so writers are serialized by a lock
+ * instead of claiming slots with a CAS. Readers may be many as well, each {@link #take()} consumes one event.
+ * </p>
+ * <p>
+ * When the buffer is full, the given {@link OverflowPolicy} decides what happens with the new event.
+ * Only events published with {@link OverflowPolicy#DROP_OLDEST} are ever discarded: if the oldest pending event
+ * was published with another policy, the new event is discarded instead.
+ * </p>
+ * <p>
+ * Events published with {@link OverflowPolicy#COALESCE} replace a pending event of the same kind concerning
+ * the same task, even if the buffer is not full, since only the latest state of the task matters to subscribers.
+ * {@link DataEvent.TaskCompleted} and {@link DataEvent.TaskUncompleted} are of the same kind, so a toggled task
+ * always ends in its latest state. The replacement takes the position of the pending event, so it is only allowed
+ * while no later event may concern the same task: any such event (including bulk events and events affecting
+ * unknown tasks, like imports) makes the pending event final.
+ * </p>
+ *
+ * @since 0.1
+ * @author Maksymilian Strzelczak
+ * @version 1.0
+ */
+final class EventRingBuffer {
+
+    /**
+     * A pending event which may still be replaced by a newer event of the same kind.
+     */
+    private record Coalescable(@NotNull Class<?> kind, long sequence) {}
+
+    private final DataEvent[] slots;
+    private final boolean[] droppable;
+    private final int mask;
+
+    private final ReentrantLock lock;
+    private final Condition notEmpty;
+    private final Condition notFull;
+
+    private final Map<UUID, Coalescable> coalescable; ///< Pending events which may be replaced, by task id.
+
+    private boolean closed;
+
+    private long writeSequence;
+    private long readSequence;
+
+    private long published;
+    private long dropped;
+    private long coalesced;
+
+    /**
+     * @param capacity The maximum number of pending events, rounded up to the nearest power of two.
+     */
+    EventRingBuffer(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("Capacity must be positive.");
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) size <<= 1;
+
+        this.slots = new DataEvent[size];
+        this.droppable = new boolean[size];
+        this.mask = size - 1;
+        this.lock = new ReentrantLock();
+        this.notEmpty = lock.newCondition();
+        this.notFull = lock.newCondition();
+        this.coalescable = new HashMap<>();
+    }
+
+    /**
+     * Publishes the event, applying the overflow policy if the buffer is full.
+     *
+     * @param event The {@link DataEvent} to publish.
+     * @param policy The {@link OverflowPolicy} of the event.
+     * @param mayBlock Whether the caller may wait for free space. If not, an event which can't be dropped is rejected.
+     * @return true if the event was published (or dropped by its policy), false if it was rejected.
+     * @throws InterruptedException if the thread was interrupted while waiting for free space.
+     * @throws IllegalStateException if the buffer is closed.
+     */
+    boolean put(@NotNull DataEvent event, @NotNull OverflowPolicy policy, boolean mayBlock) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            if (closed) throw new IllegalStateException("Event queue is closed, event rejected: " + event);
+            published++;
+
+            UUID id = policy == OverflowPolicy.COALESCE ? taskId(event) : null;
+            Class<?> kind = id == null ? null : kind(event);
+            if (kind != null) {
+                Coalescable pending = coalescable.get(id);
+                if (pending != null && pending.kind() == kind) {
+                    slots[index(pending.sequence())] = event;
+                    coalesced++;
+                    return true;
+                }
+            }
+            if (!coalescable.isEmpty()) finalizePending(event);
+
+            while (writeSequence - readSequence == slots.length) {
+                if (policy != OverflowPolicy.DROP_OLDEST) {
+                    if (!mayBlock) {
+                        published--;
+                        return false;
+                    }
+                    notFull.await();
+                } else if (droppable[index(readSequence)]) {
+                    poll();
+                    dropped++;
+                } else {
+                    dropped++; ///< Events of other policies are never dropped, so the new one is.
+                    return true;
+                }
+            }
+
+            int index = index(writeSequence);
+            slots[index] = event;
+            droppable[index] = policy == OverflowPolicy.DROP_OLDEST;
+            if (kind != null) coalescable.put(id, new Coalescable(kind, writeSequence));
+            writeSequence++;
+            notEmpty.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Makes pending events of all tasks the given event may concern final, so they are no longer replaced.
+     * This keeps the relative order of all events concerning a task.
+     */
+    private void finalizePending(@NotNull DataEvent event) {
+        switch (event) {
+            case DataEvent.RequestTasks e -> {}
+            case DataEvent.TasksFetched e -> {}
+            case DataEvent.RequestTaskPage e -> {}
+            case DataEvent.TaskPageFetched e -> {}
+            case DataEvent.RequestTaskStream e -> {}
+            case DataEvent.TaskChunkFetched e -> {}
+            case DataEvent.RequestExport e -> {}
+            case DataEvent.TasksExported e -> {}
+            default -> {
+                Collection<UUID> ids = taskIds(event);
+                if (ids == null) coalescable.clear();
+                else for (UUID id : ids) coalescable.remove(id);
+            }
+        }
+    }
+
+    /**
+     * @return the id of the single task the event concerns, or {@code null} if there is no such task.
+     */
+    private static @Nullable UUID taskId(@NotNull DataEvent event) {
+        return switch (event) {
+            case DataEvent.TaskAdded e -> e.task().getId();
+            case DataEvent.TaskUpdate e -> e.task().getId();
+            case DataEvent.TaskOverdue e -> e.task().getId();
+            case DataEvent.TaskCompleted e -> e.task().getId();
+            case DataEvent.TaskUncompleted e -> e.task().getId();
+            case DataEvent.TaskFetched e -> e.task().getId();
+            case DataEvent.TaskDeleted e -> e.id();
+            case DataEvent.RequestCompletion e -> e.id();
+            case DataEvent.RequestTask e -> e.id();
+            default -> null;
+        };
+    }
+
+    /**
+     * @return the ids of all tasks the event concerns, or {@code null} if they are not known (e.g., an import).
+     */
+    private static @Nullable Collection<UUID> taskIds(@NotNull DataEvent event) {
+        UUID id = taskId(event);
+        if (id != null) return List.of(id);
+        return switch (event) {
+            case DataEvent.TasksAdded e -> e.tasks().stream().map(Task::getId).toList();
+            case DataEvent.TasksUpdated e -> e.tasks().stream().map(Task::getId).toList();
+            case DataEvent.TasksCompleted e -> e.tasks().stream().map(Task::getId).toList();
+            case DataEvent.TasksUncompleted e -> e.tasks().stream().map(Task::getId).toList();
+            case DataEvent.TasksDeleted e -> e.ids();
+            case DataEvent.RequestCompletions e -> e.ids();
+            default -> null;
+        };
+    }
+
+    /**
+     * @return the kind of a coalescable event, or {@code null} if events of its type are never replaced.
+     */
+    private static @Nullable Class<?> kind(@NotNull DataEvent event) {
+        return switch (event) {
+            case DataEvent.TaskCompleted e -> DataEvent.TaskCompleted.class;
+            case DataEvent.TaskUncompleted e -> DataEvent.TaskCompleted.class; ///< Both carry the latest completion state.
+            case DataEvent.TaskUpdate e -> DataEvent.TaskUpdate.class;
+            case DataEvent.TaskOverdue e -> DataEvent.TaskOverdue.class;
+            case DataEvent.RequestCompletion e -> DataEvent.RequestCompletion.class;
+            default -> null;
+        };
+    }
+
+    /**
+     * Removes the oldest pending event, waiting for one if the buffer is empty.
+     *
+     * @return the oldest pending {@link DataEvent}, or {@code null} if the buffer is closed and drained.
+     * @throws InterruptedException if the thread was interrupted while waiting.
+     */
+    @Nullable DataEvent take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (writeSequence == readSequence) {
+                if (closed) return null;
+                notEmpty.await();
+            }
+            DataEvent event = poll();
+            notFull.signal();
+            return event;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops accepting new events. Pending events can still be taken, and publishers already waiting
+     * for free space are still accepted, so no published event is lost.
+     */
+    void close() {
+        lock.lock();
+        try {
+            closed = true;
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    boolean isClosed() {
+        lock.lock();
+        try {
+            return closed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @NotNull EventQueueStats stats() {
+        lock.lock();
+        try {
+            return new EventQueueStats((int) (writeSequence - readSequence), slots.length, published, dropped, coalesced);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private DataEvent poll() {
+        int index = index(readSequence);
+        DataEvent event = slots[index];
+        slots[index] = null;
+
+        if (!coalescable.isEmpty()) {
+            UUID id = taskId(event);
+            Coalescable pending = id == null ? null : coalescable.get(id);
+            if (pending != null && pending.sequence() == readSequence) coalescable.remove(id);
+        }
+
+        readSequence++;
+        return event;
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence & mask);
+    }
+}
@@ -0,0 +1,22 @@
+package pl.magzik.dotoi.manager.data;
+
+/**
+ * Represents the behavior of {@link DataManager} when an asynchronously published event doesn't fit in its bounded queue.
+ * <ul>
+ *     <li>{@link #BLOCK}: The publisher waits until there is free space in the queue.</li>
+ *     <li>{@link #DROP_OLDEST}: The oldest pending event is discarded to make space, if it was published with this policy too.
+ *         Otherwise, the new event is discarded, so events of other policies are never lost.</li>
+ *     <li>{@link #COALESCE}: A pending completion, update or overdue event of the same task is replaced by the new one,
+ *         as long as no other event concerning the task has been published since. Otherwise, the event falls back to {@link #BLOCK}.</li>
+ * </ul>
+ * Publishers which can't wait (i.e. subscribers running on the dispatcher) dispatch the event synchronously instead.
+ *
+ * @see DataManager#setOverflowPolicy(Class, OverflowPolicy)
+ *
+ * @since 0.1
+ * @author Maksymilian Strzelczak
+ * @version 1.0
+ */
+public enum OverflowPolicy {
+    BLOCK, DROP_OLDEST, COALESCE;
+}
@@ -0,0 +1,20 @@
+package pl.magzik.dotoi.manager.data;
+
+/**
+ * A handle of a subscription registered in {@link DataManager}.
+ * <p>
+ * Closing the handle unsubscribes the subscriber. Closing it more than once has no effect,
+ * so the owner of the handle may close it on every path that ends the subscriber's life
+ * (e.g., from both a close request and a hidden window), or use it in a try-with-resources block.
+ *
+ * @see DataManager#subscribe(IDataSubscriber)
+ *
+ * @since 0.1
+ * @author Maksymilian Strzelczak
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface Subscription extends AutoCloseable {
+    @Override
+    void close();
+}
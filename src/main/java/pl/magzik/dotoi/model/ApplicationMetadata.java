@@ -0,0 +1,43 @@
+package pl.magzik.dotoi.model;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.file.Path;
+
+/**
+ * Metadata of an application linked to a task, as displayed in the task editor.
+ * <p>
+ * The metadata is valid as long as the modification time of the application file equals {@link #lastModified()}.
+ *
+ * @param displayName The name of the application, i.e. its file name without the extension.
+ * @param size The size of the application in bytes (the total size of its files for bundles, e.g. {@code .app}).
+ * @param lastModified The modification time of the application file in milliseconds since the epoch.
+ * @param icon The icon of the application encoded as PNG, or an empty array if it couldn't be extracted.
+ *
+ * @see pl.magzik.dotoi.manager.ApplicationMetadataCache
+ *
+ * @since 0.1
+ * @author Maksymilian Strzelczak
+ * @version 1.0
+ */
+public record ApplicationMetadata(@NotNull String displayName, long size, long lastModified, byte @NotNull [] icon) {
+
+    /**
+     * @return true if the icon of the application is available.
+     */
+    public boolean hasIcon() {
+        return icon.length > 0;
+    }
+
+    /**
+     * @param application The {@link Path} of the application.
+     * @return the file name of the application without its extension.
+     */
+    public static @NotNull String displayNameOf(@NotNull Path application) {
+        Path fileName = application.getFileName();
+        if (fileName == null) return application.toString();
+        String name = fileName.toString();
+        int idx = name.lastIndexOf('.');
+        return idx > 0 ? name.substring(0, idx) : name;
+    }
+}
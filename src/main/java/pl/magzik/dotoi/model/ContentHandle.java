@@ -0,0 +1,89 @@
+package pl.magzik.dotoi.model;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents a handle to the Markdown content of a {@link Task}.
+ * <p>
+ * The content may be held in memory ({@link Inline}) or loaded on demand from a persistent store,
+ * in which case {@link #load()} may perform I/O. Callers should therefore load the content only when
+ * it is actually needed (e.g., in the task editor) and avoid keeping it longer than necessary.
+ *
+ * @see Task#getContent()
+ * @see pl.magzik.dotoi.repository.ContentStore
+ *
+ * @since 0.1
+ * @author Maksymilian Strzelczak
+ * @version 1.0
+ */
+public interface ContentHandle {
+
+    /**
+     * Loads the content referenced by this handle.
+     *
+     * @return the content.
+     */
+    @NotNull String load();
+
+    /**
+     * @return true if the content is held in memory, false if it has to be loaded from a store.
+     */
+    boolean isResident();
+
+    /**
+     * Creates a handle holding the given content in memory.
+     *
+     * @param content The content.
+     * @return a new {@link ContentHandle}.
+     */
+    @Contract(pure = true)
+    static @NotNull ContentHandle of(@NotNull String content) {
+        return new Inline(content);
+    }
+
+    /**
+     * Handle referencing content kept in a persistent store, at the given position.
+     * <p>
+     * The position is all that is needed to persist such a handle, see {@link TaskCodec}.
+     * </p>
+     */
+    interface Stored extends ContentHandle {
+        /**
+         * @return the offset of the content in the store.
+         */
+        long offset();
+
+        /**
+         * @return the length of the content in bytes.
+         */
+        int length();
+
+        @Override
+        default boolean isResident() {
+            return false;
+        }
+    }
+
+    /**
+     * Handle holding the content in memory.
+     *
+     * @param content The content.
+     */
+    record Inline(@NotNull String content) implements ContentHandle {
+        @Override
+        public @NotNull String load() {
+            return content;
+        }
+
+        @Override
+        public boolean isResident() {
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return "Inline[length=" + content.length() + "]";
+        }
+    }
+}
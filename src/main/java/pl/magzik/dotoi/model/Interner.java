@@ -0,0 +1,98 @@
+package pl.magzik.dotoi.model;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A thread-safe pool of canonical instances of immutable values.
+ * <p>
+ * {@link #intern(Object)} returns the pooled instance equal to the given value, or pools the given value
+ * if there is no such instance yet. Unlike {@link String#intern()}, the pool holds its instances through weak references,
+ * so a value is dropped from the pool once no task references it anymore.
+ * </p>
+ *
+ * <p>
+ * Interned values must be immutable, and their {@code equals} and {@code hashCode} must depend only on their content.
+ * </p>
+ *
+ * @param <T> The type of pooled values.
+ *
+ * @see Task
+ *
+ * @since 0.1
+ * @author Maksymilian Strzelczak
+ * @version 1.0
+ */
+public final class Interner<T> {
+
+    private final ConcurrentHashMap<WeakKey<T>, WeakKey<T>> pool;
+
+    private final ReferenceQueue<T> queue;
+
+    public Interner() {
+        this.pool = new ConcurrentHashMap<>();
+        this.queue = new ReferenceQueue<>();
+    }
+
+    /**
+     * @param value The value to intern.
+     * @return the canonical instance equal to the given value.
+     */
+    public @NotNull T intern(@NotNull T value) {
+        expunge();
+        WeakKey<T> key = new WeakKey<>(value, queue);
+        while (true) {
+            WeakKey<T> existing = pool.putIfAbsent(key, key);
+            if (existing == null) return value;
+            T canonical = existing.get();
+            if (canonical != null) return canonical;
+            pool.remove(existing, existing); ///< Cleared, but not expunged yet.
+        }
+    }
+
+    /**
+     * @return the number of pooled values, including values which are no longer referenced but haven't been expunged yet.
+     */
+    public int size() {
+        expunge();
+        return pool.size();
+    }
+
+    private void expunge() {
+        Reference<? extends T> cleared;
+        while ((cleared = queue.poll()) != null) {
+            pool.remove(cleared, cleared);
+        }
+    }
+
+    /**
+     * A weak reference comparing equal to any other reference to an equal value.
+     * The hash code is computed once, so it remains available after the value has been collected.
+     */
+    private static final class WeakKey<T> extends WeakReference<T> {
+
+        private final int hash;
+
+        WeakKey(@NotNull T value, @NotNull ReferenceQueue<T> queue) {
+            super(value, queue);
+            this.hash = value.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof WeakKey<?> other) || hash != other.hash) return false;
+            Object value = get();
+            return value != null && value.equals(other.get());
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
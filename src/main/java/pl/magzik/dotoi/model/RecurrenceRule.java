@@ -4,7 +4,6 @@ package pl.magzik.dotoi.model;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
-import java.io.Serializable;
 import java.time.DayOfWeek;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
@@ -35,7 +34,7 @@ import java.util.StringJoiner;
  * @author Maksymilian Strzelczak
  * @version 1.0
  */
-public class RecurrenceRule implements Serializable {
+public class RecurrenceRule {
 
     private final RecurrenceType recurrenceType;
     private final int interval;
@@ -2,15 +2,14 @@ package pl.magzik.dotoi.model;
 
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
-import pl.magzik.dotoi.manager.data.DataEvent;
-import pl.magzik.dotoi.manager.data.DataManager;
+import org.jetbrains.annotations.Nullable;
 import pl.magzik.dotoi.repository.ITaskRepository;
 import pl.magzik.dotoi.repository.TaskRepository;
 
 import java.io.File;
-import java.io.Serializable;
 import java.net.URI;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.*;
 
 /**
@@ -19,7 +18,23 @@ import java.util.*;
  * This class holds all relevant information about a task, such as its title, description, content, hyperlinks, and timestamps.
  * It also supports optional attributes like a deadline and recurrence rule.
  * <p>
- * Instances of this class are immutable except for the {@code completed} flag.
+ * The content is referenced through a {@link ContentHandle}, so it does not have to stay resident in memory.
+ * It is loaded on demand by {@link #getContent()}.
+ * <p>
+ * Instances of this class are immutable, so they can be safely shared between threads without locking.
+ * Changes are expressed as derivations (e.g., {@link #withCompleted(boolean)}, {@link #withTitle(String)}),
+ * which return a new task sharing all unchanged fields with the original one.
+ * The new task keeps the id, so it is considered equal to the original.
+ * <p>
+ * Many tasks share the same hyperlinks, short titles and description templates, so these values are deduplicated
+ * through weak canonical pools (see {@link Interner}). Strings longer than {@link #MAX_INTERNED_LENGTH} characters
+ * are unlikely to repeat, so they are not pooled. Hyperlink lists are pooled as a whole, so tasks
+ * with the same hyperlinks share a single immutable list.
+ * <p>
+ * Optional attributes are exposed both as {@link Optional}s and through raw accessors
+ * (e.g., {@link #hasDeadline()}, {@link #deadlineEpochSeconds()}, {@link #getRecurrenceRuleOrNull()}),
+ * which return primitives, sentinels or {@code null}. Loops over many tasks (indexes, sweeps, codecs) should use the latter,
+ * so they don't allocate an {@link Optional} per task.
  *
  * @see TaskRepository
  * @see ITaskRepository
@@ -28,17 +43,39 @@ import java.util.*;
  * @author Maksymilian Strzelczak
  * @version 1.0
  */
-public class Task implements Serializable {
+public class Task {
+
+    public static final int MAX_INTERNED_LENGTH = 128;
+
+    public static final long NO_DEADLINE = Long.MAX_VALUE; ///< Returned by epoch accessors of tasks without a deadline.
+
+    private static final Interner<String> STRINGS = new Interner<>();
+    private static final Interner<List<String>> HYPERLINKS = new Interner<>();
 
     private final UUID id;
     private final String title;
     private final String description;
-    private final String content;
+    private final ContentHandle content;
     private final List<String> hyperlinks; ///< Applications
     private final LocalDateTime createdAt;
     private final LocalDateTime deadline;
     private final RecurrenceRule recurrenceRule;
-    private boolean completed;
+    private final boolean completed;
+
+    @Contract(pure = true)
+    private Task(@NotNull UUID id, @NotNull String title, @NotNull String description, @NotNull ContentHandle content,
+                 @NotNull List<String> hyperlinks, @NotNull LocalDateTime createdAt, LocalDateTime deadline,
+                 RecurrenceRule recurrenceRule, boolean completed) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.content = content;
+        this.hyperlinks = hyperlinks;
+        this.createdAt = createdAt;
+        this.deadline = deadline;
+        this.recurrenceRule = recurrenceRule;
+        this.completed = completed;
+    }
 
     @Contract(pure = true)
     private Task(@NotNull Builder builder) {
@@ -46,7 +83,7 @@ public class Task implements Serializable {
         this.title = builder.title;
         this.description = builder.description;
         this.content = builder.content;
-        this.hyperlinks = List.copyOf(builder.hyperlinks);
+        this.hyperlinks = intern(builder.hyperlinks);
         this.createdAt = builder.createdAt;
         this.deadline = builder.deadline;
         this.recurrenceRule = builder.recurrenceRule;
@@ -57,7 +94,7 @@ public class Task implements Serializable {
         private UUID id;
         private final String title;
         private final String description;
-        private final String content;
+        private ContentHandle content;
         private final List<String> hyperlinks;
         private final LocalDateTime createdAt;
         private LocalDateTime deadline;
@@ -67,9 +104,9 @@ public class Task implements Serializable {
         public Builder(@NotNull String title, @NotNull String description, @NotNull String content, @NotNull List<String> hyperlinks, @NotNull LocalDateTime createdAt) {
             this.id = UUID.randomUUID();
             if (title.trim().isEmpty()) throw new IllegalArgumentException("Title shouldn't be empty.");
-            this.title = title;
-            this.description = description;
-            this.content = content;
+            this.title = intern(title);
+            this.description = intern(description);
+            this.content = ContentHandle.of(content);
             this.hyperlinks = hyperlinks;
             this.createdAt = createdAt;
             this.completed = false;
@@ -80,6 +117,11 @@ public class Task implements Serializable {
             return this;
         }
 
+        public @NotNull Builder content(@NotNull ContentHandle content) {
+            this.content = content;
+            return this;
+        }
+
         public @NotNull Builder deadline(@NotNull LocalDateTime deadline) {
             this.deadline = deadline;
             return this;
@@ -109,7 +151,18 @@ public class Task implements Serializable {
     public @NotNull String getDescription() {
         return description;
     }
+    /**
+     * Loads the content of this task.
+     * <p>
+     * Please note: Depending on the {@link ContentHandle}, this method may read the content from a persistent store.
+     * </p>
+     *
+     * @return the Markdown content.
+     */
     public @NotNull String getContent() {
+        return content.load();
+    }
+    public @NotNull ContentHandle getContentHandle() {
         return content;
     }
     public @NotNull List<String> getHyperlinks() {
@@ -124,26 +177,136 @@ public class Task implements Serializable {
     public Optional<RecurrenceRule> getRecurrenceRule() {
         return Optional.ofNullable(recurrenceRule);
     }
+    public boolean hasDeadline() {
+        return deadline != null;
+    }
+    public @Nullable LocalDateTime getDeadlineOrNull() {
+        return deadline;
+    }
+    /**
+     * Returns the deadline as seconds since the epoch, reading its wall-clock time as UTC.
+     * The value is meant for comparisons with other values of the same kind, not as an instant.
+     *
+     * @return the deadline in epoch seconds, or {@link #NO_DEADLINE} if the task has no deadline.
+     */
+    public long deadlineEpochSeconds() {
+        return deadline == null ? NO_DEADLINE : deadline.toEpochSecond(ZoneOffset.UTC);
+    }
+    /**
+     * Returns the deadline as milliseconds since the epoch, reading its wall-clock time as UTC.
+     *
+     * @return the deadline in epoch milliseconds, or {@link #NO_DEADLINE} if the task has no deadline.
+     * @see #deadlineEpochSeconds()
+     */
+    public long deadlineEpochMillis() {
+        return deadline == null ? NO_DEADLINE : deadline.toEpochSecond(ZoneOffset.UTC) * 1000L + deadline.getNano() / 1_000_000;
+    }
+    public boolean hasRecurrenceRule() {
+        return recurrenceRule != null;
+    }
+    public @Nullable RecurrenceRule getRecurrenceRuleOrNull() {
+        return recurrenceRule;
+    }
     public boolean isCompleted() {
         return completed;
     }
     /**
-     * Marks the task as completed and emits an event.
+     * Derives a task with the given completion state.
+     *
+     * @param completed The new completion state.
+     * @return a task sharing all other fields with this one, or this task if the state is unchanged.
      */
-    public void complete() {
-        if (!completed) {
-            completed = true;
-            DataManager.getInstance().notifySubscribers(new DataEvent.TaskCompleted(this));
-        }
+    public @NotNull Task withCompleted(boolean completed) {
+        if (this.completed == completed) return this;
+        return new Task(id, title, description, content, hyperlinks, createdAt, deadline, recurrenceRule, completed);
     }
     /**
-     * Marks the task as uncompleted and emits an event.
-     * */
-    public void uncomplete() {
-        if (completed) {
-            completed = false;
-            DataManager.getInstance().notifySubscribers(new DataEvent.TaskUncompleted(this));
-        }
+     * Derives a task with the given title.
+     *
+     * @param title The new, non-blank title.
+     * @return a task sharing all other fields with this one, or this task if the title is unchanged.
+     * @throws IllegalArgumentException if the title is blank.
+     */
+    public @NotNull Task withTitle(@NotNull String title) {
+        if (this.title.equals(title)) return this;
+        if (title.trim().isEmpty()) throw new IllegalArgumentException("Title shouldn't be empty.");
+        return new Task(id, intern(title), description, content, hyperlinks, createdAt, deadline, recurrenceRule, completed);
+    }
+    /**
+     * Derives a task with the given description.
+     *
+     * @param description The new description.
+     * @return a task sharing all other fields with this one, or this task if the description is unchanged.
+     */
+    public @NotNull Task withDescription(@NotNull String description) {
+        if (this.description.equals(description)) return this;
+        return new Task(id, title, intern(description), content, hyperlinks, createdAt, deadline, recurrenceRule, completed);
+    }
+    /**
+     * Derives a task with the given content, held in memory.
+     *
+     * @param content The new content.
+     * @return a task sharing all other fields with this one, or this task if the content is unchanged.
+     */
+    public @NotNull Task withContent(@NotNull String content) {
+        if (getContent().equals(content)) return this;
+        return withContent(ContentHandle.of(content));
+    }
+    /**
+     * Derives a task referencing its content through the given handle.
+     *
+     * @param content The new {@link ContentHandle}.
+     * @return a task sharing all other fields with this one.
+     */
+    public @NotNull Task withContent(@NotNull ContentHandle content) {
+        return new Task(id, title, description, content, hyperlinks, createdAt, deadline, recurrenceRule, completed);
+    }
+    /**
+     * Derives a task with the given hyperlinks.
+     *
+     * @param hyperlinks The new hyperlinks.
+     * @return a task sharing all other fields with this one, or this task if the hyperlinks are unchanged.
+     */
+    public @NotNull Task withHyperlinks(@NotNull List<String> hyperlinks) {
+        if (this.hyperlinks.equals(hyperlinks)) return this;
+        return new Task(id, title, description, content, intern(hyperlinks), createdAt, deadline, recurrenceRule, completed);
+    }
+    /**
+     * Derives a task with the given deadline.
+     *
+     * @param deadline The new deadline, or {@code null} to remove it.
+     * @return a task sharing all other fields with this one, or this task if the deadline is unchanged.
+     */
+    public @NotNull Task withDeadline(LocalDateTime deadline) {
+        if (Objects.equals(this.deadline, deadline)) return this;
+        return new Task(id, title, description, content, hyperlinks, createdAt, deadline, recurrenceRule, completed);
+    }
+    /**
+     * Derives a task with the given recurrence rule.
+     *
+     * @param recurrenceRule The new recurrence rule, or {@code null} to remove it.
+     * @return a task sharing all other fields with this one, or this task if the rule is unchanged.
+     */
+    public @NotNull Task withRecurrenceRule(RecurrenceRule recurrenceRule) {
+        if (Objects.equals(this.recurrenceRule, recurrenceRule)) return this;
+        return new Task(id, title, description, content, hyperlinks, createdAt, deadline, recurrenceRule, completed);
+    }
+
+    /**
+     * @return the canonical instance of the string, or the string itself if it is too long to be pooled.
+     */
+    private static @NotNull String intern(@NotNull String value) {
+        return value.length() > MAX_INTERNED_LENGTH ? value : STRINGS.intern(value);
+    }
+
+    /**
+     * @return the canonical immutable list of canonical hyperlinks equal to the given list.
+     */
+    private static @NotNull List<String> intern(@NotNull List<String> hyperlinks) {
+        if (hyperlinks.isEmpty()) return List.of();
+        String[] canonical = new String[hyperlinks.size()];
+        for (int i = 0; i < canonical.length; i++) canonical[i] = intern(hyperlinks.get(i));
+        return HYPERLINKS.intern(List.of(canonical));
     }
 
     @Override
@@ -151,7 +314,7 @@ public class Task implements Serializable {
         return new StringJoiner(", ", Task.class.getSimpleName() + "[", "]")
                 .add("title='" + title + "'")
                 .add("description='" + description + "'")
-                .add("content='" + content + "'")
+                .add("content=" + content)
                 .add("hyperlinks=" + hyperlinks)
                 .add("createdAt=" + createdAt)
                 .add("deadline=" + deadline)
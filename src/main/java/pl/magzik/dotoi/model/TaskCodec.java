@@ -0,0 +1,301 @@
+package pl.magzik.dotoi.model;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Serial;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A compact, versioned binary codec for {@link Task} and {@link RecurrenceRule}.
+ * <p>
+ * The codec reads and writes directly from/to a {@link ByteBuffer}, without any intermediate byte arrays or object graphs.
+ * The layout of an encoded task (version 1) is as follows:
+ * <ol>
+ *     <li>version ({@code byte}),</li>
+ *     <li>flags ({@code byte}): completed, has deadline, has recurrence rule, content stored externally,</li>
+ *     <li>id as two {@code long}s,</li>
+ *     <li>title and description as length-prefixed UTF-8,</li>
+ *     <li>content: either length-prefixed UTF-8, or the offset ({@code long}) and length ({@code int}) of a {@link ContentHandle.Stored},</li>
+ *     <li>hyperlinks: count ({@code int}) followed by length-prefixed UTF-8 strings,</li>
+ *     <li>creation time as epoch second ({@code long}) and nanos ({@code int}),</li>
+ *     <li>optional deadline, encoded like the creation time,</li>
+ *     <li>optional recurrence rule: packed type, day of week, day of month and end date flag ({@code int}), interval ({@code int})
+ *         and optional end date.</li>
+ * </ol>
+ * Timestamps are encoded as if they were in UTC, so local date-times are restored exactly.
+ * </p>
+ *
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ *     ByteBuffer buffer = ByteBuffer.allocate(TaskCodec.encodedSize(task));
+ *     TaskCodec.encode(task, buffer);
+ *     buffer.flip();
+ *     Task decoded = TaskCodec.decode(buffer, contentStore::handle);
+ * }</pre>
+ * </p>
+ *
+ * @see Task
+ * @see RecurrenceRule
+ *
+ * @since 0.1
+ * @author Maksymilian Strzelczak
+ * @version 1.0
+ */
+public final class TaskCodec {
+
+    public static final byte VERSION = 1;
+
+    private static final int FLAG_COMPLETED = 1,
+                             FLAG_DEADLINE = 1 << 1,
+                             FLAG_RECURRENCE = 1 << 2,
+                             FLAG_STORED_CONTENT = 1 << 3;
+
+    private static final int RULE_TYPE_BITS = 2,
+                             RULE_DAY_OF_WEEK_BITS = 3,
+                             RULE_DAY_OF_MONTH_BITS = 5;
+
+    private static final int TIMESTAMP_SIZE = Long.BYTES + Integer.BYTES;
+
+    private TaskCodec() {}
+
+    /**
+     * Resolves a stored content handle from its position, used when decoding tasks with externally stored content.
+     */
+    @FunctionalInterface
+    public interface ContentResolver {
+        @NotNull ContentHandle handle(long offset, int length);
+    }
+
+    /**
+     * Computes the exact number of bytes needed to encode the given task.
+     *
+     * @param task The {@link Task} to measure.
+     * @return the encoded size in bytes.
+     */
+    public static int encodedSize(@NotNull Task task) {
+        int size = 2 + 2 * Long.BYTES;
+        size += stringSize(task.getTitle()) + stringSize(task.getDescription());
+        size += task.getContentHandle() instanceof ContentHandle.Stored ? Long.BYTES + Integer.BYTES : stringSize(task.getContent());
+        size += Integer.BYTES;
+        for (String hyperlink : task.getHyperlinks()) size += stringSize(hyperlink);
+        size += TIMESTAMP_SIZE;
+        if (task.hasDeadline()) size += TIMESTAMP_SIZE;
+        RecurrenceRule rule = task.getRecurrenceRuleOrNull();
+        if (rule != null) size += 2 * Integer.BYTES + (rule.hasEndDate() ? TIMESTAMP_SIZE : 0);
+        return size;
+    }
+
+    /**
+     * Encodes the given task into the buffer, starting at its current position.
+     *
+     * @param task The {@link Task} to encode.
+     * @param buffer The target {@link ByteBuffer}, with at least {@link #encodedSize(Task)} bytes remaining.
+     * @throws java.nio.BufferOverflowException if there is not enough space in the buffer.
+     */
+    public static void encode(@NotNull Task task, @NotNull ByteBuffer buffer) {
+        LocalDateTime deadline = task.getDeadlineOrNull();
+        RecurrenceRule rule = task.getRecurrenceRuleOrNull();
+        ContentHandle content = task.getContentHandle();
+
+        int flags = 0;
+        if (task.isCompleted()) flags |= FLAG_COMPLETED;
+        if (deadline != null) flags |= FLAG_DEADLINE;
+        if (rule != null) flags |= FLAG_RECURRENCE;
+        if (content instanceof ContentHandle.Stored) flags |= FLAG_STORED_CONTENT;
+
+        buffer.put(VERSION);
+        buffer.put((byte) flags);
+        buffer.putLong(task.getId().getMostSignificantBits());
+        buffer.putLong(task.getId().getLeastSignificantBits());
+        putString(buffer, task.getTitle());
+        putString(buffer, task.getDescription());
+        if (content instanceof ContentHandle.Stored stored) {
+            buffer.putLong(stored.offset());
+            buffer.putInt(stored.length());
+        } else {
+            putString(buffer, content.load());
+        }
+        List<String> hyperlinks = task.getHyperlinks();
+        buffer.putInt(hyperlinks.size());
+        for (String hyperlink : hyperlinks) putString(buffer, hyperlink);
+        putTimestamp(buffer, task.getCreatedAt());
+        if (deadline != null) putTimestamp(buffer, deadline);
+        if (rule != null) encodeRule(rule, buffer);
+    }
+
+    /**
+     * Decodes a task from the buffer, starting at its current position.
+     *
+     * @param buffer The source {@link ByteBuffer}.
+     * @param resolver The {@link ContentResolver} for externally stored contents, or {@code null} if there are none.
+     * @return the decoded {@link Task}.
+     * @throws CodecException if the encoded data is unsupported or malformed.
+     * @throws java.nio.BufferUnderflowException if the buffer ends prematurely.
+     */
+    public static @NotNull Task decode(@NotNull ByteBuffer buffer, @Nullable ContentResolver resolver) {
+        byte version = buffer.get();
+        if (version != VERSION) throw new CodecException("Unsupported task encoding version: " + version);
+
+        int flags = buffer.get();
+        UUID id = new UUID(buffer.getLong(), buffer.getLong());
+        String title = getString(buffer);
+        String description = getString(buffer);
+        ContentHandle content;
+        if ((flags & FLAG_STORED_CONTENT) != 0) {
+            long offset = buffer.getLong();
+            int length = buffer.getInt();
+            if (resolver == null) throw new CodecException("Task " + id + " references stored content, but no resolver was given.");
+            content = resolver.handle(offset, length);
+        } else {
+            content = ContentHandle.of(getString(buffer));
+        }
+        int hyperlinkCount = buffer.getInt();
+        if (hyperlinkCount < 0 || hyperlinkCount > buffer.remaining() / Integer.BYTES) {
+            throw new CodecException("Malformed hyperlink count: " + hyperlinkCount);
+        }
+        List<String> hyperlinks = new ArrayList<>(hyperlinkCount);
+        for (int i = 0; i < hyperlinkCount; i++) hyperlinks.add(getString(buffer));
+        LocalDateTime createdAt = getTimestamp(buffer);
+
+        Task.Builder builder = new Task.Builder(title, description, "", hyperlinks, createdAt)
+                .id(id)
+                .content(content)
+                .completed((flags & FLAG_COMPLETED) != 0);
+        if ((flags & FLAG_DEADLINE) != 0) builder.deadline(getTimestamp(buffer));
+        if ((flags & FLAG_RECURRENCE) != 0) builder.recurrenceRule(decodeRule(buffer));
+        return builder.build();
+    }
+
+    private static void encodeRule(@NotNull RecurrenceRule rule, @NotNull ByteBuffer buffer) {
+        if (rule.getDayOfMonth() < 0 || rule.getDayOfMonth() >= 1 << RULE_DAY_OF_MONTH_BITS) {
+            throw new CodecException("Day of month out of range: " + rule.getDayOfMonth());
+        }
+        int packed = rule.getRecurrenceType().ordinal();
+        packed |= (rule.getDayOfWeek() == null ? 0 : rule.getDayOfWeek().getValue()) << RULE_TYPE_BITS;
+        packed |= rule.getDayOfMonth() << (RULE_TYPE_BITS + RULE_DAY_OF_WEEK_BITS);
+        if (rule.hasEndDate()) packed |= 1 << (RULE_TYPE_BITS + RULE_DAY_OF_WEEK_BITS + RULE_DAY_OF_MONTH_BITS);
+        buffer.putInt(packed);
+        buffer.putInt(rule.getInterval());
+        if (rule.hasEndDate()) putTimestamp(buffer, rule.getEndDate());
+    }
+
+    private static @NotNull RecurrenceRule decodeRule(@NotNull ByteBuffer buffer) {
+        int packed = buffer.getInt();
+        RecurrenceRule.RecurrenceType[] types = RecurrenceRule.RecurrenceType.values();
+        int type = packed & ((1 << RULE_TYPE_BITS) - 1);
+        if (type >= types.length) throw new CodecException("Malformed recurrence type: " + type);
+        int dayOfWeek = (packed >>> RULE_TYPE_BITS) & ((1 << RULE_DAY_OF_WEEK_BITS) - 1);
+        int dayOfMonth = (packed >>> (RULE_TYPE_BITS + RULE_DAY_OF_WEEK_BITS)) & ((1 << RULE_DAY_OF_MONTH_BITS) - 1);
+        boolean hasEndDate = (packed >>> (RULE_TYPE_BITS + RULE_DAY_OF_WEEK_BITS + RULE_DAY_OF_MONTH_BITS) & 1) != 0;
+
+        RecurrenceRule.Builder builder = new RecurrenceRule.Builder(types[type])
+                .interval(buffer.getInt())
+                .dayOfMonth(dayOfMonth);
+        if (dayOfWeek != 0) builder.dayOfWeek(DayOfWeek.of(dayOfWeek));
+        if (hasEndDate) builder.endDate(getTimestamp(buffer));
+        return builder.build();
+    }
+
+    private static void putTimestamp(@NotNull ByteBuffer buffer, @NotNull LocalDateTime timestamp) {
+        buffer.putLong(timestamp.toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(timestamp.getNano());
+    }
+
+    private static @NotNull LocalDateTime getTimestamp(@NotNull ByteBuffer buffer) {
+        long epochSecond = buffer.getLong();
+        int nano = buffer.getInt();
+        if (nano < 0 || nano > 999_999_999) throw new CodecException("Malformed timestamp nanos: " + nano);
+        return LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+    }
+
+    private static int stringSize(@NotNull String value) {
+        return Integer.BYTES + utf8Length(value);
+    }
+
+    /**
+     * Computes the number of bytes needed to encode the given string in UTF-8.
+     * Unpaired surrogates are counted as a single replacement byte, consistently with {@link #putString(ByteBuffer, String)}.
+     */
+    private static int utf8Length(@NotNull String value) {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) length++;
+            else if (c < 0x800) length += 2;
+            else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) length++;
+            else length += 3;
+        }
+        return length;
+    }
+
+    /**
+     * Writes the given string as length-prefixed UTF-8 directly into the buffer.
+     */
+    private static void putString(@NotNull ByteBuffer buffer, @NotNull String value) {
+        buffer.putInt(utf8Length(value));
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer.put((byte) (0xF0 | (codePoint >> 18)));
+                buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                buffer.put((byte) '?');
+            } else {
+                buffer.put((byte) (0xE0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    /**
+     * Reads a length-prefixed UTF-8 string, decoding it straight from the buffer's backing array when possible.
+     */
+    private static @NotNull String getString(@NotNull ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) throw new CodecException("Malformed string length: " + length);
+
+        String value;
+        if (buffer.hasArray()) {
+            value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return value;
+    }
+
+    /**
+     * Exception thrown when encoded task data is unsupported or malformed.
+     */
+    public static class CodecException extends RuntimeException {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        public CodecException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package pl.magzik.dotoi.model;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.UUID;
+
+/**
+ * Represents a lightweight, read-only projection of a {@link Task} used for list rendering.
+ * <p>
+ * This class holds only the fields displayed in the task list, so it does not retain
+ * the task content, hyperlinks or the recurrence rule. The description is truncated
+ * to at most {@link #MAX_DESCRIPTION_LENGTH} characters.
+ * <p>
+ * The full {@link Task} should be loaded by its id only when it is actually needed (e.g., in the task editor).
+ * The formatted creation date is computed on first use and cached, so recycled table cells don't format it on every update.
+ * Similarly to {@link Task}, summaries are compared to each other by their id.
+ *
+ * @see Task
+ *
+ * @since 0.1
+ * @author Maksymilian Strzelczak
+ * @version 1.0
+ */
+public final class TaskSummary {
+
+    public static final int MAX_DESCRIPTION_LENGTH = 100;
+
+    private final UUID id;
+    private final String title;
+    private final String description;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime deadline;
+    private final boolean completed;
+
+    private String createdDate; ///< Lazily formatted, racy initialization is harmless as the result is always equal.
+
+    @Contract(pure = true)
+    private TaskSummary(@NotNull UUID id, @NotNull String title, @NotNull String description,
+                        @NotNull LocalDateTime createdAt, LocalDateTime deadline, boolean completed) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.createdAt = createdAt;
+        this.deadline = deadline;
+        this.completed = completed;
+    }
+
+    /**
+     * Creates a summary of the given task.
+     *
+     * @param task The {@link Task} to summarize.
+     * @return a new {@link TaskSummary}.
+     */
+    public static @NotNull TaskSummary of(@NotNull Task task) {
+        return new TaskSummary(
+            task.getId(),
+            task.getTitle(),
+            truncate(task.getDescription()),
+            task.getCreatedAt(),
+            task.getDeadlineOrNull(),
+            task.isCompleted()
+        );
+    }
+
+    private static @NotNull String truncate(@NotNull String description) {
+        if (description.length() <= MAX_DESCRIPTION_LENGTH) return description;
+        return description.substring(0, MAX_DESCRIPTION_LENGTH - 1) + "…";
+    }
+
+    public @NotNull UUID getId() {
+        return id;
+    }
+    public @NotNull String getTitle() {
+        return title;
+    }
+    public @NotNull String getDescription() {
+        return description;
+    }
+    public @NotNull LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    /**
+     * @return the creation date in the ISO-8601 format (e.g. {@code 2025-01-31}).
+     */
+    public @NotNull String getCreatedDate() {
+        String date = createdDate;
+        if (date == null) createdDate = date = createdAt.toLocalDate().toString();
+        return date;
+    }
+    public Optional<LocalDateTime> getDeadline() {
+        return Optional.ofNullable(deadline);
+    }
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", TaskSummary.class.getSimpleName() + "[", "]")
+                .add("id=" + id)
+                .add("title='" + title + "'")
+                .add("createdAt=" + createdAt)
+                .add("deadline=" + deadline)
+                .add("completed=" + completed)
+                .toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        TaskSummary that = (TaskSummary) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+}
@@ -0,0 +1,176 @@
+package pl.magzik.dotoi.repository;
+
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pl.magzik.dotoi.model.ContentHandle;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Serial;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Append-only file store for task contents.
+ * <p>
+ * Every stored content is appended to the end of the file as UTF-8 bytes and referenced by a {@link StoredContent}
+ * handle (offset and length into the file). Contents are read back on demand, and a small bounded cache
+ * keeps the most recently opened ones in memory. Thanks to this, resident memory scales with the number of
+ * open editors rather than with the total size of all contents.
+ * </p>
+ *
+ * <p>
+ * Please note: The space of contents that are no longer referenced is not reclaimed.
+ * </p>
+ *
+ * @see StoredContent
+ * @see ContentHandle
+ *
+ * @since 0.1
+ * @author Maksymilian Strzelczak
+ * @version 1.0
+ */
+public class ContentStore implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ContentStore.class);
+
+    private static final int DEFAULT_CACHE_CAPACITY = 16;
+
+    private final FileChannel channel;
+    private final Map<Long, String> cache;
+
+    /**
+     * Opens (or creates) the content store with the default cache capacity.
+     *
+     * @param file The path of the content file.
+     * @throws ContentStoreException if the file couldn't be opened.
+     */
+    public ContentStore(@NotNull Path file) {
+        this(file, DEFAULT_CACHE_CAPACITY);
+    }
+
+    /**
+     * Opens (or creates) the content store.
+     *
+     * @param file The path of the content file.
+     * @param cacheCapacity The maximum number of contents kept in the cache.
+     * @throws ContentStoreException if the file couldn't be opened.
+     */
+    public ContentStore(@NotNull Path file, int cacheCapacity) {
+        try {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new ContentStoreException("Couldn't open the content store: " + file, e);
+        }
+        this.cache = new LinkedHashMap<>(cacheCapacity, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, String> eldest) {
+                return size() > cacheCapacity;
+            }
+        };
+        log.info("Content store initialized: {}", file);
+    }
+
+    /**
+     * Appends the given content to the store.
+     *
+     * @param content The content to store.
+     * @return a {@link ContentHandle} referencing the stored content.
+     * @throws ContentStoreException if the content couldn't be written.
+     */
+    public synchronized @NotNull ContentHandle store(@NotNull String content) {
+        ByteBuffer buffer = ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8));
+        try {
+            long offset = channel.size();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, offset + buffer.position());
+            }
+            log.debug("Stored content of {} bytes at offset {}.", buffer.limit(), offset);
+            return new StoredContent(this, offset, buffer.limit());
+        } catch (IOException e) {
+            throw new ContentStoreException("Couldn't write the content.", e);
+        }
+    }
+
+    /**
+     * Creates a handle referencing an already stored content, e.g. when decoding persisted tasks.
+     *
+     * @param offset The offset of the content in the file.
+     * @param length The length of the content in bytes.
+     * @return a {@link ContentHandle} referencing the stored content.
+     */
+    public @NotNull ContentHandle handle(long offset, int length) {
+        return new StoredContent(this, offset, length);
+    }
+
+    /**
+     * Reads the content at the given position, consulting the cache first.
+     *
+     * @param offset The offset of the content in the file.
+     * @param length The length of the content in bytes.
+     * @return the content.
+     * @throws ContentStoreException if the content couldn't be read.
+     */
+    @NotNull String read(long offset, int length) {
+        if (length == 0) return ""; ///< Shares its offset with the next content, so it mustn't be cached.
+        synchronized (cache) {
+            String cached = cache.get(offset);
+            if (cached != null) return cached;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        try {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, offset + buffer.position()) < 0) {
+                    throw new EOFException("Unexpected end of the content store at offset " + (offset + buffer.position()));
+                }
+            }
+        } catch (IOException e) {
+            throw new ContentStoreException("Couldn't read the content at offset " + offset + ".", e);
+        }
+
+        String content = new String(buffer.array(), StandardCharsets.UTF_8);
+        synchronized (cache) {
+            cache.put(offset, content);
+        }
+        return content;
+    }
+
+    /**
+     * Forces all stored contents to the storage device.
+     *
+     * @throws ContentStoreException if the file couldn't be synced.
+     */
+    public void force() {
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            throw new ContentStoreException("Couldn't sync the content store.", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+        log.info("Content store closed.");
+    }
+
+    /**
+     * Exception thrown when the content store couldn't be accessed.
+     */
+    public static class ContentStoreException extends RuntimeException {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        public ContentStoreException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package pl.magzik.dotoi.repository;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pl.magzik.dotoi.model.Task;
+import pl.magzik.dotoi.model.TaskCodec;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serial;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * A durable {@link TaskRepository}, which persists tasks in a snapshot file and a journal of changes.
+ * <p>
+ * Tasks are kept and queried in memory, exactly as in {@link TaskRepository}. Additionally, every change is appended
+ * to the journal as a record containing the current state of the changed task. Both files consist of records
+ * in the following format:
+ * <pre>
+ * [int length][int CRC32C][byte operation][payload]
+ * </pre>
+ * where the length covers the operation and the payload, and the checksum is computed over them.
+ * The payload of a save is the task encoded with {@link TaskCodec}, the payload of a delete is the task id.
+ * </p>
+ *
+ * <p>
+ * Records are written without syncing, {@link #flush()} forces them (and the {@link ContentStore}) to the device,
+ * so a batch of changes costs a single sync. When the journal grows over {@link #SNAPSHOT_THRESHOLD} bytes,
+ * the flush writes all tasks to a temporary snapshot, syncs it, atomically renames it over the previous snapshot
+ * and truncates the journal. Replaying a record is idempotent, so a crash between the rename and the truncation is harmless.
+ * </p>
+ *
+ * <p>
+ * On start, the snapshot and the journal are replayed. The replay stops at the first incomplete or corrupted record
+ * (e.g., torn by a crash in the middle of a write), and the journal is truncated to the last valid record,
+ * so new records are never appended after garbage.
+ * </p>
+ *
+ * @see TaskRepository
+ * @see TaskCodec
+ *
+ * @since 0.1
+ * @author Maksymilian Strzelczak
+ * @version 1.0
+ */
+public final class FileTaskRepository extends TaskRepository implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(FileTaskRepository.class);
+
+    public static final long SNAPSHOT_THRESHOLD = 4L << 20;
+
+    private static final String SNAPSHOT_FILE = "tasks.snapshot",
+                                SNAPSHOT_TEMP_FILE = "tasks.snapshot.tmp",
+                                JOURNAL_FILE = "tasks.journal";
+
+    private static final byte OP_SAVE = 1, OP_DELETE = 2;
+
+    private static final int HEADER_SIZE = 2 * Integer.BYTES;
+    private static final int MAX_RECORD_SIZE = 64 << 20; ///< Anything larger is treated as a corrupted length.
+    private static final int ID_SIZE = 2 * Long.BYTES;
+
+    private final Path directory;
+    private final ContentStore contentStore;
+    private final FileChannel journal;
+    private final Object journalLock;
+
+    private long journalSize;
+
+    /**
+     * Opens (or creates) the repository in the given directory and recovers its content.
+     *
+     * @param directory The directory of the repository files.
+     * @param contentStore The {@link ContentStore} for task contents, or {@code null} to keep them in the journal.
+     * @throws StorageException if the files couldn't be opened or read.
+     */
+    public FileTaskRepository(@NotNull Path directory, @Nullable ContentStore contentStore) {
+        super(contentStore);
+        this.directory = directory;
+        this.contentStore = contentStore;
+        this.journalLock = new Object();
+
+        try {
+            Files.createDirectories(directory);
+            Files.deleteIfExists(directory.resolve(SNAPSHOT_TEMP_FILE)); ///< An unfinished snapshot.
+
+            Path snapshot = directory.resolve(SNAPSHOT_FILE);
+            if (Files.exists(snapshot)) {
+                long valid = replay(snapshot);
+                if (valid != Files.size(snapshot)) log.error("Snapshot is corrupted after {} bytes, the rest is ignored.", valid);
+            }
+
+            Path journalFile = directory.resolve(JOURNAL_FILE);
+            this.journal = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.journalSize = replay(journalFile);
+            if (journalSize != journal.size()) {
+                log.warn("Journal has a torn tail, truncating it from {} to {} bytes.", journal.size(), journalSize);
+                journal.truncate(journalSize);
+                journal.force(true);
+            }
+        } catch (IOException e) {
+            throw new StorageException("Couldn't open the task repository in " + directory, e);
+        }
+        log.info("File task repository initialized with {} tasks: {}", size(), directory);
+    }
+
+    @Override
+    public void save(@NotNull Task task) {
+        super.save(task);
+        append(List.of(task.getId()));
+    }
+
+    @Override
+    public void update(@NotNull Task task) {
+        super.update(task);
+        append(List.of(task.getId()));
+    }
+
+    @Override
+    public void saveAll(@NotNull List<Task> tasks) {
+        super.saveAll(tasks);
+        append(tasks.stream().map(Task::getId).toList());
+    }
+
+    @Override
+    public @NotNull Optional<Task> setCompleted(@NotNull UUID id, boolean completed) {
+        Optional<Task> updated = super.setCompleted(id, completed);
+        if (updated.isPresent()) append(List.of(id));
+        return updated;
+    }
+
+    @Override
+    public @NotNull List<Task> setCompletedAll(@NotNull Collection<UUID> ids, boolean completed) {
+        List<Task> updated = super.setCompletedAll(ids, completed);
+        if (!updated.isEmpty()) append(updated.stream().map(Task::getId).toList());
+        return updated;
+    }
+
+    @Override
+    public void delete(@NotNull Task task) {
+        super.delete(task);
+        append(List.of(task.getId()));
+    }
+
+    @Override
+    public void deleteAll(@NotNull List<Task> tasks) {
+        super.deleteAll(tasks);
+        append(tasks.stream().map(Task::getId).toList());
+    }
+
+    /**
+     * Forces all appended records to the storage device, and writes a new snapshot if the journal is too large.
+     *
+     * @throws StorageException if the files couldn't be written.
+     */
+    @Override
+    public void flush() {
+        if (contentStore != null) contentStore.force(); ///< Records may reference the stored contents.
+        synchronized (journalLock) {
+            try {
+                journal.force(false);
+                if (journalSize > SNAPSHOT_THRESHOLD) snapshot();
+            } catch (IOException e) {
+                throw new StorageException("Couldn't sync the journal.", e);
+            }
+        }
+    }
+
+    /**
+     * Writes a snapshot of all tasks and closes the journal.
+     *
+     * @throws IOException if the files couldn't be written or closed.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (journalLock) {
+            if (contentStore != null) contentStore.force();
+            snapshot();
+            journal.close();
+        }
+        log.info("File task repository closed.");
+    }
+
+    /**
+     * Appends the current state of the given tasks to the journal.
+     * <p>
+     * The state is read under the journal lock, so the last record of a task always reflects its last change,
+     * even if the task is changed concurrently.
+     * </p>
+     */
+    private void append(@NotNull List<UUID> ids) {
+        synchronized (journalLock) {
+            List<ByteBuffer> records = new ArrayList<>(ids.size());
+            int size = 0;
+            for (UUID id : ids) {
+                ByteBuffer record = findById(id).map(FileTaskRepository::saveRecord)
+                                                .orElseGet(() -> deleteRecord(id));
+                records.add(record);
+                size += record.remaining();
+            }
+
+            ByteBuffer batch = ByteBuffer.allocate(size);
+            records.forEach(batch::put);
+            batch.flip();
+            try {
+                write(journal, batch, journalSize);
+                journalSize += size;
+            } catch (IOException e) {
+                throw new StorageException("Couldn't append to the journal.", e);
+            }
+        }
+    }
+
+    /**
+     * Replaces the snapshot with the current state of all tasks and truncates the journal.
+     * Must be called under the journal lock.
+     */
+    private void snapshot() throws IOException {
+        Path temp = directory.resolve(SNAPSHOT_TEMP_FILE);
+        int count = 0;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long position = 0;
+            for (Task task : findAll()) {
+                ByteBuffer record = saveRecord(task);
+                position += write(channel, record, position);
+                count++;
+            }
+            channel.force(true);
+        }
+        Files.move(temp, directory.resolve(SNAPSHOT_FILE), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        journal.truncate(0);
+        journal.force(true);
+        journalSize = 0;
+        log.info("Snapshot of {} tasks written.", count);
+    }
+
+    /**
+     * Applies all valid records of the given file.
+     *
+     * @return the length of the valid prefix of the file.
+     */
+    private long replay(@NotNull Path file) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            return readRecords(new DataInputStream(in), this::apply);
+        }
+    }
+
+    private void apply(@NotNull ByteBuffer record) {
+        byte op = record.get();
+        if (op == OP_SAVE) {
+            super.update(TaskCodec.decode(record, contentStore == null ? null : contentStore::handle));
+        } else if (op == OP_DELETE) {
+            if (record.remaining() != ID_SIZE) throw new TaskCodec.CodecException("Malformed delete record.");
+            findById(new UUID(record.getLong(), record.getLong())).ifPresent(super::delete);
+        } else {
+            throw new TaskCodec.CodecException("Unknown journal operation: " + op);
+        }
+    }
+
+    /**
+     * Reads records until the end of the stream or the first invalid record.
+     *
+     * @param in The source stream.
+     * @param consumer The consumer of the bodies (operation and payload) of valid records.
+     * @return the number of bytes occupied by the valid records.
+     */
+    private static long readRecords(@NotNull DataInputStream in, @NotNull Consumer<ByteBuffer> consumer) throws IOException {
+        CRC32C crc = new CRC32C();
+        long valid = 0;
+        while (true) {
+            byte[] body;
+            int checksum;
+            try {
+                int length = in.readInt();
+                if (length <= 0 || length > MAX_RECORD_SIZE) return valid;
+                checksum = in.readInt();
+                body = new byte[length];
+                in.readFully(body);
+            } catch (EOFException e) {
+                return valid; ///< A clean end, or a torn header or body.
+            }
+
+            crc.reset();
+            crc.update(body);
+            if ((int) crc.getValue() != checksum) return valid;
+
+            try {
+                consumer.accept(ByteBuffer.wrap(body));
+            } catch (TaskCodec.CodecException | BufferUnderflowException e) {
+                log.error("Valid checksum, but malformed record at offset {}: {}", valid, e.getMessage());
+                return valid;
+            }
+            valid += HEADER_SIZE + body.length;
+        }
+    }
+
+    private static @NotNull ByteBuffer saveRecord(@NotNull Task task) {
+        ByteBuffer record = header(1 + TaskCodec.encodedSize(task));
+        record.put(OP_SAVE);
+        TaskCodec.encode(task, record);
+        return seal(record);
+    }
+
+    private static @NotNull ByteBuffer deleteRecord(@NotNull UUID id) {
+        ByteBuffer record = header(1 + ID_SIZE);
+        record.put(OP_DELETE);
+        record.putLong(id.getMostSignificantBits());
+        record.putLong(id.getLeastSignificantBits());
+        return seal(record);
+    }
+
+    private static @NotNull ByteBuffer header(int length) {
+        ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + length);
+        record.putInt(length);
+        record.putInt(0); ///< Checksum placeholder, filled by seal.
+        return record;
+    }
+
+    private static @NotNull ByteBuffer seal(@NotNull ByteBuffer record) {
+        CRC32C crc = new CRC32C();
+        crc.update(record.array(), HEADER_SIZE, record.position() - HEADER_SIZE);
+        record.putInt(Integer.BYTES, (int) crc.getValue());
+        return record.flip();
+    }
+
+    private static int write(@NotNull FileChannel channel, @NotNull ByteBuffer buffer, long position) throws IOException {
+        int written = 0;
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer, position + written);
+        }
+        return written;
+    }
+
+    /**
+     * Exception thrown when the repository files couldn't be accessed.
+     */
+    public static class StorageException extends RuntimeException {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        public StorageException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
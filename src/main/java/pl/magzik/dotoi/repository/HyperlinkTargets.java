@@ -0,0 +1,108 @@
+package pl.magzik.dotoi.repository;
+
+import org.jetbrains.annotations.NotNull;
+import pl.magzik.dotoi.model.Task;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Normalization of hyperlink targets, so that the same application or URL written in different ways is found
+ * by {@link TaskQuery.Builder#hyperlink(String)}.
+ * <p>
+ * Hyperlinks are stored in tasks as raw strings, so the same application or URL may be written in many ways.
+ * Repositories index and look up the normalized targets (see {@link #normalize(String)}):
+ * <ul>
+ *     <li>redundant elements of file paths and {@code file:} URIs are removed, relative paths stay relative,</li>
+ *     <li>the scheme and the host of other URIs are lowercased, and default ports are removed.</li>
+ * </ul>
+ * </p>
+ *
+ * @see TaskQuery#matches(Task)
+ *
+ * @since 0.1
+ * @author Maksymilian Strzelczak
+ * @version 1.0
+ */
+public final class HyperlinkTargets {
+
+    private HyperlinkTargets() {}
+
+    /**
+     * @param task The {@link Task} whose hyperlinks are normalized.
+     * @return the distinct normalized targets of all hyperlinks of the task.
+     */
+    public static @NotNull Set<String> of(@NotNull Task task) {
+        List<String> hyperlinks = task.getHyperlinks();
+        if (hyperlinks.isEmpty()) return Set.of();
+        Set<String> targets = new HashSet<>();
+        for (String hyperlink : hyperlinks) targets.add(normalize(hyperlink));
+        return targets;
+    }
+
+    /**
+     * Normalizes the hyperlink target, so that different spellings of the same target are equal.
+     *
+     * @param target The raw hyperlink.
+     * @return the normalized target, or the stripped hyperlink if it is neither a valid URI nor a valid path.
+     */
+    public static @NotNull String normalize(@NotNull String target) {
+        String stripped = target.strip();
+        int colon = stripped.indexOf(':');
+        if (colon > 1 && isScheme(stripped, colon)) { ///< A single letter is a Windows drive rather than a scheme.
+            try {
+                return normalizeUri(new URI(stripped).normalize());
+            } catch (URISyntaxException | IllegalArgumentException | FileSystemNotFoundException e) {
+                return stripped;
+            }
+        }
+        try {
+            return Path.of(stripped).normalize().toString();
+        } catch (InvalidPathException e) {
+            return stripped;
+        }
+    }
+
+    private static @NotNull String normalizeUri(@NotNull URI uri) {
+        String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+        if (scheme.equals("file")) return Path.of(uri).normalize().toString();
+        if (uri.isOpaque() || uri.getHost() == null) return scheme + ":" + uri.getRawSchemeSpecificPart() + fragment(uri);
+
+        StringBuilder out = new StringBuilder(scheme).append("://");
+        if (uri.getRawUserInfo() != null) out.append(uri.getRawUserInfo()).append('@');
+        out.append(uri.getHost().toLowerCase(Locale.ROOT));
+        if (uri.getPort() != -1 && uri.getPort() != defaultPort(scheme)) out.append(':').append(uri.getPort());
+        out.append(uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath());
+        if (uri.getRawQuery() != null) out.append('?').append(uri.getRawQuery());
+        return out.append(fragment(uri)).toString();
+    }
+
+    private static @NotNull String fragment(@NotNull URI uri) {
+        return uri.getRawFragment() == null ? "" : "#" + uri.getRawFragment();
+    }
+
+    private static int defaultPort(@NotNull String scheme) {
+        return switch (scheme) {
+            case "http" -> 80;
+            case "https" -> 443;
+            case "ftp" -> 21;
+            default -> -1;
+        };
+    }
+
+    private static boolean isScheme(@NotNull String text, int end) {
+        if (!Character.isLetter(text.charAt(0))) return false;
+        for (int i = 1; i < end; i++) {
+            char c = text.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c != '+' && c != '-' && c != '.') return false;
+        }
+        return true;
+    }
+}
@@ -1,9 +1,16 @@
 package pl.magzik.dotoi.repository;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import pl.magzik.dotoi.model.Task;
+import pl.magzik.dotoi.model.TaskSummary;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 /**
  * Interface defining the necessary CRUD operations for any task repository implementation.
@@ -35,10 +42,164 @@ public interface ITaskRepository {
      * @param task The {@link Task} object to be deleted.
      */
     void delete(@NotNull Task task);
+    /**
+     * Replaces the stored task having the same id as the given one.
+     * If there is no such task, the given task is saved.
+     * <p>
+     * The default implementation is not atomic, implementations should override it,
+     * so that readers never observe the task missing.
+     * </p>
+     *
+     * @param task The new version of the {@link Task}.
+     */
+    default void update(@NotNull Task task) {
+        delete(task);
+        save(task);
+    }
+    /**
+     * Saves all given tasks, replacing the stored ones having the same ids.
+     * <p>
+     * The default implementation updates the tasks one by one, implementations should override it,
+     * so that the whole batch is written at once (e.g., with a single sync).
+     * </p>
+     *
+     * @param tasks The {@link Task} objects to be saved.
+     */
+    default void saveAll(@NotNull List<Task> tasks) {
+        tasks.forEach(this::update);
+    }
+    /**
+     * Deletes all given tasks.
+     * <p>
+     * The default implementation deletes the tasks one by one, implementations should override it,
+     * so that the whole batch is written at once.
+     * </p>
+     *
+     * @param tasks The {@link Task} objects to be deleted.
+     */
+    default void deleteAll(@NotNull List<Task> tasks) {
+        tasks.forEach(this::delete);
+    }
+    /**
+     * Makes all previous writes durable.
+     * <p>
+     * The default implementation does nothing, which is suitable for repositories that write through or do not persist tasks.
+     * </p>
+     */
+    default void flush() {}
+    /**
+     * Changes the completion state of the task with the given id.
+     * <p>
+     * The default implementation is not atomic, implementations should override it,
+     * so that concurrent changes of the same task are never lost.
+     * </p>
+     *
+     * @param id The {@link UUID} of the task.
+     * @param completed The new completion state.
+     * @return An {@link Optional} containing the updated task, or empty if there is no such task or it's already in the given state.
+     */
+    default @NotNull Optional<Task> setCompleted(@NotNull UUID id, boolean completed) {
+        Optional<Task> updated = findById(id).filter(t -> t.isCompleted() != completed)
+                                             .map(t -> t.withCompleted(completed));
+        updated.ifPresent(this::update);
+        return updated;
+    }
+    /**
+     * Changes the completion state of all tasks with the given ids as a single operation.
+     * <p>
+     * The default implementation changes the tasks one by one, implementations should override it,
+     * so that the whole batch is applied atomically.
+     * </p>
+     *
+     * @param ids The {@link UUID}s of the tasks.
+     * @param completed The new completion state.
+     * @return A {@link List} containing the updated tasks, i.e. existing tasks that weren't in the given state.
+     */
+    default @NotNull List<Task> setCompletedAll(@NotNull Collection<UUID> ids, boolean completed) {
+        List<Task> updated = new ArrayList<>();
+        for (UUID id : ids) setCompleted(id, completed).ifPresent(updated::add);
+        return updated;
+    }
     /**
      * Retrieves all tasks stored in the repository.
      *
      * @return A {@link List} containing all stored {@link Task} objects.
      */
     @NotNull List<Task> findAll();
+    /**
+     * Retrieves a single page of tasks in their natural order, i.e. by creation time and id.
+     * <p>
+     * The default implementation sorts all tasks, implementations should override it
+     * and seek the cursor position in an ordered index.
+     * </p>
+     *
+     * @param after The {@link TaskCursor} of the last seen task, or {@code null} to start from the beginning.
+     * @param limit The maximum number of tasks to return.
+     * @return A {@link List} containing at most {@code limit} tasks positioned after the cursor.
+     */
+    default @NotNull List<Task> findPage(@Nullable TaskCursor after, int limit) {
+        return findAll().stream()
+                        .filter(t -> after == null || after.precedes(t))
+                        .sorted(Comparator.comparing(Task::getCreatedAt).thenComparing(Task::getId))
+                        .limit(limit)
+                        .toList();
+    }
+    /**
+     * Retrieves a single page of task summaries in the natural order of tasks.
+     * <p>
+     * This method is equivalent to {@link #findPage(TaskCursor, int)}, but it returns lightweight projections
+     * suitable for list rendering. Implementations may serve them without materializing full tasks.
+     * </p>
+     *
+     * @param after The {@link TaskCursor} of the last seen task, or {@code null} to start from the beginning.
+     * @param limit The maximum number of summaries to return.
+     * @return A {@link List} containing at most {@code limit} summaries positioned after the cursor.
+     */
+    default @NotNull List<TaskSummary> findSummaryPage(@Nullable TaskCursor after, int limit) {
+        return findPage(after, limit).stream()
+                                     .map(TaskSummary::of)
+                                     .toList();
+    }
+    /**
+     * Retrieves the task with the given id.
+     * <p>
+     * The default implementation scans all tasks, implementations should override it with a direct lookup.
+     * </p>
+     *
+     * @param id The {@link UUID} of the task.
+     * @return An {@link Optional} containing the task, or empty if no such task is stored.
+     */
+    default @NotNull Optional<Task> findById(@NotNull UUID id) {
+        return findAll().stream()
+                        .filter(t -> t.getId().equals(id))
+                        .findAny();
+    }
+    /**
+     * Retrieves all tasks matching the given query.
+     * <p>
+     * The default implementation filters all tasks, implementations should override it
+     * and answer the query from secondary indexes whenever possible.
+     * </p>
+     *
+     * @param query The {@link TaskQuery} to evaluate.
+     * @return A {@link List} containing only the matching {@link Task} objects.
+     */
+    default @NotNull List<Task> find(@NotNull TaskQuery query) {
+        return findAll().stream()
+                        .filter(query::matches)
+                        .toList();
+    }
+    /**
+     * Tells whether {@link #find(TaskQuery)} is evaluated by the storage itself (e.g., as SQL),
+     * so matching tasks are read without materializing all stored tasks in memory.
+     * <p>
+     * Callers which would otherwise keep an in-memory copy of all tasks (e.g., {@link TaskColumns}) should query such
+     * repositories instead. The default implementation returns false.
+     * </p>
+     *
+     * @return true if queries are pushed down to the storage, false otherwise.
+     */
+    default boolean pushesDownQueries() {
+        return false;
+    }
 }
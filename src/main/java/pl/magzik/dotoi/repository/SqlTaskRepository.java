@@ -0,0 +1,478 @@
+package pl.magzik.dotoi.repository;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pl.magzik.dotoi.model.ContentHandle;
+import pl.magzik.dotoi.model.Task;
+import pl.magzik.dotoi.model.TaskCodec;
+
+import java.io.Closeable;
+import java.io.Serial;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Implementation of the {@link ITaskRepository} interface backed by an embedded, file-based H2 database.
+ * <p>
+ * Tasks are stored in a single table, in which the columns used by queries (id, creation time, deadline, completion
+ * and recurrence) are indexed, while the whole task is stored as a blob encoded with {@link TaskCodec}.
+ * Normalized hyperlink targets (see {@link HyperlinkTargets}) are kept in a separate indexed table. Thanks to this, {@link #find(TaskQuery)} and paging
+ * are evaluated entirely by the database (e.g., deadline and recurrence sweeps of {@link pl.magzik.dotoi.service.TaskService}),
+ * and only the matching tasks are decoded.
+ * </p>
+ *
+ * <p>
+ * The repository uses a single connection, and every distinct SQL statement is prepared once and reused.
+ * Batch operations ({@link #saveAll(List)}, {@link #deleteAll(List)}) are executed as JDBC batches in one transaction.
+ * All methods are synchronized, since a JDBC connection must not be used concurrently.
+ * </p>
+ *
+ * <p>
+ * If the repository is created with a {@link ContentStore}, resident task contents are moved to the store on save,
+ * exactly as in {@link TaskRepository}.
+ * </p>
+ *
+ * @see ITaskRepository
+ * @see TaskCodec
+ *
+ * @since 0.1
+ * @author Maksymilian Strzelczak
+ * @version 1.0
+ */
+public class SqlTaskRepository implements ITaskRepository, Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlTaskRepository.class);
+
+    private static final String[] SCHEMA = {
+        """
+        CREATE TABLE IF NOT EXISTS tasks (
+            id UUID PRIMARY KEY,
+            created_at TIMESTAMP(9) NOT NULL,
+            deadline TIMESTAMP(9),
+            completed BOOLEAN NOT NULL,
+            recurring BOOLEAN NOT NULL,
+            data VARBINARY NOT NULL
+        )""",
+        "CREATE INDEX IF NOT EXISTS tasks_created_at ON tasks (created_at, id)",
+        "CREATE INDEX IF NOT EXISTS tasks_deadline ON tasks (deadline)",
+        "CREATE INDEX IF NOT EXISTS tasks_completed ON tasks (completed, recurring)",
+        """
+        CREATE TABLE IF NOT EXISTS task_targets (
+            task_id UUID NOT NULL REFERENCES tasks (id) ON DELETE CASCADE,
+            target VARCHAR NOT NULL,
+            PRIMARY KEY (task_id, target)
+        )""",
+        "CREATE INDEX IF NOT EXISTS task_targets_target ON task_targets (target)"
+    };
+
+    private static final String LEGACY_HYPERLINKS = "TASK_HYPERLINKS"; ///< Raw hyperlinks, replaced by normalized targets.
+
+    private static final String INSERT = "INSERT INTO tasks (id, created_at, deadline, completed, recurring, data) VALUES (?, ?, ?, ?, ?, ?)",
+                                MERGE = "MERGE INTO tasks (id, created_at, deadline, completed, recurring, data) KEY (id) VALUES (?, ?, ?, ?, ?, ?)",
+                                DELETE = "DELETE FROM tasks WHERE id = ?",
+                                DELETE_TARGETS = "DELETE FROM task_targets WHERE task_id = ?",
+                                INSERT_TARGET = "INSERT INTO task_targets (task_id, target) VALUES (?, ?)",
+                                SELECT = "SELECT data FROM tasks",
+                                ORDER = " ORDER BY created_at, id",
+                                SELECT_BY_ID = SELECT + " WHERE id = ?",
+                                SELECT_ALL = SELECT + ORDER,
+                                SELECT_FIRST_PAGE = SELECT + ORDER + " LIMIT ?",
+                                SELECT_PAGE = SELECT + " WHERE created_at > ? OR (created_at = ? AND id > ?)" + ORDER + " LIMIT ?";
+
+    private final Connection connection;
+
+    private final Map<String, PreparedStatement> statements;
+
+    private final ContentStore contentStore;
+
+    /**
+     * Opens (or creates) the database and its schema.
+     *
+     * @param database The path of the database, without the file extension.
+     * @param contentStore The {@link ContentStore} for task contents, or {@code null} to keep them in the database.
+     * @throws SqlRepositoryException if the database couldn't be opened.
+     */
+    public SqlTaskRepository(@NotNull Path database, @Nullable ContentStore contentStore) {
+        this.statements = new HashMap<>();
+        this.contentStore = contentStore;
+        try {
+            this.connection = DriverManager.getConnection("jdbc:h2:file:" + database.toAbsolutePath());
+            try (Statement statement = connection.createStatement()) {
+                for (String ddl : SCHEMA) statement.execute(ddl);
+            }
+            migrateHyperlinks();
+        } catch (SQLException e) {
+            throw new SqlRepositoryException("Couldn't open the task database: " + database, e);
+        }
+        log.info("SQL task repository initialized: {}", database);
+    }
+
+    /**
+     * Replaces the raw hyperlinks indexed by older databases with the normalized targets of all stored tasks.
+     */
+    private void migrateHyperlinks() throws SQLException {
+        try (ResultSet tables = connection.getMetaData().getTables(null, null, LEGACY_HYPERLINKS, null)) {
+            if (!tables.next()) return;
+        }
+        inTransaction(() -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DELETE FROM task_targets");
+                statement.execute("DROP TABLE " + LEGACY_HYPERLINKS);
+            }
+            writeTargets(read(statement(SELECT_ALL)));
+        });
+        log.info("Hyperlinks of the task database replaced with normalized targets.");
+    }
+
+    /**
+     * Returns the prepared statement for the given SQL, preparing it on the first use.
+     */
+    private @NotNull PreparedStatement statement(@NotNull String sql) throws SQLException {
+        PreparedStatement statement = statements.get(sql);
+        if (statement == null) {
+            statement = connection.prepareStatement(sql);
+            statements.put(sql, statement);
+        }
+        return statement;
+    }
+
+    /**
+     * Saves a new task in the repository.
+     * <p>
+     * If the task already exists, it is not added again, and a warning is logged.
+     * </p>
+     *
+     * @param task The {@link Task} object to be saved.
+     */
+    @Override
+    public synchronized void save(@NotNull Task task) {
+        try {
+            inTransaction(() -> {
+                write(statement(INSERT), offloadContent(task));
+                statement(INSERT).executeUpdate();
+                writeTargets(List.of(task));
+            });
+            log.debug("Saved task {} in the repository.", task);
+        } catch (SQLIntegrityConstraintViolationException e) {
+            log.warn("Attempted to add a redundant task: {}", task);
+        } catch (SQLException e) {
+            throw new SqlRepositoryException("Couldn't save the task " + task.getId(), e);
+        }
+    }
+
+    @Override
+    public synchronized void update(@NotNull Task task) {
+        saveAll(List.of(task));
+    }
+
+    /**
+     * Saves all given tasks in a single transaction, replacing the stored ones having the same ids.
+     *
+     * @param tasks The {@link Task} objects to be saved.
+     */
+    @Override
+    public synchronized void saveAll(@NotNull List<Task> tasks) {
+        if (tasks.isEmpty()) return;
+        try {
+            inTransaction(() -> {
+                PreparedStatement merge = statement(MERGE);
+                for (Task task : tasks) {
+                    write(merge, offloadContent(task));
+                    merge.addBatch();
+                }
+                merge.executeBatch();
+
+                PreparedStatement deleteTargets = statement(DELETE_TARGETS);
+                for (Task task : tasks) {
+                    deleteTargets.setObject(1, task.getId());
+                    deleteTargets.addBatch();
+                }
+                deleteTargets.executeBatch();
+                writeTargets(tasks);
+            });
+            log.debug("Saved {} tasks in the repository.", tasks.size());
+        } catch (SQLException e) {
+            throw new SqlRepositoryException("Couldn't save " + tasks.size() + " tasks.", e);
+        }
+    }
+
+    /**
+     * Atomically changes the completion state of the task with the given id.
+     *
+     * @param id The {@link UUID} of the task.
+     * @param completed The new completion state.
+     * @return An {@link Optional} containing the updated task, or empty if there is no such task or it's already in the given state.
+     */
+    @Override
+    public synchronized @NotNull Optional<Task> setCompleted(@NotNull UUID id, boolean completed) {
+        Optional<Task> updated = findById(id).filter(t -> t.isCompleted() != completed)
+                                             .map(t -> t.withCompleted(completed));
+        updated.ifPresent(this::update); ///< Atomic, since all methods are synchronized.
+        return updated;
+    }
+
+    /**
+     * Atomically changes the completion state of all tasks with the given ids, writing them in a single transaction.
+     *
+     * @param ids The {@link UUID}s of the tasks.
+     * @param completed The new completion state.
+     * @return A {@link List} containing the updated tasks, i.e. existing tasks that weren't in the given state.
+     */
+    @Override
+    public synchronized @NotNull List<Task> setCompletedAll(@NotNull Collection<UUID> ids, boolean completed) {
+        List<Task> updated = new ArrayList<>();
+        for (UUID id : ids) {
+            findById(id).filter(t -> t.isCompleted() != completed)
+                        .ifPresent(t -> updated.add(t.withCompleted(completed)));
+        }
+        saveAll(updated);
+        return updated;
+    }
+
+    /**
+     * Deletes a task from the repository.
+     * <p>
+     * If the task does not exist, a warning is logged.
+     * </p>
+     *
+     * @param task The {@link Task} object to be deleted.
+     */
+    @Override
+    public synchronized void delete(@NotNull Task task) {
+        try {
+            PreparedStatement delete = statement(DELETE);
+            delete.setObject(1, task.getId());
+            if (delete.executeUpdate() == 0) log.warn("Attempted to deleted a non-existing task: {}", task);
+            else log.debug("Deleted task {} from the repository.", task);
+        } catch (SQLException e) {
+            throw new SqlRepositoryException("Couldn't delete the task " + task.getId(), e);
+        }
+    }
+
+    /**
+     * Deletes all given tasks in a single transaction.
+     *
+     * @param tasks The {@link Task} objects to be deleted.
+     */
+    @Override
+    public synchronized void deleteAll(@NotNull List<Task> tasks) {
+        if (tasks.isEmpty()) return;
+        try {
+            inTransaction(() -> {
+                PreparedStatement delete = statement(DELETE);
+                for (Task task : tasks) {
+                    delete.setObject(1, task.getId());
+                    delete.addBatch();
+                }
+                delete.executeBatch();
+            });
+            log.debug("Deleted {} tasks from the repository.", tasks.size());
+        } catch (SQLException e) {
+            throw new SqlRepositoryException("Couldn't delete " + tasks.size() + " tasks.", e);
+        }
+    }
+
+    @Override
+    public synchronized @NotNull List<Task> findAll() {
+        try {
+            return read(statement(SELECT_ALL));
+        } catch (SQLException e) {
+            throw new SqlRepositoryException("Couldn't fetch tasks.", e);
+        }
+    }
+
+    @Override
+    public synchronized @NotNull List<Task> findPage(@Nullable TaskCursor after, int limit) {
+        try {
+            PreparedStatement select;
+            if (after == null) {
+                select = statement(SELECT_FIRST_PAGE);
+                select.setInt(1, limit);
+            } else {
+                select = statement(SELECT_PAGE);
+                select.setObject(1, after.createdAt());
+                select.setObject(2, after.createdAt());
+                select.setObject(3, after.id());
+                select.setInt(4, limit);
+            }
+            return read(select);
+        } catch (SQLException e) {
+            throw new SqlRepositoryException("Couldn't fetch a page of tasks.", e);
+        }
+    }
+
+    @Override
+    public synchronized @NotNull Optional<Task> findById(@NotNull UUID id) {
+        try {
+            PreparedStatement select = statement(SELECT_BY_ID);
+            select.setObject(1, id);
+            return read(select).stream().findAny();
+        } catch (SQLException e) {
+            throw new SqlRepositoryException("Couldn't fetch the task " + id, e);
+        }
+    }
+
+    /**
+     * Retrieves all tasks matching the given query, which is translated to an SQL condition.
+     *
+     * @param query The {@link TaskQuery} to evaluate.
+     * @return A {@link List} containing only the matching {@link Task} objects, ordered by creation time.
+     */
+    @Override
+    public synchronized @NotNull List<Task> find(@NotNull TaskQuery query) {
+        List<String> conditions = new ArrayList<>();
+        List<Object> parameters = new ArrayList<>();
+
+        if (query.getCompleted() != null) {
+            conditions.add("completed = ?");
+            parameters.add(query.getCompleted());
+        }
+        if (query.getHasRecurrence() != null) {
+            conditions.add("recurring = ?");
+            parameters.add(query.getHasRecurrence());
+        }
+        range("deadline", query.getDeadlineFrom(), query.getDeadlineTo(), conditions, parameters);
+        range("created_at", query.getCreatedFrom(), query.getCreatedTo(), conditions, parameters);
+        if (query.getHyperlink() != null) {
+            conditions.add("id IN (SELECT task_id FROM task_targets WHERE target = ?)");
+            parameters.add(query.getHyperlink());
+        }
+
+        String sql = conditions.isEmpty() ? SELECT_ALL : SELECT + " WHERE " + String.join(" AND ", conditions) + ORDER;
+        try {
+            PreparedStatement select = statement(sql);
+            for (int i = 0; i < parameters.size(); i++) select.setObject(i + 1, parameters.get(i));
+            return read(select);
+        } catch (SQLException e) {
+            throw new SqlRepositoryException("Couldn't evaluate the query.", e);
+        }
+    }
+
+    @Override
+    public boolean pushesDownQueries() {
+        return true;
+    }
+
+    private static void range(@NotNull String column, LocalDateTime from, LocalDateTime to,
+                              @NotNull List<String> conditions, @NotNull List<Object> parameters) {
+        if (from != null) {
+            conditions.add(column + " >= ?");
+            parameters.add(from);
+        }
+        if (to != null) {
+            conditions.add(column + " < ?");
+            parameters.add(to);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            for (PreparedStatement statement : statements.values()) statement.close();
+            statements.clear();
+            connection.close();
+        } catch (SQLException e) {
+            throw new SqlRepositoryException("Couldn't close the task database.", e);
+        }
+        log.info("SQL task repository closed.");
+    }
+
+    /**
+     * Moves the resident content of the given task to the content store, if there is one.
+     */
+    private @NotNull Task offloadContent(@NotNull Task task) {
+        ContentHandle content = task.getContentHandle();
+        if (contentStore == null || !content.isResident()) return task;
+
+        String text = content.load();
+        return text.isEmpty() ? task : task.withContent(contentStore.store(text));
+    }
+
+    private void write(@NotNull PreparedStatement statement, @NotNull Task task) throws SQLException {
+        ByteBuffer data = ByteBuffer.allocate(TaskCodec.encodedSize(task));
+        TaskCodec.encode(task, data);
+
+        statement.setObject(1, task.getId());
+        statement.setObject(2, task.getCreatedAt());
+        statement.setObject(3, task.getDeadline().orElse(null));
+        statement.setBoolean(4, task.isCompleted());
+        statement.setBoolean(5, task.getRecurrenceRule().isPresent());
+        statement.setBytes(6, data.array());
+    }
+
+    /**
+     * Inserts the normalized hyperlink targets of the given tasks.
+     *
+     * @see HyperlinkTargets#normalize(String)
+     */
+    private void writeTargets(@NotNull List<Task> tasks) throws SQLException {
+        PreparedStatement insert = statement(INSERT_TARGET);
+        boolean any = false;
+        for (Task task : tasks) {
+            for (String target : HyperlinkTargets.of(task)) {
+                insert.setObject(1, task.getId());
+                insert.setString(2, target);
+                insert.addBatch();
+                any = true;
+            }
+        }
+        if (any) insert.executeBatch();
+    }
+
+    private @NotNull List<Task> read(@NotNull PreparedStatement select) throws SQLException {
+        List<Task> tasks = new ArrayList<>();
+        try (ResultSet rs = select.executeQuery()) {
+            while (rs.next()) {
+                tasks.add(TaskCodec.decode(ByteBuffer.wrap(rs.getBytes(1)), contentStore == null ? null : contentStore::handle));
+            }
+        }
+        return tasks;
+    }
+
+    @FunctionalInterface
+    private interface SqlAction {
+        void run() throws SQLException;
+    }
+
+    private void inTransaction(@NotNull SqlAction action) throws SQLException {
+        connection.setAutoCommit(false);
+        try {
+            action.run();
+            connection.commit();
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Exception thrown when the task database couldn't be accessed.
+     */
+    public static class SqlRepositoryException extends RuntimeException {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        public SqlRepositoryException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
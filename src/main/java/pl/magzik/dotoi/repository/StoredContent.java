@@ -0,0 +1,33 @@
+package pl.magzik.dotoi.repository;
+
+import org.jetbrains.annotations.NotNull;
+import pl.magzik.dotoi.model.ContentHandle;
+
+/**
+ * A {@link ContentHandle.Stored} referencing content kept in a {@link ContentStore}.
+ * <p>
+ * The handle itself holds only the position of the content, which is loaded (and cached) by the store on demand.
+ * </p>
+ *
+ * @param store The store holding the content.
+ * @param offset The offset of the content in the store file.
+ * @param length The length of the content in bytes.
+ *
+ * @see ContentStore
+ *
+ * @since 0.1
+ * @author Maksymilian Strzelczak
+ * @version 1.0
+ */
+public record StoredContent(@NotNull ContentStore store, long offset, int length) implements ContentHandle.Stored {
+
+    @Override
+    public @NotNull String load() {
+        return store.read(offset, length);
+    }
+
+    @Override
+    public String toString() {
+        return "StoredContent[offset=" + offset + ", length=" + length + "]";
+    }
+}
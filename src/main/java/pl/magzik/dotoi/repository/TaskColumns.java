@@ -0,0 +1,300 @@
+package pl.magzik.dotoi.repository;
+
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pl.magzik.dotoi.manager.data.DataEvent;
+import pl.magzik.dotoi.model.RecurrenceRule;
+import pl.magzik.dotoi.model.Task;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A columnar copy of the fields of tasks used by the periodic sweeps (see {@link DataEvent.CheckDeadlines}
+ * and {@link DataEvent.CheckRecurrence}).
+ * <p>
+ * Every task occupies one slot of the following primitive columns:
+ * <ul>
+ *     <li>{@code deadlines}: the deadline in epoch seconds, or {@link #NO_DEADLINE},
+ *         with its nano-of-second part in {@code deadlineNanos},</li>
+ *     <li>{@code completed}: a {@link BitSet} of completed tasks,</li>
+ *     <li>{@code recurring}: a {@link BitSet} of tasks with a recurrence rule, so the recurrence sweep skips other tasks,</li>
+ *     <li>{@code rules}: {@value #RULE_STRIDE} packed ints per task: the recurrence type, interval and days,
+ *         followed by the epoch day and the packed month of the end date,</li>
+ *     <li>{@code recurrenceEnds}: the end date of the recurrence in epoch seconds, or {@link #NO_END},
+ *         with its nano-of-second part in {@code recurrenceEndNanos}.</li>
+ * </ul>
+ * Slots are kept dense: a removed task is replaced with the task of the last slot,
+ * so sweeps are plain loops over arrays, which neither allocate nor dereference tasks.
+ * </p>
+ *
+ * <p>
+ * Date-times are converted to epoch seconds as if they were UTC. The conversion is only used for comparisons,
+ * so the time zone doesn't matter, as long as it is the same on both sides.
+ * Seconds are compared first and nanos only on a tie, so the sweeps agree with {@link LocalDateTime#isBefore}
+ * and {@link LocalDateTime#isAfter} to the nanosecond.
+ * </p>
+ *
+ * <p>
+ * The columns are built from the repository once, and then maintained by their owner, who puts every task
+ * as confirmed by the repository after a change, so they work with any {@link ITaskRepository}.
+ * Requested changes are never applied directly, since the repository may reject or alter them.
+ * A sweep only returns the ids of matching tasks, which should then be loaded from the repository itself.
+ * </p>
+ *
+ * @see RecurrenceRule#shouldRepeat(LocalDateTime)
+ *
+ * @since 0.1
+ * @author Maksymilian Strzelczak
+ * @version 1.0
+ */
+public final class TaskColumns {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskColumns.class);
+
+    public static final long NO_DEADLINE = Task.NO_DEADLINE,
+                             NO_END = Long.MAX_VALUE;
+
+    static final int RULE_STRIDE = 3;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /* Layout of the first int of a rule: | interval (22 bits) | day of month (5) | day of week (3) | type (2) |. */
+    private static final int TYPE_BITS = 2, DAY_OF_WEEK_BITS = 3, DAY_OF_MONTH_BITS = 5;
+    private static final int DAY_OF_WEEK_SHIFT = TYPE_BITS,
+                             DAY_OF_MONTH_SHIFT = DAY_OF_WEEK_SHIFT + DAY_OF_WEEK_BITS,
+                             INTERVAL_SHIFT = DAY_OF_MONTH_SHIFT + DAY_OF_MONTH_BITS;
+    private static final int MAX_INTERVAL = (1 << (Integer.SIZE - INTERVAL_SHIFT)) - 1;
+
+    private static final int NO_RULE = 0; ///< Types are stored shifted by one, so an empty slot means no rule.
+    private static final int WEEKLY = RecurrenceRule.RecurrenceType.WEEKLY.ordinal() + 1,
+                             MONTHLY = RecurrenceRule.RecurrenceType.MONTHLY.ordinal() + 1;
+
+    private final ITaskRepository taskRepository;
+
+    private final Map<UUID, Integer> slots;
+
+    private UUID[] ids;
+    private long[] deadlines;
+    private int[] deadlineNanos;
+    private final BitSet completed;
+    private final BitSet recurring;
+    private int[] rules;
+    private long[] recurrenceEnds;
+    private int[] recurrenceEndNanos;
+    private int size;
+
+    public TaskColumns(@NotNull ITaskRepository taskRepository) {
+        this.taskRepository = taskRepository;
+        this.slots = new HashMap<>();
+        this.ids = new UUID[INITIAL_CAPACITY];
+        this.deadlines = new long[INITIAL_CAPACITY];
+        this.deadlineNanos = new int[INITIAL_CAPACITY];
+        this.completed = new BitSet(INITIAL_CAPACITY);
+        this.recurring = new BitSet(INITIAL_CAPACITY);
+        this.rules = new int[INITIAL_CAPACITY * RULE_STRIDE];
+        this.recurrenceEnds = new long[INITIAL_CAPACITY];
+        this.recurrenceEndNanos = new int[INITIAL_CAPACITY];
+        rebuild();
+        log.info("Task columns initialized with {} tasks.", size);
+    }
+
+    /**
+     * @return the number of tasks in the columns.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * @param now The current time.
+     * @return the ids of uncompleted tasks with a deadline before {@code now}.
+     */
+    public synchronized @NotNull List<UUID> findOverdue(@NotNull LocalDateTime now) {
+        long nowSeconds = toEpochSecond(now);
+        int nowNanos = now.getNano();
+        List<UUID> overdue = new ArrayList<>();
+        for (int i = completed.nextClearBit(0); i < size; i = completed.nextClearBit(i + 1)) {
+            long deadline = deadlines[i];
+            if (deadline < nowSeconds || deadline == nowSeconds && deadlineNanos[i] < nowNanos) overdue.add(ids[i]);
+        }
+        return overdue;
+    }
+
+    /**
+     * Finds completed recurring tasks whose recurrence rule should repeat now.
+     * Evaluates the rules exactly as {@link RecurrenceRule#shouldRepeat(LocalDateTime)} does, but on the packed columns.
+     *
+     * @param now The current time.
+     * @return the ids of tasks which should be uncompleted.
+     */
+    public synchronized @NotNull List<UUID> findDueRecurrences(@NotNull LocalDateTime now) {
+        long nowSeconds = toEpochSecond(now);
+        int nowNanos = now.getNano();
+        LocalDate today = now.toLocalDate();
+        long nowDay = today.toEpochDay();
+        long nowMonth = packMonth(today);
+        int dayOfWeek = today.getDayOfWeek().getValue();
+        int dayOfMonth = today.getDayOfMonth();
+
+        List<UUID> due = new ArrayList<>();
+        for (int i = recurring.nextSetBit(0); i >= 0; i = recurring.nextSetBit(i + 1)) {
+            if (!completed.get(i)) continue;
+            int rule = rules[i * RULE_STRIDE];
+            int type = rule & ((1 << TYPE_BITS) - 1);
+
+            long end = recurrenceEnds[i];
+            if (end != NO_END && (nowSeconds > end || nowSeconds == end && nowNanos > recurrenceEndNanos[i])) continue;
+            if (type == WEEKLY && (rule >>> DAY_OF_WEEK_SHIFT & ((1 << DAY_OF_WEEK_BITS) - 1)) != dayOfWeek) continue;
+            if (type == MONTHLY && (rule >>> DAY_OF_MONTH_SHIFT & ((1 << DAY_OF_MONTH_BITS) - 1)) != dayOfMonth) continue;
+
+            if (end != NO_END) {
+                int interval = rule >>> INTERVAL_SHIFT;
+                long between = type == MONTHLY
+                    ? (rules[i * RULE_STRIDE + 2] - nowMonth) / 32 ///< Same as LocalDate#until in months.
+                    : (rules[i * RULE_STRIDE + 1] - nowDay) / 7; ///< Daily rules are checked in weeks too.
+                if (interval == 0 || between % interval != 0) continue;
+            }
+            due.add(ids[i]);
+        }
+        return due;
+    }
+
+    /**
+     * Replaces the columns with all tasks currently stored in the repository, e.g. after an import.
+     */
+    public synchronized void rebuild() {
+        slots.clear();
+        Arrays.fill(ids, 0, size, null);
+        completed.clear();
+        recurring.clear();
+        size = 0;
+        taskRepository.findAll().forEach(this::put);
+    }
+
+    /**
+     * @param tasks The tasks as stored in the repository.
+     * @see #put(Task)
+     */
+    public synchronized void putAll(@NotNull Collection<Task> tasks) {
+        tasks.forEach(this::put);
+    }
+
+    /**
+     * @param ids The ids of tasks no longer stored in the repository.
+     * @see #remove(UUID)
+     */
+    public synchronized void removeAll(@NotNull Collection<UUID> ids) {
+        ids.forEach(this::remove);
+    }
+
+    /**
+     * Adds the task, or replaces the columns of a task with the same id.
+     *
+     * @param task The {@link Task} as stored in the repository.
+     */
+    public synchronized void put(@NotNull Task task) {
+        Integer slot = slots.get(task.getId());
+        int i;
+        if (slot != null) i = slot;
+        else {
+            if (size == ids.length) grow();
+            i = size++;
+            ids[i] = task.getId();
+            slots.put(task.getId(), i);
+        }
+
+        LocalDateTime deadline = task.getDeadlineOrNull();
+        deadlines[i] = task.deadlineEpochSeconds();
+        deadlineNanos[i] = deadline == null ? 0 : deadline.getNano();
+        completed.set(i, task.isCompleted());
+        RecurrenceRule rule = task.getRecurrenceRuleOrNull();
+        int offset = i * RULE_STRIDE;
+        recurring.set(i, rule != null);
+        if (rule == null) {
+            rules[offset] = NO_RULE;
+            recurrenceEnds[i] = NO_END;
+            recurrenceEndNanos[i] = 0;
+            return;
+        }
+        rules[offset] = packRule(rule);
+        if (rule.hasEndDate()) {
+            LocalDate end = rule.getEndDate().toLocalDate();
+            rules[offset + 1] = (int) end.toEpochDay();
+            rules[offset + 2] = (int) packMonth(end);
+            recurrenceEnds[i] = toEpochSecond(rule.getEndDate());
+            recurrenceEndNanos[i] = rule.getEndDate().getNano();
+        } else {
+            recurrenceEnds[i] = NO_END;
+            recurrenceEndNanos[i] = 0;
+        }
+    }
+
+    /**
+     * Removes the task, if present. The task of the last slot takes its place.
+     *
+     * @param id The id of a task no longer stored in the repository.
+     */
+    public synchronized void remove(@NotNull UUID id) {
+        Integer slot = slots.remove(id);
+        if (slot == null) return;
+
+        int i = slot, last = --size;
+        if (i != last) {
+            ids[i] = ids[last];
+            deadlines[i] = deadlines[last];
+            deadlineNanos[i] = deadlineNanos[last];
+            completed.set(i, completed.get(last));
+            recurring.set(i, recurring.get(last));
+            System.arraycopy(rules, last * RULE_STRIDE, rules, i * RULE_STRIDE, RULE_STRIDE);
+            recurrenceEnds[i] = recurrenceEnds[last];
+            recurrenceEndNanos[i] = recurrenceEndNanos[last];
+            slots.put(ids[i], i);
+        }
+        ids[last] = null;
+        completed.clear(last);
+        recurring.clear(last);
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        deadlines = Arrays.copyOf(deadlines, capacity);
+        deadlineNanos = Arrays.copyOf(deadlineNanos, capacity);
+        rules = Arrays.copyOf(rules, capacity * RULE_STRIDE);
+        recurrenceEnds = Arrays.copyOf(recurrenceEnds, capacity);
+        recurrenceEndNanos = Arrays.copyOf(recurrenceEndNanos, capacity);
+    }
+
+    private static int packRule(@NotNull RecurrenceRule rule) {
+        int type = rule.getRecurrenceType().ordinal() + 1;
+        int dayOfWeek = rule.getDayOfWeek() == null ? 0 : rule.getDayOfWeek().getValue();
+        int interval = Math.clamp(rule.getInterval(), 0, MAX_INTERVAL);
+        return interval << INTERVAL_SHIFT
+            | (rule.getDayOfMonth() & ((1 << DAY_OF_MONTH_BITS) - 1)) << DAY_OF_MONTH_SHIFT
+            | dayOfWeek << DAY_OF_WEEK_SHIFT
+            | type;
+    }
+
+    /**
+     * Packs the date as {@code prolepticMonth * 32 + dayOfMonth}, the same way {@link LocalDate#until} does,
+     * so the number of whole months between two dates is the difference of their packed months divided by 32.
+     */
+    private static long packMonth(@NotNull LocalDate date) {
+        return (date.getYear() * 12L + date.getMonthValue() - 1) * 32L + date.getDayOfMonth();
+    }
+
+    private static long toEpochSecond(@NotNull LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,61 @@
+package pl.magzik.dotoi.repository;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import pl.magzik.dotoi.model.Task;
+import pl.magzik.dotoi.model.TaskSummary;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Represents a keyset cursor pointing at a position in the natural order of tasks.
+ * <p>
+ * Tasks are ordered by their creation time, with the task id as a tie-breaker.
+ * A cursor is stable across insertions and deletions, unlike an offset.
+ * </p>
+ *
+ * @param createdAt The creation time of the last seen task.
+ * @param id The id of the last seen task.
+ *
+ * @see ITaskRepository#findPage(TaskCursor, int)
+ *
+ * @since 0.1
+ * @author Maksymilian Strzelczak
+ * @version 1.0
+ */
+public record TaskCursor(@NotNull LocalDateTime createdAt, @NotNull UUID id) {
+
+    /**
+     * Creates a cursor pointing right after the given task.
+     *
+     * @param task The last seen {@link Task}.
+     * @return a new {@link TaskCursor}.
+     */
+    @Contract(pure = true)
+    public static @NotNull TaskCursor after(@NotNull Task task) {
+        return new TaskCursor(task.getCreatedAt(), task.getId());
+    }
+
+    /**
+     * Creates a cursor pointing right after the given task summary.
+     *
+     * @param summary The last seen {@link TaskSummary}.
+     * @return a new {@link TaskCursor}.
+     */
+    @Contract(pure = true)
+    public static @NotNull TaskCursor after(@NotNull TaskSummary summary) {
+        return new TaskCursor(summary.getCreatedAt(), summary.getId());
+    }
+
+    /**
+     * Checks whether the given task is positioned after this cursor.
+     *
+     * @param task The {@link Task} to check.
+     * @return true if the task comes after this cursor in the natural order, false otherwise.
+     */
+    public boolean precedes(@NotNull Task task) {
+        int cmp = task.getCreatedAt().compareTo(createdAt);
+        return cmp > 0 || (cmp == 0 && task.getId().compareTo(id) > 0);
+    }
+}
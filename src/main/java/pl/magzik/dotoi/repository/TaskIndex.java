@@ -0,0 +1,222 @@
+package pl.magzik.dotoi.repository;
+
+import org.jetbrains.annotations.NotNull;
+import pl.magzik.dotoi.model.Task;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Primary and secondary indexes over a set of tasks.
+ * <p>
+ * Besides the primary id index, this class maintains the following secondary indexes:
+ * <ul>
+ *     <li>creation time, which also defines the natural order of tasks,</li>
+ *     <li>deadline,</li>
+ *     <li>completed tasks,</li>
+ *     <li>tasks with a recurrence rule,</li>
+ *     <li>normalized hyperlink targets (see {@link HyperlinkTargets}).</li>
+ * </ul>
+ * All indexes are concurrent structures, so they can be read without locking.
+ * Mutations are not atomic across indexes, so writers must be synchronized externally (e.g., on the index itself).
+ * Existing tasks should be changed with {@link #replace(Task)}, which never makes them disappear from a reader's view.
+ * </p>
+ *
+ * @see TaskRepository
+ * @see TaskQuery
+ *
+ * @since 0.1
+ * @author Maksymilian Strzelczak
+ * @version 1.0
+ */
+final class TaskIndex {
+
+    /**
+     * Composite key ordering tasks by a timestamp, with the task id as a tie-breaker.
+     */
+    record Key(@NotNull LocalDateTime time, @NotNull UUID id) implements Comparable<Key> {
+
+        private static final UUID MIN_ID = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+
+        private static final Comparator<Key> COMPARATOR = Comparator.comparing(Key::time).thenComparing(Key::id);
+
+        /**
+         * Creates a key that sorts before any other key with the same timestamp.
+         *
+         * @param time The timestamp.
+         * @return the lowest key for the given timestamp.
+         */
+        static @NotNull Key lowest(@NotNull LocalDateTime time) {
+            return new Key(time, MIN_ID);
+        }
+
+        @Override
+        public int compareTo(@NotNull Key o) {
+            return COMPARATOR.compare(this, o);
+        }
+    }
+
+    /**
+     * The natural order of tasks, i.e. by creation time and id, consistent with {@link Key}.
+     */
+    static final Comparator<Task> NATURAL_ORDER = Comparator.comparing(Task::getCreatedAt).thenComparing(Task::getId);
+
+    private final Map<UUID, Task> byId;
+    private final NavigableMap<Key, Task> byCreatedAt;
+    private final NavigableMap<Key, Task> byDeadline;
+    private final Map<UUID, Task> completed;
+    private final Map<UUID, Task> recurring;
+    private final Map<String, Map<UUID, Task>> byHyperlink; ///< By normalized target.
+
+    TaskIndex() {
+        this.byId = new ConcurrentHashMap<>();
+        this.byCreatedAt = new ConcurrentSkipListMap<>();
+        this.byDeadline = new ConcurrentSkipListMap<>();
+        this.completed = new ConcurrentHashMap<>();
+        this.recurring = new ConcurrentHashMap<>();
+        this.byHyperlink = new ConcurrentHashMap<>();
+    }
+
+    boolean contains(@NotNull UUID id) {
+        return byId.containsKey(id);
+    }
+
+    @NotNull Optional<Task> get(@NotNull UUID id) {
+        return Optional.ofNullable(byId.get(id));
+    }
+
+    int size() {
+        return byId.size();
+    }
+
+    /**
+     * @return all indexed tasks, ordered by creation time.
+     */
+    @NotNull Collection<Task> all() {
+        return byCreatedAt.values();
+    }
+
+    /**
+     * @param after The cursor of the last seen task, or {@code null} to start from the beginning.
+     * @return all indexed tasks positioned after the cursor, ordered by creation time.
+     */
+    @NotNull Collection<Task> after(TaskCursor after) {
+        if (after == null) return all();
+        return byCreatedAt.tailMap(new Key(after.createdAt(), after.id()), false).values();
+    }
+
+    void add(@NotNull Task task) {
+        byId.put(task.getId(), task);
+        addSecondary(task);
+    }
+
+    private void addSecondary(@NotNull Task task) {
+        UUID id = task.getId();
+        byCreatedAt.put(new Key(task.getCreatedAt(), id), task);
+        if (task.hasDeadline()) byDeadline.put(new Key(task.getDeadlineOrNull(), id), task);
+        if (task.isCompleted()) completed.put(id, task);
+        if (task.hasRecurrenceRule()) recurring.put(id, task);
+        for (String target : HyperlinkTargets.of(task)) link(target, task);
+    }
+
+    /**
+     * Replaces the indexed task having the same id as the given one, or adds it if there is no such task.
+     * <p>
+     * Unlike removing and adding the task, the replacement never leaves a gap visible to lock-free readers:
+     * the primary index is overwritten first, and every secondary entry whose key didn't change is overwritten in place.
+     * An entry whose key changed (e.g., a moved deadline) is put under the new key before the old key is removed,
+     * so a concurrent scan of that index may return both versions, or miss the task if it already passed the new key.
+     * </p>
+     *
+     * @param task The new version of the {@link Task}.
+     */
+    void replace(@NotNull Task task) {
+        UUID id = task.getId();
+        Task old = byId.put(id, task);
+        if (old == null) {
+            addSecondary(task);
+            return;
+        }
+
+        Key createdAt = new Key(task.getCreatedAt(), id), oldCreatedAt = new Key(old.getCreatedAt(), id);
+        byCreatedAt.put(createdAt, task);
+        if (!createdAt.equals(oldCreatedAt)) byCreatedAt.remove(oldCreatedAt);
+
+        Key deadline = task.hasDeadline() ? new Key(task.getDeadlineOrNull(), id) : null;
+        if (deadline != null) byDeadline.put(deadline, task);
+        if (old.hasDeadline()) {
+            Key oldDeadline = new Key(old.getDeadlineOrNull(), id);
+            if (!oldDeadline.equals(deadline)) byDeadline.remove(oldDeadline);
+        }
+
+        if (task.isCompleted()) completed.put(id, task);
+        else completed.remove(id);
+        if (task.hasRecurrenceRule()) recurring.put(id, task);
+        else recurring.remove(id);
+
+        Set<String> targets = HyperlinkTargets.of(task);
+        for (String target : targets) link(target, task);
+        for (String target : HyperlinkTargets.of(old)) {
+            if (!targets.contains(target)) unlink(target, id);
+        }
+    }
+
+    void remove(@NotNull UUID id) {
+        Task task = byId.remove(id);
+        if (task == null) return;
+
+        byCreatedAt.remove(new Key(task.getCreatedAt(), id));
+        if (task.hasDeadline()) byDeadline.remove(new Key(task.getDeadlineOrNull(), id));
+        completed.remove(id);
+        recurring.remove(id);
+        for (String target : HyperlinkTargets.of(task)) unlink(target, id);
+    }
+
+    private void link(@NotNull String target, @NotNull Task task) {
+        byHyperlink.computeIfAbsent(target, k -> new ConcurrentHashMap<>()).put(task.getId(), task);
+    }
+
+    private void unlink(@NotNull String target, @NotNull UUID id) {
+        byHyperlink.computeIfPresent(target, (k, tasks) -> {
+            tasks.remove(id);
+            return tasks.isEmpty() ? null : tasks;
+        });
+    }
+
+    /**
+     * Selects the most selective index for the given query and returns its content.
+     * <p>
+     * Returned candidates are a superset of the result, so they still have to be filtered with {@link TaskQuery#matches(Task)}.
+     * </p>
+     *
+     * @param query The {@link TaskQuery} to evaluate.
+     * @return A view over the candidate tasks.
+     */
+    @NotNull Collection<Task> candidates(@NotNull TaskQuery query) {
+        if (query.getHyperlink() != null) {
+            Map<UUID, Task> tasks = byHyperlink.get(query.getHyperlink());
+            return tasks == null ? List.of() : tasks.values();
+        }
+        if (query.hasDeadlineRange()) return range(byDeadline, query.getDeadlineFrom(), query.getDeadlineTo());
+        if (query.hasCreatedRange()) return range(byCreatedAt, query.getCreatedFrom(), query.getCreatedTo());
+        if (Boolean.TRUE.equals(query.getHasRecurrence())) return recurring.values();
+        if (Boolean.TRUE.equals(query.getCompleted())) return completed.values();
+        return all();
+    }
+
+    private static @NotNull Collection<Task> range(@NotNull NavigableMap<Key, Task> index, LocalDateTime from, LocalDateTime to) {
+        if (from == null) return index.headMap(Key.lowest(to)).values();
+        if (to == null) return index.tailMap(Key.lowest(from)).values();
+        if (!from.isBefore(to)) return List.of();
+        return index.subMap(Key.lowest(from), Key.lowest(to)).values();
+    }
+}
@@ -0,0 +1,230 @@
+package pl.magzik.dotoi.repository;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import pl.magzik.dotoi.model.Task;
+
+import java.time.LocalDateTime;
+import java.util.StringJoiner;
+
+/**
+ * Represents a typed query over tasks stored in an {@link ITaskRepository}.
+ * <p>
+ * Every criterion is optional; a task matches the query only if it satisfies all criteria that were set.
+ * Time ranges are half-open, meaning the lower bound is inclusive and the upper bound is exclusive.
+ * A task without a deadline never matches a deadline range.
+ * </p>
+ *
+ * <p>
+ * Repository implementations are free to use secondary indexes to answer the query,
+ * but the result must always be equal to filtering all tasks with {@link #matches(Task)}.
+ * </p>
+ *
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ *     TaskQuery query = new TaskQuery.Builder()
+ *                               .completed(false)
+ *                               .deadlineBefore(LocalDateTime.now())
+ *                               .build();
+ *     List<Task> overdue = repository.find(query);
+ * }</pre>
+ * </p>
+ *
+ * @see ITaskRepository#find(TaskQuery)
+ *
+ * @since 0.1
+ * @author Maksymilian Strzelczak
+ * @version 1.0
+ */
+public final class TaskQuery {
+
+    private final Boolean completed;
+    private final LocalDateTime deadlineFrom;
+    private final LocalDateTime deadlineTo;
+    private final LocalDateTime createdFrom;
+    private final LocalDateTime createdTo;
+    private final Boolean hasRecurrence;
+    private final String hyperlink;
+
+    @Contract(pure = true)
+    private TaskQuery(@NotNull Builder builder) {
+        this.completed = builder.completed;
+        this.deadlineFrom = builder.deadlineFrom;
+        this.deadlineTo = builder.deadlineTo;
+        this.createdFrom = builder.createdFrom;
+        this.createdTo = builder.createdTo;
+        this.hasRecurrence = builder.hasRecurrence;
+        this.hyperlink = builder.hyperlink;
+    }
+
+    public @Nullable Boolean getCompleted() {
+        return completed;
+    }
+    public @Nullable LocalDateTime getDeadlineFrom() {
+        return deadlineFrom;
+    }
+    public @Nullable LocalDateTime getDeadlineTo() {
+        return deadlineTo;
+    }
+    public boolean hasDeadlineRange() {
+        return deadlineFrom != null || deadlineTo != null;
+    }
+    public @Nullable LocalDateTime getCreatedFrom() {
+        return createdFrom;
+    }
+    public @Nullable LocalDateTime getCreatedTo() {
+        return createdTo;
+    }
+    public boolean hasCreatedRange() {
+        return createdFrom != null || createdTo != null;
+    }
+    public @Nullable Boolean getHasRecurrence() {
+        return hasRecurrence;
+    }
+    /**
+     * @return the normalized hyperlink target, or {@code null} if the query is not restricted by one.
+     */
+    public @Nullable String getHyperlink() {
+        return hyperlink;
+    }
+
+    /**
+     * Checks whether the given task satisfies all criteria of this query.
+     *
+     * @param task The {@link Task} to check.
+     * @return true if the task matches, false otherwise.
+     */
+    public boolean matches(@NotNull Task task) {
+        if (completed != null && task.isCompleted() != completed) return false;
+        if (hasRecurrence != null && task.hasRecurrenceRule() != hasRecurrence) return false;
+        if (hyperlink != null && !references(task, hyperlink)) return false;
+        if (hasDeadlineRange()) {
+            LocalDateTime deadline = task.getDeadlineOrNull();
+            if (deadline == null || !inRange(deadline, deadlineFrom, deadlineTo)) return false;
+        }
+        return !hasCreatedRange() || inRange(task.getCreatedAt(), createdFrom, createdTo);
+    }
+
+    private static boolean references(@NotNull Task task, @NotNull String target) {
+        for (String hyperlink : task.getHyperlinks()) {
+            if (HyperlinkTargets.normalize(hyperlink).equals(target)) return true;
+        }
+        return false;
+    }
+
+    private static boolean inRange(@NotNull LocalDateTime value, LocalDateTime from, LocalDateTime to) {
+        return (from == null || !value.isBefore(from)) && (to == null || value.isBefore(to));
+    }
+
+    /**
+     * Builder class for constructing a {@link TaskQuery}.
+     * <p>
+     * Criteria that are not set are not taken into account.
+     * </p>
+     */
+    public static class Builder {
+        private Boolean completed;
+        private LocalDateTime deadlineFrom;
+        private LocalDateTime deadlineTo;
+        private LocalDateTime createdFrom;
+        private LocalDateTime createdTo;
+        private Boolean hasRecurrence;
+        private String hyperlink;
+
+        /**
+         * Restricts the query to completed or uncompleted tasks.
+         *
+         * @param completed The required completion state.
+         * @return the builder instance.
+         */
+        public @NotNull Builder completed(boolean completed) {
+            this.completed = completed;
+            return this;
+        }
+
+        /**
+         * Restricts the query to tasks with a deadline in range {@code [from, to)}.
+         *
+         * @param from The inclusive lower bound.
+         * @param to The exclusive upper bound.
+         * @return the builder instance.
+         */
+        public @NotNull Builder deadlineBetween(@NotNull LocalDateTime from, @NotNull LocalDateTime to) {
+            this.deadlineFrom = from;
+            this.deadlineTo = to;
+            return this;
+        }
+
+        /**
+         * Restricts the query to tasks with a deadline strictly before the given moment.
+         *
+         * @param to The exclusive upper bound.
+         * @return the builder instance.
+         */
+        public @NotNull Builder deadlineBefore(@NotNull LocalDateTime to) {
+            this.deadlineTo = to;
+            return this;
+        }
+
+        /**
+         * Restricts the query to tasks created in range {@code [from, to)}.
+         *
+         * @param from The inclusive lower bound.
+         * @param to The exclusive upper bound.
+         * @return the builder instance.
+         */
+        public @NotNull Builder createdBetween(@NotNull LocalDateTime from, @NotNull LocalDateTime to) {
+            this.createdFrom = from;
+            this.createdTo = to;
+            return this;
+        }
+
+        /**
+         * Restricts the query to tasks with or without a recurrence rule.
+         *
+         * @param hasRecurrence Whether the task should have a recurrence rule.
+         * @return the builder instance.
+         */
+        public @NotNull Builder hasRecurrence(boolean hasRecurrence) {
+            this.hasRecurrence = hasRecurrence;
+            return this;
+        }
+
+        /**
+         * Restricts the query to tasks referencing the given hyperlink target.
+         * Targets are compared after normalization, so any spelling of the target matches.
+         *
+         * @param hyperlink The hyperlink target, normalized or not.
+         * @return the builder instance.
+         * @see HyperlinkTargets#normalize(String)
+         */
+        public @NotNull Builder hyperlink(@NotNull String hyperlink) {
+            this.hyperlink = HyperlinkTargets.normalize(hyperlink);
+            return this;
+        }
+
+        /**
+         * Builds and returns the {@link TaskQuery} based on the provided criteria.
+         *
+         * @return a new {@link TaskQuery}.
+         */
+        public @NotNull TaskQuery build() {
+            return new TaskQuery(this);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", TaskQuery.class.getSimpleName() + "[", "]")
+                .add("completed=" + completed)
+                .add("deadlineFrom=" + deadlineFrom)
+                .add("deadlineTo=" + deadlineTo)
+                .add("createdFrom=" + createdFrom)
+                .add("createdTo=" + createdTo)
+                .add("hasRecurrence=" + hasRecurrence)
+                .add("hyperlink=" + hyperlink)
+                .toString();
+    }
+}
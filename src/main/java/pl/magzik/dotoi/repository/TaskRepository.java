@@ -1,18 +1,46 @@
 package pl.magzik.dotoi.repository;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import pl.magzik.dotoi.model.ContentHandle;
 import pl.magzik.dotoi.model.Task;
+import pl.magzik.dotoi.model.TaskSummary;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * Implementation of the {@link ITaskRepository} interface.
  * <p>
- * This class provides an in-memory task repository using a thread-safe {@link CopyOnWriteArrayList}.
- * It ensures that tasks are stored safely and allows concurrent access without requiring external synchronization.
+ * This class provides an in-memory task repository partitioned into stripes keyed by the task id hash.
+ * Each stripe is an independent {@link TaskIndex}: besides the primary id index, it maintains secondary indexes
+ * (creation time, deadline, completion, recurrence and hyperlink targets), which are updated on every save and delete.
+ * Queries are answered from the most selective index of every stripe, so only the matching slice of tasks is copied.
+ * </p>
+ *
+ * <p>
+ * Reads are lock-free, while writes are serialized per stripe, so writes to different stripes do not contend.
+ * Changed tasks are swapped in with {@link TaskIndex#replace(Task)}, so a reader looking a task up by id,
+ * or paging by creation time, never misses a task that is being updated. Batches are atomic for writers only:
+ * a concurrent reader may see some tasks of a batch already changed, and others not yet.
+ * Queries over large repositories (e.g., deadline and recurrence sweeps) run as a fork-join over the stripes
+ * in the common {@link ForkJoinPool}. Ordered reads merge the creation time indexes of all stripes.
+ * </p>
+ *
+ * <p>
+ * If the repository is created with a {@link ContentStore}, resident task contents are moved to the store on save,
+ * so that the repository keeps only {@link StoredContent} handles in memory.
  * </p>
  *
  * <p>
@@ -31,15 +59,92 @@ public class TaskRepository implements ITaskRepository {
 
     private static final Logger log = LoggerFactory.getLogger(TaskRepository.class);
 
-    private final List<Task> tasks;
+    private static final int PARALLEL_THRESHOLD = 10_000; ///< Below this size, queries are evaluated sequentially.
+
+    private static final Comparator<Head> HEAD_ORDER = Comparator.comparing(Head::task, TaskIndex.NATURAL_ORDER);
+
+    private final TaskIndex[] stripes;
+
+    private final ContentStore contentStore;
 
     /**
-     * Initializes the task repository.
-     * Uses a thread-safe {@link CopyOnWriteArrayList} to store tasks.
+     * Initializes the task repository, which keeps task contents in memory.
+     * Uses one thread-safe {@link TaskIndex} per available processor to store tasks.
      */
     public TaskRepository() {
-        this.tasks = new CopyOnWriteArrayList<>();
-        log.info("Task repository initialized.");
+        this(null);
+    }
+
+    /**
+     * Initializes the task repository, which moves task contents to the given store.
+     * Uses one thread-safe {@link TaskIndex} per available processor to store tasks.
+     *
+     * @param contentStore The {@link ContentStore} for task contents, or {@code null} to keep them in memory.
+     */
+    public TaskRepository(@Nullable ContentStore contentStore) {
+        this(contentStore, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Initializes the task repository, which moves task contents to the given store.
+     *
+     * @param contentStore The {@link ContentStore} for task contents, or {@code null} to keep them in memory.
+     * @param stripes The minimal number of stripes, rounded up to a power of two.
+     */
+    public TaskRepository(@Nullable ContentStore contentStore, int stripes) {
+        if (stripes <= 0) throw new IllegalArgumentException("Number of stripes should be positive.");
+        int count = Integer.highestOneBit(stripes) == stripes ? stripes : Integer.highestOneBit(stripes) << 1;
+        this.stripes = new TaskIndex[count];
+        for (int i = 0; i < count; i++) this.stripes[i] = new TaskIndex();
+        this.contentStore = contentStore;
+        log.info("Task repository initialized with {} stripes.", count);
+    }
+
+    /**
+     * @param id The id of a task.
+     * @return the stripe responsible for the task with the given id.
+     */
+    private @NotNull TaskIndex stripe(@NotNull UUID id) {
+        return stripes[stripeIndex(id)];
+    }
+
+    private int stripeIndex(@NotNull UUID id) {
+        int hash = id.hashCode();
+        return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+    }
+
+    /**
+     * Runs the action while holding the locks of all stripes of the given tasks.
+     * Locks are always acquired in the order of stripe indexes, so concurrent batches never deadlock.
+     *
+     * @param ids The ids of the tasks changed by the action.
+     * @param action The action to run.
+     */
+    private void locked(@NotNull Collection<UUID> ids, @NotNull Runnable action) {
+        boolean[] involved = new boolean[stripes.length];
+        for (UUID id : ids) involved[stripeIndex(id)] = true;
+        lock(involved, 0, action);
+    }
+
+    private void lock(boolean[] involved, int from, @NotNull Runnable action) {
+        for (int i = from; i < involved.length; i++) {
+            if (involved[i]) {
+                synchronized (stripes[i]) {
+                    lock(involved, i + 1, action);
+                }
+                return;
+            }
+        }
+        action.run();
+    }
+
+    /**
+     * @return the number of stored tasks.
+     */
+    public int size() {
+        int size = 0;
+        for (TaskIndex stripe : stripes) size += stripe.size();
+        return size;
     }
 
     /**
@@ -52,12 +157,130 @@ public class TaskRepository implements ITaskRepository {
      */
     @Override
     public void save(@NotNull Task task) {
-        if (tasks.contains(task)) {
+        TaskIndex stripe = stripe(task.getId());
+        if (stripe.contains(task.getId())) { ///< Checked before the I/O of offloading, and again under the lock.
             log.warn("Attempted to add a redundant task: {}", task);
             return;
         }
-        log.debug("Saving task {} in the repository.", task);
-        tasks.add(task);
+        Task offloaded = offloadContent(task);
+        synchronized (stripe) {
+            if (stripe.contains(task.getId())) {
+                log.warn("Attempted to add a redundant task: {}", task);
+                return;
+            }
+            log.debug("Saving task {} in the repository.", task);
+            stripe.add(offloaded);
+        }
+    }
+
+    /**
+     * Atomically replaces the stored task having the same id as the given one, or saves it if there is no such task.
+     *
+     * @param task The new version of the {@link Task}.
+     */
+    @Override
+    public void update(@NotNull Task task) {
+        Task offloaded = offloadContent(task); ///< I/O outside the lock.
+        TaskIndex stripe = stripe(task.getId());
+        synchronized (stripe) {
+            log.debug("Updating task {} in the repository.", task);
+            stripe.replace(offloaded);
+        }
+    }
+
+    /**
+     * Atomically saves all given tasks, replacing the stored ones having the same ids.
+     * <p>
+     * All affected stripes are locked for the duration of the batch, so no other write interleaves with it.
+     * </p>
+     *
+     * @param tasks The {@link Task} objects to be saved.
+     */
+    @Override
+    public void saveAll(@NotNull List<Task> tasks) {
+        if (tasks.isEmpty()) return;
+        List<Task> offloaded = tasks.stream().map(this::offloadContent).toList(); ///< I/O outside the locks.
+        locked(ids(tasks), () -> {
+            for (Task task : offloaded) stripe(task.getId()).replace(task);
+        });
+        log.debug("Saved {} tasks in the repository.", tasks.size());
+    }
+
+    /**
+     * Atomically changes the completion state of all tasks with the given ids.
+     *
+     * @param ids The {@link UUID}s of the tasks.
+     * @param completed The new completion state.
+     * @return An immutable {@link List} containing the updated tasks, i.e. existing tasks that weren't in the given state.
+     */
+    @Override
+    public @NotNull List<Task> setCompletedAll(@NotNull Collection<UUID> ids, boolean completed) {
+        List<Task> updated = new ArrayList<>();
+        locked(ids, () -> {
+            for (UUID id : ids) {
+                TaskIndex stripe = stripe(id);
+                stripe.get(id).filter(t -> t.isCompleted() != completed).ifPresent(current -> {
+                    Task task = current.withCompleted(completed);
+                    stripe.replace(task);
+                    updated.add(task);
+                });
+            }
+        });
+        log.debug("Changed completion state of {} tasks to {}.", updated.size(), completed);
+        return Collections.unmodifiableList(updated);
+    }
+
+    /**
+     * Atomically deletes all given tasks. Tasks that do not exist are ignored.
+     *
+     * @param tasks The {@link Task} objects to be deleted.
+     */
+    @Override
+    public void deleteAll(@NotNull List<Task> tasks) {
+        if (tasks.isEmpty()) return;
+        locked(ids(tasks), () -> {
+            for (Task task : tasks) stripe(task.getId()).remove(task.getId());
+        });
+        log.debug("Deleted {} tasks from the repository.", tasks.size());
+    }
+
+    private static @NotNull List<UUID> ids(@NotNull List<Task> tasks) {
+        return tasks.stream().map(Task::getId).toList();
+    }
+
+    /**
+     * Atomically changes the completion state of the task with the given id.
+     *
+     * @param id The {@link UUID} of the task.
+     * @param completed The new completion state.
+     * @return An {@link Optional} containing the updated task, or empty if there is no such task or it's already in the given state.
+     */
+    @Override
+    public @NotNull Optional<Task> setCompleted(@NotNull UUID id, boolean completed) {
+        TaskIndex stripe = stripe(id);
+        synchronized (stripe) {
+            Optional<Task> current = stripe.get(id);
+            if (current.isEmpty() || current.get().isCompleted() == completed) return Optional.empty();
+
+            Task updated = current.get().withCompleted(completed);
+            log.debug("Changing completion state of task {} to {}.", id, completed);
+            stripe.replace(updated);
+            return Optional.of(updated);
+        }
+    }
+
+    /**
+     * Moves the resident content of the given task to the content store, if there is one.
+     *
+     * @param task The {@link Task} to process.
+     * @return the task referencing its content in the store, or the same task if there was nothing to move.
+     */
+    private @NotNull Task offloadContent(@NotNull Task task) {
+        ContentHandle content = task.getContentHandle();
+        if (contentStore == null || !content.isResident()) return task;
+
+        String text = content.load();
+        return text.isEmpty() ? task : task.withContent(contentStore.store(text));
     }
 
     /**
@@ -70,22 +293,160 @@ public class TaskRepository implements ITaskRepository {
      */
     @Override
     public void delete(@NotNull Task task) {
-        if (!tasks.contains(task)) {
-            log.warn("Attempted to deleted a non-existing task: {}", task);
-            return;
+        TaskIndex stripe = stripe(task.getId());
+        synchronized (stripe) {
+            if (!stripe.contains(task.getId())) {
+                log.warn("Attempted to deleted a non-existing task: {}", task);
+                return;
+            }
+            log.debug("Deleting task {} from the repository.", task);
+            stripe.remove(task.getId());
         }
-        log.debug("Deleting task {} from the repository.", task);
-        tasks.remove(task);
     }
 
     /**
      * Retrieves all tasks stored in the repository.
      *
-     * @return An immutable {@link List} containing all stored {@link Task} objects.
+     * @return An immutable {@link List} containing all stored {@link Task} objects, ordered by creation time.
      */
     @Override
     public @NotNull List<Task> findAll() {
         log.debug("Fetching all tasks from the repository.");
-        return List.copyOf(tasks);
+        return mergeOrdered(null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Retrieves a single page of tasks by seeking the cursor position in the creation time index of every stripe.
+     *
+     * @param after The {@link TaskCursor} of the last seen task, or {@code null} to start from the beginning.
+     * @param limit The maximum number of tasks to return.
+     * @return An immutable {@link List} containing at most {@code limit} tasks positioned after the cursor.
+     */
+    @Override
+    public @NotNull List<Task> findPage(@Nullable TaskCursor after, int limit) {
+        log.debug("Fetching page of {} tasks after {} from the repository.", limit, after);
+        return mergeOrdered(after, limit);
+    }
+
+    /**
+     * Retrieves a single page of task summaries, projecting the tasks directly from the creation time indexes.
+     *
+     * @param after The {@link TaskCursor} of the last seen task, or {@code null} to start from the beginning.
+     * @param limit The maximum number of summaries to return.
+     * @return An immutable {@link List} containing at most {@code limit} summaries positioned after the cursor.
+     */
+    @Override
+    public @NotNull List<TaskSummary> findSummaryPage(@Nullable TaskCursor after, int limit) {
+        log.debug("Fetching page of {} task summaries after {} from the repository.", limit, after);
+        return mergeOrdered(after, limit).stream()
+                                         .map(TaskSummary::of)
+                                         .toList();
+    }
+
+    /**
+     * Merges the creation time indexes of all stripes, starting right after the given cursor.
+     *
+     * @param after The {@link TaskCursor} of the last seen task, or {@code null} to start from the beginning.
+     * @param limit The maximum number of tasks to return.
+     * @return An immutable {@link List} containing at most {@code limit} tasks in their natural order.
+     */
+    private @NotNull List<Task> mergeOrdered(@Nullable TaskCursor after, int limit) {
+        PriorityQueue<Head> heads = new PriorityQueue<>(stripes.length, HEAD_ORDER);
+        for (TaskIndex stripe : stripes) {
+            Iterator<Task> iterator = stripe.after(after).iterator();
+            if (iterator.hasNext()) heads.add(new Head(iterator.next(), iterator));
+        }
+
+        List<Task> result = new ArrayList<>(Math.min(limit, size()));
+        while (result.size() < limit && !heads.isEmpty()) {
+            Head head = heads.poll();
+            result.add(head.task());
+            if (head.rest().hasNext()) heads.add(new Head(head.rest().next(), head.rest()));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * The smallest not yet merged task of a single stripe.
+     */
+    private record Head(@NotNull Task task, @NotNull Iterator<Task> rest) {}
+
+    /**
+     * Retrieves the task with the given id using the primary index of its stripe.
+     *
+     * @param id The {@link UUID} of the task.
+     * @return An {@link Optional} containing the task, or empty if no such task is stored.
+     */
+    @Override
+    public @NotNull Optional<Task> findById(@NotNull UUID id) {
+        return stripe(id).get(id);
+    }
+
+    /**
+     * Retrieves all tasks matching the given query.
+     * <p>
+     * The query is answered from the most selective secondary index of every stripe,
+     * the remaining criteria are applied only to the selected candidates.
+     * Small repositories are queried with a plain loop over the stripes on the calling thread,
+     * large ones in parallel as a fork-join.
+     * </p>
+     *
+     * @param query The {@link TaskQuery} to evaluate.
+     * @return An immutable {@link List} containing only the matching {@link Task} objects.
+     */
+    @Override
+    public @NotNull List<Task> find(@NotNull TaskQuery query) {
+        log.debug("Querying tasks from the repository: {}", query);
+        if (size() >= PARALLEL_THRESHOLD) {
+            return Collections.unmodifiableList(ForkJoinPool.commonPool().invoke(new StripeQuery(stripes, query, 0, stripes.length)));
+        }
+
+        List<Task> result = new ArrayList<>();
+        for (TaskIndex stripe : stripes) collect(stripe, query, result);
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Adds the tasks of the stripe matching the query to the result.
+     */
+    private static void collect(@NotNull TaskIndex stripe, @NotNull TaskQuery query, @NotNull List<Task> result) {
+        for (Task task : stripe.candidates(query)) {
+            if (query.matches(task)) result.add(task);
+        }
+    }
+
+    /**
+     * Fork-join task evaluating a query over a range of stripes, splitting the range in halves down to single stripes.
+     */
+    @SuppressWarnings("serial") ///< Fork-join tasks are never serialized.
+    private static final class StripeQuery extends RecursiveTask<List<Task>> {
+
+        private final TaskIndex[] stripes;
+        private final TaskQuery query;
+        private final int from, to;
+
+        private StripeQuery(@NotNull TaskIndex[] stripes, @NotNull TaskQuery query, int from, int to) {
+            this.stripes = stripes;
+            this.query = query;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected @NotNull List<Task> compute() {
+            if (to - from == 1) {
+                List<Task> result = new ArrayList<>();
+                collect(stripes[from], query, result);
+                return result;
+            }
+
+            int middle = (from + to) >>> 1;
+            StripeQuery left = new StripeQuery(stripes, query, from, middle);
+            StripeQuery right = new StripeQuery(stripes, query, middle, to);
+            right.fork();
+            List<Task> result = left.compute();
+            result.addAll(right.join());
+            return result;
+        }
     }
 }
@@ -0,0 +1,288 @@
+package pl.magzik.dotoi.repository;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pl.magzik.dotoi.model.Task;
+import pl.magzik.dotoi.model.TaskSummary;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * A write-behind decorator of an {@link ITaskRepository}.
+ * <p>
+ * Mutations are accumulated in memory and applied to the underlying repository in batches,
+ * using {@link ITaskRepository#saveAll(List)} and {@link ITaskRepository#deleteAll(List)}, so a durable repository
+ * can group-commit them (e.g., with a single sync per batch). Multiple writes to the same task are merged,
+ * so only the latest version of the task is written.
+ * </p>
+ *
+ * <p>
+ * Pending mutations are flushed when:
+ * <ul>
+ *     <li>there are at least {@code batchSize} of them,</li>
+ *     <li>the oldest of them has been waiting for {@code maxDelay},</li>
+ *     <li>{@link #flush()} is called explicitly (e.g., on application exit).</li>
+ * </ul>
+ * Reads never flush, since a flush syncs the underlying repository. Instead, the pending mutations are laid over
+ * the results of the underlying repository, so that reads always observe all writes: lookups by id are answered
+ * from the pending mutations first, and pending tasks replace (or remove) their stored versions in queries and pages.
+ * </p>
+ *
+ * <p>
+ * All mutations and flushes are serialized on this repository. The periodic flush runs on a daemon thread,
+ * so it never prevents the application from exiting. Mutations still pending at exit are lost,
+ * unless {@link #flush()} is called.
+ * </p>
+ *
+ * @see ITaskRepository
+ *
+ * @since 0.1
+ * @author Maksymilian Strzelczak
+ * @version 1.0
+ */
+public final class WriteBehindTaskRepository implements ITaskRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindTaskRepository.class);
+
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
+    public static final Duration DEFAULT_MAX_DELAY = Duration.ofSeconds(1);
+
+    /**
+     * A pending mutation of a single task.
+     *
+     * @param task The latest version of the task.
+     * @param deleted Whether the task should be deleted.
+     */
+    private record Pending(@NotNull Task task, boolean deleted) {}
+
+    private final ITaskRepository delegate;
+
+    private final int batchSize;
+
+    private final Map<UUID, Pending> pending;
+
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Initializes the write-behind repository with the default batch size and delay.
+     *
+     * @param delegate The underlying {@link ITaskRepository}.
+     */
+    public WriteBehindTaskRepository(@NotNull ITaskRepository delegate) {
+        this(delegate, DEFAULT_BATCH_SIZE, DEFAULT_MAX_DELAY);
+    }
+
+    /**
+     * Initializes the write-behind repository.
+     *
+     * @param delegate The underlying {@link ITaskRepository}.
+     * @param batchSize The number of pending mutations triggering a flush.
+     * @param maxDelay The maximal time the mutations are kept pending.
+     */
+    public WriteBehindTaskRepository(@NotNull ITaskRepository delegate, int batchSize, @NotNull Duration maxDelay) {
+        if (batchSize <= 0) throw new IllegalArgumentException("Batch size should be positive.");
+        if (maxDelay.isNegative() || maxDelay.isZero()) throw new IllegalArgumentException("Max delay should be positive.");
+
+        this.delegate = delegate;
+        this.batchSize = batchSize;
+        this.pending = new LinkedHashMap<>();
+        this.scheduler = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "dotoi-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long delay = maxDelay.toMillis();
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, delay, delay, TimeUnit.MILLISECONDS);
+        log.info("Write-behind repository initialized with batch size {} and delay {}.", batchSize, maxDelay);
+    }
+
+    /**
+     * Saves a new task. If the task already exists, it is not added again, and a warning is logged.
+     *
+     * @param task The {@link Task} object to be saved.
+     */
+    @Override
+    public synchronized void save(@NotNull Task task) {
+        if (findById(task.getId()).isPresent()) {
+            log.warn("Attempted to add a redundant task: {}", task);
+            return;
+        }
+        enqueue(new Pending(task, false));
+    }
+
+    @Override
+    public synchronized void update(@NotNull Task task) {
+        enqueue(new Pending(task, false));
+    }
+
+    @Override
+    public synchronized void saveAll(@NotNull List<Task> tasks) {
+        for (Task task : tasks) enqueue(new Pending(task, false));
+    }
+
+    @Override
+    public synchronized @NotNull Optional<Task> setCompleted(@NotNull UUID id, boolean completed) {
+        Optional<Task> updated = findById(id).filter(t -> t.isCompleted() != completed)
+                                             .map(t -> t.withCompleted(completed));
+        updated.ifPresent(t -> enqueue(new Pending(t, false)));
+        return updated;
+    }
+
+    @Override
+    public synchronized @NotNull List<Task> setCompletedAll(@NotNull Collection<UUID> ids, boolean completed) {
+        List<Task> updated = new ArrayList<>();
+        for (UUID id : ids) setCompleted(id, completed).ifPresent(updated::add); ///< Atomic, since all mutations are synchronized.
+        return updated;
+    }
+
+    /**
+     * Deletes a task. If the task does not exist, a warning is logged.
+     *
+     * @param task The {@link Task} object to be deleted.
+     */
+    @Override
+    public synchronized void delete(@NotNull Task task) {
+        if (findById(task.getId()).isEmpty()) {
+            log.warn("Attempted to deleted a non-existing task: {}", task);
+            return;
+        }
+        enqueue(new Pending(task, true));
+    }
+
+    @Override
+    public synchronized void deleteAll(@NotNull List<Task> tasks) {
+        for (Task task : tasks) enqueue(new Pending(task, true));
+    }
+
+    private void enqueue(@NotNull Pending mutation) {
+        pending.remove(mutation.task().getId()); ///< Moves the merged mutation to the end, preserving the order of writes.
+        pending.put(mutation.task().getId(), mutation);
+        if (pending.size() >= batchSize) flush();
+    }
+
+    /**
+     * Applies all pending mutations to the underlying repository and flushes it.
+     * <p>
+     * If the underlying repository fails, the mutations remain pending and will be retried by the next flush.
+     * </p>
+     */
+    @Override
+    public synchronized void flush() {
+        if (pending.isEmpty()) return;
+
+        List<Task> saved = new ArrayList<>();
+        List<Task> deleted = new ArrayList<>();
+        for (Pending mutation : pending.values()) {
+            (mutation.deleted() ? deleted : saved).add(mutation.task());
+        }
+
+        if (!deleted.isEmpty()) delegate.deleteAll(deleted);
+        if (!saved.isEmpty()) delegate.saveAll(saved);
+        delegate.flush();
+
+        log.debug("Flushed {} saved and {} deleted tasks.", saved.size(), deleted.size());
+        pending.clear();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Write-behind flush has failed: {}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public synchronized @NotNull Optional<Task> findById(@NotNull UUID id) {
+        Pending mutation = pending.get(id);
+        if (mutation != null) return mutation.deleted() ? Optional.empty() : Optional.of(mutation.task());
+        return delegate.findById(id);
+    }
+
+    @Override
+    public synchronized @NotNull List<Task> findAll() {
+        return overlay(delegate.findAll(), t -> true, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public synchronized @NotNull List<Task> findPage(@Nullable TaskCursor after, int limit) {
+        List<Task> stored = delegate.findPage(after, widen(limit));
+        return overlay(stored, t -> after == null || after.precedes(t), limit);
+    }
+
+    @Override
+    public synchronized @NotNull List<TaskSummary> findSummaryPage(@Nullable TaskCursor after, int limit) {
+        List<TaskSummary> stored = delegate.findSummaryPage(after, widen(limit));
+        if (pending.isEmpty()) return stored.size() > limit ? stored.subList(0, limit) : stored;
+
+        List<TaskSummary> merged = new ArrayList<>(stored.size() + pending.size());
+        for (TaskSummary summary : stored) {
+            if (!pending.containsKey(summary.getId())) merged.add(summary);
+        }
+        for (Pending mutation : pending.values()) {
+            if (!mutation.deleted() && (after == null || after.precedes(mutation.task()))) merged.add(TaskSummary.of(mutation.task()));
+        }
+        merged.sort(Comparator.comparing(TaskSummary::getCreatedAt).thenComparing(TaskSummary::getId));
+        return List.copyOf(merged.subList(0, Math.min(limit, merged.size())));
+    }
+
+    @Override
+    public synchronized @NotNull List<Task> find(@NotNull TaskQuery query) {
+        return overlay(delegate.find(query), query::matches, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @return whether the underlying repository pushes queries down, since pending mutations are laid over its results.
+     */
+    @Override
+    public boolean pushesDownQueries() {
+        return delegate.pushesDownQueries();
+    }
+
+    /**
+     * Lays the pending mutations over the tasks read from the underlying repository.
+     * Stored versions of pending tasks are replaced by the pending ones, if they match the filter, or removed.
+     *
+     * @param stored The tasks read from the underlying repository.
+     * @param filter The {@link Predicate} pending tasks must match to be included, i.e. the condition of the read.
+     * @param limit The maximum number of tasks to return.
+     * @return the tasks in their natural order, or {@code stored} itself if there are no pending mutations.
+     */
+    private @NotNull List<Task> overlay(@NotNull List<Task> stored, @NotNull Predicate<Task> filter, int limit) {
+        if (pending.isEmpty()) return stored.size() > limit ? stored.subList(0, limit) : stored;
+
+        List<Task> merged = new ArrayList<>(stored.size() + pending.size());
+        for (Task task : stored) {
+            if (!pending.containsKey(task.getId())) merged.add(task);
+        }
+        for (Pending mutation : pending.values()) {
+            if (!mutation.deleted() && filter.test(mutation.task())) merged.add(mutation.task());
+        }
+        merged.sort(TaskIndex.NATURAL_ORDER);
+        return List.copyOf(merged.subList(0, Math.min(limit, merged.size())));
+    }
+
+    /**
+     * @return the page size to read from the underlying repository, so that at least {@code limit} tasks remain
+     *         after removing the stored versions of all pending tasks.
+     */
+    private int widen(int limit) {
+        return (int) Math.min((long) limit + pending.size(), Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,194 @@
+package pl.magzik.dotoi.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pl.magzik.dotoi.io.IcsSlotFile;
+import pl.magzik.dotoi.manager.ExecutorManager;
+import pl.magzik.dotoi.manager.data.DataEvent;
+import pl.magzik.dotoi.manager.data.DataManager;
+import pl.magzik.dotoi.manager.data.IDataSubscriber;
+import pl.magzik.dotoi.model.Task;
+import pl.magzik.dotoi.repository.ITaskRepository;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A service keeping an iCalendar feed of tasks with deadlines or recurrence rules.
+ * <p>
+ * The feed is written once on start, and then only the components of changed tasks are rewritten
+ * (see {@link IcsSlotFile}). Only an import rebuilds the whole feed.
+ * </p>
+ *
+ * <p>
+ * {@link DataEvent}s only tell which tasks have changed: the ids are queued, and the components are written
+ * from the tasks as the repository has stored them, since it may reject or alter a requested change.
+ * The queue is drained on the {@link ExecutorManager}, so the thread publishing an event, e.g. the JavaFX thread,
+ * never waits for the file. Ids changed again before a drain are written once.
+ * </p>
+ *
+ * <p>
+ * Optionally, the feed is also served over HTTP at {@code http://localhost:<port>/dotoi.ics}, so calendar
+ * applications can subscribe to it. The server listens on the loopback address only.
+ * </p>
+ *
+ * <p>
+ * The service does not subscribe itself to the {@link DataManager}, so its owner must subscribe it
+ * after the {@link TaskService}, which applies the changes, and close the subscription before closing the service.
+ * </p>
+ *
+ * @see IcsSlotFile
+ *
+ * @since 0.1
+ * @author Maksymilian Strzelczak
+ * @version 1.0
+ */
+public class CalendarExportService implements IDataSubscriber, Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(CalendarExportService.class);
+
+    public static final String PORT_PROPERTY = "dotoi.ics.port",
+                               FEED_PATH = "/dotoi.ics";
+
+    private final ITaskRepository taskRepository;
+    private final IcsSlotFile calendar;
+    private final HttpServer server;
+
+    private final Set<UUID> pending; ///< Ids of changed tasks, not yet written.
+    private final AtomicBoolean rebuildPending, drainScheduled;
+    private boolean closed; ///< Guarded by {@code this}.
+
+    /**
+     * @param taskRepository The repository the feed is rebuilt from.
+     * @param file The {@link Path} of the feed.
+     * @param port The port of the HTTP server, or {@code 0} to disable it.
+     */
+    public CalendarExportService(@NotNull ITaskRepository taskRepository, @NotNull Path file, int port) {
+        this.taskRepository = taskRepository;
+        this.calendar = new IcsSlotFile(file);
+        this.pending = ConcurrentHashMap.newKeySet();
+        this.rebuildPending = new AtomicBoolean();
+        this.drainScheduled = new AtomicBoolean();
+        this.calendar.rebuild(taskRepository.findAll());
+        this.server = port > 0 ? startServer(port) : null;
+        log.info("Calendar export service initialized.");
+    }
+
+    private HttpServer startServer(int port) {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+            server.createContext(FEED_PATH, this::serve);
+            server.setExecutor(ExecutorManager.getInstance().getExecutor());
+            server.start();
+            log.info("Calendar feed served at http://localhost:{}{}", port, FEED_PATH);
+            return server;
+        } catch (IOException e) {
+            log.error("Couldn't start the calendar feed server on port {}: {}", port, e.getMessage(), e);
+            return null;
+        }
+    }
+
+    private void serve(@NotNull HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = calendar.read();
+            exchange.getResponseHeaders().set("Content-Type", "text/calendar; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    @Override
+    public void onDataUpdate(@NotNull DataEvent event) {
+        switch (event) {
+            case DataEvent.TaskAdded(Task task) -> enqueue(task.getId());
+            case DataEvent.TaskUpdate(Task task) -> enqueue(task.getId());
+            case DataEvent.TaskCompleted(Task task) -> enqueue(task.getId());
+            case DataEvent.TaskUncompleted(Task task) -> enqueue(task.getId());
+            case DataEvent.TaskDeleted(UUID id) -> enqueue(id);
+            case DataEvent.TasksAdded(List<Task> tasks) -> enqueueAll(tasks);
+            case DataEvent.TasksUpdated(List<Task> tasks) -> enqueueAll(tasks);
+            case DataEvent.TasksCompleted(List<Task> tasks) -> enqueueAll(tasks);
+            case DataEvent.TasksUncompleted(List<Task> tasks) -> enqueueAll(tasks);
+            case DataEvent.TasksDeleted(Set<UUID> ids) -> {
+                pending.addAll(ids);
+                scheduleDrain();
+            }
+            case DataEvent.TasksImported ignored -> {
+                rebuildPending.set(true);
+                scheduleDrain();
+            }
+            default -> {}
+        }
+    }
+
+    private void enqueue(@NotNull UUID id) {
+        pending.add(id);
+        scheduleDrain();
+    }
+
+    private void enqueueAll(@NotNull Collection<Task> tasks) {
+        tasks.forEach(t -> pending.add(t.getId()));
+        scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        if (drainScheduled.compareAndSet(false, true)) ExecutorManager.getInstance().runAsync(this::drain);
+    }
+
+    /**
+     * Writes the queued tasks as the repository has stored them, or rebuilds the whole feed after an import.
+     * Drains are serialized, so a task read later is never overwritten by an older read.
+     */
+    private synchronized void drain() {
+        drainScheduled.set(false); ///< Ids queued from now on schedule another drain.
+        if (closed) return;
+        try {
+            if (rebuildPending.getAndSet(false)) {
+                pending.clear();
+                calendar.rebuild(taskRepository.findAll());
+                return;
+            }
+            for (Iterator<UUID> it = pending.iterator(); it.hasNext(); ) {
+                UUID id = it.next();
+                it.remove();
+                taskRepository.findById(id).ifPresentOrElse(calendar::put, () -> calendar.remove(id));
+            }
+        } catch (IcsSlotFile.CalendarFileException e) {
+            log.error("Couldn't update the calendar feed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Writes the remaining queued changes, then stops the server and closes the feed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (server != null) server.stop(0);
+        synchronized (this) {
+            drain();
+            closed = true;
+            calendar.close();
+        }
+        log.info("Calendar export service closed.");
+    }
+}
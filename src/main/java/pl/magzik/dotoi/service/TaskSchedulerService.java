@@ -5,7 +5,7 @@ import org.slf4j.LoggerFactory;
 import pl.magzik.dotoi.manager.data.DataEvent;
 import pl.magzik.dotoi.manager.data.DataManager;
 
-import java.util.List;
+import java.time.Duration;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -21,6 +21,10 @@ import java.util.concurrent.TimeUnit;
  *     The current implementation of this service is a simple one, using a scheduled executor to run checks every minute.
  *     However, this design can be enhanced in the future to handle different intervals or additional checks.
  * </p>
+ * <p>
+ *     The checks themselves are emitted by {@link #emitChecks()}, so they can also be driven by simulated time
+ *     instead of the wall clock, e.g. in tests.
+ * </p>
  *
  * @see TaskService
  * @see DataEvent.CheckDeadlines
@@ -34,6 +38,8 @@ public class TaskSchedulerService {
 
     private static final Logger log = LoggerFactory.getLogger(TaskSchedulerService.class);
 
+    public static final Duration CHECK_PERIOD = Duration.ofMinutes(1);
+
     private final ScheduledExecutorService scheduler;
 
     /**
@@ -47,10 +53,19 @@ public class TaskSchedulerService {
         this.scheduler = new ScheduledThreadPoolExecutor(1);
         log.info("Task scheduler service initialized.");
 
-        scheduler.scheduleAtFixedRate(() -> {
-            DataManager.getInstance().notifySubscribers(new DataEvent.CheckDeadlines());
-            DataManager.getInstance().notifySubscribers(new DataEvent.CheckRecurrence());
-        }, 0, 1, TimeUnit.MINUTES);
+        scheduler.scheduleAtFixedRate(TaskSchedulerService::emitChecks, 0, CHECK_PERIOD.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Publishes a single round of checks: {@link DataEvent.CheckDeadlines}, then {@link DataEvent.CheckRecurrence}.
+     * <p>
+     * The checks are dispatched asynchronously, so if the sweeps fall behind, pending checks are dropped
+     * by the {@link pl.magzik.dotoi.manager.data.OverflowPolicy} instead of piling up.
+     * </p>
+     */
+    static void emitChecks() {
+        DataManager.getInstance().notifySubscribersAsync(new DataEvent.CheckDeadlines());
+        DataManager.getInstance().notifySubscribersAsync(new DataEvent.CheckRecurrence());
     }
 
     /**
@@ -1,17 +1,28 @@
 package pl.magzik.dotoi.service;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import pl.magzik.dotoi.manager.data.DataEvent;
 import pl.magzik.dotoi.manager.data.DataManager;
 import pl.magzik.dotoi.manager.data.IDataSubscriber;
+import pl.magzik.dotoi.manager.data.OverflowPolicy;
 import pl.magzik.dotoi.model.Task;
+import pl.magzik.dotoi.model.TaskSummary;
+import pl.magzik.dotoi.repository.HyperlinkTargets;
 import pl.magzik.dotoi.repository.ITaskRepository;
+import pl.magzik.dotoi.repository.TaskColumns;
+import pl.magzik.dotoi.repository.TaskCursor;
+import pl.magzik.dotoi.repository.TaskQuery;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
-import java.util.function.Consumer;
-import java.util.function.Predicate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 
 /**
  * A service that acts as a bridge between the task repository and the event bus.
@@ -21,21 +32,39 @@ import java.util.function.Predicate;
  * </p>
  *
  * <p>
- * When initialized, the service automatically subscribes to the {@link DataManager},
- * allowing it to react to various events, such as adding, deleting, updating, and requesting tasks.
+ * Once subscribed to the {@link DataManager} by its owner, the service reacts to various events,
+ * such as adding, deleting, updating, and requesting tasks.
  * </p>
  *
  * <p>
  * Logged events:
  * <ul>
  *     <li>When a task is added or removed from the repository.</li>
- *     <li>When a task update occurs (deletes the old task and saves the updated one).</li>
+ *     <li>When a task update occurs (atomically replaces the stored task).</li>
  *     <li>When a task fetch request is received.</li>
  * </ul>
  * </p>
  *
- * Please note that this class does not unsubscribe when destroyed,
- * so it is the user's responsibility to do so.
+ * <p>
+ * Bulk events ({@link DataEvent.TasksAdded}, {@link DataEvent.TasksDeleted}, {@link DataEvent.TasksUpdated},
+ * {@link DataEvent.RequestCompletions}) are applied to the repository as a single batch, and answered with a single event.
+ * The recurrence check uses the same path, so a sweep results in one {@link DataEvent.TasksUncompleted} event.
+ * The results of the checks are published asynchronously, so bursts of them are bounded by the {@link OverflowPolicy}
+ * of the event queue instead of running all subscribers within the sweep.
+ * </p>
+ *
+ * <p>
+ * If the repository pushes queries down to its storage (see {@link ITaskRepository#pushesDownQueries()}),
+ * both the recurrence and the deadline checks are answered by {@link ITaskRepository#find(TaskQuery)},
+ * so the storage evaluates their conditions and no task is held in memory.
+ * Otherwise, the checks sweep the primitive columns of {@link TaskColumns}, and load only the matching tasks
+ * from the repository. After every change, the columns are updated with the task as the repository has stored it,
+ * and after an import they are rebuilt. The current time is read from an injected {@link Clock},
+ * so the checks can be driven by simulated time, e.g. in tests.
+ * </p>
+ *
+ * Please note that this class does not subscribe itself, so it never escapes its constructor half-initialized.
+ * The owner of the service keeps the returned {@link pl.magzik.dotoi.manager.data.Subscription} and closes it.
  *
  * @see DataManager
  * @see DataEvent
@@ -53,9 +82,22 @@ public class TaskService implements IDataSubscriber {
 
     private final ITaskRepository taskRepository;
 
+    private final @Nullable TaskColumns columns; ///< Absent if the repository pushes queries down.
+
+    private final Clock clock;
+
     public TaskService(@NotNull ITaskRepository taskRepository) {
+        this(taskRepository, Clock.systemDefaultZone());
+    }
+
+    /**
+     * @param taskRepository The repository of tasks.
+     * @param clock The {@link Clock} the recurrence and deadline checks read the current time from.
+     */
+    public TaskService(@NotNull ITaskRepository taskRepository, @NotNull Clock clock) {
         this.taskRepository = taskRepository;
-        DataManager.getInstance().subscribe(this);
+        this.clock = clock;
+        this.columns = taskRepository.pushesDownQueries() ? null : new TaskColumns(taskRepository);
         log.info("Task service initialized.");
     }
 
@@ -65,75 +107,206 @@ public class TaskService implements IDataSubscriber {
         switch (event) {
             case DataEvent.RequestTasks ignored -> DataManager.getInstance()
                                                               .notifySubscribers(new DataEvent.TasksFetched(taskRepository.findAll()));
+            case DataEvent.RequestTask(UUID id) -> taskRepository.findById(id).ifPresentOrElse(
+                t -> DataManager.getInstance().notifySubscribers(new DataEvent.TaskFetched(t)),
+                () -> log.warn("Requested a non-existing task: {}", id)
+            );
+            case DataEvent.RequestTaskPage(TaskCursor after, int limit) -> {
+                List<TaskSummary> page = taskRepository.findSummaryPage(after, limit);
+                TaskCursor next = page.isEmpty() || page.size() < limit ? null : TaskCursor.after(page.getLast());
+                DataManager.getInstance().notifySubscribers(new DataEvent.TaskPageFetched(after, page, next));
+            }
+            case DataEvent.RequestTaskStream(int chunkSize) -> streamTasks(chunkSize);
             case DataEvent.TaskAdded taskAdded -> {
                 log.info("Adding new task to the repository.");
                 taskRepository.save(taskAdded.task());
+                refresh(taskAdded.task().getId());
             }
-            case DataEvent.TaskDeleted taskDeleted -> {
+            case DataEvent.TaskDeleted(UUID id) -> {
                 log.info("Removing a task from the repository.");
-                taskRepository.delete(taskDeleted.task());
+                taskRepository.findById(id).ifPresentOrElse(
+                    taskRepository::delete,
+                    () -> log.warn("Attempted to delete a non-existing task: {}", id)
+                );
+                refresh(id);
             }
-            /* TODO: ADD HANDLING OF TASK_COMPLETED/TASK_UNCOMPLETED EVENTS */
+            case DataEvent.RequestCompletion(UUID id, boolean completed) -> setCompleted(id, completed);
             case DataEvent.TaskUpdate taskUpdate -> {
                 /*
                 * Please note: Task is compared to another task by its id.
                 *              Which remains unchanged.
                 * */
                 log.info("Updating a task in repository.");
-                taskRepository.delete(taskUpdate.task());
-                taskRepository.save(taskUpdate.task());
+                taskRepository.update(taskUpdate.task());
+                refresh(taskUpdate.task().getId());
+            }
+            case DataEvent.TasksAdded(List<Task> tasks) -> {
+                log.info("Adding {} tasks to the repository.", tasks.size());
+                taskRepository.saveAll(tasks);
+                refreshAll(tasks.stream().map(Task::getId).toList());
+            }
+            case DataEvent.TasksDeleted(Set<UUID> ids) -> {
+                log.info("Removing {} tasks from the repository.", ids.size());
+                taskRepository.deleteAll(ids.stream()
+                                            .map(taskRepository::findById)
+                                            .flatMap(Optional::stream)
+                                            .toList());
+                refreshAll(ids);
+            }
+            case DataEvent.TasksUpdated(List<Task> tasks) -> {
+                log.info("Updating {} tasks in the repository.", tasks.size());
+                taskRepository.saveAll(tasks);
+                refreshAll(tasks.stream().map(Task::getId).toList());
+            }
+            case DataEvent.RequestRepoint(String from, String to) -> repoint(from, to);
+            case DataEvent.TasksImported ignored -> {
+                if (columns != null) columns.rebuild();
+            }
+            case DataEvent.RequestCompletions(Set<UUID> ids, boolean completed) -> {
+                DataEvent updated = setCompleted(ids, completed);
+                if (updated != null) DataManager.getInstance().notifySubscribers(updated);
             }
             case DataEvent.CheckRecurrence ignored -> {
                 log.info("Performing recurrence tasks check.");
-                LocalDateTime now = LocalDateTime.now();
-                performCheck(
-                    t -> t.getRecurrenceRule().isPresent(),
-                    t -> t.getRecurrenceRule().get().shouldRepeat(now),
-                    t -> {
-                        t.uncomplete();
-                        DataManager.getInstance().notifySubscribers(new DataEvent.TaskUpdate(t));
-                    }
-                );
+                DataEvent updated = setCompleted(findDueRecurrences(LocalDateTime.now(clock)), false);
+                if (updated != null) DataManager.getInstance().notifySubscribersAsync(updated);
             }
             case DataEvent.CheckDeadlines ignored -> {
                 log.info("Performing deadline check.");
-                LocalDateTime now = LocalDateTime.now();
-                performCheck(
-                    t -> t.getDeadline().isPresent(),
-                    t -> t.getDeadline().get().isBefore(now),
-                    t -> {
-                        log.warn("Task {} is overdue!", t.getTitle());
-                        DataManager.getInstance().notifySubscribers(new DataEvent.TaskOverdue(t));
-                    }
-                );
+                List<Task> overdue = findOverdue(LocalDateTime.now(clock));
+                for (Task task : overdue) {
+                    log.debug("Task {} is overdue!", task.getTitle());
+                    DataManager.getInstance().notifySubscribersAsync(new DataEvent.TaskOverdue(task));
+                }
+                if (!overdue.isEmpty()) log.warn("{} tasks are overdue!", overdue.size()); ///< A line per task would stall a herd.
             }
             default -> {}
         }
     }
 
     /**
-     * Performs a check on tasks in the repository based on the specified predicates and action.
+     * Makes all changes of tasks durable, e.g. before the application exits.
+     *
+     * @see ITaskRepository#flush()
+     */
+    public void flush() {
+        log.info("Flushing the task repository.");
+        taskRepository.flush();
+    }
+
+    /**
+     * Puts the task into the columns as the repository has stored it, or removes it if the repository has none.
+     * The columns follow the outcome of a change instead of the request, which the repository may reject or alter.
+     *
+     * @param id The id of the changed task.
+     */
+    private void refresh(@NotNull UUID id) {
+        if (columns == null) return;
+        taskRepository.findById(id).ifPresentOrElse(columns::put, () -> columns.remove(id));
+    }
+
+    private void refreshAll(@NotNull Collection<UUID> ids) {
+        if (columns != null) ids.forEach(this::refresh);
+    }
+
+    /**
+     * Replaces every hyperlink pointing to {@code from} with {@code to}, in the affected tasks only.
+     * The tasks are found by the hyperlink index of the repository and published as a single {@link DataEvent.TasksUpdated},
+     * which is then applied to the repository like any other update.
+     *
+     * @param from The old hyperlink target, normalized or not.
+     * @param to The new hyperlink target.
+     * @see HyperlinkTargets#normalize(String)
+     */
+    private void repoint(@NotNull String from, @NotNull String to) {
+        String target = HyperlinkTargets.normalize(from);
+        List<Task> updated = taskRepository.find(new TaskQuery.Builder().hyperlink(target).build())
+                                           .stream()
+                                           .map(t -> t.withHyperlinks(t.getHyperlinks().stream()
+                                                                       .map(h -> HyperlinkTargets.normalize(h).equals(target) ? to : h)
+                                                                       .distinct()
+                                                                       .toList()))
+                                           .toList();
+        log.info("Repointing {} tasks from {} to {}.", updated.size(), from, to);
+        if (!updated.isEmpty()) DataManager.getInstance().notifySubscribers(new DataEvent.TasksUpdated(updated));
+    }
+
+    /**
+     * @param now The current time.
+     * @return the ids of completed recurring tasks whose rule should repeat now.
+     */
+    private @NotNull List<UUID> findDueRecurrences(@NotNull LocalDateTime now) {
+        if (columns != null) return columns.findDueRecurrences(now);
+        return taskRepository.find(new TaskQuery.Builder().hasRecurrence(true).completed(true).build())
+                             .stream()
+                             .filter(t -> t.getRecurrenceRuleOrNull().shouldRepeat(now))
+                             .map(Task::getId)
+                             .toList();
+    }
+
+    /**
+     * @param now The current time.
+     * @return the uncompleted tasks with a deadline before {@code now}.
+     */
+    private @NotNull List<Task> findOverdue(@NotNull LocalDateTime now) {
+        if (columns == null) return taskRepository.find(new TaskQuery.Builder().deadlineBefore(now).completed(false).build());
+        return columns.findOverdue(now).stream()
+                      .map(taskRepository::findById)
+                      .flatMap(Optional::stream)
+                      .filter(t -> !t.isCompleted())
+                      .toList();
+    }
+
+    /**
+     * Publishes all tasks in chunks of the given size.
      * <p>
-     * This method iterates through all tasks in the repository, filtering tasks based on two conditions:
-     * one defined by the {@code what} predicate (e.g., tasks that have a deadline) and another defined by
-     * the {@code when} predicate (e.g., tasks that are overdue). The tasks that satisfy both conditions
-     * will have the specified {@code check} action applied to them (e.g., logging a warning, notifying subscribers).
+     * Each chunk is fetched from the repository separately, so at most one chunk is copied at a time.
+     * The last published {@link DataEvent.TaskChunkFetched} event is marked as such, even if it is empty.
      * </p>
      *
-     * @param what A {@link Predicate} defining the first condition that a task must satisfy (e.g., having a deadline).
-     * @param when A {@link Predicate} defining the second condition that a task must satisfy (e.g., being overdue).
-     * @param check A {@link Consumer} defining the action to perform on each task that satisfies both conditions.
+     * @param chunkSize The maximum number of tasks per chunk.
+     */
+    private void streamTasks(int chunkSize) {
+        if (chunkSize <= 0) throw new IllegalArgumentException("Chunk size should be positive.");
+        TaskCursor cursor = null;
+        List<Task> chunk;
+        do {
+            chunk = taskRepository.findPage(cursor, chunkSize);
+            boolean last = chunk.size() < chunkSize;
+            DataManager.getInstance().notifySubscribers(new DataEvent.TaskChunkFetched(chunk, last));
+            if (!last) cursor = TaskCursor.after(chunk.getLast());
+        } while (chunk.size() == chunkSize);
+    }
+
+    /**
+     * Atomically changes the completion state of the task in the repository
+     * and, if the state has actually changed, emits {@link DataEvent.TaskCompleted} or {@link DataEvent.TaskUncompleted}.
+     *
+     * @param id The id of the task.
+     * @param completed The new completion state.
+     */
+    private void setCompleted(@NotNull UUID id, boolean completed) {
+        taskRepository.setCompleted(id, completed).ifPresent(t -> {
+            if (columns != null) columns.put(t);
+            DataManager.getInstance().notifySubscribers(
+                completed ? new DataEvent.TaskCompleted(t) : new DataEvent.TaskUncompleted(t)
+            );
+        });
+    }
+
+    /**
+     * Atomically changes the completion state of all given tasks in the repository.
      *
-     * @see Predicate
-     * @see Consumer
-     * @since 0.1
+     * @param ids The ids of the tasks.
+     * @param completed The new completion state.
+     * @return a single {@link DataEvent.TasksCompleted} or {@link DataEvent.TasksUncompleted} event with the changed tasks,
+     *         or {@code null} if none has changed. It's up to the caller how the event is published.
      */
-    private void performCheck(Predicate<Task> what, Predicate<Task> when, Consumer<Task> check) {
-        taskRepository.findAll()
-                      .stream()
-                      .filter(what)
-                      .filter(Predicate.not(Task::isCompleted))
-                      .filter(when)
-                      .forEach(check);
+    private @Nullable DataEvent setCompleted(@NotNull Collection<UUID> ids, boolean completed) {
+        if (ids.isEmpty()) return null;
+        List<Task> updated = taskRepository.setCompletedAll(ids, completed);
+        if (updated.isEmpty()) return null;
+        if (columns != null) columns.putAll(updated);
+        return completed ? new DataEvent.TasksCompleted(updated) : new DataEvent.TasksUncompleted(updated);
     }
 }
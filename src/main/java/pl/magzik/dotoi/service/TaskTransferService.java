@@ -0,0 +1,140 @@
+package pl.magzik.dotoi.service;
+
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pl.magzik.dotoi.io.TaskFormat;
+import pl.magzik.dotoi.io.TaskReader;
+import pl.magzik.dotoi.io.TaskWriter;
+import pl.magzik.dotoi.manager.ExecutorManager;
+import pl.magzik.dotoi.manager.data.DataEvent;
+import pl.magzik.dotoi.manager.data.DataManager;
+import pl.magzik.dotoi.manager.data.IDataSubscriber;
+import pl.magzik.dotoi.model.Task;
+import pl.magzik.dotoi.repository.ITaskRepository;
+import pl.magzik.dotoi.repository.TaskCursor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A service responsible for bulk import and export of tasks.
+ * <p>
+ * This service listens for {@link DataEvent.RequestImport} and {@link DataEvent.RequestExport} events,
+ * and handles them in the background using the {@link ExecutorManager}. The format of the file is determined
+ * by its extension (see {@link TaskFormat}).
+ * </p>
+ *
+ * <p>
+ * Both directions are streamed, so the memory usage does not depend on the number of tasks:
+ * <ul>
+ *     <li>Imported tasks are committed to the repository in batches of {@link #BATCH_SIZE} using {@link ITaskRepository#saveAll(List)},
+ *         and a single {@link DataEvent.TasksImported} event is published at the end, instead of one {@link DataEvent.TaskAdded} per task.
+ *         Imported tasks replace the stored ones with the same id.</li>
+ *     <li>Exported tasks are fetched page by page in their natural order.</li>
+ * </ul>
+ * If an import fails in the middle, already committed batches are kept, and the event reports their count.
+ * </p>
+ *
+ * <p>
+ * The service does not subscribe itself, its owner subscribes it to the {@link DataManager}.
+ * </p>
+ *
+ * @see TaskFormat
+ * @see ITaskRepository
+ *
+ * @since 0.1
+ * @author Maksymilian Strzelczak
+ * @version 1.0
+ */
+public class TaskTransferService implements IDataSubscriber {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskTransferService.class);
+
+    public static final int BATCH_SIZE = 1024;
+
+    private final ITaskRepository taskRepository;
+
+    public TaskTransferService(@NotNull ITaskRepository taskRepository) {
+        this.taskRepository = taskRepository;
+        log.info("Task transfer service initialized.");
+    }
+
+    @Override
+    public void onDataUpdate(@NotNull DataEvent event) {
+        switch (event) {
+            case DataEvent.RequestImport(Path file) -> ExecutorManager.getInstance().runAsync(() -> importTasks(file));
+            case DataEvent.RequestExport(Path file) -> ExecutorManager.getInstance().runAsync(() -> exportTasks(file));
+            default -> {}
+        }
+    }
+
+    /**
+     * Imports all tasks from the given file and publishes {@link DataEvent.TasksImported}.
+     *
+     * @param file The {@link Path} of the file.
+     * @return the number of imported tasks.
+     */
+    public int importTasks(@NotNull Path file) {
+        log.info("Importing tasks from {}.", file);
+        long start = System.nanoTime();
+        int count = 0;
+        List<Task> batch = new ArrayList<>(BATCH_SIZE);
+        try (TaskReader reader = TaskFormat.of(file).reader(Files.newBufferedReader(file, StandardCharsets.UTF_8))) {
+            Task task;
+            while ((task = reader.read()) != null) {
+                batch.add(task);
+                if (batch.size() == BATCH_SIZE) count += commit(batch);
+            }
+            count += commit(batch);
+        } catch (IOException | RuntimeException e) {
+            log.error("Import from {} has failed after {} tasks: {}", file, count, e.getMessage(), e);
+        } finally {
+            taskRepository.flush();
+        }
+
+        log.info("Imported {} tasks in {} ms.", count, (System.nanoTime() - start) / 1_000_000);
+        if (count > 0) DataManager.getInstance().notifySubscribers(new DataEvent.TasksImported(count));
+        return count;
+    }
+
+    private int commit(@NotNull List<Task> batch) {
+        if (batch.isEmpty()) return 0;
+        taskRepository.saveAll(batch);
+        int size = batch.size();
+        batch.clear();
+        return size;
+    }
+
+    /**
+     * Exports all tasks to the given file and publishes {@link DataEvent.TasksExported}.
+     *
+     * @param file The {@link Path} of the file, which is overwritten.
+     * @return the number of exported tasks.
+     */
+    public int exportTasks(@NotNull Path file) {
+        log.info("Exporting tasks to {}.", file);
+        int count = 0;
+        try (TaskWriter writer = TaskFormat.of(file).writer(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            TaskCursor cursor = null;
+            List<Task> page;
+            do {
+                page = taskRepository.findPage(cursor, BATCH_SIZE);
+                for (Task task : page) writer.write(task);
+                count += page.size();
+                if (!page.isEmpty()) cursor = TaskCursor.after(page.getLast());
+            } while (page.size() == BATCH_SIZE);
+        } catch (IOException | RuntimeException e) {
+            log.error("Export to {} has failed after {} tasks: {}", file, count, e.getMessage(), e);
+            return count;
+        }
+
+        log.info("Exported {} tasks.", count);
+        DataManager.getInstance().notifySubscribers(new DataEvent.TasksExported(file, count));
+        return count;
+    }
+}
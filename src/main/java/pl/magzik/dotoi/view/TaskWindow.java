@@ -3,19 +3,25 @@ package pl.magzik.dotoi.view;
 import javafx.stage.Stage;
 import org.jetbrains.annotations.NotNull;
 import pl.magzik.dotoi.controller.TaskController;
-import pl.magzik.dotoi.model.Task;
 
 import java.io.IOException;
+import java.util.UUID;
 
 public class TaskWindow extends Window {
 
     private static final String FXML = "/fxml/task-view.fxml";
 
-    private final Task task;
+    private final UUID taskId;
 
-    public TaskWindow(Task task) {
+    /**
+     * Creates a window editing the task with the given id.
+     * The full task is loaded only after the window has been started.
+     *
+     * @param taskId The id of the task to edit.
+     */
+    public TaskWindow(UUID taskId) {
         super(FXML);
-        this.task = task;
+        this.taskId = taskId;
     }
 
     public TaskWindow() {
@@ -25,8 +31,8 @@ public class TaskWindow extends Window {
     @Override
     public void start(@NotNull Stage stage) throws IOException {
         super.start(stage);
-        if (super.controller instanceof TaskController taskController && task != null) {
-            taskController.setTask(task);
+        if (super.controller instanceof TaskController taskController && taskId != null) {
+            taskController.loadTask(taskId);
         }
     }
 }
@@ -11,6 +11,7 @@ import pl.magzik.dotoi.controller.base.Controller;
 import pl.magzik.dotoi.manager.TranslationManager;
 import pl.magzik.dotoi.manager.data.DataManager;
 import pl.magzik.dotoi.manager.data.IDataSubscriber;
+import pl.magzik.dotoi.manager.data.Subscription;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
@@ -22,6 +23,10 @@ import java.net.URL;
  * This class also loads the FXML file specified in the constructor.
  * If the given FXML file is not found in the application resources, an exception will be thrown.
  * <p>
+ * The window owns the {@link DataManager} subscription of its controller. The controller is subscribed as soon as
+ * it is created (so before its {@code initialize} method publishes any request), and unsubscribed by {@link #stop()}.
+ * Controllers must not subscribe themselves.
+ * <p>
  * Please note that this class is intended to be extended, so it is not meant to be used directly.
  *
  * @since 0.1
@@ -36,6 +41,8 @@ public class Window extends Application {
 
     protected IDataSubscriber controller;
 
+    private Subscription subscription;
+
     public Window(@NotNull String fxml) {
         this.fxml = fxml;
     }
@@ -49,6 +56,7 @@ public class Window extends Application {
             throw new FileNotFoundException("Fxml file not found: " + fxml);
         }
         FXMLLoader loader = new FXMLLoader(fxmlURL, TranslationManager.getInstance().getBundle());
+        loader.setControllerFactory(this::createController);
         Scene scene = new Scene(loader.load());
         if (loader.getController() instanceof Controller c) {
             this.controller = c;
@@ -59,9 +67,29 @@ public class Window extends Application {
         log.info("Window initialized.");
     }
 
+    /**
+     * Creates the controller declared in the FXML file and subscribes it, if it is an {@link IDataSubscriber}.
+     */
+    private @NotNull Object createController(@NotNull Class<?> type) {
+        try {
+            Object instance = type.getDeclaredConstructor().newInstance();
+            if (instance instanceof IDataSubscriber subscriber) {
+                if (subscription != null) subscription.close();
+                subscription = DataManager.getInstance().subscribe(subscriber);
+            }
+            return instance;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Couldn't create the controller: " + type.getName(), e);
+        }
+    }
+
+    /**
+     * Unsubscribes the controller of this window. Calling this method more than once has no effect.
+     */
     @Override
     public void stop() {
         log.info("Closing the window.");
-        if (controller != null) DataManager.getInstance().unsubscribe(controller);
+        if (subscription != null) subscription.close();
+        log.debug("Window closed. {} subscribers remain.", DataManager.getInstance().getSubscriberCount());
     }
 }
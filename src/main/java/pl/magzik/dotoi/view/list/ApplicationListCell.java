@@ -1,16 +1,22 @@
 package pl.magzik.dotoi.view.list;
 
+import javafx.application.Platform;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.ListCell;
+import javafx.scene.image.ImageView;
 import javafx.scene.layout.VBox;
+import org.jetbrains.annotations.NotNull;
 import org.kordamp.ikonli.javafx.FontIcon;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import pl.magzik.dotoi.util.ApplicationUtils;
+import pl.magzik.dotoi.manager.ApplicationLauncher;
+import pl.magzik.dotoi.manager.ApplicationMetadataCache;
+import pl.magzik.dotoi.model.ApplicationMetadata;
 
 import java.io.File;
-import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * A custom implementation of {@link ListCell} for displaying application entries in a list.
@@ -18,13 +24,16 @@ import java.io.IOException;
  * that allows users to launch the application.
  *
  * <p>The button uses a play icon ({@code "fas-play"}) and, when clicked, attempts to open
- * the associated application file using {@link ApplicationUtils#openApplication(File)}.</p>
+ * the associated application file using {@link ApplicationLauncher}, which launches it in the background.
+ * The handler of the button is bound once, and it always launches the current item of the cell.</p>
  *
  * <h2>Behavior:</h2>
  * <ul>
  *     <li>If the cell is empty, its graphic is cleared.</li>
  *     <li>If a valid {@link File} is provided, the label displays the application's name
- *         (without the file extension), and the button allows launching the application.</li>
+ *         (without the file extension) and its icon, and the button allows launching the application.
+ *         Both are taken from {@link ApplicationMetadataCache}; if the metadata is not cached yet,
+ *         the name is derived from the file name and the cell is updated once the metadata is extracted.</li>
  *     <li>If the application fails to open, an error is logged.</li>
  * </ul>
  *
@@ -32,12 +41,16 @@ import java.io.IOException;
  * @author Maksymilian Strzelczak
  * @version 1.0
  */
-public class ApplicationListCell extends ListCell<File> {
+public final class ApplicationListCell extends ListCell<File> {
 
     private static final Logger log = LoggerFactory.getLogger(ApplicationListCell.class);
 
+    private static final double ICON_SIZE = 16;
+
     private final Label label;
 
+    private final ImageView icon;
+
     private final Button button;
 
     private final VBox box;
@@ -45,10 +58,17 @@ public class ApplicationListCell extends ListCell<File> {
     public ApplicationListCell() {
         super();
 
-        this.label = new Label();
+        this.icon = new ImageView();
+        this.icon.setPreserveRatio(true);
+        this.icon.setFitHeight(ICON_SIZE);
+        this.label = new Label("", icon);
         this.button = new Button();
         this.button.setFocusTraversable(false);
         this.button.setGraphic(new FontIcon("fas-play"));
+        this.button.setOnAction(event -> {
+            File item = getItem();
+            if (item != null) ApplicationLauncher.getInstance().launch(item.toPath());
+        });
         this.box = new VBox(button, label);
     }
 
@@ -64,19 +84,22 @@ public class ApplicationListCell extends ListCell<File> {
                 return;
             }
 
-            String filename = item.getName();
-            int idx = filename.lastIndexOf(".");
-            label.setText(idx > 0 ? filename.substring(0, idx) : filename);
-
-            button.setOnAction(event -> {
-                try {
-                    ApplicationUtils.openApplication(item);
-                } catch (IOException e) {
-                    log.error("Couldn't open application {}, because of {}", item, e.getMessage(), e);
-                }
-            });
+            Path path = item.toPath();
+            CompletableFuture<ApplicationMetadata> metadata = ApplicationMetadataCache.getInstance().get(path);
+            if (metadata.isDone()) show(path, metadata.join());
+            else {
+                show(path, ApplicationMetadataCache.getInstance().peek(path)); ///< Possibly outdated, until validated.
+                metadata.thenAccept(m -> Platform.runLater(() -> {
+                    if (item.equals(getItem())) show(path, m);
+                }));
+            }
 
             setGraphic(box);
         }
     }
+
+    private void show(@NotNull Path path, ApplicationMetadata metadata) {
+        label.setText(metadata != null ? metadata.displayName() : ApplicationMetadata.displayNameOf(path));
+        icon.setImage(metadata != null ? ApplicationMetadataCache.getInstance().getIcon(path) : null);
+    }
 }
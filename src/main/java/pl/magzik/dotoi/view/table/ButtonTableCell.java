@@ -5,10 +5,8 @@ import javafx.scene.control.Button;
 import javafx.scene.control.TableCell;
 import org.jetbrains.annotations.NotNull;
 import org.kordamp.ikonli.javafx.FontIcon;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import pl.magzik.dotoi.manager.TranslationManager;
-import pl.magzik.dotoi.model.Task;
+import pl.magzik.dotoi.model.TaskSummary;
 
 import java.util.function.BiConsumer;
 
@@ -17,62 +15,50 @@ import java.util.function.BiConsumer;
  * <p>
  * This class allows embedding a button within a table cell and associating it with a custom action
  * provided as a {@link BiConsumer}. When the button is clicked, the provided action is executed
- * with the {@link ActionEvent} and the corresponding {@link Task} as parameters.
+ * with the {@link ActionEvent} and the corresponding {@link TaskSummary} as parameters.
+ * The handler of the button is bound once, and it always refers to the current item of the cell.
  * </p>
  *
  * <h3>Usage</h3>
  * <pre>{@code
- * TableColumn<Task, String> column = new TableColumn<>("Action");
+ * TableColumn<TaskSummary, TaskSummary> column = new TableColumn<>("Action");
+ * column.setCellValueFactory(SummaryTableCell.VALUE_FACTORY);
  * column.setCellFactory(col -> new ButtonTableCell("delete.icon", (event, task) -> {
  *     System.out.println("Deleting task: " + task.getTitle());
  * }));
  * }</pre>
  *
- * @see Task
+ * @see TaskSummary
  *
  * @since 0.1
  * @author Maksymilian Strzelczak
  * @version 1.0
  */
-public class ButtonTableCell extends TableCell<Task, String> {
-
-    private static final Logger log = LoggerFactory.getLogger(ButtonTableCell.class);
-
-    private final Button button;
-
-    private final BiConsumer<ActionEvent, Task> action;
+public final class ButtonTableCell extends SummaryTableCell {
 
     /**
      * Creates a new instance of {@link ButtonTableCell} with a button that executes the specified action when clicked.
      * <p>
      * The provided {@code action} is executed whenever the button is clicked, receiving both the {@link ActionEvent}
-     * and the associated {@link Task} from the table row.
+     * and the associated {@link TaskSummary} from the table row.
      * </p>
      *
      * @param iconLiteral A string representing the button label, which is translated using {@link TranslationManager}.
      * @param action A {@link BiConsumer} that defines the action performed when the button is clicked.
-     *               It receives the {@link ActionEvent} and the associated {@link Task}.
+     *               It receives the {@link ActionEvent} and the associated {@link TaskSummary}.
      */
-    public ButtonTableCell(@NotNull String iconLiteral, @NotNull BiConsumer<ActionEvent, Task> action) {
-        super();
-        button = new Button("", new FontIcon(iconLiteral));
+    public ButtonTableCell(@NotNull String iconLiteral, @NotNull BiConsumer<ActionEvent, TaskSummary> action) {
+        this(new Button("", new FontIcon(iconLiteral)), action);
+    }
 
-        this.action = action;
+    private ButtonTableCell(@NotNull Button button, @NotNull BiConsumer<ActionEvent, TaskSummary> action) {
+        super(button);
+        button.setOnAction(e -> {
+            TaskSummary task = getItem();
+            if (task != null) action.accept(e, task);
+        });
     }
 
     @Override
-    protected void updateItem(@NotNull String item, boolean empty) {
-        super.updateItem(item, empty);
-        if (empty) setGraphic(null);
-        else {
-            final Task task = getTableRow().getItem();
-            if (task == null) {
-                log.warn("Task attached to this cell is null. Clearing the graphic.");
-                setGraphic(null);
-                return;
-            }
-            button.setOnAction(e -> action.accept(e, task));
-            setGraphic(button);
-        }
-    }
+    protected void render(@NotNull TaskSummary task) {}
 }
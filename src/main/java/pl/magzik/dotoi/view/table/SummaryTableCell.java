@@ -0,0 +1,68 @@
+package pl.magzik.dotoi.view.table;
+
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.value.ObservableValue;
+import javafx.scene.Node;
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+import javafx.util.Callback;
+import org.jetbrains.annotations.NotNull;
+import pl.magzik.dotoi.model.TaskSummary;
+
+/**
+ * Base class for table cells rendering a whole {@link TaskSummary}.
+ * <p>
+ * Cells are recycled by the table while scrolling, so subclasses should build their controls
+ * and bind their handlers once, in the constructor. Handlers refer to the current summary through {@link #getItem()}.
+ * On every update, {@link #render(TaskSummary)} only copies the values of the summary into the controls.
+ * </p>
+ *
+ * <p>
+ * The column of the cell has to use {@link #VALUE_FACTORY}, so the item of the cell is the summary of its row.
+ * Summaries are compared by their id, so items are compared by identity instead,
+ * which re-renders the cell whenever the summary of its row is replaced with an updated one.
+ * </p>
+ *
+ * @see TaskSummary
+ *
+ * @since 0.1
+ * @author Maksymilian Strzelczak
+ * @version 1.0
+ */
+public abstract class SummaryTableCell extends TableCell<TaskSummary, TaskSummary> {
+
+    public static final Callback<TableColumn.CellDataFeatures<TaskSummary, TaskSummary>, ObservableValue<TaskSummary>> VALUE_FACTORY =
+        features -> new ReadOnlyObjectWrapper<>(features.getValue());
+
+    private final Node graphic;
+
+    /**
+     * @param graphic The {@link Node} displayed by non-empty cells.
+     */
+    protected SummaryTableCell(@NotNull Node graphic) {
+        super();
+        this.graphic = graphic;
+    }
+
+    @Override
+    protected boolean isItemChanged(TaskSummary oldItem, TaskSummary newItem) {
+        return oldItem != newItem;
+    }
+
+    @Override
+    protected final void updateItem(TaskSummary item, boolean empty) {
+        super.updateItem(item, empty);
+        if (empty || item == null) setGraphic(null);
+        else {
+            render(item);
+            setGraphic(graphic);
+        }
+    }
+
+    /**
+     * Updates the controls of the cell with the values of the given summary.
+     *
+     * @param task The {@link TaskSummary} of the row.
+     */
+    protected abstract void render(@NotNull TaskSummary task);
+}
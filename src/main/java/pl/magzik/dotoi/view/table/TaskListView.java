@@ -0,0 +1,102 @@
+package pl.magzik.dotoi.view.table;
+
+import javafx.collections.ObservableListBase;
+import org.jetbrains.annotations.NotNull;
+import pl.magzik.dotoi.model.TaskSummary;
+
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * A read-only {@link javafx.collections.ObservableList} presenting an array of summaries through an index permutation.
+ * <p>
+ * The permutation is computed in the background (see {@link TaskSort}), and only the finished result
+ * is handed to this view with {@link #setAll(TaskSummary[], int[])}, which is a constant-time operation.
+ * A changed summary which keeps its position is patched in with {@link #replace(TaskSummary)} instead.
+ * The table virtualizes over the view, so it only ever reads the visible rows.
+ * </p>
+ *
+ * <p>
+ * Arrays passed to this view are owned by it afterwards: they must not be modified by the caller,
+ * since the previous content is reported to listeners without copying it.
+ * This class is not thread-safe and should only be used on the JavaFX thread.
+ * </p>
+ *
+ * @see TaskSort
+ *
+ * @since 0.1
+ * @author Maksymilian Strzelczak
+ * @version 1.0
+ */
+public class TaskListView extends ObservableListBase<TaskSummary> {
+
+    private TaskSummary[] items;
+    private int[] order;
+
+    public TaskListView() {
+        this.items = new TaskSummary[0];
+        this.order = new int[0];
+    }
+
+    /**
+     * Replaces the content of the view with a single change.
+     *
+     * @param items The summaries.
+     * @param order The permutation of indices of the summaries to present.
+     */
+    public void setAll(TaskSummary @NotNull [] items, int @NotNull [] order) {
+        List<TaskSummary> removed = snapshot(this.items, this.order);
+        this.items = items;
+        this.order = order;
+        if (removed.isEmpty() && order.length == 0) return;
+
+        beginChange();
+        nextReplace(0, order.length, removed);
+        endChange();
+    }
+
+    /**
+     * Replaces the presented summary of the same task with a single-element change, keeping its position.
+     * The caller is responsible for checking that the change doesn't affect the order or the filter.
+     *
+     * @param summary The new summary of a presented task.
+     * @return true if the task is presented and was replaced, false otherwise.
+     */
+    public boolean replace(@NotNull TaskSummary summary) {
+        for (int i = 0; i < order.length; i++) {
+            TaskSummary old = items[order[i]];
+            if (!old.getId().equals(summary.getId())) continue;
+
+            items[order[i]] = summary;
+            beginChange();
+            nextSet(i, old);
+            endChange();
+            return true;
+        }
+        return false;
+    }
+
+    private static @NotNull List<TaskSummary> snapshot(TaskSummary @NotNull [] items, int @NotNull [] order) {
+        return new AbstractList<>() {
+            @Override
+            public TaskSummary get(int index) {
+                return items[order[index]];
+            }
+
+            @Override
+            public int size() {
+                return order.length;
+            }
+        };
+    }
+
+    @Override
+    public TaskSummary get(int index) {
+        return items[order[index]];
+    }
+
+    @Override
+    public int size() {
+        return order.length;
+    }
+}
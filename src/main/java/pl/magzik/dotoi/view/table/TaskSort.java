@@ -0,0 +1,70 @@
+package pl.magzik.dotoi.view.table;
+
+import org.jetbrains.annotations.NotNull;
+import pl.magzik.dotoi.model.TaskSummary;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/**
+ * Orders in which the task list can be displayed.
+ * <p>
+ * Every order computes an index permutation over an array of summaries (see {@link #order(TaskSummary[], String)}),
+ * so the summaries themselves are never copied or moved. Ties are broken by the creation time and the id,
+ * so every order is total and stable between recomputations.
+ * </p>
+ *
+ * @see TaskListView
+ *
+ * @since 0.1
+ * @author Maksymilian Strzelczak
+ * @version 1.0
+ */
+public enum TaskSort {
+    CREATED(Comparator.comparing(TaskSummary::getCreatedAt)),
+    DEADLINE(Comparator.comparing((TaskSummary t) -> t.getDeadline().orElse(LocalDateTime.MAX))),
+    TITLE(Comparator.comparing(TaskSummary::getTitle, String.CASE_INSENSITIVE_ORDER)),
+    COMPLETED(Comparator.comparing(TaskSummary::isCompleted));
+
+    private final Comparator<TaskSummary> comparator;
+
+    TaskSort(@NotNull Comparator<TaskSummary> comparator) {
+        this.comparator = comparator.thenComparing(TaskSummary::getCreatedAt)
+                                    .thenComparing(TaskSummary::getId);
+    }
+
+    /**
+     * @return the translation key of the name of this order.
+     */
+    public @NotNull String getTranslationKey() {
+        return "task.sort." + name().toLowerCase();
+    }
+
+    /**
+     * Computes the indices of the summaries matching the filter, in this order.
+     * This method may take a while for large arrays, so it shouldn't be called on the JavaFX thread.
+     *
+     * @param items The summaries to order.
+     * @param filter The lowercase text the title or the description has to contain, or an empty string.
+     * @return the permutation of indices of the matching summaries.
+     */
+    public int @NotNull [] order(TaskSummary @NotNull [] items, @NotNull String filter) {
+        return IntStream.range(0, items.length)
+                        .filter(i -> filter.isEmpty() || contains(items[i].getTitle(), filter) || contains(items[i].getDescription(), filter))
+                        .boxed()
+                        .sorted((a, b) -> comparator.compare(items[a], items[b]))
+                        .mapToInt(Integer::intValue)
+                        .toArray();
+    }
+
+    /**
+     * Case-insensitive {@link String#contains(CharSequence)}, which doesn't allocate a lowercase copy of the text.
+     */
+    private static boolean contains(@NotNull String text, @NotNull String lowercase) {
+        for (int i = 0, last = text.length() - lowercase.length(); i <= last; i++) {
+            if (text.regionMatches(true, i, lowercase, 0, lowercase.length())) return true;
+        }
+        return false;
+    }
+}
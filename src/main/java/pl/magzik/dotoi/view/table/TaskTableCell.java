@@ -4,9 +4,7 @@ import javafx.scene.control.Label;
 import javafx.scene.control.TableCell;
 import javafx.scene.layout.VBox;
 import org.jetbrains.annotations.NotNull;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import pl.magzik.dotoi.model.Task;
+import pl.magzik.dotoi.model.TaskSummary;
 
 /**
  * A custom {@link TableCell} implementation designed for displaying task details.
@@ -18,53 +16,42 @@ import pl.magzik.dotoi.model.Task;
  *     <li><b>Title:</b> Displays the task title in bold.</li>
  *     <li><b>Description:</b> Displays the task description with a smaller font.</li>
  * </ul>
+ * The labels are styled by the {@code task-date}, {@code task-title} and {@code task-description} style classes,
+ * defined in the stylesheet of the task list.
  * </p>
  *
  * <p>
- * This cell template relies on the {@link Task} class to extract and display relevant data.
+ * This cell template relies on the {@link TaskSummary} class to extract and display relevant data.
  * </p>
  *
- * @see Task
+ * @see TaskSummary
  *
  * @since 0.1
  * @author Maksymilian Strzelczak
  * @version 1.0
  */
-public class TaskTableCell extends TableCell<Task, String> {
-
-    private static final Logger log = LoggerFactory.getLogger(TaskTableCell.class);
+public class TaskTableCell extends SummaryTableCell {
 
     private final Label date, title, description;
 
-    private final VBox box;
-
     public TaskTableCell() {
-        super();
-        this.date = new Label();
-        date.setStyle("-fx-font-size: 10px;");
-        this.title = new Label();
-        title.setStyle("-fx-font-weight: bold");
-        this.description = new Label();
-        description.setStyle("-fx-font-size: 10px;");
-        this.box = new VBox(date, title, description);
+        this(new Label(), new Label(), new Label());
     }
 
-    @Override
-    protected void updateItem(@NotNull String item, boolean empty) {
-        super.updateItem(item, empty);
+    private TaskTableCell(@NotNull Label date, @NotNull Label title, @NotNull Label description) {
+        super(new VBox(date, title, description));
+        this.date = date;
+        date.getStyleClass().add("task-date");
+        this.title = title;
+        title.getStyleClass().add("task-title");
+        this.description = description;
+        description.getStyleClass().add("task-description");
+    }
 
-        if (empty) setGraphic(null);
-        else {
-            final Task task = getTableRow().getItem();
-            if (task == null) {
-                log.warn("Task attached to this cell is null. Clearing the graphic.");
-                setGraphic(null);
-                return;
-            }
-            date.setText(task.getCreatedAt().toLocalDate().toString());
-            title.setText(task.getTitle());
-            description.setText(task.getDescription());
-            setGraphic(box);
-        }
+    @Override
+    protected void render(@NotNull TaskSummary task) {
+        date.setText(task.getCreatedDate());
+        title.setText(task.getTitle());
+        description.setText(task.getDescription());
     }
 }
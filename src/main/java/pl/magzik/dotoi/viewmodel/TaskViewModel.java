@@ -42,13 +42,19 @@ public class TaskViewModel {
         this.recurrenceRule = new SimpleObjectProperty<>(task.getRecurrenceRule().orElse(null));
     }
 
+    /**
+     * Derives a new {@link Task} from the wrapped one, applying the changes made through this view model.
+     * Unchanged fields are shared with the wrapped task.
+     *
+     * @return the updated {@link Task}, which keeps the id of the wrapped one.
+     */
     public Task toTask() {
-        return new Task.Builder(title.get(), description.get(), content.get(), hyperlinks, task.getCreatedAt())
-                .id(task.getId()) ///< Reference - Task is compared to others via ID.
-                .deadline(deadline.get())
-                .recurrenceRule(recurrenceRule.get())
-                .completed(task.isCompleted()) ///< Immutable
-                .build();
+        return task.withTitle(title.get())
+                   .withDescription(description.get())
+                   .withContent(content.get())
+                   .withHyperlinks(hyperlinks)
+                   .withDeadline(deadline.get())
+                   .withRecurrenceRule(recurrenceRule.get());
     }
 
     public String getId() {
@@ -0,0 +1,50 @@
+package pl.magzik.dotoi;
+
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.Collection;
+
+/**
+ * Runs JMH benchmarks from tests tagged {@value #TAG}, which are skipped unless the {@code benchmark} profile is active:
+ * <pre>{@code
+ *     mvn test -Pbenchmark -Dtest=TaskCodecBenchmark
+ * }</pre>
+ * Benchmarks run in a single forked JVM with short iterations, which is enough to compare changes on the same machine.
+ *
+ * @since 0.1
+ * @author Maksymilian Strzelczak
+ * @version 1.0
+ */
+public final class Benchmarks {
+
+    public static final String TAG = "benchmark";
+
+    private Benchmarks() {}
+
+    /**
+     * Runs all benchmark methods of the given class.
+     *
+     * @param benchmark The class declaring the {@link org.openjdk.jmh.annotations.Benchmark} methods.
+     * @param gcProfiler Whether to attach the {@link GCProfiler}, i.e. {@code -prof gc}, reporting allocation rates.
+     * @return the results of all benchmark methods.
+     */
+    public static @NotNull Collection<RunResult> run(@NotNull Class<?> benchmark, boolean gcProfiler) throws RunnerException {
+        ChainedOptionsBuilder options = new OptionsBuilder()
+            .include(benchmark.getName().replace("$", "\\$") + "\\.")
+            .forks(1)
+            .warmupIterations(3)
+            .warmupTime(TimeValue.seconds(1))
+            .measurementIterations(5)
+            .measurementTime(TimeValue.seconds(1))
+            .shouldFailOnError(true);
+        if (gcProfiler) options.addProfiler(GCProfiler.class);
+        return new Runner(options.build()).run();
+    }
+}
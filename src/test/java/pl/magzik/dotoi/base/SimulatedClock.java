@@ -0,0 +1,83 @@
+package pl.magzik.dotoi.base;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A {@link Clock} which only moves when told to.
+ * <p>
+ * Services reading the time from an injected {@link Clock} (e.g., {@link pl.magzik.dotoi.service.TaskService})
+ * can be driven by this clock to replay long periods of time in a moment, deterministically.
+ * Clocks derived by {@link #withZone(ZoneId)} share the current instant with the original clock,
+ * so advancing any of them advances all.
+ * </p>
+ *
+ * @see pl.magzik.dotoi.service.SimulatedSchedulerDriver
+ *
+ * @since 0.1
+ * @author Maksymilian Strzelczak
+ * @version 1.0
+ */
+public final class SimulatedClock extends Clock {
+
+    private final AtomicReference<Instant> instant;
+
+    private final ZoneId zone;
+
+    /**
+     * @param start The initial instant of the clock.
+     * @param zone The time zone of the clock.
+     */
+    public SimulatedClock(@NotNull Instant start, @NotNull ZoneId zone) {
+        this(new AtomicReference<>(start), zone);
+    }
+
+    private SimulatedClock(@NotNull AtomicReference<Instant> instant, @NotNull ZoneId zone) {
+        this.instant = instant;
+        this.zone = zone;
+    }
+
+    /**
+     * Moves the clock forward.
+     *
+     * @param duration The non-negative {@link Duration} to advance by.
+     * @return the new instant of the clock.
+     * @throws IllegalArgumentException if the duration is negative.
+     */
+    public @NotNull Instant advance(@NotNull Duration duration) {
+        if (duration.isNegative()) throw new IllegalArgumentException("Simulated time can't go backwards.");
+        return instant.updateAndGet(i -> i.plus(duration));
+    }
+
+    /**
+     * @param instant The new instant of the clock.
+     */
+    public void set(@NotNull Instant instant) {
+        this.instant.set(instant);
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return zone.equals(this.zone) ? this : new SimulatedClock(instant, zone);
+    }
+
+    @Override
+    public Instant instant() {
+        return instant.get();
+    }
+
+    @Override
+    public String toString() {
+        return "SimulatedClock[" + instant.get() + ", " + zone + "]";
+    }
+}
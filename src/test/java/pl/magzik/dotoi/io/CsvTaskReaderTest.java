@@ -0,0 +1,78 @@
+package pl.magzik.dotoi.io;
+
+import org.junit.jupiter.api.Test;
+import pl.magzik.dotoi.model.RandomTasks;
+import pl.magzik.dotoi.model.Task;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvTaskReaderTest {
+
+    private final RandomTasks random = new RandomTasks(38L);
+
+    @Test
+    void writtenTasksAreReadBack() throws IOException {
+        List<Task> tasks = random.tasks(500);
+        tasks.set(0, tasks.getFirst().withTitle("Comma, \"quote\"\r\nCRLF and 😀"));
+        StringWriter out = new StringWriter();
+        try (TaskWriter writer = TaskFormat.CSV.writer(out)) {
+            for (Task task : tasks) writer.write(task);
+        }
+
+        assertEquals(tasks.stream().map(RandomTasks::fingerprint).toList(),
+                     readAll(out.toString()).stream().map(RandomTasks::fingerprint).toList());
+    }
+
+    @Test
+    void columnsMayBeReorderedOrUnknown() throws IOException {
+        String input = "unknown,completed,title\r\nx,TRUE,First\r\n\r\ny,,\"Second, quoted\"\nz,false,Third";
+        List<Task> tasks = readAll(input);
+
+        assertEquals(List.of("First", "Second, quoted", "Third"), tasks.stream().map(Task::getTitle).toList());
+        assertEquals(List.of(true, false, false), tasks.stream().map(Task::isCompleted).toList());
+    }
+
+    @Test
+    void integersCoverTheWholeRange() throws IOException {
+        String input = "title,recurrence,interval,dayOfMonth\nMin,DAILY,-2147483648,2147483647\n";
+        Task task = readAll(input).getFirst();
+
+        assertEquals(Integer.MIN_VALUE, task.getRecurrenceRule().orElseThrow().getInterval());
+        assertEquals(Integer.MAX_VALUE, task.getRecurrenceRule().orElseThrow().getDayOfMonth());
+        assertMalformed("title,recurrence,interval\nT,DAILY,2147483648\n", "Invalid number: 2147483648");
+    }
+
+    @Test
+    void invalidCompletionIsReported() {
+        assertMalformed("title,completed\nT,yes\n", "Line 2: Invalid boolean: yes");
+        assertMalformed("title,completed\nT,1\n", "Invalid boolean: 1");
+    }
+
+    @Test
+    void malformedInputIsReportedWithItsLine() {
+        assertMalformed("description\nNo title\n", "Missing the 'title' column");
+        assertMalformed("title\nT\n\"Unterminated\n", "Unterminated quoted field.");
+        assertMalformed("title\n\"Quoted\"garbage\n", "Unexpected character after a quoted field.");
+        assertMalformed("title,description\n,No title\n", "Line 2: Missing title.");
+    }
+
+    private static List<Task> readAll(String input) throws IOException {
+        List<Task> tasks = new ArrayList<>();
+        try (TaskReader reader = TaskFormat.CSV.reader(new StringReader(input))) {
+            Task task;
+            while ((task = reader.read()) != null) tasks.add(task);
+        }
+        return tasks;
+    }
+
+    private static void assertMalformed(String input, String message) {
+        TaskReader.MalformedTaskException e = assertThrows(TaskReader.MalformedTaskException.class, () -> readAll(input));
+        assertTrue(e.getMessage().contains(message), e.getMessage());
+    }
+}
@@ -0,0 +1,213 @@
+package pl.magzik.dotoi.io;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pl.magzik.dotoi.model.RandomTasks;
+import pl.magzik.dotoi.model.Task;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Round trips of the slot file: every change is followed by a check that the file is a well-formed calendar
+ * holding exactly the exported tasks, in their current state, and that the file on disk matches {@link IcsSlotFile#read()}.
+ */
+class IcsSlotFileTest {
+
+    private final RandomTasks random = new RandomTasks(40L);
+
+    @TempDir
+    Path directory;
+
+    private Path path;
+    private IcsSlotFile calendar;
+
+    @BeforeEach
+    void open() {
+        path = directory.resolve("dotoi.ics");
+        calendar = new IcsSlotFile(path);
+    }
+
+    @AfterEach
+    void close() throws IOException {
+        calendar.close();
+    }
+
+    @Test
+    void changedTaskIsRewrittenInPlace() throws IOException {
+        List<Task> tasks = List.of(task("A"), task("B"), task("C"));
+        calendar.rebuild(tasks);
+        int length = calendar.read().length, offset = offsetOf(tasks.get(1));
+
+        Task completed = tasks.get(1).withCompleted(true);
+        calendar.put(completed);
+
+        assertEquals(length, calendar.read().length);
+        assertEquals(offset, offsetOf(completed));
+        assertCalendar(List.of(tasks.get(0), completed, tasks.get(2)));
+    }
+
+    @Test
+    void grownTaskMovesToNewSlot() throws IOException {
+        List<Task> tasks = List.of(task("A"), task("B"));
+        calendar.rebuild(tasks);
+        int length = calendar.read().length;
+
+        Task grown = tasks.get(0).withDescription("x".repeat(1_000));
+        calendar.put(grown);
+
+        assertTrue(calendar.read().length > length);
+        assertTrue(offsetOf(grown) > offsetOf(tasks.get(1)), "The grown task is appended after the others.");
+        assertCalendar(List.of(grown, tasks.get(1)));
+    }
+
+    @Test
+    void freeSlotsAreReused() throws IOException {
+        List<Task> tasks = List.of(task("A"), task("B"), task("C"));
+        calendar.rebuild(tasks);
+        int length = calendar.read().length, offset = offsetOf(tasks.get(1));
+
+        calendar.remove(tasks.get(1).getId());
+        assertEquals(length, calendar.read().length);
+        assertCalendar(List.of(tasks.get(0), tasks.get(2)));
+
+        Task added = task("D");
+        calendar.put(added);
+        assertEquals(length, calendar.read().length);
+        assertEquals(offset, offsetOf(added));
+        assertCalendar(List.of(tasks.get(0), added, tasks.get(2)));
+    }
+
+    @Test
+    void fileIsCompactedOnceMoreThanHalfIsFree() throws IOException {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 10; i++) tasks.add(task("T" + i));
+        calendar.rebuild(tasks);
+        int length = calendar.read().length;
+        int slot = (length - IcsFormat.HEADER.length() - IcsFormat.TRAILER.length()) / tasks.size();
+
+        for (int i = 0; i < 5; i++) calendar.remove(tasks.get(i).getId()); ///< Exactly half is free.
+        assertEquals(length, calendar.read().length);
+
+        calendar.remove(tasks.get(5).getId());
+        assertEquals(length - 6 * slot, calendar.read().length);
+        assertFalse(Files.exists(directory.resolve("dotoi.ics.tmp")));
+        assertCalendar(tasks.subList(6, 10));
+    }
+
+    @Test
+    void rebuildReplacesTheFileInsteadOfTruncatingIt() throws IOException {
+        calendar.rebuild(List.of(task("A")));
+        Object before = Files.readAttributes(path, BasicFileAttributes.class).fileKey();
+        assumeTrue(before != null, "The file system doesn't identify files.");
+
+        List<Task> tasks = List.of(task("B"), task("C"));
+        calendar.rebuild(tasks);
+
+        assertNotEquals(before, Files.readAttributes(path, BasicFileAttributes.class).fileKey());
+        assertFalse(Files.exists(directory.resolve("dotoi.ics.tmp")));
+        assertCalendar(tasks);
+    }
+
+    @Test
+    void randomChangesKeepTheCalendarValid() throws IOException {
+        Map<UUID, Task> model = new HashMap<>();
+        for (Task task : random.tasks(50)) model.put(task.getId(), task);
+        calendar.rebuild(model.values());
+        assertCalendar(model.values());
+
+        Random r = random.random();
+        for (int i = 0; i < 1_000; i++) {
+            List<Task> current = List.copyOf(model.values());
+            int op = r.nextInt(10);
+            if (op < 2 && !current.isEmpty()) {
+                Task removed = current.get(r.nextInt(current.size()));
+                model.remove(removed.getId());
+                calendar.remove(removed.getId());
+            } else if (op < 5 || current.isEmpty()) {
+                Task added = random.task();
+                model.put(added.getId(), added);
+                calendar.put(added);
+            } else {
+                Task task = current.get(r.nextInt(current.size()));
+                Task changed = switch (r.nextInt(3)) {
+                    case 0 -> task.withDescription("d".repeat(r.nextInt(800)));
+                    case 1 -> task.withCompleted(!task.isCompleted());
+                    default -> task.withDeadline(r.nextBoolean() ? null : random.time());
+                };
+                model.put(changed.getId(), changed);
+                calendar.put(changed);
+            }
+            assertCalendar(model.values());
+        }
+    }
+
+    private static Task task(String title) {
+        return new Task.Builder(title, "", "", List.of(), RandomTasks.EPOCH).deadline(RandomTasks.EPOCH.plusDays(1)).build();
+    }
+
+    private int offsetOf(Task task) {
+        return new String(calendar.read(), StandardCharsets.UTF_8).indexOf(uid(task));
+    }
+
+    private static String uid(Task task) {
+        return "UID:" + task.getId() + "@dotoi";
+    }
+
+    /**
+     * Checks that the content is a well-formed {@code VCALENDAR}: CRLF-terminated lines of at most 75 octets,
+     * properly nested components, and a single {@code VTODO} per exported task with its current status.
+     */
+    private void assertCalendar(Collection<Task> tasks) throws IOException {
+        byte[] content = calendar.read();
+        assertArrayEquals(content, Files.readAllBytes(path), "The file on disk differs from the read content.");
+
+        String text = new String(content, StandardCharsets.UTF_8);
+        assertTrue(text.startsWith(IcsFormat.HEADER) && text.endsWith(IcsFormat.TRAILER));
+        String[] lines = text.substring(0, text.length() - IcsFormat.CRLF.length()).split(IcsFormat.CRLF, -1);
+
+        Deque<String> components = new ArrayDeque<>();
+        Map<String, String> statuses = new HashMap<>(); ///< By UID.
+        String uid = null, status = null;
+        for (String line : lines) {
+            assertTrue(line.getBytes(StandardCharsets.UTF_8).length <= 75, "Line too long: " + line);
+            assertFalse(line.contains("\r") || line.contains("\n"), "Bare line break in: " + line);
+            if (line.startsWith("BEGIN:")) {
+                components.push(line.substring(6));
+                if (line.equals("BEGIN:VTODO")) uid = status = null;
+            } else if (line.startsWith("END:")) {
+                assertEquals(components.pop(), line.substring(4), "Mismatched END line.");
+                if (line.equals("END:VTODO")) assertNull(statuses.put(uid, status), "Duplicated " + uid);
+            } else if (line.startsWith("UID:")) {
+                uid = line;
+            } else if (line.startsWith("STATUS:")) {
+                status = line.substring(7);
+            }
+            if (!line.equals("END:VCALENDAR")) assertFalse(components.isEmpty(), "Line outside the calendar: " + line);
+        }
+        assertTrue(components.isEmpty(), "Unclosed components: " + components);
+
+        Map<String, String> expected = new HashMap<>();
+        for (Task task : tasks) {
+            if (IcsFormat.isExported(task)) expected.put(uid(task), task.isCompleted() ? "COMPLETED" : "NEEDS-ACTION");
+        }
+        assertEquals(expected, statuses);
+    }
+}
@@ -0,0 +1,92 @@
+package pl.magzik.dotoi.io;
+
+import org.junit.jupiter.api.Test;
+import pl.magzik.dotoi.model.RandomTasks;
+import pl.magzik.dotoi.model.Task;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonLinesTaskReaderTest {
+
+    private final RandomTasks random = new RandomTasks(38L);
+
+    @Test
+    void writtenTasksAreReadBack() throws IOException {
+        List<Task> tasks = random.tasks(500);
+        tasks.set(0, tasks.getFirst().withTitle("Quote \" backslash \\ tab \t line\nbreak \u0001 😀 ąę"));
+        StringWriter out = new StringWriter();
+        try (TaskWriter writer = TaskFormat.JSON_LINES.writer(out)) {
+            for (Task task : tasks) writer.write(task);
+        }
+
+        assertEquals(tasks.stream().map(RandomTasks::fingerprint).toList(),
+                     readAll(out.toString()).stream().map(RandomTasks::fingerprint).toList());
+    }
+
+    @Test
+    void whitespaceUnknownKeysAndNullsAreAccepted() throws IOException {
+        String input = """
+            
+              { "title" : "First", "unknown": {"nested": [1, -2.5e3, true, null, "x"]}, "hyperlinks": null,
+                "recurrence": null, "completed": true }
+            {"title":"Second","description":null,"hyperlinks":[],"extra":[]}   {"title":"Third"}
+            """;
+        List<Task> tasks = readAll(input);
+
+        assertEquals(List.of("First", "Second", "Third"), tasks.stream().map(Task::getTitle).toList());
+        assertTrue(tasks.getFirst().isCompleted());
+        assertEquals("", tasks.get(1).getDescription());
+    }
+
+    @Test
+    void integersCoverTheWholeRange() throws IOException {
+        String input = """
+            {"title":"Min","recurrence":{"recurrence":"DAILY","interval":-2147483648,"dayOfMonth":2147483647}}
+            """;
+        Task task = readAll(input).getFirst();
+
+        assertEquals(Integer.MIN_VALUE, task.getRecurrenceRule().orElseThrow().getInterval());
+        assertEquals(Integer.MAX_VALUE, task.getRecurrenceRule().orElseThrow().getDayOfMonth());
+        assertMalformed("{\"title\":\"T\",\"recurrence\":{\"recurrence\":\"DAILY\",\"interval\":2147483648}}", "Number out of range as 'interval'");
+        assertMalformed("{\"title\":\"T\",\"recurrence\":{\"recurrence\":\"DAILY\",\"interval\":-2147483649}}", "Number out of range as 'interval'");
+        assertMalformed("{\"title\":\"T\",\"recurrence\":{\"recurrence\":\"DAILY\",\"interval\":\"1\"}}", "Expected a number as 'interval', found a string");
+    }
+
+    @Test
+    void wrongTypeOfCompletionIsReported() {
+        assertMalformed("{\"title\":\"T\",\"completed\":null}", "Expected a boolean as 'completed', found null");
+        assertMalformed("{\"title\":\"T\",\"completed\":\"true\"}", "Expected a boolean as 'completed', found a string");
+        assertMalformed("{\"title\":\"T\",\"completed\":1}", "Expected a boolean as 'completed', found a number");
+        assertMalformed("{\"title\":\"T\",\"completed\":", "Expected a boolean as 'completed', found the end of input");
+    }
+
+    @Test
+    void malformedInputIsReportedWithItsLine() {
+        assertMalformed("{\"title\":\"T\"}\n\n{\"title\":\"Unterminated}", "Line 3: ");
+        assertMalformed("{\"title\":\"T\" \"completed\":true}", "Expected ',' or '}'");
+        assertMalformed("{\"description\":\"No title\"}", "Missing title.");
+        assertMalformed("{\"title\":\"T\",\"createdAt\":\"yesterday\"}", "yesterday");
+        assertMalformed("{\"title\":\"Bad \\x escape\"}", "Invalid escape");
+        assertMalformed("{\"title\":\"Line\nbreak\"}", "Unescaped line break in a string");
+    }
+
+    private static List<Task> readAll(String input) throws IOException {
+        List<Task> tasks = new ArrayList<>();
+        try (TaskReader reader = TaskFormat.JSON_LINES.reader(new StringReader(input))) {
+            Task task;
+            while ((task = reader.read()) != null) tasks.add(task);
+        }
+        return tasks;
+    }
+
+    private static void assertMalformed(String input, String message) {
+        TaskReader.MalformedTaskException e = assertThrows(TaskReader.MalformedTaskException.class, () -> readAll(input));
+        assertTrue(e.getMessage().contains(message), e.getMessage());
+    }
+}
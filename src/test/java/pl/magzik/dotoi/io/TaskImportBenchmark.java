@@ -0,0 +1,92 @@
+package pl.magzik.dotoi.io;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import pl.magzik.dotoi.Benchmarks;
+import pl.magzik.dotoi.model.RandomTasks;
+import pl.magzik.dotoi.model.Task;
+import pl.magzik.dotoi.repository.TaskRepository;
+import pl.magzik.dotoi.service.TaskTransferService;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Import throughput in tasks per millisecond: parsing alone, and parsing with batched saves into the repository,
+ * as {@link TaskTransferService} does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TaskImportBenchmark {
+
+    private static final int TASKS = 10_000, BATCH_SIZE = TaskTransferService.BATCH_SIZE;
+
+    @Param({"JSON_LINES", "CSV"})
+    public TaskFormat format;
+
+    private String input;
+    private TaskRepository repository;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        StringWriter out = new StringWriter();
+        try (TaskWriter writer = format.writer(out)) {
+            for (Task task : new RandomTasks(38L).tasks(TASKS)) writer.write(task);
+        }
+        input = out.toString();
+    }
+
+    @Setup(Level.Invocation)
+    public void emptyRepository() {
+        repository = new TaskRepository();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TASKS)
+    public int parse() throws IOException {
+        int count = 0;
+        try (TaskReader reader = format.reader(new StringReader(input))) {
+            while (reader.read() != null) count++;
+        }
+        return count;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TASKS)
+    public TaskRepository parseAndSave() throws IOException {
+        List<Task> batch = new ArrayList<>(BATCH_SIZE);
+        try (TaskReader reader = format.reader(new StringReader(input))) {
+            Task task;
+            while ((task = reader.read()) != null) {
+                batch.add(task);
+                if (batch.size() == BATCH_SIZE) {
+                    repository.saveAll(batch);
+                    batch.clear();
+                }
+            }
+        }
+        repository.saveAll(batch);
+        return repository;
+    }
+
+    @Test
+    @Tag(Benchmarks.TAG)
+    void run() throws Exception {
+        Benchmarks.run(TaskImportBenchmark.class, false);
+    }
+}
@@ -0,0 +1,129 @@
+package pl.magzik.dotoi.manager;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the launcher with a counting prober and a fake opener, over real files, so the watch service reports their changes.
+ */
+class ApplicationLauncherTest {
+
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    @TempDir
+    Path directory;
+
+    private final Map<Path, AtomicInteger> probes = new ConcurrentHashMap<>();
+    private final Set<Path> failing = ConcurrentHashMap.newKeySet(), opened = ConcurrentHashMap.newKeySet();
+
+    private final ApplicationLauncher launcher = new ApplicationLauncher(
+        path -> {
+            probes.computeIfAbsent(path, p -> new AtomicInteger()).incrementAndGet();
+            return Files.exists(path);
+        },
+        path -> {
+            if (failing.contains(path)) throw new IOException("No application associated.");
+            opened.add(path);
+        }
+    );
+
+    @AfterEach
+    void shutdown() {
+        launcher.shutdown();
+    }
+
+    @Test
+    void probesAreCached() throws IOException {
+        Path application = Files.writeString(directory.resolve("app"), "v1");
+
+        assertTrue(launcher.isLaunchable(application));
+        assertTrue(launcher.isLaunchable(directory.resolve("./app")));
+        assertEquals(1, probes(application));
+    }
+
+    @Test
+    void changedFileIsProbedAgain() throws Exception {
+        Path application = Files.writeString(directory.resolve("app"), "v1"), other = Files.writeString(directory.resolve("other"), "v1");
+        launcher.isLaunchable(application);
+        launcher.isLaunchable(other);
+
+        Files.writeString(application, "v2");
+        awaitProbes(application, 2);
+        Files.delete(application);
+        awaitLaunchable(application, false);
+
+        assertTrue(launcher.isLaunchable(other));
+        assertEquals(1, probes(other), "Files which haven't changed stay cached.");
+    }
+
+    @Test
+    void createdFileIsProbedAgain() throws Exception {
+        Path application = directory.resolve("app");
+        assertFalse(launcher.isLaunchable(application));
+
+        Files.writeString(application, "v1");
+        awaitLaunchable(application, true);
+        assertTrue(probes(application) >= 2);
+    }
+
+    @Test
+    void launchAllCountsLaunchedApplications() throws IOException {
+        Path first = Files.writeString(directory.resolve("first"), ""), second = Files.writeString(directory.resolve("second"), "");
+        Path broken = Files.writeString(directory.resolve("broken"), ""), missing = directory.resolve("missing");
+        failing.add(broken);
+
+        assertEquals(2, launcher.launchAll(List.of(first, missing, broken, second)).join());
+        assertEquals(Set.of(first, second), opened);
+        assertEquals(0, launcher.launchAll(List.of()).join());
+    }
+
+    @Test
+    void failedLaunchIsProbedAgain() throws IOException {
+        Path broken = Files.writeString(directory.resolve("broken"), "");
+        failing.add(broken);
+
+        assertFalse(launcher.launch(broken).join());
+        assertTrue(launcher.isLaunchable(broken));
+        assertEquals(2, probes(broken));
+    }
+
+    private int probes(Path application) {
+        AtomicInteger count = probes.get(application.toAbsolutePath().normalize());
+        return count == null ? 0 : count.get();
+    }
+
+    /**
+     * Asks for the application until the invalidated entry is probed the given number of times.
+     */
+    private void awaitProbes(Path application, int count) throws InterruptedException {
+        awaitUntil(application, () -> {
+            launcher.isLaunchable(application);
+            return probes(application) >= count;
+        });
+    }
+
+    private void awaitLaunchable(Path application, boolean launchable) throws InterruptedException {
+        awaitUntil(application, () -> launcher.isLaunchable(application) == launchable);
+    }
+
+    private static void awaitUntil(Path application, BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) fail("The change of " + application + " wasn't noticed.");
+            Thread.sleep(20);
+        }
+    }
+}
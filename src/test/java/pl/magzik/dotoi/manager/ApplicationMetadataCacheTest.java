@@ -0,0 +1,141 @@
+package pl.magzik.dotoi.manager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pl.magzik.dotoi.model.ApplicationMetadata;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Every session is a new instance of the cache reading the same file, as after a restart.
+ */
+class ApplicationMetadataCacheTest {
+
+    @TempDir
+    Path directory;
+
+    private Path file, application;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = directory.resolve(ApplicationMetadataCache.CACHE_FILE);
+        application = Files.writeString(directory.resolve("editor.exe"), "binary");
+    }
+
+    @Test
+    void savedEntriesAreLoadedInTheNextSession() {
+        ApplicationMetadataCache cache = new ApplicationMetadataCache(file);
+        ApplicationMetadata extracted = cache.get(application).join();
+        cache.save();
+
+        ApplicationMetadata loaded = new ApplicationMetadataCache(file).peek(application);
+        assertNotNull(loaded);
+        assertEquals("editor", loaded.displayName());
+        assertEquals(6, loaded.size());
+        assertEquals(extracted.lastModified(), loaded.lastModified());
+        assertArrayEquals(extracted.icon(), loaded.icon());
+    }
+
+    @Test
+    void unchangedEntriesAreNeitherExtractedNorSavedAgain() throws IOException {
+        ApplicationMetadataCache cache = new ApplicationMetadataCache(file);
+        cache.get(application).join();
+        cache.save();
+
+        ApplicationMetadataCache next = new ApplicationMetadataCache(file);
+        ApplicationMetadata loaded = next.peek(application);
+        assertSame(loaded, next.get(application).join());
+        assertTrue(next.get(application).isDone(), "Validated entries are returned without probing again.");
+
+        Files.delete(file);
+        next.save();
+        assertFalse(Files.exists(file), "Nothing has changed, so nothing is written.");
+    }
+
+    @Test
+    void changedApplicationIsExtractedAgain() throws IOException {
+        ApplicationMetadataCache cache = new ApplicationMetadataCache(file);
+        ApplicationMetadata before = cache.get(application).join();
+        cache.save();
+
+        Files.writeString(application, "a larger binary");
+        FileTime modified = FileTime.fromMillis(before.lastModified() + 10_000);
+        Files.setLastModifiedTime(application, modified);
+
+        ApplicationMetadataCache next = new ApplicationMetadataCache(file);
+        assertEquals(6, next.peek(application).size(), "Until validated, the outdated entry is returned.");
+        ApplicationMetadata after = next.get(application).join();
+        assertEquals(15, after.size());
+        assertEquals(modified.toMillis(), after.lastModified());
+
+        next.save();
+        assertEquals(15, new ApplicationMetadataCache(file).peek(application).size());
+    }
+
+    @Test
+    void missingApplicationIsCachedUntilItAppears() throws IOException {
+        Path missing = directory.resolve("missing.exe");
+        ApplicationMetadataCache cache = new ApplicationMetadataCache(file);
+        ApplicationMetadata metadata = cache.get(missing).join();
+        assertEquals(-1L, metadata.lastModified());
+        assertFalse(metadata.hasIcon());
+        cache.save();
+
+        Files.writeString(missing, "binary");
+        ApplicationMetadata appeared = new ApplicationMetadataCache(file).get(missing).join();
+        assertEquals(6, appeared.size());
+    }
+
+    @Test
+    void corruptFileIsIgnored() throws IOException {
+        ApplicationMetadataCache cache = new ApplicationMetadataCache(file);
+        cache.get(application).join();
+        cache.save();
+        byte[] saved = Files.readAllBytes(file);
+
+        Files.write(file, Arrays.copyOf(saved, saved.length - 3)); ///< Torn in the last entry.
+        assertNull(new ApplicationMetadataCache(file).peek(application));
+
+        Files.write(file, new byte[] {1, 2, 3});
+        assertNull(new ApplicationMetadataCache(file).peek(application));
+    }
+
+    @Test
+    void fileOfAnotherVersionIsIgnored() throws IOException {
+        ApplicationMetadataCache cache = new ApplicationMetadataCache(file);
+        cache.get(application).join();
+        cache.save();
+        byte[] saved = Files.readAllBytes(file);
+
+        saved[7] = 2; ///< The low byte of the version.
+        Files.write(file, saved);
+        ApplicationMetadataCache other = new ApplicationMetadataCache(file);
+        assertNull(other.peek(application));
+
+        other.get(application).join(); ///< Rebuilt with the current version.
+        other.save();
+        assertNotNull(new ApplicationMetadataCache(file).peek(application));
+    }
+
+    @Test
+    void fileWithAnotherMagicIsIgnored() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(0xCAFEBABE);
+            out.writeInt(1);
+            out.writeInt(0);
+        }
+        Files.write(file, bytes.toByteArray());
+
+        assertNull(new ApplicationMetadataCache(file).peek(application));
+    }
+}
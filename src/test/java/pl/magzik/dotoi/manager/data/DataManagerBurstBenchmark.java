@@ -0,0 +1,74 @@
+package pl.magzik.dotoi.manager.data;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+import pl.magzik.dotoi.Benchmarks;
+import pl.magzik.dotoi.model.RandomTasks;
+import pl.magzik.dotoi.model.Task;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of asynchronous publishing under sustained bursts, from several publishers at once,
+ * while the dispatcher runs a subscriber which can't keep up with them.
+ * Every kind of burst saturates the queue, so its {@link OverflowPolicy} decides the throughput:
+ * overdue notifications are dropped, completion toggles of a thousand tasks are coalesced,
+ * and deletions block until the dispatcher catches up.
+ * The queue statistics of every trial are printed, so dropped and coalesced events can be compared.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(4)
+public class DataManagerBurstBenchmark {
+
+    @Param({"overdue", "completion", "deletion"})
+    public String burst;
+
+    private DataManager manager;
+    private List<Task> tasks;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        manager = new DataManager();
+        manager.subscribe(event -> Blackhole.consumeCPU(256));
+        tasks = new RandomTasks(34L).tasks(1_000);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        manager.shutdown();
+        System.out.println(burst + ": " + manager.getQueueStats());
+    }
+
+    @Benchmark
+    public void publish() {
+        Task task = tasks.get(ThreadLocalRandom.current().nextInt(tasks.size()));
+        manager.notifySubscribersAsync(switch (burst) {
+            case "overdue" -> new DataEvent.TaskOverdue(task);
+            case "completion" -> ThreadLocalRandom.current().nextBoolean()
+                                 ? new DataEvent.TaskCompleted(task) : new DataEvent.TaskUncompleted(task);
+            default -> new DataEvent.TaskDeleted(task.getId());
+        });
+    }
+
+    @Test
+    @Tag(Benchmarks.TAG)
+    void run() throws Exception {
+        Benchmarks.run(DataManagerBurstBenchmark.class, false);
+    }
+}
@@ -0,0 +1,92 @@
+package pl.magzik.dotoi.manager.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataManagerTest {
+
+    private final DataManager manager = new DataManager();
+
+    @Test
+    void shutdownDispatchesQueuedEventsBeforeReturning() {
+        List<DataEvent> received = new CopyOnWriteArrayList<>();
+        manager.subscribe(event -> {
+            LockSupport.parkNanos(100_000L); ///< A slow subscriber, so events pile up in the queue.
+            received.add(event);
+        });
+
+        for (int i = 0; i < 1_000; i++) manager.notifySubscribersAsync(new DataEvent.TaskDeleted(new UUID(0, i)));
+        manager.shutdown();
+
+        assertEquals(1_000, received.size());
+        assertEquals(new DataEvent.TaskDeleted(new UUID(0, 999)), received.getLast());
+        assertEquals(0, manager.getQueueStats().depth());
+    }
+
+    @Test
+    void everyAcceptedEventIsDispatchedWhenPublishersRaceTheShutdown() throws InterruptedException {
+        List<DataEvent> received = new CopyOnWriteArrayList<>();
+        manager.subscribe(event -> {
+            LockSupport.parkNanos(20_000L);
+            received.add(event);
+        });
+
+        AtomicInteger accepted = new AtomicInteger();
+        Thread publisher = Thread.ofPlatform().start(() -> {
+            try {
+                while (true) {
+                    manager.notifySubscribersAsync(new DataEvent.RequestTask(new UUID(0, accepted.get())));
+                    accepted.incrementAndGet();
+                }
+            } catch (IllegalStateException e) {
+                // Rejected after the shutdown.
+            }
+        });
+        while (manager.getQueueStats().depth() < DataManager.QUEUE_CAPACITY) Thread.onSpinWait(); ///< The publisher blocks now.
+        manager.shutdown();
+        publisher.join();
+
+        assertTrue(accepted.get() >= DataManager.QUEUE_CAPACITY);
+        assertEquals(accepted.get(), received.size());
+    }
+
+    @Test
+    void eventsPublishedBySubscribersWhileDrainingAreDispatched() {
+        List<DataEvent> received = new CopyOnWriteArrayList<>();
+        manager.subscribe(event -> {
+            received.add(event);
+            if (event instanceof DataEvent.CheckDeadlines) manager.notifySubscribersAsync(new DataEvent.CheckRecurrence());
+        });
+
+        manager.notifySubscribersAsync(new DataEvent.CheckDeadlines());
+        manager.shutdown();
+
+        assertEquals(List.of(new DataEvent.CheckDeadlines(), new DataEvent.CheckRecurrence()), received);
+    }
+
+    @Test
+    void asynchronousEventsAreRejectedAfterShutdown() {
+        List<DataEvent> received = new CopyOnWriteArrayList<>();
+        manager.subscribe(received::add);
+        manager.notifySubscribersAsync(new DataEvent.CheckDeadlines());
+        manager.shutdown();
+
+        assertThrows(IllegalStateException.class, () -> manager.notifySubscribersAsync(new DataEvent.CheckRecurrence()));
+        manager.notifySubscribers(new DataEvent.CheckRecurrence());
+        assertEquals(List.of(new DataEvent.CheckDeadlines(), new DataEvent.CheckRecurrence()), received);
+    }
+
+    @Test
+    void shutdownBeforeFirstEventRejectsLaterOnes() {
+        manager.shutdown();
+        manager.shutdown();
+        assertThrows(IllegalStateException.class, () -> manager.notifySubscribersAsync(new DataEvent.CheckDeadlines()));
+    }
+}
@@ -0,0 +1,185 @@
+package pl.magzik.dotoi.manager.data;
+
+import org.junit.jupiter.api.Test;
+import pl.magzik.dotoi.model.RandomTasks;
+import pl.magzik.dotoi.model.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventRingBufferTest {
+
+    private final RandomTasks random = new RandomTasks(34L);
+
+    @Test
+    void capacityIsRoundedUpToPowerOfTwo() {
+        assertEquals(8, new EventRingBuffer(5).stats().capacity());
+        assertEquals(4, new EventRingBuffer(4).stats().capacity());
+        assertThrows(IllegalArgumentException.class, () -> new EventRingBuffer(0));
+    }
+
+    @Test
+    void eventsAreTakenInOrderOfPublishing() throws InterruptedException {
+        EventRingBuffer buffer = new EventRingBuffer(4);
+        List<DataEvent> published = new ArrayList<>();
+        for (int i = 0; i < 10; i++) { ///< Wraps around the slots.
+            DataEvent event = new DataEvent.TaskDeleted(new UUID(0, i));
+            assertTrue(buffer.put(event, OverflowPolicy.BLOCK, true));
+            published.add(event);
+            if (buffer.stats().depth() == 3) {
+                buffer.take();
+                published.removeFirst();
+            }
+        }
+        assertEquals(published, drain(buffer));
+    }
+
+    @Test
+    void blockedEventIsRejectedIfCallerMayNotWait() throws InterruptedException {
+        EventRingBuffer buffer = new EventRingBuffer(2);
+        buffer.put(new DataEvent.RequestTasks(), OverflowPolicy.BLOCK, true);
+        buffer.put(new DataEvent.RequestTasks(), OverflowPolicy.BLOCK, true);
+
+        assertFalse(buffer.put(new DataEvent.TaskDeleted(new UUID(0, 1)), OverflowPolicy.BLOCK, false));
+        assertFalse(buffer.put(new DataEvent.TaskCompleted(random.task()), OverflowPolicy.COALESCE, false));
+        assertEquals(new EventQueueStats(2, 2, 2, 0, 0), buffer.stats());
+    }
+
+    @Test
+    void blockedPublisherResumesWhenEventIsTaken() throws InterruptedException {
+        EventRingBuffer buffer = new EventRingBuffer(1);
+        buffer.put(new DataEvent.RequestTasks(), OverflowPolicy.BLOCK, true);
+
+        DataEvent last = new DataEvent.TaskDeleted(new UUID(0, 1));
+        Thread publisher = Thread.ofPlatform().start(() -> {
+            try {
+                buffer.put(last, OverflowPolicy.BLOCK, true);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        while (publisher.getState() != Thread.State.WAITING) Thread.onSpinWait();
+
+        assertEquals(new DataEvent.RequestTasks(), buffer.take());
+        publisher.join();
+        assertEquals(last, buffer.take());
+    }
+
+    @Test
+    void onlyDroppableEventsAreDropped() throws InterruptedException {
+        EventRingBuffer buffer = new EventRingBuffer(4);
+        DataEvent first = new DataEvent.CheckDeadlines(), second = new DataEvent.CheckRecurrence();
+        List<DataEvent> kept = List.of(
+            new DataEvent.TaskDeleted(new UUID(0, 1)),
+            new DataEvent.TaskDeleted(new UUID(0, 2)),
+            new DataEvent.TaskDeleted(new UUID(0, 3))
+        );
+        buffer.put(first, OverflowPolicy.DROP_OLDEST, true);
+        for (DataEvent event : kept) buffer.put(event, OverflowPolicy.BLOCK, true);
+
+        assertTrue(buffer.put(second, OverflowPolicy.DROP_OLDEST, false)); ///< Replaces the first check.
+        assertTrue(buffer.put(new DataEvent.CheckDeadlines(), OverflowPolicy.DROP_OLDEST, false)); ///< Discarded.
+
+        assertEquals(2, buffer.stats().dropped());
+        List<DataEvent> expected = new ArrayList<>(kept);
+        expected.add(second);
+        assertEquals(expected, drain(buffer));
+    }
+
+    @Test
+    void toggledTaskEndsInItsLatestState() throws InterruptedException {
+        EventRingBuffer buffer = new EventRingBuffer(8);
+        Task task = random.task();
+        buffer.put(new DataEvent.TaskCompleted(task.withCompleted(true)), OverflowPolicy.COALESCE, true);
+        buffer.put(new DataEvent.TaskUncompleted(task.withCompleted(false)), OverflowPolicy.COALESCE, true);
+        DataEvent last = new DataEvent.TaskCompleted(task.withCompleted(true));
+        buffer.put(last, OverflowPolicy.COALESCE, true);
+
+        assertEquals(List.of(last), drain(buffer));
+        assertEquals(2, buffer.stats().coalesced());
+    }
+
+    @Test
+    void coalescingIsPerTaskAndKind() throws InterruptedException {
+        EventRingBuffer buffer = new EventRingBuffer(8);
+        Task a = random.task(), b = random.task();
+        buffer.put(new DataEvent.TaskCompleted(a), OverflowPolicy.COALESCE, true);
+        buffer.put(new DataEvent.TaskUpdate(a), OverflowPolicy.COALESCE, true);
+        buffer.put(new DataEvent.TaskCompleted(b), OverflowPolicy.COALESCE, true);
+        DataEvent latest = new DataEvent.TaskUpdate(a.withTitle("Latest"));
+        buffer.put(latest, OverflowPolicy.COALESCE, true);
+
+        assertEquals(List.of(new DataEvent.TaskCompleted(a), latest, new DataEvent.TaskCompleted(b)), drain(buffer));
+    }
+
+    @Test
+    void eventsConcerningTheTaskAreNeverReordered() throws InterruptedException {
+        Task task = random.task();
+        List<DataEvent> barriers = List.of(
+            new DataEvent.TaskDeleted(task.getId()),
+            new DataEvent.RequestCompletions(Set.of(task.getId()), true),
+            new DataEvent.TasksUpdated(List.of(task)),
+            new DataEvent.TasksImported(1),
+            new DataEvent.CheckRecurrence()
+        );
+        for (DataEvent barrier : barriers) {
+            EventRingBuffer buffer = new EventRingBuffer(8);
+            List<DataEvent> expected = List.of(
+                new DataEvent.TaskCompleted(task.withCompleted(true)),
+                barrier,
+                new DataEvent.TaskUncompleted(task.withCompleted(false))
+            );
+            for (DataEvent event : expected) buffer.put(event, OverflowPolicy.COALESCE, true);
+            assertEquals(expected, drain(buffer), barrier.toString());
+        }
+    }
+
+    @Test
+    void unrelatedEventsDoNotPreventCoalescing() throws InterruptedException {
+        EventRingBuffer buffer = new EventRingBuffer(8);
+        Task task = random.task(), other = random.task();
+        buffer.put(new DataEvent.TaskCompleted(task), OverflowPolicy.COALESCE, true);
+        buffer.put(new DataEvent.RequestTasks(), OverflowPolicy.BLOCK, true);
+        buffer.put(new DataEvent.TaskDeleted(other.getId()), OverflowPolicy.BLOCK, true);
+        DataEvent last = new DataEvent.TaskUncompleted(task);
+        buffer.put(last, OverflowPolicy.COALESCE, true);
+
+        assertEquals(List.of(last, new DataEvent.RequestTasks(), new DataEvent.TaskDeleted(other.getId())), drain(buffer));
+    }
+
+    @Test
+    void takenEventIsNotReplaced() throws InterruptedException {
+        EventRingBuffer buffer = new EventRingBuffer(8);
+        Task task = random.task();
+        buffer.put(new DataEvent.TaskCompleted(task), OverflowPolicy.COALESCE, true);
+        buffer.take();
+        DataEvent next = new DataEvent.TaskUncompleted(task);
+        buffer.put(next, OverflowPolicy.COALESCE, true);
+
+        assertEquals(List.of(next), drain(buffer));
+        assertEquals(0, buffer.stats().coalesced());
+    }
+
+    @Test
+    void closedBufferIsDrainedThenReturnsNull() throws InterruptedException {
+        EventRingBuffer buffer = new EventRingBuffer(4);
+        DataEvent pending = new DataEvent.RequestTasks();
+        buffer.put(pending, OverflowPolicy.BLOCK, true);
+        buffer.close();
+
+        assertTrue(buffer.isClosed());
+        assertThrows(IllegalStateException.class, () -> buffer.put(pending, OverflowPolicy.BLOCK, true));
+        assertEquals(pending, buffer.take());
+        assertNull(buffer.take());
+    }
+
+    private static List<DataEvent> drain(EventRingBuffer buffer) throws InterruptedException {
+        List<DataEvent> events = new ArrayList<>();
+        while (buffer.stats().depth() > 0) events.add(buffer.take());
+        return events;
+    }
+}
@@ -0,0 +1,96 @@
+package pl.magzik.dotoi.model;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.StringJoiner;
+import java.util.UUID;
+
+/**
+ * Generates reproducible random tasks for tests and benchmarks.
+ * <p>
+ * Timestamps fall into a narrow range, so ties on creation time and deadline are common.
+ * Hyperlinks are drawn from a small pool, so several tasks share every target.
+ * </p>
+ *
+ * @since 0.1
+ * @author Maksymilian Strzelczak
+ * @version 1.0
+ */
+public final class RandomTasks {
+
+    public static final LocalDateTime EPOCH = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private static final String[] HYPERLINKS = {"https://example.com", "C:\\Tools\\app.exe", "/usr/bin/vim", "mailto:a@b.c"};
+
+    private final Random random;
+
+    public RandomTasks(long seed) {
+        this.random = new Random(seed);
+    }
+
+    public @NotNull Random random() {
+        return random;
+    }
+
+    /**
+     * @return a random moment within roughly a year after {@link #EPOCH}, with a random nano-of-second part.
+     */
+    public @NotNull LocalDateTime time() {
+        return EPOCH.plusMinutes(random.nextInt(500_000)).plusNanos(random.nextInt(3) * 250_000_000L);
+    }
+
+    public @NotNull RecurrenceRule rule() {
+        RecurrenceRule.RecurrenceType type = RecurrenceRule.RecurrenceType.values()[random.nextInt(3)];
+        RecurrenceRule.Builder builder = new RecurrenceRule.Builder(type).interval(1 + random.nextInt(3));
+        if (type == RecurrenceRule.RecurrenceType.WEEKLY) builder.dayOfWeek(DayOfWeek.of(1 + random.nextInt(7)));
+        if (type == RecurrenceRule.RecurrenceType.MONTHLY) builder.dayOfMonth(1 + random.nextInt(31));
+        if (random.nextBoolean()) builder.endDate(time());
+        return builder.build();
+    }
+
+    public @NotNull Task task() {
+        List<String> hyperlinks = new ArrayList<>();
+        for (String hyperlink : HYPERLINKS) {
+            if (random.nextInt(4) == 0) hyperlinks.add(hyperlink);
+        }
+        Task.Builder builder = new Task.Builder("Task " + random.nextInt(1000), "Description " + random.nextInt(10),
+                                                random.nextInt(3) == 0 ? "" : "Content " + random.nextLong(),
+                                                List.copyOf(hyperlinks), time())
+            .id(new UUID(random.nextLong(), random.nextLong()))
+            .completed(random.nextBoolean());
+        if (random.nextBoolean()) builder.deadline(time());
+        if (random.nextInt(3) == 0) builder.recurrenceRule(rule());
+        return builder.build();
+    }
+
+    public @NotNull List<Task> tasks(int count) {
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) tasks.add(task());
+        return tasks;
+    }
+
+    /**
+     * Describes all fields of the task, since tasks are equal by id only.
+     *
+     * @param task The {@link Task} to describe.
+     * @return a string equal for structurally equal tasks.
+     */
+    public static @NotNull String fingerprint(@NotNull Task task) {
+        return new StringJoiner("|")
+            .add(task.getId().toString())
+            .add(task.getTitle())
+            .add(task.getDescription())
+            .add(task.getContent())
+            .add(task.getHyperlinks().toString())
+            .add(task.getCreatedAt().toString())
+            .add(String.valueOf(task.getDeadlineOrNull()))
+            .add(String.valueOf(task.getRecurrenceRuleOrNull()))
+            .add(String.valueOf(task.isCompleted()))
+            .toString();
+    }
+}
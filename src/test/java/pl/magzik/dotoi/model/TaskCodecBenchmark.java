@@ -0,0 +1,70 @@
+package pl.magzik.dotoi.model;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import pl.magzik.dotoi.Benchmarks;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding throughput of {@link TaskCodec}, with allocation rates reported by the GC profiler.
+ * Every invocation processes the same batch of random tasks, through a reused buffer.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TaskCodecBenchmark {
+
+    private static final int BATCH = 1_000;
+
+    private List<Task> tasks;
+    private ByteBuffer buffer;
+    private ByteBuffer encoded;
+
+    @Setup
+    public void setup() {
+        tasks = new RandomTasks(30L).tasks(BATCH);
+        int size = tasks.stream().mapToInt(TaskCodec::encodedSize).sum();
+        buffer = ByteBuffer.allocate(size);
+        encoded = ByteBuffer.allocate(size);
+        tasks.forEach(task -> TaskCodec.encode(task, encoded));
+        encoded.flip();
+    }
+
+    @Benchmark
+    public int encode() {
+        buffer.clear();
+        for (Task task : tasks) TaskCodec.encode(task, buffer);
+        return buffer.position();
+    }
+
+    @Benchmark
+    public int encodedSize() {
+        int size = 0;
+        for (Task task : tasks) size += TaskCodec.encodedSize(task);
+        return size;
+    }
+
+    @Benchmark
+    public Task decode() {
+        encoded.rewind();
+        Task last = null;
+        for (int i = 0; i < BATCH; i++) last = TaskCodec.decode(encoded, null);
+        return last;
+    }
+
+    @Test
+    @Tag(Benchmarks.TAG)
+    void run() throws Exception {
+        Benchmarks.run(TaskCodecBenchmark.class, true);
+    }
+}
@@ -0,0 +1,116 @@
+package pl.magzik.dotoi.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskCodecTest {
+
+    private final RandomTasks random = new RandomTasks(30L);
+
+    @Test
+    void randomTasksRoundTripInHeapAndDirectBuffers() {
+        for (Task task : random.tasks(2_000)) {
+            for (ByteBuffer buffer : List.of(ByteBuffer.allocate(TaskCodec.encodedSize(task)),
+                                             ByteBuffer.allocateDirect(TaskCodec.encodedSize(task)))) {
+                assertRoundTrip(task, buffer);
+            }
+        }
+    }
+
+    @Test
+    void decodedTasksShareEqualFields() {
+        List<Task> source = random.tasks(1_000);
+        ByteBuffer encoded = ByteBuffer.allocate(source.stream().mapToInt(TaskCodec::encodedSize).sum());
+        source.forEach(task -> TaskCodec.encode(task, encoded));
+        encoded.flip();
+
+        for (Task original : source) {
+            Task decoded = TaskCodec.decode(encoded, null);
+            assertSame(original.getTitle(), decoded.getTitle());
+            assertSame(original.getDescription(), decoded.getDescription());
+            assertSame(original.getHyperlinks(), decoded.getHyperlinks());
+        }
+    }
+
+    @Test
+    void multiByteAndUnpairedSurrogateStringsRoundTrip() {
+        Task task = new Task.Builder("Zażółć gęślą jaźń", "🚀 rocket", "日本語のテキスト", List.of("https://ü.example/ścieżka"), RandomTasks.EPOCH)
+            .build();
+        assertRoundTrip(task, ByteBuffer.allocate(TaskCodec.encodedSize(task)));
+
+        Task unpaired = task.withDescription("broken \uD83D surrogate");
+        Task decoded = assertEncodedSize(unpaired);
+        assertEquals("broken ? surrogate", decoded.getDescription());
+    }
+
+    @Test
+    void extremeTimestampsRoundTrip() {
+        Task task = new Task.Builder("Bounds", "", "", List.of(), LocalDateTime.MIN)
+            .deadline(LocalDateTime.MAX)
+            .recurrenceRule(new RecurrenceRule.Builder(RecurrenceRule.RecurrenceType.MONTHLY).interval(1).dayOfMonth(31)
+                                                                                        .endDate(LocalDateTime.MAX).build())
+            .build();
+        assertRoundTrip(task, ByteBuffer.allocate(TaskCodec.encodedSize(task)));
+    }
+
+    @Test
+    void storedContentIsResolvedFromItsPosition() {
+        Task task = random.task().withContent(new TestStored(1234L, 56));
+        ByteBuffer buffer = ByteBuffer.allocate(TaskCodec.encodedSize(task));
+        TaskCodec.encode(task, buffer);
+
+        Task decoded = TaskCodec.decode(buffer.flip(), TestStored::new);
+        assertEquals(new TestStored(1234L, 56), decoded.getContentHandle());
+        assertThrows(TaskCodec.CodecException.class, () -> TaskCodec.decode(buffer.rewind(), null));
+    }
+
+    @Test
+    void malformedInputIsRejected() {
+        Task task = random.task();
+        ByteBuffer buffer = ByteBuffer.allocate(TaskCodec.encodedSize(task));
+        TaskCodec.encode(task, buffer);
+        byte[] bytes = buffer.array();
+
+        byte[] version = bytes.clone();
+        version[0] = TaskCodec.VERSION + 1;
+        assertThrows(TaskCodec.CodecException.class, () -> TaskCodec.decode(ByteBuffer.wrap(version), null));
+
+        byte[] length = bytes.clone();
+        ByteBuffer.wrap(length).putInt(18, Integer.MAX_VALUE); ///< The title length follows the version, flags and id.
+        assertThrows(TaskCodec.CodecException.class, () -> TaskCodec.decode(ByteBuffer.wrap(length), null));
+
+        for (int end = 0; end < bytes.length; end += 7) {
+            ByteBuffer truncated = ByteBuffer.wrap(bytes, 0, end);
+            assertThrows(RuntimeException.class, () -> TaskCodec.decode(truncated, null), "Truncated at " + end);
+        }
+        assertThrows(BufferUnderflowException.class, () -> TaskCodec.decode(ByteBuffer.wrap(bytes, 0, 1), null));
+    }
+
+    private static void assertRoundTrip(Task task, ByteBuffer buffer) {
+        TaskCodec.encode(task, buffer);
+        assertEquals(buffer.capacity(), buffer.position(), "encodedSize should be exact");
+        Task decoded = TaskCodec.decode(buffer.flip(), null);
+        assertFalse(buffer.hasRemaining());
+        assertEquals(RandomTasks.fingerprint(task), RandomTasks.fingerprint(decoded));
+    }
+
+    private static Task assertEncodedSize(Task task) {
+        ByteBuffer buffer = ByteBuffer.allocate(TaskCodec.encodedSize(task));
+        TaskCodec.encode(task, buffer);
+        assertFalse(buffer.hasRemaining());
+        return TaskCodec.decode(buffer.flip(), null);
+    }
+
+    private record TestStored(long offset, int length) implements ContentHandle.Stored {
+        @Override
+        public String load() {
+            return "";
+        }
+    }
+}
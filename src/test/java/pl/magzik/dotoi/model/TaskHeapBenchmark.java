@@ -0,0 +1,80 @@
+package pl.magzik.dotoi.model;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import pl.magzik.dotoi.Benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Heap footprint of 100k tasks decoded with {@link TaskCodec}, so every field starts as a freshly allocated string,
+ * as it does after loading the repository or importing a file.
+ * <p>
+ * Retained heap is not a JMH metric, so it is measured directly, as the used heap after a full GC.
+ * Without deduplication, every task would additionally retain its own copies of its low-cardinality fields
+ * (titles, descriptions and hyperlink lists), so these copies are measured separately and added up.
+ * </p>
+ */
+class TaskHeapBenchmark {
+
+    private static final int TASKS = 100_000;
+
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    @Test
+    @Tag(Benchmarks.TAG)
+    void heapFootprintOfDecodedTasks() {
+        List<Task> source = new RandomTasks(47L).tasks(TASKS);
+        ByteBuffer encoded = ByteBuffer.allocate(source.stream().mapToInt(TaskCodec::encodedSize).sum());
+        source.forEach(task -> TaskCodec.encode(task, encoded));
+
+        long tasks = retained(() -> {
+            encoded.flip();
+            List<Task> decoded = new ArrayList<>(TASKS);
+            while (encoded.hasRemaining()) decoded.add(TaskCodec.decode(encoded, null));
+            return decoded;
+        });
+        long duplicates = retained(() -> {
+            List<Object[]> fields = new ArrayList<>(TASKS);
+            for (Task task : source) {
+                List<String> hyperlinks = new ArrayList<>();
+                for (String hyperlink : task.getHyperlinks()) hyperlinks.add(new String(hyperlink.toCharArray()));
+                fields.add(new Object[] {
+                    new String(task.getTitle().toCharArray()),
+                    new String(task.getDescription().toCharArray()),
+                    List.copyOf(hyperlinks)
+                });
+            }
+            return fields;
+        });
+
+        long undeduplicated = tasks + duplicates; ///< The canonical instances, shared by all tasks, are negligible.
+        System.out.printf("%d tasks: %d KiB (%d B/task) deduplicated, %d KiB (%d B/task) without deduplication%n",
+                          TASKS, tasks >> 10, tasks / TASKS, undeduplicated >> 10, undeduplicated / TASKS);
+        assertTrue(duplicates * 4 > undeduplicated, "Deduplication should save at least a quarter of the heap.");
+    }
+
+    /**
+     * @return the number of bytes retained by the object created by the given supplier.
+     */
+    private static long retained(Supplier<Object> supplier) {
+        long before = usedAfterGc();
+        Object retained = supplier.get();
+        long after = usedAfterGc();
+        Reference.reachabilityFence(retained);
+        return after - before;
+    }
+
+    private static long usedAfterGc() {
+        for (int i = 0; i < 3; i++) System.gc();
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+}
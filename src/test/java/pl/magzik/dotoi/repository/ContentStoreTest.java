@@ -0,0 +1,91 @@
+package pl.magzik.dotoi.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pl.magzik.dotoi.model.ContentHandle;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Round trips of contents through the store, and eviction from its cache. Evicted contents are detected
+ * by overwriting the file behind the store's back: a cached content is returned as it was, an evicted one is read again.
+ */
+class ContentStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void storedContentsAreReadBack() throws IOException {
+        List<String> contents = List.of("# Title", "", "Zażółć gęślą jaźń 🦊", "x".repeat(100_000));
+        Path file = directory.resolve("content.bin");
+        List<ContentHandle> handles;
+        try (ContentStore store = new ContentStore(file)) {
+            handles = contents.stream().map(store::store).toList();
+            for (int i = 0; i < contents.size(); i++) {
+                assertFalse(handles.get(i).isResident());
+                assertEquals(contents.get(i), handles.get(i).load());
+            }
+        }
+
+        try (ContentStore reopened = new ContentStore(file)) { ///< Only positions are persisted with tasks.
+            for (int i = 0; i < contents.size(); i++) {
+                StoredContent stored = (StoredContent) handles.get(i);
+                assertEquals(contents.get(i), reopened.handle(stored.offset(), stored.length()).load());
+            }
+        }
+    }
+
+    @Test
+    void contentsAreAppended() throws IOException {
+        try (ContentStore store = new ContentStore(directory.resolve("content.bin"))) {
+            StoredContent first = (StoredContent) store.store("first"), second = (StoredContent) store.store("second");
+
+            assertEquals(0, first.offset());
+            assertEquals(first.length(), second.offset());
+            assertEquals("first".length() + "second".length(), Files.size(directory.resolve("content.bin")));
+        }
+    }
+
+    @Test
+    void leastRecentlyReadContentIsEvicted() throws IOException {
+        Path file = directory.resolve("content.bin");
+        try (ContentStore store = new ContentStore(file, 2)) {
+            ContentHandle a = store.store("aaaa"), b = store.store("bbbb"), c = store.store("cccc");
+            a.load();
+            b.load();
+            a.load(); ///< Now b is the least recently read.
+            c.load();
+
+            overwrite(file, "x".repeat(12));
+            assertEquals("aaaa", a.load());
+            assertEquals("cccc", c.load());
+            assertEquals("xxxx", b.load(), "The evicted content is read from the file again.");
+        }
+    }
+
+    @Test
+    void readingPastTheEndFails() throws IOException {
+        try (ContentStore store = new ContentStore(directory.resolve("content.bin"))) {
+            store.store("short");
+            ContentHandle dangling = store.handle(2, 10);
+
+            assertThrows(ContentStore.ContentStoreException.class, dangling::load);
+        }
+    }
+
+    private static void overwrite(Path file, String content) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8)), 0);
+        }
+    }
+}
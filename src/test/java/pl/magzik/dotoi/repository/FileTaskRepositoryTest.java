@@ -0,0 +1,194 @@
+package pl.magzik.dotoi.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pl.magzik.dotoi.model.RandomTasks;
+import pl.magzik.dotoi.model.Task;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the contract, and injects faults into the journal: after a torn write or a corrupted byte,
+ * the recovered repository must be exactly the state after the last intact record.
+ */
+class FileTaskRepositoryTest extends TaskRepositoryContract {
+
+    private static final String JOURNAL_FILE = "tasks.journal";
+
+    @TempDir
+    Path directory;
+
+    private final List<FileTaskRepository> opened = new ArrayList<>();
+
+    @Override
+    protected ITaskRepository repository() {
+        if (opened.isEmpty()) open(directory.resolve("contract"));
+        return opened.getFirst();
+    }
+
+    private FileTaskRepository open(Path directory) {
+        FileTaskRepository repository = new FileTaskRepository(directory, null);
+        opened.add(repository);
+        return repository;
+    }
+
+    @AfterEach
+    void close() throws IOException {
+        for (FileTaskRepository repository : opened) repository.close();
+    }
+
+    /**
+     * A journal of random changes, with the state of the repository after every record.
+     *
+     * @param offsets The size of the journal after every change, starting with the empty journal.
+     * @param states The fingerprints of all tasks after every change.
+     */
+    private record History(Path journal, List<Long> offsets, List<List<String>> states) {
+
+        /**
+         * @return the state recovered from a journal whose first {@code valid} bytes are intact.
+         */
+        List<String> stateAt(long valid) {
+            int last = 0;
+            while (last + 1 < offsets.size() && offsets.get(last + 1) <= valid) last++;
+            return states.get(last);
+        }
+    }
+
+    private History record(int changes) throws IOException {
+        Path source = directory.resolve("source");
+        FileTaskRepository repository = open(source);
+        Path journal = source.resolve(JOURNAL_FILE);
+        Random random = this.random.random();
+
+        List<Long> offsets = new ArrayList<>(List.of(Files.size(journal)));
+        List<List<String>> states = new ArrayList<>(List.of(fingerprints(repository)));
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < changes; i++) {
+            int op = tasks.isEmpty() ? 0 : random.nextInt(4);
+            switch (op) {
+                case 0 -> {
+                    Task task = this.random.task();
+                    repository.save(task);
+                    tasks.add(task);
+                }
+                case 1 -> {
+                    Task task = tasks.get(random.nextInt(tasks.size()));
+                    repository.update(task.withTitle("Updated " + i));
+                }
+                case 2 -> {
+                    Task task = tasks.get(random.nextInt(tasks.size()));
+                    repository.setCompleted(task.getId(), !repository.findById(task.getId()).orElseThrow().isCompleted());
+                }
+                default -> repository.delete(tasks.remove(random.nextInt(tasks.size())));
+            }
+            offsets.add(Files.size(journal));
+            states.add(fingerprints(repository));
+        }
+        return new History(journal, offsets, states);
+    }
+
+    @Test
+    void tornJournalIsRecoveredToTheLastCompleteRecord() throws IOException {
+        History history = record(300);
+        Random random = this.random.random();
+        long size = history.offsets().getLast();
+
+        for (int trial = 0; trial < 100; trial++) {
+            long length = trial == 0 ? size : random.nextLong(size + 1);
+            Path copy = copy(history, "torn-" + trial);
+            try (RandomAccessFile file = new RandomAccessFile(copy.resolve(JOURNAL_FILE).toFile(), "rw")) {
+                file.setLength(length);
+            }
+            assertRecovered(history, copy, length);
+        }
+    }
+
+    @Test
+    void corruptedJournalIsRecoveredToTheLastIntactRecord() throws IOException {
+        History history = record(300);
+        Random random = this.random.random();
+        long size = history.offsets().getLast();
+
+        for (int trial = 0; trial < 100; trial++) {
+            long offset = random.nextLong(size);
+            Path copy = copy(history, "corrupted-" + trial);
+            try (RandomAccessFile file = new RandomAccessFile(copy.resolve(JOURNAL_FILE).toFile(), "rw")) {
+                file.seek(offset);
+                int value = file.read();
+                file.seek(offset);
+                file.write(value ^ (1 + random.nextInt(255)));
+            }
+            assertRecovered(history, copy, offset);
+        }
+    }
+
+    @Test
+    void garbageAfterTheJournalIsIgnored() throws IOException {
+        History history = record(50);
+        Path copy = copy(history, "garbage");
+        byte[] garbage = new byte[1_000];
+        random.random().nextBytes(garbage);
+        Files.write(copy.resolve(JOURNAL_FILE), garbage, StandardOpenOption.APPEND);
+
+        assertRecovered(history, copy, history.offsets().getLast());
+    }
+
+    @Test
+    void contentsAreLoadedFromTheStoreAfterReopening() throws IOException {
+        Path source = directory.resolve("stored"), contents = directory.resolve("content.bin");
+        List<Task> tasks = random.tasks(100);
+        try (ContentStore store = new ContentStore(contents); FileTaskRepository repository = new FileTaskRepository(source, store)) {
+            repository.saveAll(tasks);
+        }
+
+        try (ContentStore store = new ContentStore(contents, 4); FileTaskRepository reopened = new FileTaskRepository(source, store)) {
+            for (Task task : tasks) {
+                Task loaded = reopened.findById(task.getId()).orElseThrow();
+                String content = task.getContent();
+                assertEquals(content.isEmpty(), loaded.getContentHandle().isResident(), "Only empty contents are kept inline.");
+                assertEquals(content, loaded.getContent());
+            }
+            assertEquals(tasks.stream().map(RandomTasks::fingerprint).sorted().toList(),
+                         fingerprints(reopened).stream().sorted().toList());
+        }
+    }
+
+    /**
+     * Reopens the damaged repository, and checks that it holds the state after the last intact record,
+     * that the damaged tail was truncated, and that new changes survive another reopen.
+     */
+    private void assertRecovered(History history, Path copy, long valid) {
+        List<String> expected = history.stateAt(valid);
+        FileTaskRepository recovered = open(copy);
+        assertEquals(expected, fingerprints(recovered), "Damaged at " + valid);
+
+        Task task = random.task();
+        recovered.save(task);
+        List<String> extended = fingerprints(recovered);
+        assertEquals(expected.size() + 1, extended.size());
+
+        FileTaskRepository reopened = open(copy); ///< Replays the journal, since no snapshot was written.
+        assertEquals(extended, fingerprints(reopened), "Appended after damage at " + valid);
+    }
+
+    private Path copy(History history, String name) throws IOException {
+        Path copy = Files.createDirectories(directory.resolve(name));
+        Files.copy(history.journal(), copy.resolve(JOURNAL_FILE));
+        return copy;
+    }
+
+    private static List<String> fingerprints(ITaskRepository repository) {
+        return repository.findAll().stream().map(RandomTasks::fingerprint).toList();
+    }
+}
@@ -0,0 +1,76 @@
+package pl.magzik.dotoi.repository;
+
+import org.junit.jupiter.api.Test;
+import pl.magzik.dotoi.model.RandomTasks;
+import pl.magzik.dotoi.model.Task;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HyperlinkTargetsTest {
+
+    @Test
+    void schemeAndHostAreLowercased() {
+        assertEquals("https://example.com/Docs", HyperlinkTargets.normalize("HTTPS://Example.COM/Docs"));
+        assertEquals("https://example.com/", HyperlinkTargets.normalize("  https://example.com  "));
+        assertEquals("https://user@example.com/a?q=1#top", HyperlinkTargets.normalize("https://user@EXAMPLE.com/a?q=1#top"));
+        assertEquals("mailto:Someone@Example.com", HyperlinkTargets.normalize("MAILTO:Someone@Example.com"));
+    }
+
+    @Test
+    void defaultPortsAreRemoved() {
+        assertEquals("http://example.com/", HyperlinkTargets.normalize("http://example.com:80/"));
+        assertEquals("https://example.com/a", HyperlinkTargets.normalize("https://example.com:443/a"));
+        assertEquals("ftp://example.com/a", HyperlinkTargets.normalize("ftp://example.com:21/a"));
+        assertEquals("https://example.com:8443/a", HyperlinkTargets.normalize("https://example.com:8443/a"));
+        assertEquals("http://example.com:443/a", HyperlinkTargets.normalize("http://example.com:443/a"));
+    }
+
+    @Test
+    void redundantPathElementsAreRemoved() {
+        assertEquals("https://example.com/b", HyperlinkTargets.normalize("https://example.com/a/../b"));
+        assertEquals(Path.of("/usr/bin/vim").toString(), HyperlinkTargets.normalize("/usr/bin/./vim"));
+        assertEquals(Path.of("/usr/bin/vim").toString(), HyperlinkTargets.normalize("/usr/lib/../bin/vim"));
+    }
+
+    @Test
+    void relativePathsStayRelative() {
+        assertEquals(Path.of("bin", "app").toString(), HyperlinkTargets.normalize("./bin/app"));
+        assertEquals(Path.of("app").toString(), HyperlinkTargets.normalize("bin/../app"));
+        assertEquals(Path.of("..", "app").toString(), HyperlinkTargets.normalize("../app"));
+    }
+
+    @Test
+    void windowsDrivesAreNotSchemes() {
+        assertEquals(Path.of("C:/Tools/app.exe").toString(), HyperlinkTargets.normalize("C:/Tools/app.exe"));
+        assertEquals(Path.of("C:/app.exe").toString(), HyperlinkTargets.normalize("C:/Tools/../app.exe"));
+        assertEquals(Path.of("C:\\Tools\\app.exe").normalize().toString(), HyperlinkTargets.normalize("C:\\Tools\\app.exe"));
+    }
+
+    @Test
+    void fileUrisAreNormalizedToPaths() {
+        assertEquals(Path.of("/usr/bin/vim").toString(), HyperlinkTargets.normalize("file:///usr/bin/vim"));
+        assertEquals(Path.of("/usr/bin/vim").toString(), HyperlinkTargets.normalize("FILE:/usr/lib/../bin/vim"));
+        assertEquals(HyperlinkTargets.normalize("/opt/my app"), HyperlinkTargets.normalize("file:///opt/my%20app"));
+    }
+
+    @Test
+    void invalidInputIsOnlyStripped() {
+        assertEquals("http://exa mple.com", HyperlinkTargets.normalize(" http://exa mple.com "));
+        assertEquals("file:relative", HyperlinkTargets.normalize("file:relative"));
+        assertEquals("bad\0path", HyperlinkTargets.normalize("bad\0path"));
+        assertEquals("", HyperlinkTargets.normalize("   "));
+    }
+
+    @Test
+    void targetsOfTaskAreDistinct() {
+        Task task = new Task.Builder("Task", "", "", List.of("https://example.com:443/", "HTTPS://example.com", "/usr/bin/vim"),
+                                     RandomTasks.EPOCH).build();
+
+        assertEquals(Set.of("https://example.com/", Path.of("/usr/bin/vim").toString()), HyperlinkTargets.of(task));
+        assertEquals(Set.of(), HyperlinkTargets.of(task.withHyperlinks(List.of())));
+    }
+}
@@ -0,0 +1,99 @@
+package pl.magzik.dotoi.repository;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import pl.magzik.dotoi.Benchmarks;
+import pl.magzik.dotoi.model.RandomTasks;
+import pl.magzik.dotoi.model.Task;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * The queries and paging of {@link TaskRepositoryBenchmark}, run against both the in-memory {@link TaskRepository}
+ * and the {@link SqlTaskRepository}, which pushes the queries down to its indexed tables, from 10k to 1M tasks.
+ * Both repositories hold the same random tasks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(jvmArgsAppend = "-Xmx3g")
+public class SqlTaskRepositoryBenchmark {
+
+    private static final int BATCH = 10_000;
+
+    @Param({"10000", "100000", "1000000"})
+    public int size;
+
+    @Param({"memory", "sql"})
+    public String backend;
+
+    private Path directory;
+    private ITaskRepository repository;
+    private TaskQuery overdue, recurring;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        if (backend.equals("sql")) {
+            directory = Files.createTempDirectory("dotoi-benchmark");
+            repository = new SqlTaskRepository(directory.resolve("tasks"), null);
+        } else {
+            repository = new TaskRepository(null, 16);
+        }
+        RandomTasks random = new RandomTasks(32L);
+        for (int saved = 0; saved < size; saved += BATCH) {
+            List<Task> batch = new ArrayList<>(BATCH);
+            for (int i = saved; i < Math.min(size, saved + BATCH); i++) batch.add(random.task());
+            repository.saveAll(batch);
+        }
+        overdue = new TaskQuery.Builder().completed(false).deadlineBefore(RandomTasks.EPOCH.plusDays(7)).build();
+        recurring = new TaskQuery.Builder().hasRecurrence(true).completed(true).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (directory == null) return;
+        ((SqlTaskRepository) repository).close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) Files.delete(file);
+        }
+    }
+
+    @Benchmark
+    public List<Task> findOverdue() {
+        return repository.find(overdue);
+    }
+
+    @Benchmark
+    public List<Task> findCompletedRecurring() {
+        return repository.find(recurring);
+    }
+
+    @Benchmark
+    public List<Task> findFirstPage() {
+        return repository.findPage(null, 30);
+    }
+
+    @Test
+    @Tag(Benchmarks.TAG)
+    void run() throws Exception {
+        Benchmarks.run(SqlTaskRepositoryBenchmark.class, false);
+    }
+}
@@ -0,0 +1,74 @@
+package pl.magzik.dotoi.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pl.magzik.dotoi.model.RandomTasks;
+import pl.magzik.dotoi.model.Task;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlTaskRepositoryTest extends TaskRepositoryContract {
+
+    @TempDir
+    Path directory;
+
+    private SqlTaskRepository repository;
+
+    @Override
+    protected ITaskRepository repository() {
+        if (repository == null) repository = new SqlTaskRepository(directory.resolve("tasks"), null);
+        return repository;
+    }
+
+    @AfterEach
+    void close() {
+        if (repository != null) repository.close();
+    }
+
+    @Test
+    void tasksSurviveReopening() {
+        List<Task> tasks = random.tasks(300);
+        repository().saveAll(tasks);
+        repository().deleteAll(tasks.subList(0, 100));
+        Task updated = tasks.get(150).withTitle("Updated").withHyperlinks(List.of("https://reopened.example"));
+        repository().update(updated);
+        repository.close();
+
+        repository = new SqlTaskRepository(directory.resolve("tasks"), null);
+        List<Task> expected = sorted(tasks.subList(100, 300).stream().map(t -> t.equals(updated) ? updated : t).toList());
+        assertEquals(expected.stream().map(RandomTasks::fingerprint).toList(),
+                     repository.findAll().stream().map(RandomTasks::fingerprint).toList());
+        assertEquals(List.of(updated), repository.find(new TaskQuery.Builder().hyperlink("https://reopened.example").build()));
+    }
+
+    @Test
+    void rawHyperlinksOfOlderDatabasesAreReplacedWithTargets() throws SQLException {
+        Task task = random.task().withHyperlinks(List.of("HTTPS://Example.com:443/legacy"));
+        repository().save(task);
+        repository.close();
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:file:" + directory.resolve("tasks").toAbsolutePath());
+             Statement statement = connection.createStatement()) {
+            statement.execute("DELETE FROM task_targets");
+            statement.execute("CREATE TABLE task_hyperlinks (task_id UUID NOT NULL, hyperlink VARCHAR NOT NULL)");
+            statement.execute("INSERT INTO task_hyperlinks VALUES ('" + task.getId() + "', 'HTTPS://Example.com:443/legacy')");
+        }
+
+        repository = new SqlTaskRepository(directory.resolve("tasks"), null);
+        assertEquals(List.of(task), repository.find(new TaskQuery.Builder().hyperlink("https://example.com/legacy").build()));
+        repository.close();
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:file:" + directory.resolve("tasks").toAbsolutePath());
+             ResultSet tables = connection.getMetaData().getTables(null, null, "TASK_HYPERLINKS", null)) {
+            assertFalse(tables.next());
+        }
+        repository = null;
+    }
+}
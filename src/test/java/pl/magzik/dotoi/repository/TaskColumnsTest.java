@@ -0,0 +1,108 @@
+package pl.magzik.dotoi.repository;
+
+import org.junit.jupiter.api.Test;
+import pl.magzik.dotoi.model.RandomTasks;
+import pl.magzik.dotoi.model.RecurrenceRule;
+import pl.magzik.dotoi.model.Task;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the sweeps of the columns against the tasks themselves: {@link RecurrenceRule#shouldRepeat(LocalDateTime)}
+ * and {@link LocalDateTime#isBefore} of the deadline. The moments include the exact deadlines and end dates,
+ * and a nanosecond before and after them, so ties within the same second are covered.
+ */
+class TaskColumnsTest {
+
+    private final RandomTasks random = new RandomTasks(48L);
+
+    private final TaskRepository repository = new TaskRepository(null, 8);
+
+    @Test
+    void sweepsMatchTheTasks() {
+        repository.saveAll(random.tasks(2_000));
+        TaskColumns columns = new TaskColumns(repository);
+
+        assertEquals(2_000, columns.size());
+        for (LocalDateTime now : moments()) assertSweeps(columns, now);
+    }
+
+    @Test
+    void columnsFollowPutAndRemove() {
+        List<Task> tasks = random.tasks(2_000);
+        repository.saveAll(tasks);
+        TaskColumns columns = new TaskColumns(repository);
+
+        for (int i = 0; i < tasks.size(); i += 2) { ///< Removed slots are refilled from the end.
+            repository.delete(tasks.get(i));
+            columns.remove(tasks.get(i).getId());
+        }
+        for (int i = 1; i < tasks.size(); i += 4) {
+            Task task = tasks.get(i);
+            Task changed = task.withCompleted(!task.isCompleted());
+            repository.update(changed);
+            columns.put(changed);
+        }
+        List<Task> added = random.tasks(500);
+        repository.saveAll(added);
+        columns.putAll(added);
+
+        assertEquals(repository.findAll().size(), columns.size());
+        for (LocalDateTime now : moments()) assertSweeps(columns, now);
+    }
+
+    @Test
+    void rebuildReplacesAllTasks() {
+        repository.saveAll(random.tasks(100));
+        TaskColumns columns = new TaskColumns(repository);
+        repository.deleteAll(repository.findAll());
+        repository.saveAll(random.tasks(300));
+
+        columns.rebuild();
+        assertEquals(300, columns.size());
+        for (LocalDateTime now : moments()) assertSweeps(columns, now);
+    }
+
+    /**
+     * @return random moments, and the deadlines and end dates of stored tasks, each shifted by a nanosecond both ways.
+     */
+    private List<LocalDateTime> moments() {
+        List<LocalDateTime> moments = new ArrayList<>();
+        for (int i = 0; i < 50; i++) moments.add(random.time());
+        List<Task> tasks = repository.findAll();
+        for (int i = 0; i < 100; i++) {
+            Task task = tasks.get(random.random().nextInt(tasks.size()));
+            RecurrenceRule rule = task.getRecurrenceRuleOrNull();
+            if (task.hasDeadline()) addAround(moments, task.getDeadlineOrNull());
+            if (rule != null && rule.hasEndDate()) addAround(moments, rule.getEndDate());
+        }
+        return moments;
+    }
+
+    private static void addAround(List<LocalDateTime> moments, LocalDateTime moment) {
+        moments.add(moment.minusNanos(1));
+        moments.add(moment);
+        moments.add(moment.plusNanos(1));
+    }
+
+    private void assertSweeps(TaskColumns columns, LocalDateTime now) {
+        Set<UUID> overdue = new HashSet<>(), due = new HashSet<>();
+        for (Task task : repository.findAll()) {
+            if (task.isCompleted()) {
+                RecurrenceRule rule = task.getRecurrenceRuleOrNull();
+                if (rule != null && rule.shouldRepeat(now)) due.add(task.getId());
+            } else if (task.hasDeadline() && task.getDeadlineOrNull().isBefore(now)) {
+                overdue.add(task.getId());
+            }
+        }
+        assertEquals(overdue, new HashSet<>(columns.findOverdue(now)), "Overdue at " + now);
+        assertEquals(due, new HashSet<>(columns.findDueRecurrences(now)), "Due at " + now);
+    }
+}
@@ -0,0 +1,190 @@
+package pl.magzik.dotoi.repository;
+
+import org.junit.jupiter.api.Test;
+import pl.magzik.dotoi.model.RandomTasks;
+import pl.magzik.dotoi.model.Task;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskIndexTest {
+
+    private final RandomTasks random = new RandomTasks(26L);
+
+    @Test
+    void allIsOrderedByCreationTimeAndId() {
+        TaskIndex index = new TaskIndex();
+        List<Task> tasks = random.tasks(2_000);
+        tasks.forEach(index::add);
+
+        List<Task> expected = tasks.stream().sorted(TaskIndex.NATURAL_ORDER).toList();
+        assertEquals(expected, List.copyOf(index.all()));
+    }
+
+    @Test
+    void tiesOnCreationTimeAreBrokenById() {
+        TaskIndex index = new TaskIndex();
+        LocalDateTime createdAt = RandomTasks.EPOCH;
+        Task b = task(new UUID(0, 2), createdAt), a = task(new UUID(0, 1), createdAt), c = task(new UUID(0, 3), createdAt);
+        index.add(b);
+        index.add(c);
+        index.add(a);
+
+        assertEquals(List.of(a, b, c), List.copyOf(index.all()));
+    }
+
+    @Test
+    void afterReturnsTasksStrictlyAfterTheCursor() {
+        TaskIndex index = new TaskIndex();
+        List<Task> tasks = random.tasks(500).stream().sorted(TaskIndex.NATURAL_ORDER).toList();
+        tasks.forEach(index::add);
+
+        for (int i = 0; i < tasks.size(); i += 37) {
+            Task last = tasks.get(i);
+            TaskCursor cursor = new TaskCursor(last.getCreatedAt(), last.getId());
+            assertEquals(tasks.subList(i + 1, tasks.size()), List.copyOf(index.after(cursor)));
+        }
+        assertEquals(tasks, List.copyOf(index.after(null)));
+    }
+
+    @Test
+    void candidatesContainAllMatchingTasks() {
+        TaskIndex index = new TaskIndex();
+        List<Task> tasks = random.tasks(3_000);
+        tasks.forEach(index::add);
+
+        for (TaskQuery query : queries()) {
+            List<Task> expected = tasks.stream().filter(query::matches).sorted(TaskIndex.NATURAL_ORDER).toList();
+            List<Task> actual = index.candidates(query).stream().filter(query::matches).sorted(TaskIndex.NATURAL_ORDER).toList();
+            assertEquals(expected, actual, query.toString());
+        }
+    }
+
+    @Test
+    void removedTasksLeaveAllIndexes() {
+        TaskIndex index = new TaskIndex();
+        List<Task> tasks = random.tasks(1_000);
+        tasks.forEach(index::add);
+
+        List<Task> kept = new ArrayList<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            if (i % 2 == 0) index.remove(tasks.get(i).getId());
+            else kept.add(tasks.get(i));
+        }
+
+        assertEquals(kept.size(), index.size());
+        for (TaskQuery query : queries()) {
+            for (Task task : index.candidates(query)) assertTrue(kept.contains(task), query.toString());
+        }
+    }
+
+    @Test
+    void replaceMovesSecondaryEntries() {
+        TaskIndex index = new TaskIndex();
+        Task task = new Task.Builder("Task", "", "", List.of("a", "b"), RandomTasks.EPOCH)
+            .deadline(RandomTasks.EPOCH.plusDays(1))
+            .build();
+        index.add(task);
+
+        Task replaced = task.withDeadline(RandomTasks.EPOCH.plusDays(10)).withHyperlinks(List.of("b", "c")).withCompleted(true);
+        index.replace(replaced);
+
+        assertSame(replaced, index.get(task.getId()).orElseThrow());
+        assertEquals(1, index.size());
+        assertEquals(List.of(replaced), List.copyOf(index.all()));
+        assertEquals(List.of(), List.copyOf(index.candidates(new TaskQuery.Builder().deadlineBefore(RandomTasks.EPOCH.plusDays(2)).build())));
+        assertEquals(List.of(replaced), List.copyOf(index.candidates(new TaskQuery.Builder().deadlineBefore(RandomTasks.EPOCH.plusDays(11)).build())));
+        assertEquals(List.of(), List.copyOf(index.candidates(new TaskQuery.Builder().hyperlink("a").build())));
+        assertEquals(List.of(replaced), List.copyOf(index.candidates(new TaskQuery.Builder().hyperlink("c").build())));
+        assertEquals(List.of(replaced), List.copyOf(index.candidates(new TaskQuery.Builder().completed(true).build())));
+
+        index.replace(replaced.withDeadline(null).withCompleted(false));
+        assertEquals(List.of(), List.copyOf(index.candidates(new TaskQuery.Builder().deadlineBefore(RandomTasks.EPOCH.plusDays(11)).build())));
+        assertEquals(List.of(), List.copyOf(index.candidates(new TaskQuery.Builder().completed(true).build())));
+    }
+
+    @Test
+    void hyperlinksAreIndexedByNormalizedTarget() {
+        TaskIndex index = new TaskIndex();
+        Task task = new Task.Builder("Task", "", "", List.of("HTTP://Example.com:80/a", "http://example.com/a"), RandomTasks.EPOCH)
+            .build();
+        index.add(task);
+
+        TaskQuery query = new TaskQuery.Builder().hyperlink("http://example.com/a").build();
+        assertEquals(List.of(task), List.copyOf(index.candidates(query)));
+
+        Task replaced = task.withHyperlinks(List.of("http://EXAMPLE.com/a"));
+        index.replace(replaced); ///< The spelling changed, but not the target.
+        assertEquals(List.of(replaced), List.copyOf(index.candidates(query)));
+
+        Task moved = replaced.withHyperlinks(List.of("https://example.com/a"));
+        index.replace(moved); ///< A different scheme is a different target.
+        assertEquals(List.of(), List.copyOf(index.candidates(query)));
+        TaskQuery secure = new TaskQuery.Builder().hyperlink("HTTPS://example.com:443/a").build();
+        assertEquals(List.of(moved), List.copyOf(index.candidates(secure)));
+
+        index.remove(moved.getId());
+        assertEquals(List.of(), List.copyOf(index.candidates(secure)));
+    }
+
+    @Test
+    void readersNeverSeeGapsWhileTasksAreReplaced() throws InterruptedException {
+        TaskIndex index = new TaskIndex();
+        List<Task> tasks = random.tasks(200);
+        tasks.forEach(index::add);
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger gaps = new AtomicInteger();
+        Thread reader = Thread.ofPlatform().start(() -> {
+            while (running.get()) {
+                if (index.all().size() != tasks.size()) gaps.incrementAndGet();
+                for (Task task : tasks) {
+                    if (!index.contains(task.getId())) gaps.incrementAndGet();
+                }
+            }
+        });
+
+        Random random = this.random.random();
+        for (int i = 0; i < 200_000; i++) {
+            Task task = index.get(tasks.get(random.nextInt(tasks.size())).getId()).orElseThrow();
+            synchronized (index) {
+                index.replace(task.withCompleted(!task.isCompleted()).withTitle("Title " + i));
+            }
+        }
+        running.set(false);
+        reader.join();
+
+        assertEquals(0, gaps.get());
+    }
+
+    /**
+     * @return queries hitting every secondary index, including half-open and empty ranges.
+     */
+    static List<TaskQuery> queries() {
+        LocalDateTime from = RandomTasks.EPOCH.plusDays(60), to = RandomTasks.EPOCH.plusDays(120);
+        return List.of(
+            new TaskQuery.Builder().build(),
+            new TaskQuery.Builder().completed(true).build(),
+            new TaskQuery.Builder().completed(false).deadlineBefore(to).build(),
+            new TaskQuery.Builder().deadlineBetween(from, to).build(),
+            new TaskQuery.Builder().deadlineBetween(to, from).build(),
+            new TaskQuery.Builder().createdBetween(from, to).hasRecurrence(false).build(),
+            new TaskQuery.Builder().createdBetween(from, from).build(),
+            new TaskQuery.Builder().hasRecurrence(true).build(),
+            new TaskQuery.Builder().hasRecurrence(true).completed(true).build(),
+            new TaskQuery.Builder().hyperlink("https://example.com").build(),
+            new TaskQuery.Builder().hyperlink("https://nowhere.example").build()
+        );
+    }
+
+    private static Task task(UUID id, LocalDateTime createdAt) {
+        return new Task.Builder("Task", "", "", List.of(), createdAt).id(id).build();
+    }
+}
@@ -0,0 +1,83 @@
+package pl.magzik.dotoi.repository;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import pl.magzik.dotoi.Benchmarks;
+import pl.magzik.dotoi.model.RandomTasks;
+import pl.magzik.dotoi.model.Task;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scaling of the sweep queries and paging of {@link TaskRepository} from 1k to 1M tasks,
+ * with a single stripe and with striping.
+ * Below 10k tasks queries run on the calling thread, above it as a fork-join over the stripes.
+ * The {@code filterAll} baselines copy all tasks and filter them with {@link TaskQuery#matches(Task)},
+ * which is what callers did before {@link TaskRepository#find(TaskQuery)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(jvmArgsAppend = "-Xmx3g")
+public class TaskRepositoryBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"1", "16"})
+    public int stripes;
+
+    private TaskRepository repository;
+    private TaskQuery overdue, recurring;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        repository = new TaskRepository(null, stripes);
+        RandomTasks random = new RandomTasks(32L);
+        for (int i = 0; i < size; i++) repository.save(random.task());
+        overdue = new TaskQuery.Builder().completed(false).deadlineBefore(RandomTasks.EPOCH.plusDays(7)).build();
+        recurring = new TaskQuery.Builder().hasRecurrence(true).completed(true).build();
+    }
+
+    @Benchmark
+    public List<Task> findOverdue() {
+        return repository.find(overdue);
+    }
+
+    @Benchmark
+    public List<Task> findCompletedRecurring() {
+        return repository.find(recurring);
+    }
+
+    @Benchmark
+    public List<Task> filterAllOverdue() {
+        return repository.findAll().stream().filter(overdue::matches).toList();
+    }
+
+    @Benchmark
+    public List<Task> filterAllCompletedRecurring() {
+        return repository.findAll().stream().filter(recurring::matches).toList();
+    }
+
+    @Benchmark
+    public List<Task> findFirstPage() {
+        return repository.findPage(null, 30);
+    }
+
+    @Test
+    @Tag(Benchmarks.TAG)
+    void run() throws Exception {
+        Benchmarks.run(TaskRepositoryBenchmark.class, false);
+    }
+}
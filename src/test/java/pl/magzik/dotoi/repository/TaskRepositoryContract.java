@@ -0,0 +1,123 @@
+package pl.magzik.dotoi.repository;
+
+import org.junit.jupiter.api.Test;
+import pl.magzik.dotoi.model.RandomTasks;
+import pl.magzik.dotoi.model.Task;
+import pl.magzik.dotoi.model.TaskSummary;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Behaviour shared by all {@link ITaskRepository} implementations.
+ * Every result is compared with the same operation evaluated on a plain list of tasks.
+ */
+abstract class TaskRepositoryContract {
+
+    protected final RandomTasks random = new RandomTasks(37L);
+
+    protected abstract ITaskRepository repository();
+
+    private List<Task> saveRandom(int count) {
+        ITaskRepository repository = repository();
+        List<Task> tasks = random.tasks(count);
+        tasks.forEach(repository::save);
+        return tasks;
+    }
+
+    @Test
+    void findAllIsInNaturalOrder() {
+        List<Task> tasks = saveRandom(1_000);
+        assertEquals(sorted(tasks), repository().findAll());
+    }
+
+    @Test
+    void findMatchesFilteringAllTasks() {
+        List<Task> tasks = saveRandom(1_000);
+        for (TaskQuery query : TaskIndexTest.queries()) {
+            List<Task> expected = sorted(tasks.stream().filter(query::matches).toList());
+            assertEquals(expected, sorted(repository().find(query)), query.toString());
+        }
+    }
+
+    @Test
+    void pagesConcatenateToAllTasks() {
+        List<Task> tasks = saveRandom(1_000);
+        List<Task> paged = new ArrayList<>();
+        TaskCursor cursor = null;
+        for (List<Task> page = repository().findPage(null, 64); !page.isEmpty(); page = repository().findPage(cursor, 64)) {
+            assertTrue(page.size() <= 64);
+            paged.addAll(page);
+            cursor = TaskCursor.after(page.getLast());
+        }
+        assertEquals(sorted(tasks), paged);
+
+        List<UUID> summaries = repository().findSummaryPage(null, 100).stream().map(TaskSummary::getId).toList();
+        assertEquals(sorted(tasks).subList(0, 100).stream().map(Task::getId).toList(), summaries);
+    }
+
+    @Test
+    void saveIgnoresDuplicatesAndUpdateReplaces() {
+        Task task = random.task();
+        repository().save(task);
+        repository().save(task.withTitle("Duplicate"));
+        assertEquals(RandomTasks.fingerprint(task), RandomTasks.fingerprint(repository().findById(task.getId()).orElseThrow()));
+
+        Task updated = task.withTitle("Updated").withCompleted(!task.isCompleted());
+        repository().update(updated);
+        assertEquals(RandomTasks.fingerprint(updated), RandomTasks.fingerprint(repository().findById(task.getId()).orElseThrow()));
+        assertEquals(1, repository().findAll().size());
+    }
+
+    @Test
+    void setCompletedAllReturnsOnlyChangedTasks() {
+        List<Task> tasks = saveRandom(200);
+        Set<UUID> uncompleted = tasks.stream().filter(t -> !t.isCompleted()).map(Task::getId).collect(Collectors.toSet());
+
+        List<Task> updated = repository().setCompletedAll(tasks.stream().map(Task::getId).toList(), true);
+
+        assertEquals(uncompleted, updated.stream().map(Task::getId).collect(Collectors.toSet()));
+        assertTrue(repository().findAll().stream().allMatch(Task::isCompleted));
+        assertTrue(repository().setCompleted(tasks.getFirst().getId(), true).isEmpty());
+    }
+
+    @Test
+    void deleteAllRemovesFromEveryIndex() {
+        List<Task> tasks = saveRandom(500);
+        List<Task> deleted = tasks.subList(0, 250);
+        repository().deleteAll(deleted);
+
+        List<Task> kept = tasks.subList(250, tasks.size());
+        assertEquals(sorted(kept), repository().findAll());
+        for (TaskQuery query : TaskIndexTest.queries()) {
+            assertTrue(repository().find(query).stream().noneMatch(deleted::contains), query.toString());
+        }
+    }
+
+    @Test
+    void hyperlinkQueryMatchesAnySpellingOfTheTarget() {
+        List<Task> tasks = saveRandom(100);
+        Task upper = random.task().withHyperlinks(List.of("HTTPS://Example.COM:443/docs"));
+        Task plain = random.task().withHyperlinks(List.of("https://example.com/docs", "mailto:a@b.c"));
+        Task other = random.task().withHyperlinks(List.of("https://example.com/other"));
+        for (Task task : List.of(upper, plain, other)) repository().save(task);
+
+        TaskQuery query = new TaskQuery.Builder().hyperlink("https://EXAMPLE.com/docs").build();
+        assertEquals(sorted(List.of(upper, plain)), sorted(repository().find(query)));
+
+        repository().update(plain.withHyperlinks(List.of("mailto:a@b.c")));
+        assertEquals(List.of(upper), repository().find(query));
+        repository().delete(upper);
+        assertEquals(List.of(), repository().find(query));
+        assertEquals(tasks.size() + 2, repository().findAll().size());
+    }
+
+    protected static List<Task> sorted(List<Task> tasks) {
+        return tasks.stream().sorted(TaskIndex.NATURAL_ORDER).toList();
+    }
+}
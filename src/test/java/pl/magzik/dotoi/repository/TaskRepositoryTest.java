@@ -0,0 +1,11 @@
+package pl.magzik.dotoi.repository;
+
+class TaskRepositoryTest extends TaskRepositoryContract {
+
+    private final TaskRepository repository = new TaskRepository(null, 8);
+
+    @Override
+    protected ITaskRepository repository() {
+        return repository;
+    }
+}
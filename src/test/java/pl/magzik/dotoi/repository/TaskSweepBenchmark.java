@@ -0,0 +1,127 @@
+package pl.magzik.dotoi.repository;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.results.RunResult;
+import pl.magzik.dotoi.Benchmarks;
+import pl.magzik.dotoi.model.RandomTasks;
+import pl.magzik.dotoi.model.RecurrenceRule;
+import pl.magzik.dotoi.model.Task;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Time and allocation per task of the deadline and recurrence sweeps, measured with the GC profiler ({@code -prof gc}).
+ * Every invocation sweeps all tasks, so {@code gc.alloc.rate.norm} is reported in bytes per task.
+ * <p>
+ * The sweeps run over the {@link Task} accessors, both the {@link java.util.Optional} and the raw ones,
+ * and over the {@link TaskColumns}. Only every hundredth task is completed and the deadline sweep runs
+ * at {@link RandomTasks#EPOCH}, before any deadline, so the result lists stay short and the remaining allocation
+ * is that of the sweep itself. The sweeps over raw accessors and columns must not allocate per task.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TaskSweepBenchmark {
+
+    private static final int TASKS = 10_000;
+
+    private static final double MAX_BYTES_PER_TASK = 1.0; ///< Leaves room for the result list, amortized over all tasks.
+
+    private List<Task> tasks;
+    private TaskColumns columns;
+    private LocalDateTime now;
+
+    @Setup
+    public void setup() {
+        RandomTasks random = new RandomTasks(49L);
+        tasks = new ArrayList<>(TASKS);
+        for (int i = 0; i < TASKS; i++) tasks.add(random.task().withCompleted(i % 100 == 0));
+        TaskRepository repository = new TaskRepository(null, 8);
+        repository.saveAll(tasks);
+        columns = new TaskColumns(repository);
+        now = RandomTasks.EPOCH;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TASKS)
+    public int overdueByOptional() {
+        int overdue = 0;
+        for (Task task : tasks) {
+            if (!task.isCompleted() && task.getDeadline().filter(d -> d.isBefore(now)).isPresent()) overdue++;
+        }
+        return overdue;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TASKS)
+    public int overdueByAccessors() {
+        int overdue = 0;
+        for (Task task : tasks) {
+            LocalDateTime deadline = task.getDeadlineOrNull();
+            if (!task.isCompleted() && deadline != null && deadline.isBefore(now)) overdue++;
+        }
+        return overdue;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TASKS)
+    public List<UUID> overdueByColumns() {
+        return columns.findOverdue(now);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TASKS)
+    public int dueByOptional() {
+        int due = 0;
+        for (Task task : tasks) {
+            if (task.isCompleted() && task.getRecurrenceRule().filter(r -> r.shouldRepeat(now)).isPresent()) due++;
+        }
+        return due;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TASKS)
+    public int dueByAccessors() {
+        int due = 0;
+        for (Task task : tasks) {
+            RecurrenceRule rule = task.getRecurrenceRuleOrNull();
+            if (task.isCompleted() && rule != null && rule.shouldRepeat(now)) due++;
+        }
+        return due;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TASKS)
+    public List<UUID> dueByColumns() {
+        return columns.findDueRecurrences(now);
+    }
+
+    @Test
+    @Tag(Benchmarks.TAG)
+    void run() throws Exception {
+        for (RunResult result : Benchmarks.run(TaskSweepBenchmark.class, true)) {
+            String benchmark = result.getParams().getBenchmark();
+            double allocated = result.getSecondaryResults().get("gc.alloc.rate.norm").getScore();
+            System.out.printf("%s: %.3f B/task%n", benchmark, allocated);
+            if (!benchmark.endsWith("ByOptional")) {
+                assertTrue(allocated < MAX_BYTES_PER_TASK, benchmark + " allocates " + allocated + " B/task.");
+            }
+        }
+    }
+}
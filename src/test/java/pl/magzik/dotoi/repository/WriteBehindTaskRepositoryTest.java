@@ -0,0 +1,59 @@
+package pl.magzik.dotoi.repository;
+
+import org.junit.jupiter.api.Test;
+import pl.magzik.dotoi.model.Task;
+import pl.magzik.dotoi.model.TaskSummary;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the contract with mutations kept pending, so every read has to lay them over the underlying repository.
+ */
+class WriteBehindTaskRepositoryTest extends TaskRepositoryContract {
+
+    private final AtomicInteger flushes = new AtomicInteger();
+
+    private final TaskRepository delegate = new TaskRepository(null, 8) {
+        @Override
+        public void flush() {
+            flushes.incrementAndGet();
+            super.flush();
+        }
+    };
+
+    private final WriteBehindTaskRepository repository = new WriteBehindTaskRepository(delegate, 100_000, Duration.ofHours(1));
+
+    @Override
+    protected ITaskRepository repository() {
+        return repository;
+    }
+
+    @Test
+    void readsObservePendingMutationsWithoutFlushing() {
+        List<Task> tasks = random.tasks(400);
+        delegate.saveAll(tasks.subList(0, 200));
+        repository.saveAll(tasks.subList(200, 400));
+        repository.update(tasks.get(10).withTitle("Updated").withCompleted(!tasks.get(10).isCompleted()));
+        repository.deleteAll(tasks.subList(20, 40));
+        repository.deleteAll(tasks.subList(300, 320));
+
+        List<Task> expected = sorted(repository.findAll());
+        assertEquals(400 - 40, expected.size());
+        assertEquals("Updated", repository.findAll().stream().filter(tasks.get(10)::equals).findFirst().orElseThrow().getTitle());
+        for (TaskQuery query : TaskIndexTest.queries()) {
+            assertEquals(sorted(expected.stream().filter(query::matches).toList()), sorted(repository.find(query)), query.toString());
+        }
+        assertEquals(expected.subList(50, 80), repository.findPage(TaskCursor.after(expected.get(49)), 30));
+        assertEquals(expected.subList(0, 30).stream().map(Task::getId).toList(),
+                     repository.findSummaryPage(null, 30).stream().map(TaskSummary::getId).toList());
+        assertEquals(0, flushes.get());
+
+        repository.flush();
+        assertEquals(1, flushes.get());
+        assertEquals(expected, delegate.findAll());
+    }
+}
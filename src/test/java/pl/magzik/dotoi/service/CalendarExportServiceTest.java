@@ -0,0 +1,76 @@
+package pl.magzik.dotoi.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pl.magzik.dotoi.manager.data.DataEvent;
+import pl.magzik.dotoi.model.RandomTasks;
+import pl.magzik.dotoi.model.Task;
+import pl.magzik.dotoi.repository.TaskRepository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Publishes change events whose payloads differ from what the repository has stored, and checks that the feed
+ * follows the repository.
+ */
+class CalendarExportServiceTest {
+
+    private final TaskRepository repository = new TaskRepository(null, 8);
+
+    @TempDir
+    Path directory;
+
+    private CalendarExportService service;
+
+    @AfterEach
+    void close() throws IOException {
+        if (service != null) service.close();
+    }
+
+    @Test
+    void feedFollowsStoredTasksInsteadOfRequests() throws IOException {
+        Task stored = task("Stored"), rejected = task("Rejected"), deleted = task("Deleted");
+        repository.saveAll(List.of(stored, deleted));
+        service = new CalendarExportService(repository, directory.resolve("dotoi.ics"), 0);
+        assertTrue(feed().contains("SUMMARY:Deleted"));
+
+        repository.delete(deleted);
+        service.onDataUpdate(new DataEvent.TaskAdded(rejected)); ///< Never stored.
+        service.onDataUpdate(new DataEvent.TaskUpdate(stored.withTitle("Requested")));
+        service.onDataUpdate(new DataEvent.TasksDeleted(Set.of(deleted.getId())));
+        service.close(); ///< Waits for a running drain, and writes what is still queued.
+        service = null;
+
+        String feed = feed();
+        assertTrue(feed.contains("SUMMARY:Stored"));
+        assertFalse(feed.contains("SUMMARY:Requested"));
+        assertFalse(feed.contains("SUMMARY:Rejected"));
+        assertFalse(feed.contains("SUMMARY:Deleted"));
+    }
+
+    @Test
+    void changesAreWrittenInTheBackground() throws Exception {
+        service = new CalendarExportService(repository, directory.resolve("dotoi.ics"), 0);
+        Task task = task("Queued");
+        repository.save(task);
+        service.onDataUpdate(new DataEvent.TaskAdded(task));
+
+        for (int i = 0; i < 500 && !feed().contains("SUMMARY:Queued"); i++) Thread.sleep(10);
+        assertTrue(feed().contains("SUMMARY:Queued"), "The feed was not updated.");
+    }
+
+    private static Task task(String title) {
+        return new Task.Builder(title, "", "", List.of(), RandomTasks.EPOCH).deadline(RandomTasks.EPOCH.plusDays(1)).build();
+    }
+
+    private String feed() throws IOException {
+        return Files.readString(directory.resolve("dotoi.ics"));
+    }
+}
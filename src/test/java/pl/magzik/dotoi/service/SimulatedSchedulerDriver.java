@@ -0,0 +1,112 @@
+package pl.magzik.dotoi.service;
+
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pl.magzik.dotoi.base.SimulatedClock;
+import pl.magzik.dotoi.manager.data.DataEvent;
+import pl.magzik.dotoi.manager.data.DataManager;
+
+import java.time.Duration;
+
+/**
+ * A replacement for {@link TaskSchedulerService} driven by a {@link SimulatedClock} instead of the wall clock.
+ * <p>
+ * Every step advances the clock by one period and synchronously dispatches a round of checks
+ * (like {@link TaskSchedulerService#emitChecks()} does asynchronously), so a {@link TaskService} created with the same clock
+ * sweeps the tasks as it would at that moment. Steps run back to back, so months of schedule are replayed in seconds.
+ * </p>
+ *
+ * <p>
+ * The driver measures how long every round of checks takes, which is the latency of the sweeps.
+ * Their results ({@link DataEvent.TaskOverdue} and {@link DataEvent.TasksUncompleted} events) are dispatched asynchronously.
+ * The measurements are returned as a {@link Report}.
+ * </p>
+ *
+ * @see SimulatedClock
+ * @see TaskSchedulerService
+ *
+ * @since 0.1
+ * @author Maksymilian Strzelczak
+ * @version 1.0
+ */
+public class SimulatedSchedulerDriver {
+
+    private static final Logger log = LoggerFactory.getLogger(SimulatedSchedulerDriver.class);
+
+    private final SimulatedClock clock;
+
+    private final Duration period;
+
+    /**
+     * Creates a driver stepping by {@link TaskSchedulerService#CHECK_PERIOD}, like the real scheduler.
+     *
+     * @param clock The {@link SimulatedClock} shared with the driven services.
+     */
+    public SimulatedSchedulerDriver(@NotNull SimulatedClock clock) {
+        this(clock, TaskSchedulerService.CHECK_PERIOD);
+    }
+
+    /**
+     * @param clock The {@link SimulatedClock} shared with the driven services.
+     * @param period The positive {@link Duration} of simulated time between rounds of checks.
+     */
+    public SimulatedSchedulerDriver(@NotNull SimulatedClock clock, @NotNull Duration period) {
+        if (period.isNegative() || period.isZero()) throw new IllegalArgumentException("Period should be positive.");
+        this.clock = clock;
+        this.period = period;
+    }
+
+    /**
+     * Emits a round of checks at the current simulated time, without advancing the clock.
+     *
+     * @return the duration of the round in nanoseconds.
+     */
+    public long tick() {
+        long start = System.nanoTime();
+        DataManager.getInstance().notifySubscribers(new DataEvent.CheckDeadlines());
+        DataManager.getInstance().notifySubscribers(new DataEvent.CheckRecurrence());
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Replays the given span of simulated time, one period at a time.
+     *
+     * @param span The {@link Duration} of simulated time to replay.
+     * @return the {@link Report} of the replay.
+     */
+    public @NotNull Report run(@NotNull Duration span) {
+        long steps = span.dividedBy(period);
+        long total = 0L, max = 0L;
+        long start = System.nanoTime();
+        for (long i = 0; i < steps; i++) {
+            clock.advance(period);
+            long latency = tick();
+            total += latency;
+            max = Math.max(max, latency);
+        }
+        Report report = new Report(steps, period.multipliedBy(steps), System.nanoTime() - start, total, max);
+        log.info("Replayed {} of simulated time in {} ms: {} rounds, mean {} µs, max {} µs.",
+            report.simulated(), report.wallNanos() / 1_000_000, steps, report.meanTickNanos() / 1_000, max / 1_000);
+        return report;
+    }
+
+    /**
+     * Measurements of a replay.
+     *
+     * @param ticks The number of rounds of checks.
+     * @param simulated The replayed {@link Duration} of simulated time.
+     * @param wallNanos The wall-clock duration of the whole replay.
+     * @param totalTickNanos The sum of durations of all rounds.
+     * @param maxTickNanos The duration of the slowest round.
+     */
+    public record Report(long ticks, @NotNull Duration simulated, long wallNanos, long totalTickNanos, long maxTickNanos) {
+
+        /**
+         * @return the mean duration of a round in nanoseconds, or {@code 0} if there were no rounds.
+         */
+        public long meanTickNanos() {
+            return ticks == 0 ? 0L : totalTickNanos / ticks;
+        }
+    }
+}
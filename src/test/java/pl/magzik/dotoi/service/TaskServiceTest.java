@@ -0,0 +1,125 @@
+package pl.magzik.dotoi.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pl.magzik.dotoi.manager.data.DataEvent;
+import pl.magzik.dotoi.manager.data.DataManager;
+import pl.magzik.dotoi.manager.data.Subscription;
+import pl.magzik.dotoi.model.RandomTasks;
+import pl.magzik.dotoi.model.RecurrenceRule;
+import pl.magzik.dotoi.model.Task;
+import pl.magzik.dotoi.repository.ITaskRepository;
+import pl.magzik.dotoi.repository.SqlTaskRepository;
+import pl.magzik.dotoi.repository.TaskRepository;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the deadline and recurrence checks over both kinds of repositories: one swept through the task columns,
+ * and one which pushes the conditions of the checks down to SQL and must never load all tasks.
+ */
+class TaskServiceTest {
+
+    private static final int TASKS = 1_000;
+
+    private final RandomTasks random = new RandomTasks(48L);
+
+    private final List<Subscription> subscriptions = new ArrayList<>();
+    private final List<SqlTaskRepository> opened = new ArrayList<>();
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void close() {
+        subscriptions.forEach(Subscription::close);
+        opened.forEach(SqlTaskRepository::close);
+    }
+
+    @Test
+    void checksSweepTheColumnsOfInMemoryRepository() throws InterruptedException {
+        assertChecks(new TaskRepository(null, 8));
+    }
+
+    @Test
+    void checksArePushedDownToSql() throws InterruptedException {
+        SqlTaskRepository repository = new SqlTaskRepository(directory.resolve("tasks"), null) {
+            @Override
+            public synchronized List<Task> findAll() {
+                throw new AssertionError("The checks shouldn't load all tasks.");
+            }
+        };
+        opened.add(repository);
+        assertTrue(repository.pushesDownQueries());
+        assertChecks(repository);
+    }
+
+    @Test
+    void repointTouchesOnlyTasksReferencingTheTarget() {
+        TaskRepository repository = new TaskRepository(null, 8);
+        Task vim = random.task().withHyperlinks(List.of("/usr/bin/vim"));
+        Task both = random.task().withHyperlinks(List.of("/usr/bin/./vim", "https://example.com"));
+        Task vi = random.task().withHyperlinks(List.of("/usr/bin/vi"));
+        repository.saveAll(List.of(vim, both, vi));
+        TaskService service = new TaskService(repository);
+        subscriptions.add(DataManager.getInstance().subscribe(service));
+
+        List<DataEvent.TasksUpdated> published = new ArrayList<>();
+        subscriptions.add(DataManager.getInstance().subscribe(event -> {
+            if (event instanceof DataEvent.TasksUpdated updated) published.add(updated);
+        }));
+        service.onDataUpdate(new DataEvent.RequestRepoint("/usr/bin/vim", "/opt/vim"));
+
+        assertEquals(1, published.size());
+        assertEquals(Set.of(vim.getId(), both.getId()),
+                     published.getFirst().tasks().stream().map(Task::getId).collect(Collectors.toSet()));
+        assertEquals(List.of("/opt/vim"), repository.findById(vim.getId()).orElseThrow().getHyperlinks());
+        assertEquals(List.of("/opt/vim", "https://example.com"), repository.findById(both.getId()).orElseThrow().getHyperlinks());
+        assertSame(vi, repository.findById(vi.getId()).orElseThrow());
+    }
+
+    private void assertChecks(ITaskRepository repository) throws InterruptedException {
+        List<Task> tasks = random.tasks(TASKS);
+        repository.saveAll(tasks);
+        LocalDateTime now = random.time();
+        TaskService service = new TaskService(repository, Clock.fixed(now.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+
+        Set<UUID> overdue = ConcurrentHashMap.newKeySet();
+        subscriptions.add(DataManager.getInstance().subscribe(event -> {
+            if (event instanceof DataEvent.TaskOverdue(Task task)) overdue.add(task.getId());
+        }));
+        Set<UUID> expectedOverdue = tasks.stream()
+                                         .filter(t -> !t.isCompleted() && t.hasDeadline() && t.getDeadlineOrNull().isBefore(now))
+                                         .map(Task::getId)
+                                         .collect(Collectors.toSet());
+        service.onDataUpdate(new DataEvent.CheckDeadlines());
+        for (int i = 0; i < 500 && overdue.size() < expectedOverdue.size(); i++) Thread.sleep(10);
+        assertEquals(expectedOverdue, overdue);
+
+        Set<UUID> due = tasks.stream()
+                             .filter(t -> {
+                                 RecurrenceRule rule = t.getRecurrenceRuleOrNull();
+                                 return t.isCompleted() && rule != null && rule.shouldRepeat(now);
+                             })
+                             .map(Task::getId)
+                             .collect(Collectors.toSet());
+        assertFalse(due.isEmpty());
+        service.onDataUpdate(new DataEvent.CheckRecurrence());
+        for (Task task : tasks) {
+            boolean completed = task.isCompleted() && !due.contains(task.getId());
+            assertEquals(completed, repository.findById(task.getId()).orElseThrow().isCompleted());
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package pl.magzik.dotoi.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import pl.magzik.dotoi.Benchmarks;
+import pl.magzik.dotoi.base.SimulatedClock;
+import pl.magzik.dotoi.manager.data.DataEvent;
+import pl.magzik.dotoi.manager.data.DataManager;
+import pl.magzik.dotoi.manager.data.EventQueueStats;
+import pl.magzik.dotoi.manager.data.Subscription;
+import pl.magzik.dotoi.model.RandomTasks;
+import pl.magzik.dotoi.model.RecurrenceRule;
+import pl.magzik.dotoi.model.Task;
+import pl.magzik.dotoi.repository.TaskRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A hundred thousand tasks coming due in the same tick of the {@link SimulatedSchedulerDriver}.
+ * <p>
+ * The deadline herd publishes an overdue notification per task, far more than the event queue holds,
+ * to a subscriber which can't keep up. Meanwhile, the user keeps completing and deleting other tasks.
+ * Overdue notifications may be dropped, but every one of them must be either delivered or counted as dropped,
+ * and no request of the user may be lost. The recurrence herd must uncomplete all tasks in a single bulk event.
+ * The latency of the tick and the time until the queue is drained are printed.
+ * </p>
+ */
+class ThunderingHerdBenchmark {
+
+    private static final int HERD = 100_000, REQUESTS = 1_000;
+
+    private static final LocalDateTime DUE = RandomTasks.EPOCH;
+
+    private static final Duration TIMEOUT = Duration.ofMinutes(1);
+
+    private final SimulatedClock clock = new SimulatedClock(DUE.toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+
+    private final TaskRepository repository = new TaskRepository(null, 8);
+
+    private final List<Subscription> subscriptions = new ArrayList<>();
+
+    @AfterEach
+    void unsubscribe() {
+        subscriptions.forEach(Subscription::close);
+    }
+
+    @Test
+    @Tag(Benchmarks.TAG)
+    void deadlineHerdLosesNoUserRequest() throws InterruptedException {
+        List<Task> herd = tasks(HERD, builder -> builder.deadline(DUE));
+        List<Task> requested = tasks(2 * REQUESTS, builder -> {});
+        repository.saveAll(herd);
+        repository.saveAll(requested);
+
+        DataManager manager = DataManager.getInstance();
+        subscriptions.add(manager.subscribe(new TaskService(repository, clock)));
+        AtomicInteger overdue = new AtomicInteger(), completed = new AtomicInteger();
+        subscriptions.add(manager.subscribe(event -> {
+            switch (event) {
+                case DataEvent.TaskOverdue ignored -> {
+                    overdue.incrementAndGet();
+                    spin(5_000); ///< A notification takes a while to show.
+                }
+                case DataEvent.TaskCompleted ignored -> completed.incrementAndGet();
+                default -> {}
+            }
+        }));
+        EventQueueStats before = manager.getQueueStats();
+
+        Thread user = Thread.ofPlatform().start(() -> {
+            for (int i = 0; i < REQUESTS; i++) {
+                manager.notifySubscribersAsync(new DataEvent.RequestCompletion(requested.get(i).getId(), true));
+                manager.notifySubscribersAsync(new DataEvent.TaskDeleted(requested.get(REQUESTS + i).getId()));
+            }
+        });
+        long start = System.nanoTime();
+        SimulatedSchedulerDriver.Report report = new SimulatedSchedulerDriver(clock).run(TaskSchedulerService.CHECK_PERIOD);
+        user.join();
+        IntSupplier dropped = () -> (int) (manager.getQueueStats().dropped() - before.dropped());
+        awaitUntil(() -> overdue.get() + dropped.getAsInt() == HERD && completed.get() == REQUESTS
+                         && manager.getQueueStats().depth() == 0);
+        long drained = System.nanoTime() - start;
+
+        EventQueueStats after = manager.getQueueStats();
+        System.out.printf("Deadline herd of %d tasks: tick %d ms, drained in %d ms, %d delivered, %d dropped. %s%n",
+                          HERD, report.maxTickNanos() / 1_000_000, drained / 1_000_000,
+                          overdue.get(), dropped.getAsInt(), after);
+
+        assertEquals(HERD, overdue.get() + dropped.getAsInt(), "Every overdue notification is delivered or dropped.");
+        for (int i = 0; i < REQUESTS; i++) {
+            assertTrue(repository.findById(requested.get(i).getId()).orElseThrow().isCompleted());
+            assertTrue(repository.findById(requested.get(REQUESTS + i).getId()).isEmpty());
+        }
+        assertEquals(HERD + REQUESTS, repository.findAll().size());
+    }
+
+    @Test
+    @Tag(Benchmarks.TAG)
+    void recurrenceHerdIsUncompletedAtOnce() throws InterruptedException {
+        RecurrenceRule daily = new RecurrenceRule.Builder(RecurrenceRule.RecurrenceType.DAILY).interval(1).build();
+        repository.saveAll(tasks(HERD, builder -> builder.recurrenceRule(daily).completed(true)));
+
+        DataManager manager = DataManager.getInstance();
+        subscriptions.add(manager.subscribe(new TaskService(repository, clock)));
+        AtomicInteger events = new AtomicInteger(), uncompleted = new AtomicInteger();
+        subscriptions.add(manager.subscribe(event -> {
+            if (event instanceof DataEvent.TasksUncompleted(List<Task> tasks)) {
+                events.incrementAndGet();
+                uncompleted.addAndGet(tasks.size());
+            }
+        }));
+
+        long start = System.nanoTime();
+        SimulatedSchedulerDriver.Report report = new SimulatedSchedulerDriver(clock).run(TaskSchedulerService.CHECK_PERIOD);
+        awaitUntil(() -> uncompleted.get() == HERD);
+        long drained = System.nanoTime() - start;
+
+        System.out.printf("Recurrence herd of %d tasks: tick %d ms, delivered in %d ms.%n",
+                          HERD, report.maxTickNanos() / 1_000_000, drained / 1_000_000);
+        assertEquals(1, events.get());
+        assertTrue(repository.findAll().stream().noneMatch(Task::isCompleted));
+    }
+
+    private static List<Task> tasks(int count, Consumer<Task.Builder> customizer) {
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Task.Builder builder = new Task.Builder("Task " + i, "Herd", "", List.of(), DUE.minusDays(1))
+                .id(UUID.randomUUID());
+            customizer.accept(builder);
+            tasks.add(builder.build());
+        }
+        return tasks;
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) fail("Events were not dispatched within " + TIMEOUT.toSeconds() + " s.");
+            Thread.sleep(10);
+        }
+    }
+
+    private static void spin(long nanos) {
+        long end = System.nanoTime() + nanos;
+        while (System.nanoTime() < end) Thread.onSpinWait();
+    }
+}
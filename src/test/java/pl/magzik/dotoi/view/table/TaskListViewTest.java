@@ -0,0 +1,41 @@
+package pl.magzik.dotoi.view.table;
+
+import javafx.collections.ListChangeListener;
+import org.junit.jupiter.api.Test;
+import pl.magzik.dotoi.model.RandomTasks;
+import pl.magzik.dotoi.model.Task;
+import pl.magzik.dotoi.model.TaskSummary;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskListViewTest {
+
+    private final RandomTasks random = new RandomTasks(42L);
+
+    @Test
+    void replaceFiresSingleElementChangeAtPresentedPosition() {
+        List<Task> tasks = random.tasks(5);
+        TaskListView view = new TaskListView();
+        view.setAll(tasks.stream().map(TaskSummary::of).toArray(TaskSummary[]::new), new int[] {4, 2, 0});
+
+        List<String> changes = new ArrayList<>();
+        view.addListener((ListChangeListener<TaskSummary>) change -> {
+            while (change.next()) {
+                changes.add(change.getFrom() + ":" + change.getRemovedSize() + ":" + change.getAddedSize());
+            }
+        });
+
+        TaskSummary changed = TaskSummary.of(tasks.get(2).withCompleted(!tasks.get(2).isCompleted()));
+        assertTrue(view.replace(changed));
+        assertSame(changed, view.get(1));
+        assertEquals(3, view.size());
+        assertEquals(List.of("1:1:1"), changes);
+
+        assertFalse(view.replace(TaskSummary.of(tasks.get(1))), "Filtered out tasks are not presented.");
+        assertFalse(view.replace(TaskSummary.of(random.task())));
+        assertEquals(1, changes.size());
+    }
+}